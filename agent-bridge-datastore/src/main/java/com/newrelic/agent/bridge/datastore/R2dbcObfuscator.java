@@ -50,7 +50,7 @@ public class R2dbcObfuscator {
 
             @Override
             public String toObfuscatedQueryString(String statement) {
-                return obfuscateSql(statement, ALL_DIALECTS_PATTERN, ALL_UNMATCHED_PATTERN);
+                return obfuscateSql(statement, null, ALL_DIALECTS_PATTERN, ALL_UNMATCHED_PATTERN);
             }
         };
 
@@ -62,7 +62,7 @@ public class R2dbcObfuscator {
 
             @Override
             public String toObfuscatedQueryString(String statement) {
-                return obfuscateSql(statement, MYSQL_DIALECT_PATTERN, MYSQL_UNMATCHED_PATTERN);
+                return obfuscateSql(statement, "mysql", MYSQL_DIALECT_PATTERN, MYSQL_UNMATCHED_PATTERN);
             }
         };
 
@@ -74,11 +74,16 @@ public class R2dbcObfuscator {
 
             @Override
             public String toObfuscatedQueryString(String statement) {
-                return obfuscateSql(statement, POSTGRES_DIALECT_PATTERN, POSTGRES_UNMATCHED_PATTERN);
+                return obfuscateSql(statement, "postgres", POSTGRES_DIALECT_PATTERN, POSTGRES_UNMATCHED_PATTERN);
             }
         };
     }
 
+    private static String obfuscateSql(String sql, String dialectName, final Pattern dialect, final Pattern unmatched) {
+        return SqlFingerprintCache.getSharedCache().get(R2dbcObfuscator.class, dialectName, sql,
+                rawSql -> obfuscateSql(rawSql, dialect, unmatched));
+    }
+
     private static String obfuscateSql(String sql, Pattern dialect, Pattern unmatched) {
         if (sql == null || sql.length() == 0) {
             return sql;
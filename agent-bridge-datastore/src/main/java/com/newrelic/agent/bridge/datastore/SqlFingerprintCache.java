@@ -0,0 +1,315 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.bridge.datastore;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded, thread safe cache of values computed from sql statements, such as obfuscated sql and parsed statements,
+ * that is shared by the whole agent.
+ * <p>
+ * Entries are keyed by a fingerprint of the statement in which simple numeric and quoted string literals are replaced
+ * with {@code ?}, so statements that only differ in their inlined literals share one entry and each distinct query
+ * shape is only obfuscated or parsed once. Values computed for one statement are returned for every statement with the
+ * same fingerprint, so a value must not contain the literals of the statement it was computed from. Obfuscated sql and
+ * the operation and table parsed from a statement meet that requirement.
+ * <p>
+ * Each user of the cache passes a namespace object, and optionally a variant such as the sql dialect, that is part of
+ * the key so that values computed by different functions never collide.
+ * <p>
+ * The cache holds two generations of entries. New entries are added to the current generation and when it is full it
+ * replaces the previous generation, whose entries are evicted. Reading an entry from the previous generation moves it
+ * to the current one, so statements that keep being used are kept.
+ */
+public final class SqlFingerprintCache {
+
+    static final int DEFAULT_MAX_SIZE = 1000;
+
+    /**
+     * Statements longer than this are not cached so that a few very large statements can't hold on to a lot of memory.
+     */
+    static final int MAX_CACHED_SQL_LENGTH = 8192;
+
+    private static final SqlFingerprintCache SHARED_CACHE = new SqlFingerprintCache(DEFAULT_MAX_SIZE);
+
+    private final int generationSize;
+    private volatile Map<Key, Object> current = new ConcurrentHashMap<>();
+    private volatile Map<Key, Object> previous = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    SqlFingerprintCache(int maxSize) {
+        this.generationSize = Math.max(1, maxSize / 2);
+    }
+
+    /**
+     * @return the cache shared by the agent
+     */
+    public static SqlFingerprintCache getSharedCache() {
+        return SHARED_CACHE;
+    }
+
+    /**
+     * Returns the value cached for the fingerprint of the sql, or computes it with the loader and caches it. Null values
+     * are not cached.
+     *
+     * @param namespace identifies the function that computes the value
+     * @param variant an additional part of the key, such as the sql dialect, or null
+     * @param sql the statement
+     * @param loader computes the value from the statement when it is not cached
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object namespace, String variant, String sql, Function<String, T> loader) {
+        if (sql == null || sql.isEmpty() || sql.length() > MAX_CACHED_SQL_LENGTH) {
+            return loader.apply(sql);
+        }
+
+        Key key = new Key(namespace, variant, fingerprint(sql));
+        Object value = current.get(key);
+        if (value == null) {
+            Map<Key, Object> previousGeneration = previous;
+            value = previousGeneration.remove(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        if (value != null) {
+            hits.increment();
+            return (T) value;
+        }
+
+        misses.increment();
+        T loaded = loader.apply(sql);
+        if (loaded != null) {
+            put(key, loaded);
+        }
+        return loaded;
+    }
+
+    private void put(Key key, Object value) {
+        Map<Key, Object> currentGeneration = current;
+        currentGeneration.put(key, value);
+        if (currentGeneration.size() >= generationSize) {
+            rotate(currentGeneration);
+        }
+    }
+
+    private synchronized void rotate(Map<Key, Object> fullGeneration) {
+        if (current != fullGeneration) {
+            // another thread already rotated
+            return;
+        }
+        evictions.add(previous.size());
+        previous = fullGeneration;
+        current = new ConcurrentHashMap<>();
+    }
+
+    public long getAndResetHits() {
+        return hits.sumThenReset();
+    }
+
+    public long getAndResetMisses() {
+        return misses.sumThenReset();
+    }
+
+    public long getAndResetEvictions() {
+        return evictions.sumThenReset();
+    }
+
+    public int size() {
+        return current.size() + previous.size();
+    }
+
+    public synchronized void clear() {
+        current = new ConcurrentHashMap<>();
+        previous = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Replaces numbers and single quoted strings that are clearly literals with {@code ?} in one pass over the sql.
+     * Comments, quoted identifiers and dollar quoted strings are skipped and kept as they are, so a quote or a number
+     * inside them is never mistaken for a literal. If a string contains an escape or a line break, or a string, comment
+     * or quoted identifier isn't closed, the statement can't be split into literals reliably and is returned as it is,
+     * so it is only cached with statements that are exactly the same.
+     */
+    static String fingerprint(String sql) {
+        StringBuilder fingerprint = null;
+        int length = sql.length();
+        int copiedTo = 0;
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            int literalEnd = -1;
+            int skipEnd;
+            if (c == '\'') {
+                if (i > 0 && (sql.charAt(i - 1) == 'q' || sql.charAt(i - 1) == 'Q')) {
+                    // an oracle q'[...]' string can contain quotes
+                    return sql;
+                }
+                literalEnd = endOfString(sql, i);
+                if (literalEnd < 0) {
+                    return sql;
+                }
+            } else if (c >= '0' && c <= '9' && (i == 0 || !isWordChar(sql.charAt(i - 1)))) {
+                literalEnd = endOfNumber(sql, i);
+            } else if ((skipEnd = endOfSkipped(sql, i)) != i) {
+                if (skipEnd < 0) {
+                    return sql;
+                }
+                i = skipEnd;
+                continue;
+            }
+            if (literalEnd < 0) {
+                i++;
+                continue;
+            }
+            if (fingerprint == null) {
+                fingerprint = new StringBuilder(length);
+            }
+            fingerprint.append(sql, copiedTo, i).append('?');
+            copiedTo = literalEnd;
+            i = literalEnd;
+        }
+        if (fingerprint == null) {
+            return sql;
+        }
+        return fingerprint.append(sql, copiedTo, length).toString();
+    }
+
+    /**
+     * @return the index after the closing quote of the string starting at start, or -1 if it isn't a simple string
+     */
+    private static int endOfString(String sql, int start) {
+        for (int i = start + 1; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                // a doubled quote is an escaped quote
+                return i + 1 < sql.length() && sql.charAt(i + 1) == '\'' ? -1 : i + 1;
+            }
+            if (c == '\\' || c == '\n' || c == '\r') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the end of a span that is kept as it is: a quoted identifier, a dollar quoted string or a comment.
+     *
+     * @return the index after the span starting at start, start if no such span starts there, or -1 if it isn't closed
+     */
+    private static int endOfSkipped(String sql, int start) {
+        char c = sql.charAt(start);
+        if (c == '"' || c == '`') {
+            int end = sql.indexOf(c, start + 1);
+            // mysql also quotes strings with double quotes, which can contain escaped quotes
+            if (end < 0 || sql.lastIndexOf('\\', end) > start) {
+                return -1;
+            }
+            return end + 1;
+        }
+        if (c == '/' && sql.startsWith("/*", start)) {
+            int end = sql.indexOf("*/", start + 2);
+            // some databases nest comments, which can't be matched reliably
+            if (end < 0 || sql.lastIndexOf("/*", end) != start) {
+                return -1;
+            }
+            return end + 2;
+        }
+        if (c == '#' || (c == '-' && sql.startsWith("--", start))) {
+            // a line comment ends at the end of the line or the statement
+            for (int i = start + 1; i < sql.length(); i++) {
+                if (sql.charAt(i) == '\n' || sql.charAt(i) == '\r') {
+                    return i;
+                }
+            }
+            return sql.length();
+        }
+        if (c == '$' && (start == 0 || !isWordChar(sql.charAt(start - 1)))) {
+            int tagEnd = endOfDollarQuoteTag(sql, start);
+            if (tagEnd < 0) {
+                return start;
+            }
+            int end = sql.indexOf(sql.substring(start, tagEnd), tagEnd);
+            return end < 0 ? -1 : end + tagEnd - start;
+        }
+        return start;
+    }
+
+    /**
+     * @return the index after a {@code $tag$} or {@code $$} starting at start, or -1 if it isn't one. A parameter such
+     * as {@code $1} isn't a tag.
+     */
+    private static int endOfDollarQuoteTag(String sql, int start) {
+        for (int i = start + 1; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '$') {
+                return i + 1;
+            }
+            boolean validTagChar = Character.isLetter(c) || c == '_' || (i > start + 1 && c >= '0' && c <= '9');
+            if (!validTagChar) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index after the run of digits starting at start, or -1 if the digits are part of a word
+     */
+    private static int endOfNumber(String sql, int start) {
+        int i = start + 1;
+        while (i < sql.length() && sql.charAt(i) >= '0' && sql.charAt(i) <= '9') {
+            i++;
+        }
+        return i < sql.length() && isWordChar(sql.charAt(i)) ? -1 : i;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.';
+    }
+
+    private static final class Key {
+        private final Object namespace;
+        private final String variant;
+        private final String fingerprint;
+        private final int hash;
+
+        Key(Object namespace, String variant, String fingerprint) {
+            this.namespace = namespace;
+            this.variant = variant;
+            this.fingerprint = fingerprint;
+            int result = namespace.hashCode();
+            result = 31 * result + (variant == null ? 0 : variant.hashCode());
+            this.hash = 31 * result + fingerprint.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hash == key.hash && namespace.equals(key.namespace) && fingerprint.equals(key.fingerprint)
+                    && (variant == null ? key.variant == null : variant.equals(key.variant));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
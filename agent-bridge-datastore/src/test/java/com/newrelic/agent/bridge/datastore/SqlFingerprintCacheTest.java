@@ -0,0 +1,153 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.bridge.datastore;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SqlFingerprintCacheTest {
+
+    @Test
+    public void fingerprintReplacesLiterals() {
+        assertEquals("select * from t1 where id = ? and name = ?",
+                SqlFingerprintCache.fingerprint("select * from t1 where id = 42 and name = 'dude'"));
+        assertEquals("insert into t (a, b) values (?, -?)", SqlFingerprintCache.fingerprint("insert into t (a, b) values ('', -7)"));
+        // kept when they are not clearly literals
+        assertEquals("select 1.5, 1e3, 0x1f, col_2 from t", SqlFingerprintCache.fingerprint("select 1.5, 1e3, 0x1f, col_2 from t"));
+        assertEquals("select 'it''s', 'a\\'b' from t", SqlFingerprintCache.fingerprint("select 'it''s', 'a\\'b' from t"));
+        assertEquals("select 'unterminated", SqlFingerprintCache.fingerprint("select 'unterminated"));
+
+        String sql = "select * from t where a = ?";
+        assertSame(sql, SqlFingerprintCache.fingerprint(sql));
+    }
+
+    @Test
+    public void fingerprintKeepsCommentsAndQuotedIdentifiers() {
+        assertEquals("/* don't cache */ SELECT * FROM users WHERE id = ?",
+                SqlFingerprintCache.fingerprint("/* don't cache */ SELECT * FROM users WHERE id = 'a'"));
+        assertEquals("SELECT \"it's\" FROM users WHERE a = ?", SqlFingerprintCache.fingerprint("SELECT \"it's\" FROM users WHERE a = 'x'"));
+        assertEquals("SELECT `it's`, \"2020 sales\" FROM t WHERE a = ?",
+                SqlFingerprintCache.fingerprint("SELECT `it's`, \"2020 sales\" FROM t WHERE a = 7"));
+        assertEquals("SELECT * FROM t -- don't 42\nWHERE a = ?", SqlFingerprintCache.fingerprint("SELECT * FROM t -- don't 42\nWHERE a = 1"));
+        assertEquals("SELECT * FROM t # don't 42\nWHERE a = ?", SqlFingerprintCache.fingerprint("SELECT * FROM t # don't 42\nWHERE a = 1"));
+        assertEquals("SELECT $tag$it's 1$tag$, $$2$$, $1 FROM t WHERE a = ?",
+                SqlFingerprintCache.fingerprint("SELECT $tag$it's 1$tag$, $$2$$, $1 FROM t WHERE a = 1"));
+
+        // returned as they are when a span isn't closed or can't be matched reliably
+        String[] unchanged = {
+                "/* don't cache SELECT * FROM users WHERE id = 'a'",
+                "/* a /* don't */ 'x' */ SELECT * FROM t WHERE id = 1",
+                "SELECT \"it's FROM users WHERE a = 'x'",
+                "SELECT \"a\\\" b\" FROM users WHERE a = 'x'",
+                "SELECT `it's FROM users WHERE a = 'x'",
+                "SELECT $tag$it's FROM users WHERE a = 'x'",
+                "SELECT q'[it's]' FROM users WHERE a = 'x'"
+        };
+        for (String sql : unchanged) {
+            assertSame(sql, SqlFingerprintCache.fingerprint(sql));
+        }
+    }
+
+    @Test
+    public void statementsThatDifferOutsideLiteralsDontShareAnEntry() {
+        assertDistinct("/* don't cache */ SELECT * FROM users WHERE id = 'a'", "/* don't cache */ DELETE FROM orders WHERE id = 'a'");
+        assertDistinct("SELECT \"it's\" FROM users WHERE a = 'x'", "SELECT \"it's\" FROM accounts WHERE a = 'x'");
+        assertDistinct("SELECT \"2020 sales\" FROM t WHERE a = 1", "SELECT \"2021 sales\" FROM t WHERE a = 1");
+        assertDistinct("SELECT * FROM \"table 1\"", "SELECT * FROM \"table 2\"");
+        assertDistinct("SELECT `it's` FROM users WHERE a = 'x'", "SELECT `it's` FROM accounts WHERE a = 'x'");
+        assertDistinct("SELECT * FROM t -- don't\nWHERE a = 'x'", "SELECT * FROM t -- don't\nDELETE FROM u WHERE a = 'x'");
+        assertDistinct("SELECT $$it's$$ FROM users WHERE a = 'x'", "SELECT $$it's$$ FROM accounts WHERE a = 'x'");
+    }
+
+    private static void assertDistinct(String sql, String otherSql) {
+        SqlFingerprintCache cache = new SqlFingerprintCache(100);
+        CountingLoader loader = new CountingLoader();
+        cache.get(SqlFingerprintCacheTest.class, null, sql, loader);
+        cache.get(SqlFingerprintCacheTest.class, null, otherSql, loader);
+        assertEquals(sql + " and " + otherSql + " share an entry", 2, loader.calls.get());
+    }
+
+    @Test
+    public void statementsThatOnlyDifferInLiteralsShareAnEntry() {
+        SqlFingerprintCache cache = new SqlFingerprintCache(100);
+        CountingLoader loader = new CountingLoader();
+
+        assertEquals("obfuscated", cache.get(this, null, "select * from t where id = 1", loader));
+        assertEquals("obfuscated", cache.get(this, null, "select * from t where id = 2", loader));
+        assertEquals("obfuscated", cache.get(this, null, "select * from t where id = 3", loader));
+        assertEquals(1, loader.calls.get());
+
+        // the namespace and the variant are part of the key
+        cache.get(this, "mysql", "select * from t where id = 1", loader);
+        cache.get(new Object(), null, "select * from t where id = 1", loader);
+        assertEquals(3, loader.calls.get());
+
+        assertEquals(2, cache.getAndResetHits());
+        assertEquals(3, cache.getAndResetMisses());
+        assertEquals(0, cache.getAndResetHits());
+    }
+
+    @Test
+    public void nullValuesAndLargeStatementsAreNotCached() {
+        SqlFingerprintCache cache = new SqlFingerprintCache(100);
+        CountingLoader loader = new CountingLoader();
+
+        assertNull(cache.get(this, null, "select 1", sql -> null));
+        assertNull(cache.get(this, null, null, sql -> sql));
+
+        StringBuilder largeSql = new StringBuilder("select * from t where name in ('a'");
+        while (largeSql.length() <= SqlFingerprintCache.MAX_CACHED_SQL_LENGTH) {
+            largeSql.append(", 'a'");
+        }
+        largeSql.append(')');
+        cache.get(this, null, largeSql.toString(), loader);
+        cache.get(this, null, largeSql.toString(), loader);
+        assertEquals(2, loader.calls.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void cacheIsBounded() {
+        SqlFingerprintCache cache = new SqlFingerprintCache(10);
+        CountingLoader loader = new CountingLoader();
+
+        for (int i = 0; i < 100; i++) {
+            cache.get(this, null, "select * from table" + i, loader);
+            assertTrue(cache.size() <= 10);
+        }
+        assertEquals(100, loader.calls.get());
+        assertEquals(100 - cache.size(), cache.getAndResetEvictions());
+
+        // statements that keep being used survive the generation that was current when they were added
+        cache.clear();
+        for (int i = 0; i < 100; i++) {
+            cache.get(this, null, "select * from hot", loader);
+            cache.get(this, null, "select * from table" + i, loader);
+        }
+        loader.calls.set(0);
+        cache.get(this, null, "select * from hot", loader);
+        assertEquals(0, loader.calls.get());
+    }
+
+    private static class CountingLoader implements Function<String, String> {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String apply(String sql) {
+            calls.incrementAndGet();
+            return "obfuscated";
+        }
+    }
+}
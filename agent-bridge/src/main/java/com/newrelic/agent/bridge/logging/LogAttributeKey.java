@@ -8,8 +8,14 @@
 package com.newrelic.agent.bridge.logging;
 
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class LogAttributeKey {
+    // MDC keys are usually a small, fixed set so the keys for them are shared instead of created for every log event
+    private static final int MAX_CONTEXT_KEYS = 1000;
+    private static final ConcurrentMap<String, LogAttributeKey> CONTEXT_KEYS = new ConcurrentHashMap<>();
+
     public final String key;
     public final LogAttributeType type;
 
@@ -18,6 +24,30 @@ public class LogAttributeKey {
         this.type = type;
     }
 
+    /**
+     * Returns a key for a context data (MDC) attribute. Keys are cached so that recording the same MDC entries on
+     * every log event does not create new keys. Once the cache is full new keys are no longer cached.
+     *
+     * @param key context data key
+     * @return LogAttributeKey of type {@link LogAttributeType#CONTEXT}
+     */
+    public static LogAttributeKey forContext(String key) {
+        if (key == null) {
+            return new LogAttributeKey(null, LogAttributeType.CONTEXT);
+        }
+        LogAttributeKey logAttributeKey = CONTEXT_KEYS.get(key);
+        if (logAttributeKey == null) {
+            logAttributeKey = new LogAttributeKey(key, LogAttributeType.CONTEXT);
+            if (CONTEXT_KEYS.size() < MAX_CONTEXT_KEYS) {
+                LogAttributeKey existing = CONTEXT_KEYS.putIfAbsent(key, logAttributeKey);
+                if (existing != null) {
+                    logAttributeKey = existing;
+                }
+            }
+        }
+        return logAttributeKey;
+    }
+
     public String getKey() {
         return key;
     }
@@ -0,0 +1,76 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.bridge.logging;
+
+/**
+ * The {@link AppLoggingUtils#ERROR_STACK} value of a log event. Formatting a stack trace is expensive, so the throwable
+ * is kept and only formatted the first time the stack is needed, which for forwarded log events is when they are sent
+ * rather than on the thread that logged them.
+ */
+public final class LogErrorStack {
+    public static final int MAX_STACK_SIZE = 300;
+
+    private final Throwable throwable;
+    private volatile String formatted;
+
+    public LogErrorStack(Throwable throwable) {
+        this.throwable = throwable;
+    }
+
+    public Throwable getThrowable() {
+        return throwable;
+    }
+
+    /**
+     * @return the formatted stack of the throwable and its causes, limited to {@link #MAX_STACK_SIZE} lines
+     */
+    @Override
+    public String toString() {
+        String result = formatted;
+        if (result == null) {
+            result = format(throwable);
+            formatted = result;
+        }
+        return result;
+    }
+
+    /**
+     * Formats the stack of a throwable and its causes, one frame per line, limited to {@link #MAX_STACK_SIZE} lines.
+     *
+     * @param throwable throwable to format
+     * @return the formatted stack, or null if throwable is null
+     */
+    public static String format(Throwable throwable) {
+        if (throwable == null) {
+            return null;
+        }
+
+        StringBuilder stack = new StringBuilder();
+        int lines = 0;
+        boolean inner = false;
+        Throwable t = throwable;
+        while (t != null && lines < MAX_STACK_SIZE) {
+            if (inner) {
+                newLine(stack, lines++).append(" caused by: ").append(t.getClass().getName()).append(": ").append(t.getMessage());
+            }
+            StackTraceElement[] stackTrace = t.getStackTrace();
+            if (stackTrace != null) {
+                for (int i = 0; i < stackTrace.length && lines < MAX_STACK_SIZE; i++) {
+                    newLine(stack, lines++).append("    at ").append(stackTrace[i]);
+                }
+            }
+            t = t.equals(t.getCause()) ? null : t.getCause();
+            inner = true;
+        }
+        return stack.toString();
+    }
+
+    private static StringBuilder newLine(StringBuilder stack, int lines) {
+        return lines == 0 ? stack : stack.append('\n');
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.bridge.logging;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The attributes of a log event captured by the logging instrumentation, in the form passed to
+ * {@link com.newrelic.api.agent.Logs#recordLogEvent(Map)}.
+ * <p>
+ * The standard attributes defined in {@link AppLoggingUtils} are stored in fixed slots and context data (MDC) entries
+ * in arrays using the shared keys from {@link LogAttributeKey#forContext(String)}, so capturing an event does not
+ * allocate map entries or keys. The error stack is kept as a {@link LogErrorStack} and formatted when it is needed.
+ * <p>
+ * Captures are reused by the thread that logs: {@link #acquire()} returns the thread's capture and {@link #release()}
+ * clears it once the event has been recorded. The log sender copies the attributes before
+ * {@link com.newrelic.api.agent.Logs#recordLogEvent(Map)} returns, so a capture must not be used after it is released.
+ * Null values are not stored, and the entries returned while iterating are only valid until the next entry is read.
+ * <p>
+ * Instrumentation should use {@link #acquireSampled()} so that events the agent would discard are not captured.
+ */
+public final class LogEventCapture extends AbstractMap<LogAttributeKey, Object> {
+
+    private static final LogAttributeKey[] STANDARD_KEYS = {
+            AppLoggingUtils.INSTRUMENTATION,
+            AppLoggingUtils.MESSAGE,
+            AppLoggingUtils.TIMESTAMP,
+            AppLoggingUtils.LEVEL,
+            AppLoggingUtils.ERROR_MESSAGE,
+            AppLoggingUtils.ERROR_CLASS,
+            AppLoggingUtils.ERROR_STACK,
+            AppLoggingUtils.THREAD_NAME,
+            AppLoggingUtils.THREAD_ID,
+            AppLoggingUtils.LOGGER_NAME,
+            AppLoggingUtils.LOGGER_FQCN
+    };
+    private static final int INITIAL_CONTEXT_CAPACITY = 8;
+    // captures that grew to hold a very large MDC are not kept
+    private static final int MAX_POOLED_CONTEXT_CAPACITY = 256;
+
+    private static final ThreadLocal<LogEventCapture> CAPTURES = new ThreadLocal<>();
+    private static volatile LogEventSampler sampler;
+
+    private final Object[] standardValues = new Object[STANDARD_KEYS.length];
+    private LogAttributeKey[] contextKeys = new LogAttributeKey[INITIAL_CONTEXT_CAPACITY];
+    private Object[] contextValues = new Object[INITIAL_CONTEXT_CAPACITY];
+    private int contextSize;
+    private float priority = LogEventSampler.UNASSIGNED;
+    private boolean inUse;
+    private final EntrySet entrySet = new EntrySet();
+
+    LogEventCapture() {
+    }
+
+    /**
+     * Returns an empty capture for the current thread. If the thread's capture is already in use, for example because
+     * recording a log event caused another one to be logged, a new capture is returned.
+     */
+    public static LogEventCapture acquire() {
+        LogEventCapture capture = CAPTURES.get();
+        if (capture == null) {
+            capture = new LogEventCapture();
+            CAPTURES.set(capture);
+        } else if (capture.inUse) {
+            return new LogEventCapture();
+        }
+        capture.inUse = true;
+        return capture;
+    }
+
+    /**
+     * Returns an empty capture for the current thread, or null if the log sampler rejected the event. The priority
+     * chosen by the sampler is available from {@link #getPriority()}.
+     */
+    public static LogEventCapture acquireSampled() {
+        LogEventSampler currentSampler = sampler;
+        float sampledPriority = currentSampler == null ? LogEventSampler.UNASSIGNED : currentSampler.sample();
+        if (sampledPriority < 0) {
+            return null;
+        }
+        LogEventCapture capture = acquire();
+        capture.priority = sampledPriority;
+        return capture;
+    }
+
+    /**
+     * Sets the sampler consulted by {@link #acquireSampled()}, or removes it if null.
+     */
+    public static void setSampler(LogEventSampler logEventSampler) {
+        sampler = logEventSampler;
+    }
+
+    /**
+     * @return the priority the event was sampled with, or {@link LogEventSampler#UNASSIGNED}
+     */
+    public float getPriority() {
+        return priority;
+    }
+
+    /**
+     * Clears this capture so the thread can reuse it for its next log event.
+     */
+    public void release() {
+        clear();
+        if (contextKeys.length > MAX_POOLED_CONTEXT_CAPACITY) {
+            contextKeys = new LogAttributeKey[INITIAL_CONTEXT_CAPACITY];
+            contextValues = new Object[INITIAL_CONTEXT_CAPACITY];
+        }
+        inUse = false;
+    }
+
+    /**
+     * Adds a context data (MDC) attribute. Unlike {@link #put(LogAttributeKey, Object)} this does not check whether
+     * the key was already added, so the keys must be distinct, as they are when they are copied from an MDC map.
+     */
+    public void putContext(String key, Object value) {
+        if (value != null) {
+            addContext(LogAttributeKey.forContext(key), value);
+        }
+    }
+
+    /**
+     * Sets the error attributes of the event from a throwable. The error stack is not formatted until it is needed.
+     */
+    public void putThrowable(Throwable throwable) {
+        if (throwable != null) {
+            setStandard(AppLoggingUtils.ERROR_STACK, new LogErrorStack(throwable));
+            setStandard(AppLoggingUtils.ERROR_MESSAGE, throwable.getMessage());
+            setStandard(AppLoggingUtils.ERROR_CLASS, throwable.getClass().getName());
+        }
+    }
+
+    @Override
+    public Object put(LogAttributeKey key, Object value) {
+        int slot = standardSlot(key);
+        if (slot >= 0) {
+            Object previous = standardValues[slot];
+            standardValues[slot] = value;
+            return previous;
+        }
+        int index = contextIndex(key);
+        if (index >= 0) {
+            Object previous = contextValues[index];
+            if (value == null) {
+                removeContext(index);
+            } else {
+                contextValues[index] = value;
+            }
+            return previous;
+        }
+        if (value != null) {
+            addContext(key, value);
+        }
+        return null;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int slot = standardSlot(key);
+        if (slot >= 0) {
+            return standardValues[slot];
+        }
+        int index = contextIndex(key);
+        return index >= 0 ? contextValues[index] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int slot = standardSlot(key);
+        if (slot >= 0) {
+            Object previous = standardValues[slot];
+            standardValues[slot] = null;
+            return previous;
+        }
+        int index = contextIndex(key);
+        if (index < 0) {
+            return null;
+        }
+        Object previous = contextValues[index];
+        removeContext(index);
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        int size = contextSize;
+        for (Object value : standardValues) {
+            if (value != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(standardValues, null);
+        Arrays.fill(contextKeys, 0, contextSize, null);
+        Arrays.fill(contextValues, 0, contextSize, null);
+        contextSize = 0;
+        priority = LogEventSampler.UNASSIGNED;
+    }
+
+    @Override
+    public Set<Entry<LogAttributeKey, Object>> entrySet() {
+        return entrySet;
+    }
+
+    private void setStandard(LogAttributeKey key, Object value) {
+        standardValues[standardSlot(key)] = value;
+    }
+
+    private static int standardSlot(Object key) {
+        for (int i = 0; i < STANDARD_KEYS.length; i++) {
+            if (STANDARD_KEYS[i] == key) {
+                return i;
+            }
+        }
+        if (!(key instanceof LogAttributeKey) || ((LogAttributeKey) key).type != LogAttributeType.AGENT) {
+            return -1;
+        }
+        for (int i = 0; i < STANDARD_KEYS.length; i++) {
+            if (STANDARD_KEYS[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int contextIndex(Object key) {
+        for (int i = 0; i < contextSize; i++) {
+            if (contextKeys[i] == key || contextKeys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void addContext(LogAttributeKey key, Object value) {
+        if (contextSize == contextKeys.length) {
+            contextKeys = Arrays.copyOf(contextKeys, contextSize * 2);
+            contextValues = Arrays.copyOf(contextValues, contextSize * 2);
+        }
+        contextKeys[contextSize] = key;
+        contextValues[contextSize] = value;
+        contextSize++;
+    }
+
+    private void removeContext(int index) {
+        int last = --contextSize;
+        contextKeys[index] = contextKeys[last];
+        contextValues[index] = contextValues[last];
+        contextKeys[last] = null;
+        contextValues[last] = null;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<LogAttributeKey, Object>> {
+        @Override
+        public Iterator<Entry<LogAttributeKey, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return LogEventCapture.this.size();
+        }
+    }
+
+    /**
+     * Iterates the standard attributes followed by the context data. The iterator is also the entry it returns so that
+     * iterating does not allocate an entry per attribute.
+     */
+    private final class EntryIterator implements Iterator<Entry<LogAttributeKey, Object>>, Entry<LogAttributeKey, Object> {
+        // positions below STANDARD_KEYS.length are standard slots, the rest are context data indexes
+        private int next = -1;
+        private int current = -1;
+
+        EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            next++;
+            while (next < STANDARD_KEYS.length && standardValues[next] == null) {
+                next++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < STANDARD_KEYS.length + contextSize;
+        }
+
+        @Override
+        public Entry<LogAttributeKey, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            advance();
+            return this;
+        }
+
+        @Override
+        public LogAttributeKey getKey() {
+            return current < STANDARD_KEYS.length ? STANDARD_KEYS[current] : contextKeys[current - STANDARD_KEYS.length];
+        }
+
+        @Override
+        public Object getValue() {
+            return current < STANDARD_KEYS.length ? standardValues[current] : contextValues[current - STANDARD_KEYS.length];
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            return Objects.equals(getKey(), entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
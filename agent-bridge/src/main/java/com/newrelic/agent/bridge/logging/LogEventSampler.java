@@ -0,0 +1,30 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.bridge.logging;
+
+/**
+ * Decides whether a log event is worth capturing before the logging instrumentation collects its attributes.
+ */
+public interface LogEventSampler {
+
+    /**
+     * Returned by {@link #sample()} when the event would be discarded by the log event reservoir.
+     */
+    float REJECTED = -1.0f;
+
+    /**
+     * Returned by {@link #sample()} when the event should be captured and its priority is chosen when it is recorded.
+     */
+    float UNASSIGNED = Float.NaN;
+
+    /**
+     * @return the priority to record the event with, {@link #UNASSIGNED}, or {@link #REJECTED}
+     */
+    float sample();
+
+}
@@ -0,0 +1,153 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.bridge.logging;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class LogEventCaptureTest {
+
+    @Test
+    public void behavesLikeAMap() {
+        LogEventCapture capture = LogEventCapture.acquire();
+        try {
+            capture.put(AppLoggingUtils.MESSAGE, "message");
+            capture.put(AppLoggingUtils.TIMESTAMP, 12L);
+            capture.put(AppLoggingUtils.LEVEL, null);
+            capture.putContext("user", "alice");
+            capture.putContext("ignored", null);
+            capture.put(new LogAttributeKey("custom", LogAttributeType.AGENT), true);
+
+            Map<LogAttributeKey, Object> expected = new HashMap<>();
+            expected.put(AppLoggingUtils.MESSAGE, "message");
+            expected.put(AppLoggingUtils.TIMESTAMP, 12L);
+            expected.put(new LogAttributeKey("user", LogAttributeType.CONTEXT), "alice");
+            expected.put(new LogAttributeKey("custom", LogAttributeType.AGENT), true);
+
+            Assert.assertEquals(4, capture.size());
+            Assert.assertEquals(expected, capture);
+            Assert.assertEquals(expected, new HashMap<>(capture));
+            Assert.assertEquals(expected.hashCode(), capture.hashCode());
+            Assert.assertEquals("message", capture.get(new LogAttributeKey("message", LogAttributeType.AGENT)));
+            Assert.assertEquals("alice", capture.get(new LogAttributeKey("user", LogAttributeType.CONTEXT)));
+            Assert.assertNull(capture.get(AppLoggingUtils.LEVEL));
+
+            Assert.assertEquals("alice", capture.remove(new LogAttributeKey("user", LogAttributeType.CONTEXT)));
+            Assert.assertEquals(3, capture.size());
+        } finally {
+            capture.release();
+        }
+    }
+
+    @Test
+    public void putThrowable() {
+        LogEventCapture capture = LogEventCapture.acquire();
+        try {
+            IllegalStateException exception = new IllegalStateException("bad state", new RuntimeException("cause"));
+            capture.putThrowable(exception);
+
+            Assert.assertEquals("bad state", capture.get(AppLoggingUtils.ERROR_MESSAGE));
+            Assert.assertEquals(IllegalStateException.class.getName(), capture.get(AppLoggingUtils.ERROR_CLASS));
+            LogErrorStack errorStack = (LogErrorStack) capture.get(AppLoggingUtils.ERROR_STACK);
+            Assert.assertSame(exception, errorStack.getThrowable());
+
+            String stack = errorStack.toString();
+            Assert.assertTrue(stack.startsWith("    at " + LogEventCaptureTest.class.getName()));
+            Assert.assertTrue(stack.contains("\n caused by: java.lang.RuntimeException: cause\n    at "));
+            Assert.assertSame(stack, errorStack.toString());
+
+            capture.putThrowable(null);
+            Assert.assertEquals(3, capture.size());
+        } finally {
+            capture.release();
+        }
+    }
+
+    @Test
+    public void errorStackIsLimited() {
+        Throwable throwable = new RuntimeException(new RuntimeException(new RuntimeException()));
+        StackTraceElement[] stackTrace = new StackTraceElement[LogErrorStack.MAX_STACK_SIZE + 10];
+        for (int i = 0; i < stackTrace.length; i++) {
+            stackTrace[i] = new StackTraceElement("Class", "method" + i, "Class.java", i);
+        }
+        throwable.setStackTrace(stackTrace);
+
+        String stack = LogErrorStack.format(throwable);
+        Assert.assertEquals(LogErrorStack.MAX_STACK_SIZE, stack.split("\n").length);
+        Assert.assertFalse(stack.contains("caused by"));
+        Assert.assertNull(LogErrorStack.format(null));
+    }
+
+    @Test
+    public void errorStackIncludesCauses() {
+        Assert.assertFalse(LogErrorStack.format(createNestedThrowable(1)).contains("caused by"));
+
+        String stack = LogErrorStack.format(createNestedThrowable(5));
+        Assert.assertTrue(stack.contains("caused by: java.lang.Throwable: Nested Exception (Level 1)"));
+        Assert.assertTrue(stack.contains("caused by: java.lang.Throwable: Nested Exception (Level 3)"));
+        Assert.assertTrue(stack.contains("caused by: java.lang.Throwable: Root Cause (Level 4)"));
+
+        // a deep chain of causes is cut off at the limit rather than formatted in full
+        Assert.assertEquals(LogErrorStack.MAX_STACK_SIZE, LogErrorStack.format(createNestedThrowable(35000)).split("\n").length);
+    }
+
+    @Test
+    public void captureIsReusedOnceReleased() {
+        LogEventCapture capture = LogEventCapture.acquire();
+        capture.putContext("user", "alice");
+
+        LogEventCapture nested = LogEventCapture.acquire();
+        Assert.assertNotSame(capture, nested);
+        Assert.assertTrue(nested.isEmpty());
+        nested.release();
+
+        capture.release();
+        Assert.assertTrue(capture.isEmpty());
+        LogEventCapture reused = LogEventCapture.acquire();
+        Assert.assertSame(capture, reused);
+        reused.release();
+    }
+
+    @Test
+    public void acquireSampled() {
+        try {
+            LogEventCapture capture = LogEventCapture.acquireSampled();
+            Assert.assertTrue(Float.isNaN(capture.getPriority()));
+            capture.release();
+
+            LogEventCapture.setSampler(() -> LogEventSampler.REJECTED);
+            Assert.assertNull(LogEventCapture.acquireSampled());
+
+            LogEventCapture.setSampler(() -> 0.5f);
+            capture = LogEventCapture.acquireSampled();
+            Assert.assertEquals(0.5f, capture.getPriority(), 0.0f);
+            capture.release();
+            Assert.assertTrue(Float.isNaN(capture.getPriority()));
+        } finally {
+            LogEventCapture.setSampler(null);
+        }
+    }
+
+    @Test
+    public void contextKeysAreShared() {
+        Assert.assertSame(LogAttributeKey.forContext("request.id"), LogAttributeKey.forContext("request.id"));
+        Assert.assertEquals(new LogAttributeKey("request.id", LogAttributeType.CONTEXT), LogAttributeKey.forContext("request.id"));
+    }
+
+    private static Throwable createNestedThrowable(int depth) {
+        Throwable currentThrowable = new Throwable("Root Cause (Level " + (depth - 1) + ")");
+        for (int i = depth - 2; i >= 0; i--) {
+            currentThrowable = new Throwable("Nested Exception (Level " + i + ")", currentThrowable);
+        }
+        return currentThrowable;
+    }
+
+}
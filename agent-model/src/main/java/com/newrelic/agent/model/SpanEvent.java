@@ -89,6 +89,14 @@ public class SpanEvent extends AnalyticsEvent implements JSONStreamAware {
         return agentAttributes;
     }
 
+    /**
+     * @return a read only view of the user attributes, for callers that only read them and don't need the copy
+     * returned by {@link #getUserAttributesCopy()}
+     */
+    public Map<String, ?> getUserAttributes() {
+        return Collections.unmodifiableMap(getMutableUserAttributes());
+    }
+
     public boolean shouldBeKeptForPartialGranularity() {
         // should be kept if it's either an LLM span, or it has entity synthesis attributes
         if (getName() != null && getName().toUpperCase().startsWith("LLM")) return true;
@@ -6,9 +6,12 @@ import com.newrelic.api.agent.MetricAggregator;
 import com.newrelic.trace.v1.IngestServiceGrpc;
 import com.newrelic.trace.v1.IngestServiceGrpc.IngestServiceStub;
 import com.newrelic.trace.v1.V1;
+import io.grpc.ClientCall;
 import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
 import io.grpc.okhttp.OkHttpChannelBuilder;
 import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientCalls;
 
 import javax.annotation.concurrent.GuardedBy;
 import java.util.HashMap;
@@ -19,6 +22,12 @@ import java.util.logging.Level;
 
 class ChannelManager {
 
+    // The span batch method, sending batches that SpanBatchEncoder has already written as SpanBatch messages
+    private static final MethodDescriptor<EncodedSpanBatch, V1.RecordStatus> RECORD_ENCODED_SPAN_BATCH_METHOD =
+            IngestServiceGrpc.getRecordSpanBatchMethod()
+                    .toBuilder(EncodedSpanBatch.MARSHALLER, IngestServiceGrpc.getRecordSpanBatchMethod().getResponseMarshaller())
+                    .build();
+
     private final Logger logger;
     private final InfiniteTracingConfig config;
     private final MetricAggregator aggregator;
@@ -95,7 +104,7 @@ class ChannelManager {
                 IngestServiceStub ingestServiceStub = buildStub(managedChannel);
                 ResponseObserver responseObserver = buildResponseObserver();
                 if (config.getUseBatching()) {
-                    observer = buildSpanBatchObserver((ClientCallStreamObserver<V1.SpanBatch>) ingestServiceStub.recordSpanBatch(responseObserver));
+                    observer = buildSpanBatchObserver(recordSpanBatch(ingestServiceStub, responseObserver));
                 } else {
                     observer = buildSpanObserver((ClientCallStreamObserver<V1.Span>) ingestServiceStub.recordSpan(responseObserver));
                 }
@@ -112,10 +121,21 @@ class ChannelManager {
     }
 
     @VisibleForTesting
-    Observer buildSpanBatchObserver(ClientCallStreamObserver<V1.SpanBatch> observer) {
+    Observer buildSpanBatchObserver(ClientCallStreamObserver<EncodedSpanBatch> observer) {
         return new SpanBatchObserver(observer);
     }
 
+    /**
+     * Start the span batch stream the same way as {@link IngestServiceStub#recordSpanBatch}, including the channel
+     * and call options of the stub, but with the batches sent as the bytes that {@link SpanBatchEncoder} wrote.
+     */
+    @VisibleForTesting
+    ClientCallStreamObserver<EncodedSpanBatch> recordSpanBatch(IngestServiceStub ingestServiceStub, ResponseObserver responseObserver) {
+        ClientCall<EncodedSpanBatch, V1.RecordStatus> call = ingestServiceStub.getChannel()
+                .newCall(RECORD_ENCODED_SPAN_BATCH_METHOD, ingestServiceStub.getCallOptions());
+        return (ClientCallStreamObserver<EncodedSpanBatch>) ClientCalls.asyncBidiStreamingCall(call, responseObserver);
+    }
+
     @VisibleForTesting
     IngestServiceStub buildStub(ManagedChannel managedChannel) {
         IngestServiceStub ingestServiceStub = IngestServiceGrpc.newStub(managedChannel);
@@ -0,0 +1,107 @@
+package com.newrelic;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import com.newrelic.trace.v1.V1;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * The wire bytes of a {@code SpanBatch} message, written by {@link SpanBatchEncoder}. gRPC sends the bytes as they
+ * are, so the batch is never built as a {@link com.newrelic.trace.v1.V1.SpanBatch}.
+ */
+public final class EncodedSpanBatch {
+
+    static final MethodDescriptor.Marshaller<EncodedSpanBatch> MARSHALLER = new MethodDescriptor.Marshaller<EncodedSpanBatch>() {
+        @Override
+        public InputStream stream(EncodedSpanBatch value) {
+            return new KnownLengthInputStream(value.bytes);
+        }
+
+        @Override
+        public EncodedSpanBatch parse(InputStream stream) {
+            try {
+                return fromBytes(readAll(stream));
+            } catch (IOException e) {
+                throw Status.INTERNAL.withDescription("Invalid span batch").withCause(e).asRuntimeException();
+            }
+        }
+    };
+
+    private final byte[] bytes;
+    private final int spanCount;
+
+    EncodedSpanBatch(byte[] bytes, int spanCount) {
+        this.bytes = bytes;
+        this.spanCount = spanCount;
+    }
+
+    /**
+     * Wraps the wire bytes of a {@code SpanBatch} message, counting its spans without parsing them.
+     */
+    static EncodedSpanBatch fromBytes(byte[] bytes) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(bytes);
+        int spanCount = 0;
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            if (WireFormat.getTagFieldNumber(tag) == V1.SpanBatch.SPANS_FIELD_NUMBER) {
+                spanCount++;
+            }
+            if (!input.skipField(tag)) {
+                break;
+            }
+        }
+        return new EncodedSpanBatch(bytes, spanCount);
+    }
+
+    private static byte[] readAll(InputStream stream) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(stream.available(), 32));
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+
+    byte[] getBytes() {
+        return bytes;
+    }
+
+    public int getSpanCount() {
+        return spanCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        EncodedSpanBatch that = (EncodedSpanBatch) o;
+        return spanCount == that.spanCount && Arrays.equals(bytes, that.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(bytes) + spanCount;
+    }
+
+    /**
+     * Lets gRPC size the message frame without reading the stream first.
+     */
+    private static final class KnownLengthInputStream extends ByteArrayInputStream implements KnownLength {
+        KnownLengthInputStream(byte[] bytes) {
+            super(bytes);
+        }
+    }
+}
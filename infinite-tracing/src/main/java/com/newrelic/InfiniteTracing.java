@@ -14,6 +14,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 
@@ -24,6 +25,9 @@ public class InfiniteTracing implements Consumer<SpanEvent> {
     private final MetricAggregator aggregator;
     private final ExecutorService executorService;
     private final BlockingQueue<SpanEvent> queue;
+    // Spans offered to the queue, and those that weren't accepted because it was full, recorded by the SpanEventSender
+    private final LongAdder seenSpans = new LongAdder();
+    private final LongAdder droppedSpans = new LongAdder();
 
     private final Object lock = new Object();
     @GuardedBy("lock") private Future<?> spanEventSenderFuture;
@@ -71,7 +75,7 @@ public class InfiniteTracing implements Consumer<SpanEvent> {
 
     @VisibleForTesting
     SpanEventSender buildSpanEventSender() {
-        return new SpanEventSender(config, queue, aggregator, channelManager);
+        return new SpanEventSender(config, queue, aggregator, channelManager, seenSpans, droppedSpans);
     }
 
     /**
@@ -100,8 +104,9 @@ public class InfiniteTracing implements Consumer<SpanEvent> {
      */
     @Override
     public void accept(SpanEvent spanEvent) {
-        aggregator.incrementCounter("Supportability/InfiniteTracing/Span/Seen");
+        seenSpans.increment();
         if (!queue.offer(spanEvent)) {
+            droppedSpans.increment();
             logger.log(Level.FINEST, "Span event not accepted. The queue was full.");
         }
     }
@@ -116,7 +121,19 @@ public class InfiniteTracing implements Consumer<SpanEvent> {
      */
     public static InfiniteTracing initialize(InfiniteTracingConfig config, MetricAggregator aggregator) {
         ExecutorService executorService = Executors.newSingleThreadExecutor(new DaemonThreadFactory("Infinite Tracing"));
-        return new InfiniteTracing(config, aggregator, executorService, new LinkedBlockingDeque<SpanEvent>(config.getMaxQueueSize()));
+        return new InfiniteTracing(config, aggregator, executorService, buildQueue(config));
+    }
+
+    /**
+     * The queue that application threads hand spans to the {@link SpanEventSender} thread through. The ring buffer
+     * doesn't lock or allocate when a span is offered, at the cost of allocating all of its slots up front.
+     */
+    @VisibleForTesting
+    static BlockingQueue<SpanEvent> buildQueue(InfiniteTracingConfig config) {
+        if (config.getUseRingBuffer()) {
+            return new MpscRingBuffer<>(config.getMaxQueueSize());
+        }
+        return new LinkedBlockingDeque<>(config.getMaxQueueSize());
     }
 
     static class DaemonThreadFactory implements ThreadFactory {
@@ -15,6 +15,7 @@ public class InfiniteTracingConfig {
     private final boolean usePlaintext;
     private final boolean useCompression;
     private final boolean useBatching;
+    private final boolean useRingBuffer;
 
     public InfiniteTracingConfig(Builder builder) {
         this.licenseKey = builder.licenseKey;
@@ -27,6 +28,7 @@ public class InfiniteTracingConfig {
         this.usePlaintext = builder.usePlaintext;
         this.useCompression = builder.useCompression;
         this.useBatching = builder.useBatching;
+        this.useRingBuffer = builder.useRingBuffer;
     }
 
     public static Builder builder() {
@@ -73,6 +75,10 @@ public class InfiniteTracingConfig {
         return useBatching;
     }
 
+    public boolean getUseRingBuffer() {
+        return useRingBuffer;
+    }
+
     public static class Builder {
         public int maxQueueSize;
         public Logger logger;
@@ -84,6 +90,7 @@ public class InfiniteTracingConfig {
         private boolean usePlaintext;
         private boolean useCompression;
         private boolean useBatching;
+        private boolean useRingBuffer;
 
         /**
          * The New Relic APM license key configured for the application.
@@ -178,6 +185,16 @@ public class InfiniteTracingConfig {
             return this;
         }
 
+        /**
+         * The optional boolean to queue spans in a lock free ring buffer instead of a linked blocking queue.
+         *
+         * @param useRingBuffer true to use a ring buffer, false otherwise
+         */
+        public Builder useRingBuffer(boolean useRingBuffer) {
+            this.useRingBuffer = useRingBuffer;
+            return this;
+        }
+
         public InfiniteTracingConfig build() {
             return new InfiniteTracingConfig(this);
         }
@@ -0,0 +1,246 @@
+package com.newrelic;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded queue backed by an array that any number of threads can offer to and a single thread takes from, without
+ * locks. The span events that application threads create are handed to the {@link SpanEventSender} thread through it.
+ * <p>
+ * A producer claims a slot by moving the producer index forward with a compare and set, and then stores its element
+ * in the slot. The consumer takes elements from the slots in order, waiting for a claimed slot to be filled, and only
+ * moves the consumer index forward once per drained batch. A full queue rejects the element rather than waiting, so an
+ * application thread never waits for the sender.
+ * <p>
+ * Unlike {@link java.util.concurrent.LinkedBlockingDeque}, offering an element doesn't allocate, and the slots are
+ * allocated up front. The blocking methods wait by parking, starting at a millisecond and doubling the wait up to
+ * 50 milliseconds while the queue stays empty or full, so an idle sender only wakes up a few times a second. A span
+ * can wait up to that long before the sender sees it, which is good enough for the sender, which waits for spans to
+ * batch up anyway.
+ * <p>
+ * Only {@link #poll()}, {@link #peek()}, the drain and the blocking take methods must be called from a single
+ * consumer thread at a time. The queue can't be iterated.
+ *
+ * @param <E> the element type
+ */
+class MpscRingBuffer<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    private static final long MIN_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> buffer;
+    // the number of slots that have been claimed by producers
+    private final AtomicLong producerIndex = new AtomicLong();
+    // the number of slots that have been freed by the consumer. Only the consumer thread writes it
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    MpscRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        int length = Integer.highestOneBit(capacity);
+        if (length < capacity) {
+            length <<= 1;
+        }
+        this.mask = length - 1;
+        this.buffer = new AtomicReferenceArray<>(length);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        long index;
+        do {
+            index = producerIndex.get();
+            if (index - consumerIndex.get() >= capacity) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+        buffer.lazySet(offset(index), e);
+        return true;
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long parkNanos = MIN_PARK_NANOS;
+        while (!offer(e)) {
+            if (!park(deadline, parkNanos)) {
+                return false;
+            }
+            parkNanos = backOff(parkNanos);
+        }
+        return true;
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        long parkNanos = MIN_PARK_NANOS;
+        while (!offer(e)) {
+            park(Long.MAX_VALUE, parkNanos);
+            parkNanos = backOff(parkNanos);
+        }
+    }
+
+    @Override
+    public E poll() {
+        long index = consumerIndex.get();
+        E e = take(index);
+        if (e != null) {
+            consumerIndex.lazySet(index + 1);
+        }
+        return e;
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long parkNanos = MIN_PARK_NANOS;
+        E e;
+        while ((e = poll()) == null) {
+            if (!park(deadline, parkNanos)) {
+                return null;
+            }
+            parkNanos = backOff(parkNanos);
+        }
+        return e;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        long parkNanos = MIN_PARK_NANOS;
+        E e;
+        while ((e = poll()) == null) {
+            park(Long.MAX_VALUE, parkNanos);
+            parkNanos = backOff(parkNanos);
+        }
+        return e;
+    }
+
+    @Override
+    public E peek() {
+        long index = consumerIndex.get();
+        int offset = offset(index);
+        E e = buffer.get(offset);
+        if (e == null && index != producerIndex.get()) {
+            e = awaitElement(offset);
+        }
+        return e;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        long start = consumerIndex.get();
+        int count = (int) Math.min(maxElements, producerIndex.get() - start);
+        int drained = 0;
+        try {
+            while (drained < count) {
+                c.add(take(start + drained));
+                drained++;
+            }
+        } finally {
+            // the slots are freed for the producers once for the whole batch
+            consumerIndex.lazySet(start + drained);
+        }
+        return drained;
+    }
+
+    @Override
+    public int size() {
+        long size = producerIndex.get() - consumerIndex.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return producerIndex.get() == consumerIndex.get();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[size=" + size() + ", capacity=" + capacity + "]";
+    }
+
+    /**
+     * Takes the element in the slot for the index, or returns null if no producer has claimed the slot yet. The
+     * consumer index is left for the caller to move forward.
+     */
+    private E take(long index) {
+        int offset = offset(index);
+        E e = buffer.get(offset);
+        if (e == null) {
+            if (index == producerIndex.get()) {
+                return null;
+            }
+            e = awaitElement(offset);
+        }
+        buffer.lazySet(offset, null);
+        return e;
+    }
+
+    /**
+     * Waits for the producer that claimed the slot to store its element, which it does right after claiming it.
+     */
+    private E awaitElement(int offset) {
+        E e;
+        while ((e = buffer.get(offset)) == null) {
+            Thread.yield();
+        }
+        return e;
+    }
+
+    private int offset(long index) {
+        return (int) index & mask;
+    }
+
+    /**
+     * Parks for the given time, or until the deadline if it is sooner.
+     *
+     * @return false if the deadline has passed
+     */
+    private static boolean park(long deadline, long parkNanos) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        long remaining = deadline == Long.MAX_VALUE ? parkNanos : deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return false;
+        }
+        LockSupport.parkNanos(Math.min(remaining, parkNanos));
+        return true;
+    }
+
+    private static long backOff(long parkNanos) {
+        return Math.min(parkNanos * 2, MAX_PARK_NANOS);
+    }
+
+}
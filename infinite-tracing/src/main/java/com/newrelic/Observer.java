@@ -15,9 +15,9 @@ public interface Observer {
     void onNext(V1.Span span);
 
     /**
-     * Sends a batch of spans to the observer.
+     * Sends a batch of spans, encoded by {@link SpanBatchEncoder}, to the observer.
      */
-    void onNext(V1.SpanBatch spanBatch);
+    void onNext(EncodedSpanBatch spanBatch);
 
     /**
      * Whether the observer is in a ready state to accept spans
@@ -0,0 +1,199 @@
+package com.newrelic;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.newrelic.agent.model.SpanEvent;
+import com.newrelic.trace.v1.V1;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.newrelic.SpanConverter.APP_NAME;
+import static com.newrelic.SpanConverter.entries;
+
+/**
+ * Writes span events as the bytes of a {@code SpanBatch} message, without building the {@link V1.Span} messages and
+ * attribute values that {@link SpanConverter#convert(Collection)} builds. The bytes are the same as that batch's, since
+ * the spans and their attributes are written in the same order that protobuf writes them.
+ * <p>
+ * The map entries of an attribute start with the attribute key, and most spans share their keys, so the encoded key of
+ * each attribute is cached.
+ * <p>
+ * This class is not thread-safe, it is used by the {@link SpanEventSender} thread.
+ */
+class SpanBatchEncoder {
+
+    private static final int MAP_ENTRY_KEY = 1;
+    private static final int MAP_ENTRY_VALUE = 2;
+    private static final int MAX_CACHED_KEYS = 1000;
+
+    private final Map<String, byte[]> encodedKeys = new HashMap<>();
+
+    /**
+     * Encode the batch of span events.
+     *
+     * @param spanEvents the span event batch
+     * @return the bytes of the equivalent gRPC span batch
+     */
+    EncodedSpanBatch encode(Collection<SpanEvent> spanEvents) {
+        int[] spanSizes = new int[spanEvents.size()];
+        int batchSize = 0;
+        int i = 0;
+        for (SpanEvent spanEvent : spanEvents) {
+            int spanSize = spanSize(spanEvent);
+            spanSizes[i++] = spanSize;
+            batchSize += lengthDelimitedSize(V1.SpanBatch.SPANS_FIELD_NUMBER, spanSize);
+        }
+
+        byte[] bytes = new byte[batchSize];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        try {
+            i = 0;
+            for (SpanEvent spanEvent : spanEvents) {
+                output.writeTag(V1.SpanBatch.SPANS_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                output.writeUInt32NoTag(spanSizes[i++]);
+                writeSpan(output, spanEvent);
+            }
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            // the array is sized for the batch, so this only happens if a span event changed while it was written
+            throw new IllegalStateException("Unable to encode span batch", e);
+        }
+        return new EncodedSpanBatch(bytes, spanEvents.size());
+    }
+
+    private int spanSize(SpanEvent spanEvent) {
+        int size = 0;
+        String traceId = spanEvent.getTraceId();
+        if (traceId != null && !traceId.isEmpty()) {
+            size += CodedOutputStream.computeStringSize(V1.Span.TRACE_ID_FIELD_NUMBER, traceId);
+        }
+
+        for (Map.Entry<String, Object> entry : entries(spanEvent.getIntrinsics())) {
+            if (!APP_NAME.equals(entry.getKey())) {
+                size += attributeSize(V1.Span.INTRINSICS_FIELD_NUMBER, entry.getKey(), entry.getValue());
+            }
+        }
+        size += attributeSize(V1.Span.INTRINSICS_FIELD_NUMBER, APP_NAME, spanEvent.getAppName());
+        for (Map.Entry<String, ?> entry : entries(spanEvent.getUserAttributes())) {
+            size += attributeSize(V1.Span.USER_ATTRIBUTES_FIELD_NUMBER, entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<String, Object> entry : entries(spanEvent.getAgentAttributes())) {
+            size += attributeSize(V1.Span.AGENT_ATTRIBUTES_FIELD_NUMBER, entry.getKey(), entry.getValue());
+        }
+        return size;
+    }
+
+    private void writeSpan(CodedOutputStream output, SpanEvent spanEvent) throws IOException {
+        String traceId = spanEvent.getTraceId();
+        if (traceId != null && !traceId.isEmpty()) {
+            output.writeString(V1.Span.TRACE_ID_FIELD_NUMBER, traceId);
+        }
+
+        for (Map.Entry<String, Object> entry : entries(spanEvent.getIntrinsics())) {
+            if (!APP_NAME.equals(entry.getKey())) {
+                writeAttribute(output, V1.Span.INTRINSICS_FIELD_NUMBER, entry.getKey(), entry.getValue());
+            }
+        }
+        writeAttribute(output, V1.Span.INTRINSICS_FIELD_NUMBER, APP_NAME, spanEvent.getAppName());
+        for (Map.Entry<String, ?> entry : entries(spanEvent.getUserAttributes())) {
+            writeAttribute(output, V1.Span.USER_ATTRIBUTES_FIELD_NUMBER, entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<String, Object> entry : entries(spanEvent.getAgentAttributes())) {
+            writeAttribute(output, V1.Span.AGENT_ATTRIBUTES_FIELD_NUMBER, entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * @return the size of the map entry for the attribute, or 0 if the value isn't a type that is sent
+     */
+    private int attributeSize(int mapFieldNumber, String key, Object value) {
+        int valueSize = valueSize(value);
+        if (valueSize < 0) {
+            return 0;
+        }
+        return lengthDelimitedSize(mapFieldNumber, entrySize(key, valueSize));
+    }
+
+    private void writeAttribute(CodedOutputStream output, int mapFieldNumber, String key, Object value) throws IOException {
+        int valueSize = valueSize(value);
+        if (valueSize < 0) {
+            return;
+        }
+        output.writeTag(mapFieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(entrySize(key, valueSize));
+
+        byte[] encodedKey = encodedKey(key);
+        if (encodedKey != null) {
+            output.writeRawBytes(encodedKey);
+        } else {
+            output.writeString(MAP_ENTRY_KEY, key);
+        }
+
+        output.writeTag(MAP_ENTRY_VALUE, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(valueSize);
+        if (value instanceof String) {
+            output.writeString(V1.AttributeValue.STRING_VALUE_FIELD_NUMBER, (String) value);
+        } else if (value instanceof Long || value instanceof Integer) {
+            output.writeInt64(V1.AttributeValue.INT_VALUE_FIELD_NUMBER, ((Number) value).longValue());
+        } else if (value instanceof Float || value instanceof Double) {
+            output.writeDouble(V1.AttributeValue.DOUBLE_VALUE_FIELD_NUMBER, ((Number) value).doubleValue());
+        } else {
+            output.writeBool(V1.AttributeValue.BOOL_VALUE_FIELD_NUMBER, (Boolean) value);
+        }
+    }
+
+    /**
+     * @return the size of the attribute value message, or -1 if the value isn't a type that is sent
+     */
+    private static int valueSize(Object value) {
+        if (value instanceof String) {
+            return CodedOutputStream.computeStringSize(V1.AttributeValue.STRING_VALUE_FIELD_NUMBER, (String) value);
+        } else if (value instanceof Long || value instanceof Integer) {
+            return CodedOutputStream.computeInt64Size(V1.AttributeValue.INT_VALUE_FIELD_NUMBER, ((Number) value).longValue());
+        } else if (value instanceof Float || value instanceof Double) {
+            return CodedOutputStream.computeDoubleSize(V1.AttributeValue.DOUBLE_VALUE_FIELD_NUMBER, ((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            return CodedOutputStream.computeBoolSize(V1.AttributeValue.BOOL_VALUE_FIELD_NUMBER, (Boolean) value);
+        }
+        return -1;
+    }
+
+    /**
+     * Protobuf writes both the key and the value of a map entry, even when they are empty.
+     */
+    private int entrySize(String key, int valueSize) {
+        byte[] encodedKey = encodedKey(key);
+        int keySize = encodedKey != null ? encodedKey.length : CodedOutputStream.computeStringSize(MAP_ENTRY_KEY, key);
+        return keySize + lengthDelimitedSize(MAP_ENTRY_VALUE, valueSize);
+    }
+
+    /**
+     * @return the key field of a map entry for the key, or null if too many keys have been cached
+     */
+    private byte[] encodedKey(String key) {
+        byte[] encodedKey = encodedKeys.get(key);
+        if (encodedKey == null && encodedKeys.size() < MAX_CACHED_KEYS) {
+            byte[] utf8 = key.getBytes(StandardCharsets.UTF_8);
+            encodedKey = new byte[CodedOutputStream.computeTagSize(MAP_ENTRY_KEY) + CodedOutputStream.computeUInt32SizeNoTag(utf8.length)
+                    + utf8.length];
+            CodedOutputStream output = CodedOutputStream.newInstance(encodedKey);
+            try {
+                output.writeByteArray(MAP_ENTRY_KEY, utf8);
+                output.checkNoSpaceLeft();
+            } catch (IOException e) {
+                return null;
+            }
+            encodedKeys.put(key, encodedKey);
+        }
+        return encodedKey;
+    }
+
+    private static int lengthDelimitedSize(int fieldNumber, int length) {
+        return CodedOutputStream.computeTagSize(fieldNumber) + CodedOutputStream.computeUInt32SizeNoTag(length) + length;
+    }
+
+}
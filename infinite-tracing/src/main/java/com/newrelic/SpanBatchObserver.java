@@ -7,9 +7,9 @@ import javax.annotation.Nullable;
 
 public class SpanBatchObserver implements Observer {
 
-    private final ClientCallStreamObserver<V1.SpanBatch> observer;
+    private final ClientCallStreamObserver<EncodedSpanBatch> observer;
 
-    public SpanBatchObserver(ClientCallStreamObserver<V1.SpanBatch> observer) {
+    public SpanBatchObserver(ClientCallStreamObserver<EncodedSpanBatch> observer) {
         this.observer = observer;
     }
 
@@ -20,7 +20,7 @@ public class SpanBatchObserver implements Observer {
     }
 
     @Override
-    public void onNext(V1.SpanBatch spanBatch) {
+    public void onNext(EncodedSpanBatch spanBatch) {
         observer.onNext(spanBatch);
     }
 
@@ -4,12 +4,13 @@ import com.newrelic.agent.model.SpanEvent;
 import com.newrelic.trace.v1.V1;
 
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 class SpanConverter {
 
+    static final String APP_NAME = "appName";
+
     private SpanConverter() {
     }
 
@@ -20,51 +21,61 @@ class SpanConverter {
      * @return the gRPC span
      */
     static V1.Span convert(SpanEvent spanEvent) {
-        Map<String, V1.AttributeValue> intrinsicAttributes = copyAttributes(spanEvent.getIntrinsics());
-        Map<String, V1.AttributeValue> userAttributes = copyAttributes(spanEvent.getUserAttributesCopy());
-        Map<String, V1.AttributeValue> agentAttributes = copyAttributes(spanEvent.getAgentAttributes());
-
-        intrinsicAttributes.put("appName", V1.AttributeValue.newBuilder().setStringValue(spanEvent.getAppName()).build());
+        V1.Span.Builder span = V1.Span.newBuilder().setTraceId(spanEvent.getTraceId());
 
-        return V1.Span.newBuilder()
-                .setTraceId(spanEvent.getTraceId())
-                .putAllIntrinsics(intrinsicAttributes)
-                .putAllAgentAttributes(agentAttributes)
-                .putAllUserAttributes(userAttributes)
-                .build();
+        // the attributes are added in the order of the span event maps, which SpanBatchEncoder relies on
+        for (Map.Entry<String, Object> entry : entries(spanEvent.getIntrinsics())) {
+            V1.AttributeValue value = toAttributeValue(entry.getValue());
+            if (value != null && !APP_NAME.equals(entry.getKey())) {
+                span.putIntrinsics(entry.getKey(), value);
+            }
+        }
+        span.putIntrinsics(APP_NAME, V1.AttributeValue.newBuilder().setStringValue(spanEvent.getAppName()).build());
+        for (Map.Entry<String, ?> entry : entries(spanEvent.getUserAttributes())) {
+            V1.AttributeValue value = toAttributeValue(entry.getValue());
+            if (value != null) {
+                span.putUserAttributes(entry.getKey(), value);
+            }
+        }
+        for (Map.Entry<String, Object> entry : entries(spanEvent.getAgentAttributes())) {
+            V1.AttributeValue value = toAttributeValue(entry.getValue());
+            if (value != null) {
+                span.putAgentAttributes(entry.getKey(), value);
+            }
+        }
+        return span.build();
     }
 
     /**
-     * Convert the batch of span events to the equivalent gRPC spans.
+     * Convert the batch of span events to the equivalent gRPC spans. Batches are sent encoded by
+     * {@link SpanBatchEncoder}, which writes the same bytes as this batch without building it.
      *
      * @param spanEvents the span event batch
      * @return the gRPC span batch
      */
     static V1.SpanBatch convert(Collection<SpanEvent> spanEvents) {
-        return V1.SpanBatch.newBuilder()
-                .addAllSpans(spanEvents.stream().map(SpanConverter::convert).collect(Collectors.toList()))
-                .build();
+        V1.SpanBatch.Builder spanBatch = V1.SpanBatch.newBuilder();
+        for (SpanEvent spanEvent : spanEvents) {
+            spanBatch.addSpans(convert(spanEvent));
+        }
+        return spanBatch.build();
     }
 
-    private static Map<String, V1.AttributeValue> copyAttributes(Map<String, Object> original) {
-        Map<String, V1.AttributeValue> copy = new HashMap<>();
-        if (original == null) {
-            return copy;
-        }
+    static <V> Iterable<Map.Entry<String, V>> entries(Map<String, V> attributes) {
+        return attributes == null ? Collections.<Map.Entry<String, V>>emptyList() : attributes.entrySet();
+    }
 
-        for (Map.Entry<String, Object> entry : original.entrySet()) {
-            Object value = entry.getValue();
-            if (value instanceof String) {
-                copy.put(entry.getKey(), V1.AttributeValue.newBuilder().setStringValue((String) value).build());
-            } else if (value instanceof Long || value instanceof Integer) {
-                copy.put(entry.getKey(), V1.AttributeValue.newBuilder().setIntValue(((Number) value).longValue()).build());
-            } else if (value instanceof Float || value instanceof Double) {
-                copy.put(entry.getKey(), V1.AttributeValue.newBuilder().setDoubleValue(((Number) value).doubleValue()).build());
-            } else if (value instanceof Boolean) {
-                copy.put(entry.getKey(), V1.AttributeValue.newBuilder().setBoolValue((Boolean) value).build());
-            }
+    private static V1.AttributeValue toAttributeValue(Object value) {
+        if (value instanceof String) {
+            return V1.AttributeValue.newBuilder().setStringValue((String) value).build();
+        } else if (value instanceof Long || value instanceof Integer) {
+            return V1.AttributeValue.newBuilder().setIntValue(((Number) value).longValue()).build();
+        } else if (value instanceof Float || value instanceof Double) {
+            return V1.AttributeValue.newBuilder().setDoubleValue(((Number) value).doubleValue()).build();
+        } else if (value instanceof Boolean) {
+            return V1.AttributeValue.newBuilder().setBoolValue((Boolean) value).build();
         }
-        return copy;
+        return null;
     }
 
 }
@@ -6,10 +6,11 @@ import com.newrelic.api.agent.Logger;
 import com.newrelic.api.agent.MetricAggregator;
 import com.newrelic.trace.v1.V1;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 
 class SpanEventSender implements Runnable {
@@ -19,19 +20,28 @@ class SpanEventSender implements Runnable {
     private final BlockingQueue<SpanEvent> queue;
     private final MetricAggregator aggregator;
     private final ChannelManager channelManager;
+    private final LongAdder seenSpans;
+    private final LongAdder droppedSpans;
+    private final SpanBatchEncoder spanBatchEncoder = new SpanBatchEncoder();
+    private long lastQueueMetricsNanos = System.nanoTime() - QUEUE_METRICS_INTERVAL_NANOS;
     // Destination for agent data
     private static final String INFINITE_TRACING = "InfiniteTracing";
     // Wait for up to 5 seconds for data when batching
     private static final long LINGER_MS = 5000;
     // Allow a maximum batch size of up to 100 items
     private static final int MAX_BATCH_SIZE = 100;
+    // Record the queue metrics at most once per second
+    private static final long QUEUE_METRICS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
 
-    SpanEventSender(InfiniteTracingConfig config, BlockingQueue<SpanEvent> queue, MetricAggregator aggregator, ChannelManager channelManager) {
+    SpanEventSender(InfiniteTracingConfig config, BlockingQueue<SpanEvent> queue, MetricAggregator aggregator, ChannelManager channelManager,
+            LongAdder seenSpans, LongAdder droppedSpans) {
         this.logger = config.getLogger();
         this.config = config;
         this.queue = queue;
         this.aggregator = aggregator;
         this.channelManager = channelManager;
+        this.seenSpans = seenSpans;
+        this.droppedSpans = droppedSpans;
     }
 
     /**
@@ -53,6 +63,9 @@ class SpanEventSender implements Runnable {
 
     @VisibleForTesting
     void pollAndWrite() {
+        // Recorded here rather than when spans are offered, so application threads only touch the queue
+        recordQueueMetrics();
+
         // Get stream observer
         Observer observer = channelManager.getObserver();
 
@@ -68,6 +81,28 @@ class SpanEventSender implements Runnable {
         }
     }
 
+    /**
+     * Record the depth of the queue, and the number of spans offered to it and dropped because it was full since the last
+     * time.
+     */
+    @VisibleForTesting
+    void recordQueueMetrics() {
+        long now = System.nanoTime();
+        if (now - lastQueueMetricsNanos < QUEUE_METRICS_INTERVAL_NANOS) {
+            return;
+        }
+        lastQueueMetricsNanos = now;
+        aggregator.recordMetric("Supportability/InfiniteTracing/Span/QueueDepth", queue.size());
+        long seen = seenSpans.sumThenReset();
+        if (seen > 0) {
+            aggregator.incrementCounter("Supportability/InfiniteTracing/Span/Seen", (int) Math.min(seen, Integer.MAX_VALUE));
+        }
+        long dropped = droppedSpans.sumThenReset();
+        if (dropped > 0) {
+            aggregator.incrementCounter("Supportability/InfiniteTracing/Span/Dropped", (int) Math.min(dropped, Integer.MAX_VALUE));
+        }
+    }
+
     @VisibleForTesting
     boolean awaitReadyObserver(Observer observer) {
         if (observer.isReady()) {
@@ -107,15 +142,15 @@ class SpanEventSender implements Runnable {
             return;
         }
 
-        // Convert and send the batch to the trace observer
-        V1.SpanBatch convertedSpanBatch = SpanConverter.convert(spanEvents);
-        writeToObserver(observer, convertedSpanBatch);
+        // Encode and send the batch to the trace observer
+        EncodedSpanBatch encodedSpanBatch = spanBatchEncoder.encode(spanEvents);
+        writeToObserver(observer, encodedSpanBatch);
     }
 
     @VisibleForTesting
     Collection<SpanEvent> drainSpanBatch() {
         // Drain up to the max batch size
-        Collection<SpanEvent> spanEvents = new LinkedList<>();
+        Collection<SpanEvent> spanEvents = new ArrayList<>(MAX_BATCH_SIZE);
         queue.drainTo(spanEvents, MAX_BATCH_SIZE);
         return spanEvents;
     }
@@ -155,13 +190,13 @@ class SpanEventSender implements Runnable {
     }
 
     @VisibleForTesting
-    void writeToObserver(Observer observer, V1.SpanBatch spanBatch) {
+    void writeToObserver(Observer observer, EncodedSpanBatch spanBatch) {
         try {
             observer.onNext(spanBatch);
         } catch (Throwable t) {
             logger.log(Level.SEVERE, t, "Unable to send span batch.");
             throw t;
         }
-        aggregator.incrementCounter("Supportability/InfiniteTracing/Span/Sent", spanBatch.getSpansCount());
+        aggregator.incrementCounter("Supportability/InfiniteTracing/Span/Sent", spanBatch.getSpanCount());
     }
 }
@@ -19,7 +19,7 @@ public class SpanObserver implements Observer {
     }
 
     @Override
-    public void onNext(V1.SpanBatch spanBatch) {
+    public void onNext(EncodedSpanBatch spanBatch) {
         // This should only be used by the SpanBatchObserver
         throw new UnsupportedOperationException();
     }
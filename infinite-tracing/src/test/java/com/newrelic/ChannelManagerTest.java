@@ -46,7 +46,7 @@ class ChannelManagerTest {
     @Mock
     private ClientCallStreamObserver<V1.Span> spanStreamObserver;
     @Mock
-    private ClientCallStreamObserver<V1.SpanBatch> spanBatchStreamObserver;
+    private ClientCallStreamObserver<EncodedSpanBatch> spanBatchStreamObserver;
     @Mock
     private Observer spanObserver;
     @Mock
@@ -67,7 +67,7 @@ class ChannelManagerTest {
         doReturn(stub).when(target).buildStub(managedChannel);
         doReturn(responseObserver).when(target).buildResponseObserver();
         doReturn(spanStreamObserver).when(stub).recordSpan(responseObserver);
-        doReturn(spanBatchStreamObserver).when(stub).recordSpanBatch(responseObserver);
+        doReturn(spanBatchStreamObserver).when(target).recordSpanBatch(stub, responseObserver);
         doReturn(spanObserver).when(target).buildSpanObserver(spanStreamObserver);
         doReturn(spanBatchObserver).when(target).buildSpanBatchObserver(spanBatchStreamObserver);
     }
@@ -185,7 +185,7 @@ class ChannelManagerTest {
 
     private void verifyExpectedRecordMethod(int times, boolean batchingEnabled) {
         if (batchingEnabled) {
-            verify(stub, times(times)).recordSpanBatch(responseObserver);
+            verify(target, times(times)).recordSpanBatch(stub, responseObserver);
         } else {
             verify(stub, times(times)).recordSpan(responseObserver);
         }
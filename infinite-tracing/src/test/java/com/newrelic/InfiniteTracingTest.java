@@ -11,6 +11,7 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingDeque;
@@ -23,6 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -80,15 +82,50 @@ class InfiniteTracingTest {
 
     @Test
     @Timeout(1)
-    void accept_IncrementsCounterAndOffersToQueue() {
+    void accept_CountsSeenSpanAndOffersToQueue() {
         SpanEvent spanEvent = SpanEvent.builder().build();
 
         target.accept(spanEvent);
 
-        verify(aggregator).incrementCounter("Supportability/InfiniteTracing/Span/Seen");
+        // the seen spans are recorded by the sender thread, not by the thread that offered the span
+        verify(aggregator, never()).incrementCounter(anyString());
         assertEquals(spanEvent, queue.poll());
     }
 
+    @Test
+    void accept_FullQueueCountsDroppedSpan() {
+        target = new InfiniteTracing(config, aggregator, executorService, queue);
+        target.accept(SpanEvent.builder().build());
+        target.accept(SpanEvent.builder().build());
+
+        target.buildSpanEventSender().recordQueueMetrics();
+
+        verify(aggregator).recordMetric("Supportability/InfiniteTracing/Span/QueueDepth", 1);
+        verify(aggregator).incrementCounter("Supportability/InfiniteTracing/Span/Seen", 2);
+        verify(aggregator).incrementCounter("Supportability/InfiniteTracing/Span/Dropped", 1);
+    }
+
+    @Test
+    void buildQueue_RingBufferWhenConfigured() {
+        when(config.getMaxQueueSize()).thenReturn(10);
+        when(config.getUseRingBuffer()).thenReturn(true);
+
+        BlockingQueue<SpanEvent> result = InfiniteTracing.buildQueue(config);
+
+        assertTrue(result instanceof MpscRingBuffer);
+        assertEquals(10, result.remainingCapacity());
+    }
+
+    @Test
+    void buildQueue_LinkedBlockingDequeByDefault() {
+        when(config.getMaxQueueSize()).thenReturn(10);
+
+        BlockingQueue<SpanEvent> result = InfiniteTracing.buildQueue(config);
+
+        assertTrue(result instanceof LinkedBlockingDeque);
+        assertEquals(10, result.remainingCapacity());
+    }
+
     @Test
     public void buildChannelManager_returnsChannelManager() {
         target = new InfiniteTracing(config, aggregator, executorService, queue);
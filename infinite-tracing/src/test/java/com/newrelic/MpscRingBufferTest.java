@@ -0,0 +1,184 @@
+package com.newrelic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MpscRingBufferTest {
+
+    @Test
+    void constructor_InvalidCapacityThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<String>(0));
+        assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<String>((1 << 30) + 1));
+    }
+
+    @Test
+    void offer_NullThrows() {
+        MpscRingBuffer<String> target = new MpscRingBuffer<>(2);
+
+        assertThrows(NullPointerException.class, () -> target.offer(null));
+    }
+
+    @Test
+    void offerAndPoll_FirstInFirstOut() {
+        MpscRingBuffer<String> target = new MpscRingBuffer<>(4);
+
+        assertTrue(target.isEmpty());
+        assertNull(target.poll());
+        assertTrue(target.offer("a"));
+        assertTrue(target.offer("b"));
+        assertEquals(2, target.size());
+        assertEquals("a", target.peek());
+        assertEquals("a", target.poll());
+        assertEquals("b", target.poll());
+        assertNull(target.poll());
+        assertTrue(target.isEmpty());
+    }
+
+    @Test
+    void offer_FullQueueRejectsAtCapacity() {
+        // the capacity isn't a power of two, so the queue is full before the slots are
+        MpscRingBuffer<Integer> target = new MpscRingBuffer<>(3);
+
+        assertTrue(target.offer(1));
+        assertTrue(target.offer(2));
+        assertTrue(target.offer(3));
+        assertFalse(target.offer(4));
+        assertEquals(3, target.size());
+        assertEquals(0, target.remainingCapacity());
+
+        assertEquals(1, (int) target.poll());
+        assertTrue(target.offer(4));
+        assertEquals(2, (int) target.poll());
+        assertEquals(3, (int) target.poll());
+        assertEquals(4, (int) target.poll());
+    }
+
+    @Test
+    void drainTo_DrainsUpToMaxElements() {
+        MpscRingBuffer<Integer> target = new MpscRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            target.offer(i);
+        }
+        List<Integer> drained = new ArrayList<>();
+
+        assertEquals(3, target.drainTo(drained, 3));
+        assertEquals(2, target.size());
+        assertEquals(2, target.drainTo(drained));
+        assertEquals(0, target.drainTo(drained));
+
+        assertEquals(5, drained.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, (int) drained.get(i));
+        }
+        assertTrue(target.isEmpty());
+    }
+
+    @Test
+    void drainTo_WrapsAroundTheSlots() {
+        MpscRingBuffer<Integer> target = new MpscRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(target.offer(i * 2));
+            assertTrue(target.offer(i * 2 + 1));
+            assertEquals(2, target.drainTo(drained, 4));
+        }
+
+        assertEquals(20, drained.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, (int) drained.get(i));
+        }
+    }
+
+    @Test
+    void poll_TimesOutWhenEmpty() throws InterruptedException {
+        MpscRingBuffer<String> target = new MpscRingBuffer<>(2);
+
+        assertNull(target.poll(5, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void offer_TimesOutWhenFull() throws InterruptedException {
+        MpscRingBuffer<String> target = new MpscRingBuffer<>(1);
+        target.offer("a");
+
+        assertFalse(target.offer("b", 5, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @Timeout(5)
+    void take_InterruptedThrowsException() {
+        MpscRingBuffer<String> target = new MpscRingBuffer<>(2);
+        Thread.currentThread().interrupt();
+
+        assertThrows(InterruptedException.class, target::take);
+    }
+
+    @Test
+    @Timeout(30)
+    void offer_ManyProducersNoSpansLostOrDuplicated() throws Exception {
+        int producers = 8;
+        int perProducer = 10_000;
+        MpscRingBuffer<Integer> target = new MpscRingBuffer<>(64);
+        ExecutorService executorService = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int p = 0; p < producers; p++) {
+                int first = p * perProducer;
+                executorService.submit(() -> {
+                    start.await();
+                    for (int i = first; i < first + perProducer; i++) {
+                        while (!target.offer(i)) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+
+            boolean[] seen = new boolean[producers * perProducer];
+            int[] lastSeen = new int[producers];
+            Arrays.fill(lastSeen, -1);
+            List<Integer> batch = new ArrayList<>();
+            int received = 0;
+            while (received < seen.length) {
+                batch.clear();
+                if (target.drainTo(batch, 100) == 0) {
+                    Integer element = target.poll(1, TimeUnit.MILLISECONDS);
+                    if (element == null) {
+                        continue;
+                    }
+                    batch.add(element);
+                }
+                for (int element : batch) {
+                    assertFalse(seen[element]);
+                    seen[element] = true;
+                    // each producer's elements are taken in the order it offered them
+                    int producer = element / perProducer;
+                    assertTrue(element > lastSeen[producer]);
+                    lastSeen[producer] = element;
+                    received++;
+                }
+            }
+            assertTrue(target.isEmpty());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.newrelic;
+
+import com.newrelic.agent.model.SpanEvent;
+import com.newrelic.trace.v1.V1;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.newrelic.SpanConverterTest.buildSpanEvent;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpanBatchEncoderTest {
+
+    private final SpanBatchEncoder target = new SpanBatchEncoder();
+
+    @Test
+    void encode_MatchesConvertedSpanBatch() throws Exception {
+        Collection<SpanEvent> spanEvents = IntStream.range(0, 10).mapToObj(i -> buildSpanEvent()).collect(Collectors.toList());
+
+        EncodedSpanBatch result = target.encode(spanEvents);
+
+        assertEncodedAsConverted(spanEvents, result);
+        assertEquals(10, result.getSpanCount());
+        V1.SpanBatch deserialized = V1.SpanBatch.parseFrom(result.getBytes());
+        assertEquals(SpanConverter.convert(spanEvents), deserialized);
+        assertEquals("my app", deserialized.getSpans(0).getIntrinsicsOrThrow("appName").getStringValue());
+    }
+
+    @Test
+    void encode_AllAttributeTypes() {
+        Map<String, Object> userAttributes = new HashMap<>();
+        userAttributes.put("user", "\u0437\u043d\u0430\u0447\u0435\u043d\u0438\u0435 \u2713 \uD83D\uDE00");
+        userAttributes.put("emptyString", "");
+        userAttributes.put("", "empty key");
+        userAttributes.put("long", Long.MIN_VALUE);
+        userAttributes.put("negativeInt", -1);
+        userAttributes.put("float", 1.5f);
+        userAttributes.put("nan", Double.NaN);
+        userAttributes.put("false", false);
+        userAttributes.put("unsupported", new Object());
+        StringBuilder longValue = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            longValue.append("0123456789");
+        }
+        userAttributes.put("longValue", longValue.toString());
+
+        SpanEvent spanEvent = SpanEvent.builder()
+                .appName("my app")
+                .putIntrinsic("traceId", "abc123")
+                .putIntrinsic("appName", "ignored")
+                .putIntrinsic("duration", 0.25f)
+                .putIntrinsic("nr.entryPoint", true)
+                .putAllUserAttributes(userAttributes)
+                .putAgentAttribute("http.statusCode", 200)
+                .putAgentAttribute("http.url", "https://example.com/path?query")
+                .build();
+
+        assertEncodedAsConverted(Arrays.asList(spanEvent, buildSpanEvent(), spanEvent), target.encode(Arrays.asList(spanEvent, buildSpanEvent(), spanEvent)));
+    }
+
+    @Test
+    void encode_EmptyTraceId() {
+        SpanEvent spanEvent = SpanEvent.builder().appName("my app").putIntrinsic("traceId", "").putIntrinsic("type", "Span").build();
+
+        assertEncodedAsConverted(Collections.singletonList(spanEvent), target.encode(Collections.singletonList(spanEvent)));
+    }
+
+    @Test
+    void encode_EmptyBatch() {
+        EncodedSpanBatch result = target.encode(Collections.<SpanEvent>emptyList());
+
+        assertEquals(0, result.getBytes().length);
+        assertEquals(0, result.getSpanCount());
+    }
+
+    @Test
+    void encode_MoreKeysThanAreCached() {
+        List<SpanEvent> spanEvents = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            SpanEvent.Builder builder = SpanEvent.builder().appName("my app").putIntrinsic("traceId", "trace" + i);
+            for (int j = 0; j < 100; j++) {
+                builder.putAgentAttribute("key" + i + "." + j, j);
+            }
+            spanEvents.add(builder.build());
+        }
+
+        // there are more keys than are cached, so some keys are written without the cache
+        assertEncodedAsConverted(spanEvents, target.encode(spanEvents));
+        assertEncodedAsConverted(spanEvents, target.encode(spanEvents));
+    }
+
+    @Test
+    void marshaller_RoundTrips() throws Exception {
+        Collection<SpanEvent> spanEvents = IntStream.range(0, 3).mapToObj(i -> buildSpanEvent()).collect(Collectors.toList());
+        EncodedSpanBatch encoded = target.encode(spanEvents);
+
+        EncodedSpanBatch parsed = EncodedSpanBatch.MARSHALLER.parse(EncodedSpanBatch.MARSHALLER.stream(encoded));
+
+        assertEquals(encoded, parsed);
+        assertEquals(3, parsed.getSpanCount());
+        assertEquals(SpanConverter.convert(spanEvents), V1.SpanBatch.parseFrom(parsed.getBytes()));
+    }
+
+    @Test
+    void marshaller_ParsesEmptyBatch() {
+        EncodedSpanBatch parsed = EncodedSpanBatch.MARSHALLER.parse(new ByteArrayInputStream(new byte[0]));
+
+        assertEquals(0, parsed.getSpanCount());
+        assertEquals(0, parsed.getBytes().length);
+    }
+
+    private static void assertEncodedAsConverted(Collection<SpanEvent> spanEvents, EncodedSpanBatch encoded) {
+        assertArrayEquals(SpanConverter.convert(spanEvents).toByteArray(), encoded.getBytes());
+    }
+
+}
@@ -17,7 +17,7 @@ import static org.mockito.Mockito.verify;
 class SpanBatchObserverTest {
 
     @Mock
-    private ClientCallStreamObserver<V1.SpanBatch> observer;
+    private ClientCallStreamObserver<EncodedSpanBatch> observer;
 
     private SpanBatchObserver target;
 
@@ -57,7 +57,7 @@ class SpanBatchObserverTest {
 
     @Test
     void onNext_spanBatchInvokesObserver() {
-        V1.SpanBatch spanBatch = V1.SpanBatch.newBuilder().build();
+        EncodedSpanBatch spanBatch = new EncodedSpanBatch(new byte[0], 0);
         target.onNext(spanBatch);
 
         verify(observer).onNext(spanBatch);
@@ -12,9 +12,11 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -24,6 +26,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -51,6 +54,8 @@ class SpanEventSenderTest {
     @Mock
     private Observer observer;
 
+    private LongAdder seenSpans;
+    private LongAdder droppedSpans;
     private SpanEventSender target;
 
     @BeforeEach
@@ -58,7 +63,9 @@ class SpanEventSenderTest {
         MockitoAnnotations.initMocks(this);
         when(config.getLogger()).thenReturn(logger);
         when(channelManager.getObserver()).thenReturn(observer);
-        target = spy(new SpanEventSender(config, queue, aggregator, channelManager));
+        seenSpans = new LongAdder();
+        droppedSpans = new LongAdder();
+        target = spy(new SpanEventSender(config, queue, aggregator, channelManager, seenSpans, droppedSpans));
     }
 
     @Test
@@ -81,7 +88,7 @@ class SpanEventSenderTest {
 
         verify(target, never()).pollSafely();
         verify(target, never()).writeToObserver(ArgumentMatchers.<Observer>any(), ArgumentMatchers.<V1.Span>any());
-        verify(target, never()).writeToObserver(ArgumentMatchers.<Observer>any(), ArgumentMatchers.<V1.SpanBatch>any());
+        verify(target, never()).writeToObserver(ArgumentMatchers.<Observer>any(), ArgumentMatchers.<EncodedSpanBatch>any());
     }
 
     @Test
@@ -92,7 +99,7 @@ class SpanEventSenderTest {
         target.pollAndWrite();
 
         verify(target, never()).writeToObserver(ArgumentMatchers.<Observer>any(), ArgumentMatchers.<V1.Span>any());
-        verify(target, never()).writeToObserver(ArgumentMatchers.<Observer>any(), ArgumentMatchers.<V1.SpanBatch>any());
+        verify(target, never()).writeToObserver(ArgumentMatchers.<Observer>any(), ArgumentMatchers.<EncodedSpanBatch>any());
     }
 
     @Test
@@ -104,7 +111,7 @@ class SpanEventSenderTest {
         target.pollAndWrite();
 
         verify(target, never()).writeToObserver(ArgumentMatchers.<Observer>any(), ArgumentMatchers.<V1.Span>any());
-        verify(target, never()).writeToObserver(ArgumentMatchers.<Observer>any(), ArgumentMatchers.<V1.SpanBatch>any());
+        verify(target, never()).writeToObserver(ArgumentMatchers.<Observer>any(), ArgumentMatchers.<EncodedSpanBatch>any());
     }
 
     @Test
@@ -127,7 +134,7 @@ class SpanEventSenderTest {
 
         target.pollAndWrite();
 
-        verify(target).writeToObserver(observer, SpanConverter.convert(spanEvents));
+        verify(target).writeToObserver(observer, new SpanBatchEncoder().encode(spanEvents));
     }
 
     @Test
@@ -193,12 +200,12 @@ class SpanEventSenderTest {
 
     @Test
     void writeToBatchObserver_RethrowsException() {
-        doThrow(new RuntimeException("Error!")).when(observer).onNext(ArgumentMatchers.<V1.SpanBatch>any());
+        doThrow(new RuntimeException("Error!")).when(observer).onNext(ArgumentMatchers.<EncodedSpanBatch>any());
 
         assertThrows(RuntimeException.class, new Executable() {
             @Override
             public void execute() {
-                target.writeToObserver(observer, V1.SpanBatch.newBuilder().build());
+                target.writeToObserver(observer, new EncodedSpanBatch(new byte[0], 0));
             }
         });
         verify(aggregator, never()).incrementCounter(anyString());
@@ -213,12 +220,36 @@ class SpanEventSenderTest {
 
     @Test
     void writeToBatchObserver_NoExceptionIncrementsCounterByBatchSize() {
-        target.writeToObserver(observer, V1.SpanBatch.newBuilder()
-                .addSpans(V1.Span.newBuilder().build())
-                .addSpans(V1.Span.newBuilder().build())
-                .addSpans(V1.Span.newBuilder().build())
-                .build());
+        target.writeToObserver(observer, new SpanBatchEncoder().encode(Arrays.asList(buildSpanEvent(), buildSpanEvent(), buildSpanEvent())));
 
         verify(aggregator).incrementCounter("Supportability/InfiniteTracing/Span/Sent", 3);
     }
+
+    @Test
+    void recordQueueMetrics_RecordsDepthSeenAndDroppedOncePerInterval() {
+        when(queue.size()).thenReturn(7);
+        seenSpans.add(10);
+        droppedSpans.add(3);
+
+        target.recordQueueMetrics();
+        seenSpans.increment();
+        droppedSpans.increment();
+        target.recordQueueMetrics();
+
+        verify(aggregator).recordMetric("Supportability/InfiniteTracing/Span/QueueDepth", 7);
+        verify(aggregator).incrementCounter("Supportability/InfiniteTracing/Span/Seen", 10);
+        verify(aggregator).incrementCounter("Supportability/InfiniteTracing/Span/Dropped", 3);
+        assertEquals(1, seenSpans.sum());
+        assertEquals(1, droppedSpans.sum());
+    }
+
+    @Test
+    void recordQueueMetrics_NoSpansDoesNotIncrementCounters() {
+        target.recordQueueMetrics();
+
+        verify(aggregator).recordMetric("Supportability/InfiniteTracing/Span/QueueDepth", 0);
+        verify(aggregator, never()).incrementCounter(eq("Supportability/InfiniteTracing/Span/Seen"), anyInt());
+        verify(aggregator, never()).incrementCounter(eq("Supportability/InfiniteTracing/Span/Dropped"), anyInt());
+    }
+
 }
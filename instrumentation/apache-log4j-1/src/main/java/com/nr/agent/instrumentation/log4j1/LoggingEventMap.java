@@ -8,54 +8,54 @@
 package com.nr.agent.instrumentation.log4j1;
 
 import com.newrelic.agent.bridge.logging.AppLoggingUtils;
-import com.newrelic.agent.bridge.logging.LogAttributeKey;
-import com.newrelic.agent.bridge.logging.LogAttributeType;
+import com.newrelic.agent.bridge.logging.LogEventCapture;
 import org.apache.log4j.Level;
 import org.apache.log4j.spi.LoggingEvent;
 import org.apache.log4j.spi.ThrowableInformation;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import static com.newrelic.agent.bridge.logging.AppLoggingUtils.INSTRUMENTATION;
 
 class LoggingEventMap {
-    static Map<LogAttributeKey, Object> from(LoggingEvent event, boolean appLoggingContextDataEnabled) {
-        Map<LogAttributeKey, Object> logEventMap = initialMapWithMdcIfEnabled(event, appLoggingContextDataEnabled);
-        logEventMap.put(INSTRUMENTATION, "apache-log4j-1");
-        addLoggerInfo(event, logEventMap);
-        addMessageAndTs(event, logEventMap);
-        addLevel(event, logEventMap);
-        addThreadInfo(event, logEventMap);
-        addErrorInfo(event, logEventMap);
-        return logEventMap;
-    }
-
-    private static Map<LogAttributeKey, Object> initialMapWithMdcIfEnabled(LoggingEvent event, boolean isAppLoggingContextDataEnabled) {
-        Map<LogAttributeKey, Object> loggingEventMap = null;
-        if (isAppLoggingContextDataEnabled) {
-            Map<?, ?> mdc = event.getProperties();
-            if (mdc != null && !mdc.isEmpty()) {
-                loggingEventMap = new HashMap<>(AppLoggingUtils.DEFAULT_NUM_OF_LOG_EVENT_ATTRIBUTES + mdc.size());
-                addMdc(mdc, loggingEventMap);
-            }
+    /**
+     * Captures the attributes of a log event. The returned capture must be released once it has been recorded.
+     *
+     * @return the captured attributes, or null if the event would not be kept
+     */
+    static LogEventCapture from(LoggingEvent event, boolean appLoggingContextDataEnabled) {
+        LogEventCapture logEventMap = LogEventCapture.acquireSampled();
+        if (logEventMap == null) {
+            return null;
         }
-        if (loggingEventMap == null) {
-            loggingEventMap = new HashMap<>(AppLoggingUtils.DEFAULT_NUM_OF_LOG_EVENT_ATTRIBUTES);
+        try {
+            if (appLoggingContextDataEnabled) {
+                Map<?, ?> mdc = event.getProperties();
+                if (mdc != null) {
+                    addMdc(mdc, logEventMap);
+                }
+            }
+            logEventMap.put(INSTRUMENTATION, "apache-log4j-1");
+            addLoggerInfo(event, logEventMap);
+            addMessageAndTs(event, logEventMap);
+            addLevel(event, logEventMap);
+            addThreadInfo(event, logEventMap);
+            addErrorInfo(event, logEventMap);
+            return logEventMap;
+        } catch (Throwable t) {
+            // the caller only releases the capture once it is returned, so the thread could never reuse it otherwise
+            logEventMap.release();
+            throw t;
         }
-        return loggingEventMap;
     }
 
-    private static void addMdc(Map<?, ?> mdc, Map<LogAttributeKey, Object> map) {
+    private static void addMdc(Map<?, ?> mdc, LogEventCapture map) {
         for (Map.Entry<?, ?> entry : mdc.entrySet()) {
-            Object key = entry.getKey();
-            Object value = entry.getValue();
-            LogAttributeKey logAttrKey = new LogAttributeKey(key.toString(), LogAttributeType.CONTEXT);
-            map.put(logAttrKey, value);
+            map.putContext(entry.getKey().toString(), entry.getValue());
         }
     }
 
-    private static void addMessageAndTs(LoggingEvent event, Map<LogAttributeKey, Object> map) {
+    private static void addMessageAndTs(LoggingEvent event, LogEventCapture map) {
         String message = event.getRenderedMessage();
         if (message != null && !message.isEmpty()) {
             map.put(AppLoggingUtils.MESSAGE, message);
@@ -63,30 +63,14 @@ class LoggingEventMap {
         map.put(AppLoggingUtils.TIMESTAMP, event.getTimeStamp());
     }
 
-    private static void addErrorInfo(LoggingEvent event, Map<LogAttributeKey, Object> map) {
-        Throwable throwable = null;
+    private static void addErrorInfo(LoggingEvent event, LogEventCapture map) {
         ThrowableInformation throwableInformation = event.getThrowableInformation();
         if (throwableInformation != null) {
-            throwable = throwableInformation.getThrowable();
-        }
-
-        String errorMessage = Log4j1ExceptionUtil.getErrorMessage(throwable);
-        if (errorMessage != null) {
-            map.put(AppLoggingUtils.ERROR_MESSAGE, errorMessage);
-        }
-
-        String errorStack = Log4j1ExceptionUtil.getErrorStack(throwable);
-        if (errorStack != null) {
-            map.put(AppLoggingUtils.ERROR_STACK, errorStack);
-        }
-
-        String errorClass = Log4j1ExceptionUtil.getErrorClass(throwable);
-        if (errorClass != null) {
-            map.put(AppLoggingUtils.ERROR_CLASS, errorClass);
+            map.putThrowable(throwableInformation.getThrowable());
         }
     }
 
-    private static void addLevel(LoggingEvent event, Map<LogAttributeKey, Object> map) {
+    private static void addLevel(LoggingEvent event, LogEventCapture map) {
         Level level = event.getLevel();
         if (level != null) {
             String levelName = level.toString();
@@ -98,7 +82,7 @@ class LoggingEventMap {
         }
     }
 
-    private static void addThreadInfo(LoggingEvent event, Map<LogAttributeKey, Object> map) {
+    private static void addThreadInfo(LoggingEvent event, LogEventCapture map) {
         String threadName = event.getThreadName();
         if (threadName != null) {
             map.put(AppLoggingUtils.THREAD_NAME, threadName);
@@ -106,7 +90,7 @@ class LoggingEventMap {
         map.put(AppLoggingUtils.THREAD_ID, Thread.currentThread().getId());
     }
 
-    private static void addLoggerInfo(LoggingEvent event, Map<LogAttributeKey, Object> map) {
+    private static void addLoggerInfo(LoggingEvent event, LogEventCapture map) {
         String loggerName = event.getLoggerName();
         if (loggerName != null) {
             map.put(AppLoggingUtils.LOGGER_NAME, loggerName);
@@ -10,6 +10,7 @@ package com.nr.agent.instrumentation.log4j1;
 import com.newrelic.agent.bridge.logging.AppLoggingUtils;
 import com.newrelic.agent.bridge.logging.LogAttributeKey;
 import com.newrelic.agent.bridge.logging.LogAttributeType;
+import com.newrelic.agent.bridge.logging.LogEventCapture;
 import com.newrelic.test.marker.Java25IncompatibleTest;
 import com.newrelic.test.marker.Java26IncompatibleTest;
 import org.apache.log4j.Category;
@@ -17,10 +18,12 @@ import org.apache.log4j.MDC;
 import org.apache.log4j.Priority;
 import org.apache.log4j.TestCategoryFactory;
 import org.apache.log4j.spi.LoggingEvent;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.stream.Stream;
 
@@ -28,6 +31,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 // Log4J1 has a quirk with Java 23(.0.0), maybe this will work when 23.0.1 is released
 @org.junit.experimental.categories.Category({ Java25IncompatibleTest.class, Java26IncompatibleTest.class })
@@ -125,4 +130,29 @@ public class LoggingEventMapTest {
             assertNull(loggingEventMap.get(new LogAttributeKey("some", LogAttributeType.CONTEXT)));
         }
     }
+
+    @Test
+    void testCaptureReleasedWhenAttributeFails() {
+        Category category = TestCategoryFactory.create("SomeClassLogger");
+        LoggingEvent event = new LoggingEvent("com.newrelic.SomeClass", category, Priority.ERROR, "Hello", null) {
+            @Override
+            public Map getProperties() {
+                return Collections.singletonMap(new Object() {
+                    @Override
+                    public String toString() {
+                        throw new IllegalStateException("SIMULATED");
+                    }
+                }, "value");
+            }
+        };
+
+        assertThrows(IllegalStateException.class, () -> LoggingEventMap.from(event, true));
+
+        // the thread's capture can be reused
+        LogEventCapture capture = LogEventCapture.acquire();
+        capture.release();
+        LogEventCapture nextCapture = LogEventCapture.acquire();
+        nextCapture.release();
+        assertSame(capture, nextCapture);
+    }
 }
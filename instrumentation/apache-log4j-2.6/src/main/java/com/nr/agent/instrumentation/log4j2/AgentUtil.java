@@ -9,19 +9,13 @@ package com.nr.agent.instrumentation.log4j2;
 
 import com.newrelic.agent.bridge.AgentBridge;
 import com.newrelic.agent.bridge.logging.AppLoggingUtils;
-import com.newrelic.agent.bridge.logging.LogAttributeKey;
-import com.newrelic.agent.bridge.logging.LogAttributeType;
+import com.newrelic.agent.bridge.logging.LogEventCapture;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.message.Message;
 
-import java.util.HashMap;
 import java.util.Map;
 
-import static com.newrelic.agent.bridge.logging.AppLoggingUtils.DEFAULT_NUM_OF_LOG_EVENT_ATTRIBUTES;
-import static com.newrelic.agent.bridge.logging.AppLoggingUtils.ERROR_CLASS;
-import static com.newrelic.agent.bridge.logging.AppLoggingUtils.ERROR_MESSAGE;
-import static com.newrelic.agent.bridge.logging.AppLoggingUtils.ERROR_STACK;
 import static com.newrelic.agent.bridge.logging.AppLoggingUtils.INSTRUMENTATION;
 import static com.newrelic.agent.bridge.logging.AppLoggingUtils.LEVEL;
 import static com.newrelic.agent.bridge.logging.AppLoggingUtils.LOGGER_FQCN;
@@ -44,69 +38,61 @@ public class AgentUtil {
             Throwable throwable = event.getThrown();
 
             if (shouldCreateLogEvent(message, throwable)) {
-                Map<String, String> contextData = event.getContextMap();
-                Map<LogAttributeKey, Object> logEventMap = new HashMap<>(calculateInitialMapSize(contextData));
-                logEventMap.put(INSTRUMENTATION, "apache-log4j-2.6");
-                if (message != null) {
-                    String formattedMessage = message.getFormattedMessage();
-                    if (formattedMessage != null && !formattedMessage.isEmpty()) {
-                        logEventMap.put(MESSAGE, formattedMessage);
-                    }
+                LogEventCapture logEventMap = LogEventCapture.acquireSampled();
+                if (logEventMap == null) {
+                    // the event would not be kept, so skip capturing it
+                    return;
                 }
-                logEventMap.put(TIMESTAMP, event.getTimeMillis());
-
-                if (AppLoggingUtils.isAppLoggingContextDataEnabled() && contextData != null) {
-                    for (Map.Entry<String, String> entry : contextData.entrySet()) {
-                        String key = entry.getKey();
-                        String value = entry.getValue();
-                        LogAttributeKey logAttrKey = new LogAttributeKey(key, LogAttributeType.CONTEXT);
-                        logEventMap.put(logAttrKey, value);
+                try {
+                    Map<String, String> contextData = event.getContextMap();
+                    logEventMap.put(INSTRUMENTATION, "apache-log4j-2.6");
+                    if (message != null) {
+                        String formattedMessage = message.getFormattedMessage();
+                        if (formattedMessage != null && !formattedMessage.isEmpty()) {
+                            logEventMap.put(MESSAGE, formattedMessage);
+                        }
                     }
-                }
+                    logEventMap.put(TIMESTAMP, event.getTimeMillis());
 
-                Level level = event.getLevel();
-                if (level != null) {
-                    String levelName = level.name();
-                    if (levelName.isEmpty()) {
-                        logEventMap.put(LEVEL, UNKNOWN);
-                    } else {
-                        logEventMap.put(LEVEL, levelName);
+                    if (AppLoggingUtils.isAppLoggingContextDataEnabled() && contextData != null) {
+                        for (Map.Entry<String, String> entry : contextData.entrySet()) {
+                            logEventMap.putContext(entry.getKey(), entry.getValue());
+                        }
                     }
-                }
 
-                String errorStack = ExceptionUtil.getErrorStack(throwable);
-                if (errorStack != null) {
-                    logEventMap.put(ERROR_STACK, errorStack);
-                }
+                    Level level = event.getLevel();
+                    if (level != null) {
+                        String levelName = level.name();
+                        if (levelName.isEmpty()) {
+                            logEventMap.put(LEVEL, UNKNOWN);
+                        } else {
+                            logEventMap.put(LEVEL, levelName);
+                        }
+                    }
 
-                String errorMessage = ExceptionUtil.getErrorMessage(throwable);
-                if (errorMessage != null) {
-                    logEventMap.put(ERROR_MESSAGE, errorMessage);
-                }
+                    logEventMap.putThrowable(throwable);
 
-                String errorClass = ExceptionUtil.getErrorClass(throwable);
-                if (errorClass != null) {
-                    logEventMap.put(ERROR_CLASS, errorClass);
-                }
+                    String threadName = event.getThreadName();
+                    if (threadName != null) {
+                        logEventMap.put(THREAD_NAME, threadName);
+                    }
 
-                String threadName = event.getThreadName();
-                if (threadName != null) {
-                    logEventMap.put(THREAD_NAME, threadName);
-                }
+                    logEventMap.put(THREAD_ID, event.getThreadId());
 
-                logEventMap.put(THREAD_ID, event.getThreadId());
+                    String loggerName = event.getLoggerName();
+                    if (loggerName != null) {
+                        logEventMap.put(LOGGER_NAME, loggerName);
+                    }
 
-                String loggerName = event.getLoggerName();
-                if (loggerName != null) {
-                    logEventMap.put(LOGGER_NAME, loggerName);
-                }
+                    String loggerFqcn = event.getLoggerFqcn();
+                    if (loggerFqcn != null) {
+                        logEventMap.put(LOGGER_FQCN, loggerFqcn);
+                    }
 
-                String loggerFqcn = event.getLoggerFqcn();
-                if (loggerFqcn != null) {
-                    logEventMap.put(LOGGER_FQCN, loggerFqcn);
+                    AgentBridge.getAgent().getLogSender().recordLogEvent(logEventMap);
+                } finally {
+                    logEventMap.release();
                 }
-
-                AgentBridge.getAgent().getLogSender().recordLogEvent(logEventMap);
             }
         }
     }
@@ -122,12 +108,6 @@ public class AgentUtil {
         return (message != null) || !ExceptionUtil.isThrowableNull(throwable);
     }
 
-    private static int calculateInitialMapSize(Map<String, String> mdcPropertyMap) {
-        return AppLoggingUtils.isAppLoggingContextDataEnabled() && mdcPropertyMap != null
-                ? mdcPropertyMap.size() + DEFAULT_NUM_OF_LOG_EVENT_ATTRIBUTES
-                : DEFAULT_NUM_OF_LOG_EVENT_ATTRIBUTES;
-    }
-
     /**
      * Checks pretty or compact JSON layout strings for a series of characters and returns the index of
      * the characters or -1 if they were not found. This is used to find the log "message" substring
@@ -9,15 +9,12 @@ package com.nr.instrumentation.jboss;
 
 import com.newrelic.agent.bridge.AgentBridge;
 import com.newrelic.agent.bridge.logging.AppLoggingUtils;
-import com.newrelic.agent.bridge.logging.LogAttributeKey;
-import com.newrelic.agent.bridge.logging.LogAttributeType;
+import com.newrelic.agent.bridge.logging.LogEventCapture;
 import org.jboss.logmanager.ExtLogRecord;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.logging.Level;
 
-import static com.newrelic.agent.bridge.logging.AppLoggingUtils.DEFAULT_NUM_OF_LOG_EVENT_ATTRIBUTES;
 import static com.newrelic.agent.bridge.logging.AppLoggingUtils.ERROR_CLASS;
 import static com.newrelic.agent.bridge.logging.AppLoggingUtils.ERROR_MESSAGE;
 import static com.newrelic.agent.bridge.logging.AppLoggingUtils.ERROR_STACK;
@@ -43,64 +40,70 @@ public class AgentUtil {
             Throwable throwable = record.getThrown();
 
             if (shouldCreateLogEvent(message, throwable)) {
-                Map<String, String> mdcCopy = record.getMdcCopy();
-                Map<LogAttributeKey, Object> logEventMap = new HashMap<>(calculateInitialMapSize(mdcCopy));
-                logEventMap.put(INSTRUMENTATION, "jboss.logging");
-                logEventMap.put(MESSAGE, message);
-                logEventMap.put(TIMESTAMP, record.getMillis());
-
-                if (AppLoggingUtils.isAppLoggingContextDataEnabled() && mdcCopy != null) {
-                    for (Map.Entry<String, String> entry : mdcCopy.entrySet()) {
-                        String key = entry.getKey();
-                        String value = entry.getValue();
-                        LogAttributeKey logAttrKey = new LogAttributeKey(key, LogAttributeType.CONTEXT);
-                        logEventMap.put(logAttrKey, value);
-                    }
+                LogEventCapture logEventMap = LogEventCapture.acquireSampled();
+                if (logEventMap == null) {
+                    // the event would not be kept, so skip capturing it
+                    return;
                 }
+                try {
+                    Map<String, String> mdcCopy = record.getMdcCopy();
+                    logEventMap.put(INSTRUMENTATION, "jboss.logging");
+                    logEventMap.put(MESSAGE, message);
+                    logEventMap.put(TIMESTAMP, record.getMillis());
+
+                    if (AppLoggingUtils.isAppLoggingContextDataEnabled() && mdcCopy != null) {
+                        for (Map.Entry<String, String> entry : mdcCopy.entrySet()) {
+                            logEventMap.putContext(entry.getKey(), entry.getValue());
+                        }
+                    }
 
-                Level level = record.getLevel();
-                if (level != null) {
-                    String levelName = level.getName();
-                    if (levelName.isEmpty()) {
-                        logEventMap.put(LEVEL, UNKNOWN);
-                    } else {
-                        logEventMap.put(LEVEL, levelName);
+                    Level level = record.getLevel();
+                    if (level != null) {
+                        String levelName = level.getName();
+                        if (levelName.isEmpty()) {
+                            logEventMap.put(LEVEL, UNKNOWN);
+                        } else {
+                            logEventMap.put(LEVEL, levelName);
+                        }
                     }
-                }
 
-                String errorStack = ExceptionUtil.getErrorStack(throwable);
-                if (errorStack != null) {
-                    logEventMap.put(ERROR_STACK, errorStack);
-                }
+                    // jboss-logging formats the error stack differently from LogErrorStack, so it is formatted here
+                    String errorStack = ExceptionUtil.getErrorStack(throwable);
+                    if (errorStack != null) {
+                        logEventMap.put(ERROR_STACK, errorStack);
+                    }
 
-                String errorMessage = ExceptionUtil.getErrorMessage(throwable);
-                if (errorMessage != null) {
-                    logEventMap.put(ERROR_MESSAGE, errorMessage);
-                }
+                    String errorMessage = ExceptionUtil.getErrorMessage(throwable);
+                    if (errorMessage != null) {
+                        logEventMap.put(ERROR_MESSAGE, errorMessage);
+                    }
 
-                String errorClass = ExceptionUtil.getErrorClass(throwable);
-                if (errorClass != null) {
-                    logEventMap.put(ERROR_CLASS, errorClass);
-                }
+                    String errorClass = ExceptionUtil.getErrorClass(throwable);
+                    if (errorClass != null) {
+                        logEventMap.put(ERROR_CLASS, errorClass);
+                    }
 
-                String threadName = Thread.currentThread().getName();
-                if (threadName != null) {
-                    logEventMap.put(THREAD_NAME, threadName);
-                }
+                    String threadName = Thread.currentThread().getName();
+                    if (threadName != null) {
+                        logEventMap.put(THREAD_NAME, threadName);
+                    }
 
-                logEventMap.put(THREAD_ID, record.getThreadID());
+                    logEventMap.put(THREAD_ID, record.getThreadID());
 
-                String loggerName = record.getLoggerName();
-                if (loggerName != null) {
-                    logEventMap.put(LOGGER_NAME, loggerName);
-                }
+                    String loggerName = record.getLoggerName();
+                    if (loggerName != null) {
+                        logEventMap.put(LOGGER_NAME, loggerName);
+                    }
 
-                String loggerFqcn = record.getSourceClassName();
-                if (loggerFqcn != null) {
-                    logEventMap.put(LOGGER_FQCN, loggerFqcn);
-                }
+                    String loggerFqcn = record.getSourceClassName();
+                    if (loggerFqcn != null) {
+                        logEventMap.put(LOGGER_FQCN, loggerFqcn);
+                    }
 
-                AgentBridge.getAgent().getLogSender().recordLogEvent(logEventMap);
+                    AgentBridge.getAgent().getLogSender().recordLogEvent(logEventMap);
+                } finally {
+                    logEventMap.release();
+                }
             }
         }
     }
@@ -115,10 +118,4 @@ public class AgentUtil {
     private static boolean shouldCreateLogEvent(String message, Throwable throwable) {
         return (message != null) || !ExceptionUtil.isThrowableNull(throwable);
     }
-
-    private static int calculateInitialMapSize(Map<String, String> mdcPropertyMap) {
-        return AppLoggingUtils.isAppLoggingContextDataEnabled() && mdcPropertyMap != null
-                ? mdcPropertyMap.size() + DEFAULT_NUM_OF_LOG_EVENT_ATTRIBUTES
-                : DEFAULT_NUM_OF_LOG_EVENT_ATTRIBUTES;
-    }
 }
\ No newline at end of file
@@ -10,16 +10,10 @@ package com.nr.agent.instrumentation.logbackclassic12;
 import ch.qos.logback.classic.Level;
 import com.newrelic.agent.bridge.AgentBridge;
 import com.newrelic.agent.bridge.logging.AppLoggingUtils;
-import com.newrelic.agent.bridge.logging.LogAttributeKey;
-import com.newrelic.agent.bridge.logging.LogAttributeType;
+import com.newrelic.agent.bridge.logging.LogEventCapture;
 
-import java.util.HashMap;
 import java.util.Map;
 
-import static com.newrelic.agent.bridge.logging.AppLoggingUtils.DEFAULT_NUM_OF_LOG_EVENT_ATTRIBUTES;
-import static com.newrelic.agent.bridge.logging.AppLoggingUtils.ERROR_CLASS;
-import static com.newrelic.agent.bridge.logging.AppLoggingUtils.ERROR_MESSAGE;
-import static com.newrelic.agent.bridge.logging.AppLoggingUtils.ERROR_STACK;
 import static com.newrelic.agent.bridge.logging.AppLoggingUtils.INSTRUMENTATION;
 import static com.newrelic.agent.bridge.logging.AppLoggingUtils.LEVEL;
 import static com.newrelic.agent.bridge.logging.AppLoggingUtils.LOGGER_FQCN;
@@ -43,56 +37,50 @@ public class AgentUtil {
         boolean messageEmpty = message.isEmpty();
 
         if (shouldCreateLogEvent(messageEmpty, throwable)) {
-            Map<LogAttributeKey, Object> logEventMap = new HashMap<>(calculateInitialMapSize(mdcPropertyMap));
-            logEventMap.put(INSTRUMENTATION, "logback-classic-1.2");
-            if (!messageEmpty) {
-                logEventMap.put(MESSAGE, message);
+            LogEventCapture logEventMap = LogEventCapture.acquireSampled();
+            if (logEventMap == null) {
+                // the event would not be kept, so skip capturing it
+                return;
             }
-            logEventMap.put(TIMESTAMP, timeStampMillis);
-
-            if (AppLoggingUtils.isAppLoggingContextDataEnabled()) {
-                for (Map.Entry<String, String> mdcEntry : mdcPropertyMap.entrySet()) {
-                    LogAttributeKey logAttrKey = new LogAttributeKey(mdcEntry.getKey(), LogAttributeType.CONTEXT);
-                    logEventMap.put(logAttrKey, mdcEntry.getValue());
+            try {
+                logEventMap.put(INSTRUMENTATION, "logback-classic-1.2");
+                if (!messageEmpty) {
+                    logEventMap.put(MESSAGE, message);
                 }
-            }
+                logEventMap.put(TIMESTAMP, timeStampMillis);
 
-            if (level.toString().isEmpty()) {
-                logEventMap.put(LEVEL, UNKNOWN);
-            } else {
-                logEventMap.put(LEVEL, level);
-            }
+                if (AppLoggingUtils.isAppLoggingContextDataEnabled()) {
+                    for (Map.Entry<String, String> mdcEntry : mdcPropertyMap.entrySet()) {
+                        logEventMap.putContext(mdcEntry.getKey(), mdcEntry.getValue());
+                    }
+                }
 
-            String errorStack = ExceptionUtil.getErrorStack(throwable);
-            if (errorStack != null) {
-                logEventMap.put(ERROR_STACK, errorStack);
-            }
+                if (level.toString().isEmpty()) {
+                    logEventMap.put(LEVEL, UNKNOWN);
+                } else {
+                    logEventMap.put(LEVEL, level);
+                }
 
-            String errorMessage = ExceptionUtil.getErrorMessage(throwable);
-            if (errorMessage != null) {
-                logEventMap.put(ERROR_MESSAGE, errorMessage);
-            }
+                logEventMap.putThrowable(throwable);
 
-            String errorClass = ExceptionUtil.getErrorClass(throwable);
-            if (errorClass != null) {
-                logEventMap.put(ERROR_CLASS, errorClass);
-            }
+                if (threadName != null) {
+                    logEventMap.put(THREAD_NAME, threadName);
+                }
 
-            if (threadName != null) {
-                logEventMap.put(THREAD_NAME, threadName);
-            }
+                logEventMap.put(THREAD_ID, threadId);
 
-            logEventMap.put(THREAD_ID, threadId);
+                if (loggerName != null) {
+                    logEventMap.put(LOGGER_NAME, loggerName);
+                }
 
-            if (loggerName != null) {
-                logEventMap.put(LOGGER_NAME, loggerName);
-            }
+                if (fqcnLoggerName != null) {
+                    logEventMap.put(LOGGER_FQCN, fqcnLoggerName);
+                }
 
-            if (fqcnLoggerName != null) {
-                logEventMap.put(LOGGER_FQCN, fqcnLoggerName);
+                AgentBridge.getAgent().getLogSender().recordLogEvent(logEventMap);
+            } finally {
+                logEventMap.release();
             }
-
-            AgentBridge.getAgent().getLogSender().recordLogEvent(logEventMap);
         }
     }
 
@@ -106,10 +94,4 @@ public class AgentUtil {
     private static boolean shouldCreateLogEvent(boolean messageEmpty, Throwable throwable) {
         return !messageEmpty || !ExceptionUtil.isThrowableNull(throwable);
     }
-
-    private static int calculateInitialMapSize(Map<String, String> mdcPropertyMap) {
-        return AppLoggingUtils.isAppLoggingContextDataEnabled()
-                ? mdcPropertyMap.size() + DEFAULT_NUM_OF_LOG_EVENT_ATTRIBUTES
-                : DEFAULT_NUM_OF_LOG_EVENT_ATTRIBUTES;
-    }
 }
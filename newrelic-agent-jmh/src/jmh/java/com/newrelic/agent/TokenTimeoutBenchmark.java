@@ -0,0 +1,180 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent;
+
+import com.newrelic.agent.bridge.CacheRemovalListener;
+import com.newrelic.agent.bridge.CleanableMap;
+import com.newrelic.agent.jmh.BenchmarkAgent;
+import com.newrelic.agent.util.Caffeine2CollectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the token bookkeeping of a transaction that uses async tokens: a token set is created for the transaction,
+ * {@code tokensPerTransaction} tokens are added and each one is expired, which is what a request in a reactive
+ * application does. {@code tokenSet} compares {@link TimedTokenSet} on the shared {@link TokenTimeoutWheel} with the
+ * previous implementation, which built a caffeine cache with a removal listener for each transaction.
+ * <p>
+ * {@link #timeOut()} measures tokens that time out instead of being expired. It runs on a wheel with a clock that the
+ * benchmark moves forward, so that every token times out on the next clean up.
+ * <p>
+ * The expiration service runs the work inline so that only the token set is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TokenTimeoutBenchmark {
+
+    private static final int TIME_OUT_SECONDS = 180;
+
+    @Param({ "wheel", "caffeine" })
+    public String tokenSet;
+
+    @Param({ "1", "10" })
+    public int tokensPerTransaction;
+
+    private final ExpirationService expirationService = new InlineExpirationService();
+    private final AtomicLong clock = new AtomicLong();
+    private TokenTimeoutWheel manualWheel;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception {
+        BenchmarkAgent.start();
+        manualWheel = new TokenTimeoutWheel(clock::get, Runtime.getRuntime().availableProcessors());
+    }
+
+    private TimedSet<TokenImpl> createTokenSet() {
+        if ("caffeine".equals(tokenSet)) {
+            return new CaffeineTokenSet(TIME_OUT_SECONDS, TimeUnit.SECONDS, expirationService);
+        }
+        return new TimedTokenSet(TIME_OUT_SECONDS, TimeUnit.SECONDS, expirationService);
+    }
+
+    private int createAndExpireTokens() {
+        TimedSet<TokenImpl> tokens = createTokenSet();
+        int removed = 0;
+        TokenImpl[] created = new TokenImpl[tokensPerTransaction];
+        for (int i = 0; i < created.length; i++) {
+            created[i] = new TokenImpl(null);
+            tokens.put(created[i]);
+        }
+        for (TokenImpl token : created) {
+            tokens.refresh(token);
+            if (tokens.remove(token)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int threads01() {
+        return createAndExpireTokens();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int threads08() {
+        return createAndExpireTokens();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int timeOut() {
+        TimedTokenSet tokens = new TimedTokenSet(TIME_OUT_SECONDS, TimeUnit.SECONDS, expirationService, manualWheel);
+        for (int i = 0; i < tokensPerTransaction; i++) {
+            tokens.put(new TokenImpl(null));
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(TIME_OUT_SECONDS));
+        tokens.cleanUp();
+        return tokens.timedOutCount();
+    }
+
+    private static final class InlineExpirationService extends ExpirationService {
+        @Override
+        public Future<?> expireToken(Runnable runnable) {
+            runnable.run();
+            return null;
+        }
+    }
+
+    /**
+     * The previous {@link TimedTokenSet}, without the logging.
+     */
+    private static final class CaffeineTokenSet implements TimedSet<TokenImpl> {
+        private static final Caffeine2CollectionFactory FACTORY = new Caffeine2CollectionFactory();
+
+        private final CleanableMap<TokenImpl, TokenImpl> activeTokens;
+
+        CaffeineTokenSet(int timeOut, TimeUnit unit, ExpirationService expirationService) {
+            activeTokens = FACTORY.createCacheWithAccessExpirationAndRemovalListener(unit.toMillis(timeOut),
+                    TimeUnit.MILLISECONDS, 8, (TokenImpl token, TokenImpl value, CacheRemovalListener.RemovalReason cause) -> {
+                        Transaction tx = token.getTransaction().getTransactionIfExists();
+                        if (!token.isInTransfer.get()) {
+                            expirationService.expireToken(() -> token.markExpired(tx));
+                        }
+                    });
+        }
+
+        @Override
+        public int timedOutCount() {
+            return 0;
+        }
+
+        @Override
+        public void put(TokenImpl value) {
+            activeTokens.put(value, value);
+        }
+
+        @Override
+        public boolean remove(TokenImpl value) {
+            return activeTokens.remove(value) != null;
+        }
+
+        @Override
+        public void removeAll() {
+            activeTokens.clear();
+        }
+
+        @Override
+        public void cleanUp() {
+            activeTokens.cleanUp();
+        }
+
+        @Override
+        public void refresh(TokenImpl token) {
+            activeTokens.get(token);
+        }
+
+        @Override
+        public Set<TokenImpl> getTokens() {
+            return activeTokens.keySet();
+        }
+
+        @Override
+        public void transferToken(TokenImpl token, TimedSet<TokenImpl> targetTimedSet) {
+            activeTokens.remove(token);
+            targetTimedSet.put(token);
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.attributes;
+
+import com.newrelic.agent.config.AgentConfig;
+import com.newrelic.agent.config.AgentConfigImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link AttributesFilter} for the destinations that are filtered once per event: span events, transaction
+ * events and error events. The filter is configured with a realistic mix of root and destination include/exclude rules.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AttributesFilterBenchmark {
+
+    private AttributesFilter attributesFilter;
+    private Map<String, Object> attributes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Map<String, Object> attributesConfig = new HashMap<>();
+        attributesConfig.put("include", Arrays.asList("request.parameters.*", "custom.keep.*"));
+        attributesConfig.put("exclude", Arrays.asList("request.headers.cookie", "custom.secret*"));
+
+        Map<String, Object> spanEventsAttributes = new HashMap<>();
+        spanEventsAttributes.put("exclude", Arrays.asList("request.parameters.password", "custom.noisy.*"));
+        Map<String, Object> spanEvents = new HashMap<>();
+        spanEvents.put(AgentConfigImpl.ATTRIBUTES, spanEventsAttributes);
+
+        Map<String, Object> settings = new HashMap<>();
+        settings.put(AgentConfigImpl.APP_NAME, "JMH Benchmark");
+        settings.put(AgentConfigImpl.ATTRIBUTES, attributesConfig);
+        settings.put(AgentConfigImpl.SPAN_EVENTS, spanEvents);
+        AgentConfig config = AgentConfigImpl.createAgentConfig(settings);
+        attributesFilter = new AttributesFilter(config);
+
+        attributes = new HashMap<>();
+        attributes.put("http.statusCode", 200);
+        attributes.put("http.statusText", "OK");
+        attributes.put("request.method", "GET");
+        attributes.put("request.uri", "/orders/12345");
+        attributes.put("request.headers.host", "shop.example.com");
+        attributes.put("request.headers.userAgent", "Mozilla/5.0");
+        attributes.put("request.headers.cookie", "session=abc");
+        attributes.put("request.parameters.id", "12345");
+        attributes.put("request.parameters.password", "hunter2");
+        attributes.put("response.headers.contentType", "application/json");
+        attributes.put("custom.keep.order", "12345");
+        attributes.put("custom.secretToken", "s3cr3t");
+        attributes.put("custom.noisy.value", "ignore me");
+        attributes.put("code.namespace", "com.example.OrderService");
+        attributes.put("code.function", "placeOrder");
+        attributes.put("thread.id", 42L);
+    }
+
+    @Benchmark
+    public Map<String, ?> filterSpanEventAttributes() {
+        return attributesFilter.filterSpanEventAttributes(attributes);
+    }
+
+    @Benchmark
+    public Map<String, ?> filterTransactionEventAttributes() {
+        return attributesFilter.filterTransactionEventAttributes(attributes);
+    }
+
+    @Benchmark
+    public Map<String, ?> filterErrorEventAttributes() {
+        return attributesFilter.filterErrorEventAttributes(attributes);
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.database;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SqlObfuscator#obfuscateSql(String, String)} for each supported dialect on statements with inlined
+ * literals, which is the case the caching obfuscator cannot help with, for both obfuscation engines.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SqlObfuscatorBenchmark {
+
+    private static final String SHORT_QUERY = "SELECT * FROM users WHERE id = 12345 AND status = 'active'";
+    private static final String LONG_QUERY = "SELECT o.id, o.total, c.name, c.email FROM orders o "
+            + "INNER JOIN customers c ON c.id = o.customer_id "
+            + "WHERE o.created_at > '2024-01-01 00:00:00' AND o.total > 99.95 AND c.country IN ('US', 'CA', 'MX') "
+            + "AND o.status <> 'cancelled' /* report query */ AND c.vip = true "
+            + "ORDER BY o.created_at DESC LIMIT 100 OFFSET 200";
+
+    @Param({ "mysql", "postgresql", "oracle", "unknown" })
+    public String dialect;
+
+    @Param({ SqlObfuscator.REGEX_ENGINE, SqlObfuscator.LEXER_ENGINE })
+    public String engine;
+
+    private SqlObfuscator sqlObfuscator;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sqlObfuscator = SqlObfuscator.getDefaultSqlObfuscator(engine);
+    }
+
+    @Benchmark
+    public String shortQuery() {
+        return sqlObfuscator.obfuscateSql(SHORT_QUERY, dialect);
+    }
+
+    @Benchmark
+    public String longQuery() {
+        return sqlObfuscator.obfuscateSql(LONG_QUERY, dialect);
+    }
+
+}
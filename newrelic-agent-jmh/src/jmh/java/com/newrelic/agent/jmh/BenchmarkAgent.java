@@ -0,0 +1,74 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.jmh;
+
+import com.newrelic.agent.InstrumentationProxy;
+import com.newrelic.agent.MockCoreService;
+import com.newrelic.agent.config.ConfigService;
+import com.newrelic.agent.config.ConfigServiceFactory;
+import com.newrelic.agent.service.ServiceFactory;
+import com.newrelic.agent.service.ServiceManager;
+import com.newrelic.agent.service.ServiceManagerImpl;
+import org.mockito.Mockito;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Starts a real {@link ServiceManager} for benchmarks, the same way {@link MockCoreService} does for unit tests but
+ * without console logging so that log output doesn't show up in the measurements.
+ */
+public final class BenchmarkAgent {
+
+    public static final String APP_NAME = "JMH Benchmark";
+
+    private static ServiceManager serviceManager;
+
+    private BenchmarkAgent() {
+    }
+
+    public static synchronized ServiceManager start() throws Exception {
+        if (serviceManager != null) {
+            return serviceManager;
+        }
+
+        MockCoreService coreService = new MockCoreService();
+        coreService.setInstrumentation(Mockito.mock(InstrumentationProxy.class));
+        Mockito.when(coreService.getInstrumentation().getAllLoadedClasses()).thenReturn(new Class[] {});
+
+        ConfigService configService = ConfigServiceFactory.createConfigServiceUsingSettings(createSettings());
+        serviceManager = new ServiceManagerImpl(coreService, configService);
+        ServiceFactory.setServiceManager(serviceManager);
+        serviceManager.start();
+        return serviceManager;
+    }
+
+    private static Map<String, Object> createSettings() {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("app_name", APP_NAME);
+        settings.put("license_key", "deadbeefcafebabe8675309babecafe1beefdead");
+        settings.put("host", "nope.example.invalid");
+        settings.put("log_level", "off");
+        settings.put("sync_startup", false);
+
+        Map<String, Object> distributedTracing = new HashMap<>();
+        distributedTracing.put("enabled", true);
+        settings.put("distributed_tracing", distributedTracing);
+
+        Map<String, Object> spanEvents = new HashMap<>();
+        spanEvents.put("enabled", true);
+        spanEvents.put("collect_span_events", true);
+        settings.put("span_events", spanEvents);
+
+        Map<String, Object> transactionTracer = new HashMap<>();
+        transactionTracer.put("record_sql", "obfuscated");
+        settings.put("transaction_tracer", transactionTracer);
+        return settings;
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.service.analytics;
+
+import com.newrelic.agent.jmh.BenchmarkAgent;
+import com.newrelic.agent.model.SpanCategory;
+import com.newrelic.agent.model.SpanEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a span event through {@link SpanEventFactory} with the same shape of intrinsics, agent attributes
+ * and user attributes that {@link TracerToSpanEvent} produces for a typical segment.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpanEventFactoryBenchmark {
+
+    private final Map<String, Object> agentAttributes = new HashMap<>();
+    private final Map<String, Object> userAttributes = new HashMap<>();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkAgent.start();
+        agentAttributes.put("code.namespace", "com.example.OrderService");
+        agentAttributes.put("code.function", "placeOrder");
+        agentAttributes.put("thread.id", 42L);
+        for (int i = 0; i < 8; i++) {
+            userAttributes.put("custom.attribute." + i, "value-" + i);
+        }
+    }
+
+    @Benchmark
+    public SpanEvent genericSpan() {
+        return new SpanEventFactory(BenchmarkAgent.APP_NAME)
+                .setGuid("e9cd76ae1ac3a2ee")
+                .setTraceId("3c5d1d5fa5a6d0d6e3dcd1b6f1f6b4c1")
+                .setSampled(true)
+                .setParentId("a7b1c2d3e4f50617")
+                .setTransactionId("4f0e5d6c7b8a9012")
+                .setDurationInSeconds(0.0042f)
+                .setName("Java/com.example.OrderService/placeOrder")
+                .setTimestamp(1700000000000L)
+                .setPriority(1.234567f)
+                .setClmAttributes(agentAttributes)
+                .putAllUserAttributes(userAttributes)
+                .build();
+    }
+
+    @Benchmark
+    public SpanEvent datastoreSpan() {
+        return new SpanEventFactory(BenchmarkAgent.APP_NAME)
+                .setGuid("e9cd76ae1ac3a2ee")
+                .setTraceId("3c5d1d5fa5a6d0d6e3dcd1b6f1f6b4c1")
+                .setSampled(true)
+                .setParentId("a7b1c2d3e4f50617")
+                .setTransactionId("4f0e5d6c7b8a9012")
+                .setDurationInSeconds(0.0042f)
+                .setName("Datastore/statement/MySQL/users/select")
+                .setTimestamp(1700000000000L)
+                .setPriority(1.234567f)
+                .setCategory(SpanCategory.datastore)
+                .setDatastoreComponent("MySQL")
+                .setDatabaseName("orders")
+                .setAddress("db.example.com", "3306")
+                .setServerAddress("db.example.com")
+                .setServerPort(3306)
+                .setDatabaseStatement("SELECT * FROM users WHERE id = ?")
+                .build();
+    }
+
+}
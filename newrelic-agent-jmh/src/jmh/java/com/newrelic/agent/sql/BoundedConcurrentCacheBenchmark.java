@@ -0,0 +1,189 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.sql;
+
+import com.newrelic.agent.jmh.BenchmarkAgent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the indexed heap in {@link BoundedConcurrentCache} with the previous implementation, which paired a
+ * {@link ConcurrentHashMap} with a {@link PriorityBlockingQueue} and removed updated values from the queue with a
+ * linear scan. Every operation follows {@code SlowQueryAggregatorImpl}: it looks up a statement, aggregates into the
+ * existing value and calls {@code putReplace}, or adds the statement if it is not tracked.
+ *
+ * The cache is sized to hold {@code trackedStatements} and the statements are drawn from twice as many distinct keys,
+ * so the cache stays full and a share of the operations evict the smallest value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BoundedConcurrentCacheBenchmark {
+
+    @Param({ "indexedHeap", "priorityQueue" })
+    public String cacheType;
+
+    @Param({ "1000", "10000" })
+    public int trackedStatements;
+
+    private String[] statements;
+    private Cache cache;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception {
+        BenchmarkAgent.start();
+        statements = new String[trackedStatements * 2];
+        for (int i = 0; i < statements.length; i++) {
+            statements[i] = "select * from table" + i + " where id = ?";
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        cache = "indexedHeap".equals(cacheType) ? new IndexedHeapCache(trackedStatements) : new PriorityQueueCache(trackedStatements);
+        for (int i = 0; i < trackedStatements; i++) {
+            cache.putIfAbsent(statements[i], new SlowStatement(statements[i], i));
+        }
+    }
+
+    private void noticeStatement() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String statement = statements[random.nextInt(statements.length)];
+        long duration = random.nextInt(statements.length);
+        SlowStatement existing = cache.get(statement);
+        if (existing != null) {
+            existing.aggregate(duration);
+            cache.putReplace(statement, existing);
+        } else {
+            cache.putIfAbsent(statement, new SlowStatement(statement, duration));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void threads01() {
+        noticeStatement();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void threads08() {
+        noticeStatement();
+    }
+
+    static final class SlowStatement implements Comparable<SlowStatement>, CacheValue<String> {
+        private final String statement;
+        private volatile long maxDuration;
+
+        SlowStatement(String statement, long duration) {
+            this.statement = statement;
+            this.maxDuration = duration;
+        }
+
+        synchronized void aggregate(long duration) {
+            maxDuration = Math.max(maxDuration, duration);
+        }
+
+        @Override
+        public String getKey() {
+            return statement;
+        }
+
+        @Override
+        public int compareTo(SlowStatement other) {
+            return Long.compare(maxDuration, other.maxDuration);
+        }
+    }
+
+    private interface Cache {
+        SlowStatement get(String key);
+
+        void putIfAbsent(String key, SlowStatement value);
+
+        void putReplace(String key, SlowStatement value);
+    }
+
+    private static final class IndexedHeapCache implements Cache {
+        private final BoundedConcurrentCache<String, SlowStatement> cache;
+
+        IndexedHeapCache(int size) {
+            cache = new BoundedConcurrentCache<>(size);
+        }
+
+        @Override
+        public SlowStatement get(String key) {
+            return cache.get(key);
+        }
+
+        @Override
+        public void putIfAbsent(String key, SlowStatement value) {
+            cache.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void putReplace(String key, SlowStatement value) {
+            cache.putReplace(key, value);
+        }
+    }
+
+    /**
+     * The previous {@link BoundedConcurrentCache} implementation.
+     */
+    private static final class PriorityQueueCache implements Cache {
+        private final int maxCapacity;
+        private final PriorityBlockingQueue<SlowStatement> priorityQueue;
+        private final Map<String, SlowStatement> cache = new ConcurrentHashMap<>(16);
+
+        PriorityQueueCache(int size) {
+            maxCapacity = size;
+            priorityQueue = new PriorityBlockingQueue<>(size);
+        }
+
+        @Override
+        public SlowStatement get(String key) {
+            return cache.get(key);
+        }
+
+        @Override
+        public void putIfAbsent(String key, SlowStatement value) {
+            if (cache.putIfAbsent(key, value) != null) {
+                return;
+            }
+            priorityQueue.add(value);
+            while (priorityQueue.size() > maxCapacity) {
+                SlowStatement val = priorityQueue.poll();
+                cache.remove(val.getKey());
+            }
+        }
+
+        @Override
+        public void putReplace(String key, SlowStatement value) {
+            SlowStatement valueToRemove = cache.get(key);
+            if (valueToRemove != null) {
+                cache.remove(key);
+                priorityQueue.remove(valueToRemove);
+            }
+            putIfAbsent(key, value);
+        }
+    }
+
+}
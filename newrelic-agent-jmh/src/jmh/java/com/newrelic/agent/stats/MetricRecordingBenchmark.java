@@ -0,0 +1,71 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.stats;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures recording per-transaction metrics into {@link TransactionStats} and merging them into the harvest
+ * {@link StatsEngineImpl}, which is what every tracer and every finished transaction pays for.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricRecordingBenchmark {
+
+    private static final String SCOPE = "WebTransaction/Servlet/OrderServlet";
+
+    @Param({ "20" })
+    public int metricCount;
+
+    private String[] metricNames;
+    private TransactionStats transactionStats;
+    private StatsEngine harvestStatsEngine;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        metricNames = new String[metricCount];
+        for (int i = 0; i < metricCount; i++) {
+            metricNames[i] = "Datastore/statement/MySQL/table" + i + "/select";
+        }
+        transactionStats = recordTransactionStats();
+        harvestStatsEngine = new StatsEngineImpl();
+    }
+
+    @Benchmark
+    public TransactionStats recordTransactionMetrics() {
+        return recordTransactionStats();
+    }
+
+    @Benchmark
+    public StatsEngine mergeTransactionStats() {
+        harvestStatsEngine.mergeStatsResolvingScope(transactionStats, SCOPE);
+        return harvestStatsEngine;
+    }
+
+    private TransactionStats recordTransactionStats() {
+        TransactionStats stats = new TransactionStats();
+        for (String metricName : metricNames) {
+            stats.getScopedStats().getOrCreateResponseTimeStats(metricName).recordResponseTimeInNanos(1500000L, 1000000L);
+            stats.getUnscopedStats().getOrCreateResponseTimeStats(metricName).recordResponseTimeInNanos(1500000L, 1000000L);
+        }
+        stats.getUnscopedStats().getStats("Supportability/Benchmark/count").incrementCallCount();
+        return stats;
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.stats;
+
+import com.newrelic.agent.metric.MetricName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the read/write locked {@link LockingStatsEngineQueue} with the {@link StripedStatsEngineQueue} on the
+ * transaction finish path: every operation merges a small per-transaction stats engine into the queue, the same way
+ * {@code TransactionService} does once a transaction completes.
+ *
+ * Set {@code harvestIntervalMillis} to a non-zero value to have a background thread harvest the queue while the
+ * benchmark runs, which exposes the time request threads spend retrying while a harvest holds the write lock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StatsEngineQueueBenchmark {
+
+    @Param({ "locking", "striped" })
+    public String queueType;
+
+    @Param({ "0", "100" })
+    public long harvestIntervalMillis;
+
+    private volatile StatsEngineQueue queue;
+    private volatile boolean running;
+    private Thread harvester;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        queue = createQueue();
+        running = true;
+        if (harvestIntervalMillis > 0) {
+            harvester = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    while (running) {
+                        try {
+                            Thread.sleep(harvestIntervalMillis);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        harvest();
+                    }
+                }
+            }, "StatsEngineQueueBenchmark-harvester");
+            harvester.setDaemon(true);
+            harvester.start();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws InterruptedException {
+        running = false;
+        if (harvester != null) {
+            harvester.interrupt();
+            harvester.join();
+            harvester = null;
+        }
+        harvest();
+    }
+
+    private void harvest() {
+        StatsEngineQueue oldQueue = queue;
+        queue = createQueue();
+        oldQueue.getStatsEngineForHarvest();
+    }
+
+    private StatsEngineQueue createQueue() {
+        return "striped".equals(queueType) ? new StripedStatsEngineQueue() : new LockingStatsEngineQueue();
+    }
+
+    @State(Scope.Thread)
+    public static class TransactionStatsState {
+
+        StatsEngine transactionStats;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            transactionStats = new StatsEngineImpl();
+            String scope = "WebTransaction/Servlet/BenchmarkServlet";
+            for (int i = 0; i < 10; i++) {
+                transactionStats.getResponseTimeStats(MetricName.create("Java/BenchmarkClass/method" + i, scope))
+                        .recordResponseTime(i + 1, TimeUnit.MILLISECONDS);
+                transactionStats.getResponseTimeStats("Java/BenchmarkClass/method" + i)
+                        .recordResponseTime(i + 1, TimeUnit.MILLISECONDS);
+            }
+            transactionStats.getResponseTimeStats("WebTransaction").recordResponseTime(20, TimeUnit.MILLISECONDS);
+            transactionStats.getResponseTimeStats("HttpDispatcher").recordResponseTime(20, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void doStatsWork(TransactionStatsState state) {
+        StatsWork work = new MergeStatsEngine(null, state.transactionStats);
+        while (!queue.doStatsWork(work)) {
+            // the queue was harvested underneath us, StatsServiceImpl retries against the replacement
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void threads001(TransactionStatsState state) {
+        doStatsWork(state);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void threads008(TransactionStatsState state) {
+        doStatsWork(state);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void threads032(TransactionStatsState state) {
+        doStatsWork(state);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void threads064(TransactionStatsState state) {
+        doStatsWork(state);
+    }
+
+    @Benchmark
+    @Threads(128)
+    public void threads128(TransactionStatsState state) {
+        doStatsWork(state);
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.stats;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the coordination cost of the stats engine queues under multi-threaded load. Unlike
+ * {@link StatsEngineQueueBenchmark} the work only records a single call count, so the throughput is dominated by how
+ * the queue hands out its engines: the read lock of the {@link LockingStatsEngineQueue}, or the in-flight counter and
+ * engine swap of the {@link StripedStatsEngineQueue}, where stripes that share a cache line would show up as a
+ * throughput drop as threads are added.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StatsEngineQueueContentionBenchmark {
+
+    private static final StatsWork RECORD_CALL = new StatsWork() {
+        @Override
+        public void doWork(StatsEngine statsEngine) {
+            statsEngine.getStats("Supportability/Benchmark/Call").incrementCallCount();
+        }
+
+        @Override
+        public String getAppName() {
+            return null;
+        }
+    };
+
+    @Param({ "locking", "striped" })
+    public String queueType;
+
+    private StatsEngineQueue queue;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        queue = "striped".equals(queueType) ? new StripedStatsEngineQueue() : new LockingStatsEngineQueue();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        queue.getStatsEngineForHarvest();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean threads01() {
+        return queue.doStatsWork(RECORD_CALL);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean threads04() {
+        return queue.doStatsWork(RECORD_CALL);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean threads16() {
+        return queue.doStatsWork(RECORD_CALL);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean threads64() {
+        return queue.doStatsWork(RECORD_CALL);
+    }
+
+}
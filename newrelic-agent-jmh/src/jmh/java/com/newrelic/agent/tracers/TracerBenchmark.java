@@ -0,0 +1,128 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.tracers;
+
+import com.newrelic.agent.Transaction;
+import com.newrelic.agent.TransactionActivity;
+import com.newrelic.agent.jmh.BenchmarkAgent;
+import com.newrelic.agent.tracers.metricname.SimpleMetricNameFormat;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a complete transaction on the application thread: starting the root tracer, starting and
+ * finishing child tracers and finishing the transaction, which runs the transaction finish listeners (metrics, span
+ * events, transaction events and traces).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TracerBenchmark {
+
+    private static final ClassMethodSignature ROOT_SIGNATURE = new ClassMethodSignature(
+            "com.newrelic.agent.tracers.TracerBenchmark", "root", "()V");
+    private static final ClassMethodSignature CHILD_SIGNATURE = new ClassMethodSignature(
+            "com.newrelic.agent.tracers.TracerBenchmark", "child", "()V");
+
+    @Param({ "3" })
+    public int depth;
+
+    @Param({ "4" })
+    public int fanOut;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkAgent.start();
+    }
+
+    @Benchmark
+    public Tracer rootTracerStartAndFinish() {
+        Transaction tx = Transaction.getTransaction();
+        Tracer root = startRootTracer(tx);
+        root.finish(Opcodes.RETURN, null);
+        Transaction.clearTransaction();
+        return root;
+    }
+
+    @Benchmark
+    public Tracer childTracerStartAndFinish() {
+        Transaction tx = Transaction.getTransaction();
+        Tracer root = startRootTracer(tx);
+        Tracer child = startChildTracer(tx.getTransactionActivity());
+        child.finish(Opcodes.RETURN, null);
+        root.finish(Opcodes.RETURN, null);
+        Transaction.clearTransaction();
+        return child;
+    }
+
+    @Benchmark
+    public Tracer nestedSegments() {
+        Transaction tx = Transaction.getTransaction();
+        Tracer root = startRootTracer(tx);
+        startChildren(tx.getTransactionActivity(), depth);
+        root.finish(Opcodes.RETURN, null);
+        Transaction.clearTransaction();
+        return root;
+    }
+
+    /**
+     * Children that each carry a few agent attributes, as datastore and external segments do. Run with {@code -prof gc}
+     * to see the allocation per transaction.
+     */
+    @Benchmark
+    public Tracer segmentsWithAttributes() {
+        Transaction tx = Transaction.getTransaction();
+        Tracer root = startRootTracer(tx);
+        TransactionActivity txa = tx.getTransactionActivity();
+        for (int i = 0; i < fanOut; i++) {
+            Tracer child = startChildTracer(txa);
+            child.setAgentAttribute("db.system", "MySQL", true);
+            child.setAgentAttribute("db.operation", "select", true);
+            child.setAgentAttribute("peer.hostname", "localhost", true);
+            child.finish(Opcodes.RETURN, null);
+        }
+        root.finish(Opcodes.RETURN, null);
+        Transaction.clearTransaction();
+        return root;
+    }
+
+    private void startChildren(TransactionActivity txa, int remainingDepth) {
+        if (remainingDepth == 0) {
+            return;
+        }
+        for (int i = 0; i < fanOut; i++) {
+            Tracer child = startChildTracer(txa);
+            startChildren(txa, remainingDepth - 1);
+            child.finish(Opcodes.RETURN, null);
+        }
+    }
+
+    private Tracer startRootTracer(Transaction tx) {
+        Tracer root = new OtherRootTracer(tx, ROOT_SIGNATURE, this, new SimpleMetricNameFormat("OtherTransaction/Custom/Benchmark"));
+        tx.getTransactionActivity().tracerStarted(root);
+        return root;
+    }
+
+    private Tracer startChildTracer(TransactionActivity txa) {
+        Tracer child = new DefaultTracer(txa, CHILD_SIGNATURE, this, new SimpleMetricNameFormat("Custom/Benchmark/child"),
+                DefaultTracer.DEFAULT_TRACER_FLAGS);
+        txa.tracerStarted(child);
+        return child;
+    }
+
+}
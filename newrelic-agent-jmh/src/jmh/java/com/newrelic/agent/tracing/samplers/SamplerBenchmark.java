@@ -0,0 +1,91 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.tracing.samplers;
+
+import com.newrelic.agent.DistributedTracingTestUtil.DTConfigMapBuilder;
+import com.newrelic.agent.Transaction;
+import com.newrelic.agent.config.AgentConfigImpl;
+import com.newrelic.agent.config.DistributedTracingConfig;
+import com.newrelic.agent.jmh.BenchmarkAgent;
+import com.newrelic.agent.tracing.DistributedTraceServiceImpl.SamplerCase;
+import com.newrelic.agent.tracing.Granularity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the sampling decision that is made for the root of every distributed trace, with the root sampler that
+ * {@link SamplerManager} builds for {@code samplerType}. Every thread asks the same sampler, as the threads of an
+ * application do, so comparing {@code threads01} with {@code threads08} shows how much the sampler slows down under
+ * contention. The adaptive sampler is shared by all the transactions of the application, and the others are kept as a
+ * baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SamplerBenchmark {
+
+    @Param({ "adaptive", "trace_id_ratio_based", "always_on" })
+    public String samplerType;
+
+    private Sampler sampler;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception {
+        BenchmarkAgent.start();
+        DTConfigMapBuilder builder = new DTConfigMapBuilder();
+        if ("trace_id_ratio_based".equals(samplerType)) {
+            builder.withSamplerSetting("root", samplerType, "ratio", 0.5);
+        } else {
+            builder.withSamplerSetting("root", samplerType);
+        }
+        Map<String, Object> config = builder.buildMainConfig();
+        config.put("app_name", BenchmarkAgent.APP_NAME);
+        DistributedTracingConfig dtConfig = AgentConfigImpl.createAgentConfig(config).getDistributedTracingConfig();
+        sampler = new SamplerManager(dtConfig).getSampler(Granularity.FULL, SamplerCase.ROOT);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadTransaction {
+        Transaction tx;
+
+        @Setup(Level.Iteration)
+        public void startTransaction() {
+            tx = Transaction.getTransaction();
+        }
+
+        @TearDown(Level.Iteration)
+        public void clearTransaction() {
+            Transaction.clearTransaction();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public float threads01(ThreadTransaction transaction) {
+        return sampler.calculatePriority(transaction.tx, Granularity.FULL);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public float threads08(ThreadTransaction transaction) {
+        return sampler.calculatePriority(transaction.tx, Granularity.FULL);
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.transport;
+
+import com.newrelic.agent.Agent;
+import com.newrelic.agent.MetricData;
+import com.newrelic.agent.config.AgentConfig;
+import com.newrelic.agent.jmh.BenchmarkAgent;
+import com.newrelic.agent.metric.MetricName;
+import com.newrelic.agent.model.SpanEvent;
+import com.newrelic.agent.service.ServiceFactory;
+import com.newrelic.agent.service.analytics.SpanEventFactory;
+import com.newrelic.agent.stats.StatsImpl;
+import com.newrelic.agent.stats.StatsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encoding harvest payloads in {@link DataSenderImpl}: JSON serialization, compression and the max payload
+ * size check. The HTTP client discards the request so only the agent side of the harvest is measured. Streamed payloads
+ * are written to a discarding stream as the HTTP client would write them to the connection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HarvestPayloadBenchmark {
+
+    @Param({ "2000" })
+    public int spanEventCount;
+
+    @Param({ "1000" })
+    public int metricCount;
+
+    @Param({ "false", "true" })
+    public boolean streamPayloads;
+
+    private DataSenderImpl dataSender;
+    private List<SpanEvent> spanEvents;
+    private List<MetricData> metricData;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkAgent.start();
+        AgentConfig config = ServiceFactory.getConfigService().getDefaultAgentConfig();
+        dataSender = new DataSenderImpl(config, new DiscardingHttpClientWrapper(), null, Agent.LOG, ServiceFactory.getConfigService());
+        dataSender.setAgentRunId("benchmark-run-id");
+        dataSender.setStreamPayloads(streamPayloads);
+
+        spanEvents = new ArrayList<>(spanEventCount);
+        for (int i = 0; i < spanEventCount; i++) {
+            spanEvents.add(new SpanEventFactory(BenchmarkAgent.APP_NAME)
+                    .setGuid(Integer.toHexString(i))
+                    .setTraceId("3c5d1d5fa5a6d0d6e3dcd1b6f1f6b4c1")
+                    .setSampled(true)
+                    .setParentId("a7b1c2d3e4f50617")
+                    .setTransactionId("4f0e5d6c7b8a9012")
+                    .setDurationInSeconds(0.0042f)
+                    .setName("Java/com.example.OrderService/placeOrder" + (i % 50))
+                    .setTimestamp(1700000000000L + i)
+                    .setPriority(1.234567f)
+                    .build());
+        }
+
+        metricData = new ArrayList<>(metricCount);
+        for (int i = 0; i < metricCount; i++) {
+            StatsImpl stats = new StatsImpl(1, 10 + i, 10 + i, 10 + i, (10 + i) * (10 + i));
+            metricData.add(MetricData.create(MetricName.create("Custom/Benchmark/metric" + i,
+                    "WebTransaction/Servlet/Benchmark"), stats));
+        }
+    }
+
+    @Benchmark
+    public void sendSpanEvents() throws Exception {
+        dataSender.sendSpanEvents(spanEventCount, spanEventCount, spanEvents);
+    }
+
+    @Benchmark
+    public void sendMetricData() throws Exception {
+        dataSender.sendMetricData(1700000000000L, 1700000060000L, metricData);
+    }
+
+    private static class DiscardingHttpClientWrapper implements HttpClientWrapper {
+
+        private static final ReadResult OK = ReadResult.create(HttpResponseCode.OK, "{}", null);
+
+        @Override
+        public ReadResult execute(Request request, ExecuteEventHandler eventHandler) throws Exception {
+            if (request.getBody() != null) {
+                request.getBody().writeTo(new CountingOutputStream());
+            }
+            return OK;
+        }
+
+        @Override
+        public void captureSupportabilityMetrics(StatsService statsService, String requestHost) {
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+
+}
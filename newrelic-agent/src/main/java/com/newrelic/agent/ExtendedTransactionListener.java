@@ -19,6 +19,17 @@ public interface ExtendedTransactionListener extends TransactionListener {
      */
     void dispatcherTransactionStarted(Transaction transaction);
 
+    /**
+     * Called on the thread that finished a dispatcher transaction, before
+     * {@link #dispatcherTransactionFinished(TransactionData, com.newrelic.agent.stats.TransactionStats)}. When
+     * transactions are finished asynchronously, dispatcherTransactionFinished runs later on an agent thread, so state
+     * that belongs to the finishing thread has to be released here.
+     *
+     * @param transactionData the final data from the transaction
+     */
+    default void dispatcherTransactionFinishing(TransactionData transactionData) {
+    }
+
     /**
      * The transaction on the current thread is being cancelled, either because of a serious internal error or because
      * the activity on the current thread is now linked to another transaction and this transaction should not report.
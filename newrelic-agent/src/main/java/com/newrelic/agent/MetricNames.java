@@ -52,6 +52,8 @@ public class MetricNames {
 
     public static final String THREAD_COUNT = "Threads/all";
     public static final String THREAD_DEADLOCK_COUNT = "Threads/Deadlocks/all";
+    public static final String SUPPORTABILITY_THREAD_STATE_SAMPLER_TIME = "Supportability/ThreadStateSampler/Time";
+    public static final String SUPPORTABILITY_THREAD_STATE_SAMPLER_SNAPSHOT_TIME = "Supportability/ThreadStateSampler/SnapshotTime";
 
     public static final String TOTAL_TIME = "TotalTime";
     public static final String FIRST_BYTE = "TimeToFirstByte";
@@ -225,6 +227,7 @@ public class MetricNames {
     public static final String SUPPORTABILITY_LOGGING_FORWARDING_SENT = "Supportability/Logging/Forwarding/Sent";
     public static final String SUPPORTABILITY_LOGGING_FORWARDING_SEEN = "Supportability/Logging/Forwarding/Seen";
     public static final String LOGGING_FORWARDING_DROPPED = "Logging/Forwarding/Dropped";
+    public static final String SUPPORTABILITY_LOGGING_FORWARDING_PRE_SAMPLING_REJECTED = "Supportability/Logging/Forwarding/PreSampling/Rejected";
 
     public static final String SUPPORTABILITY_LOGGING_METRICS_JAVA_ENABLED = "Supportability/Logging/Metrics/Java/enabled";
     public static final String SUPPORTABILITY_LOGGING_METRICS_JAVA_DISABLED = "Supportability/Logging/Metrics/Java/disabled";
@@ -298,6 +301,9 @@ public class MetricNames {
     public static final String SUPPORTABILITY_DATASTORE_UNKNOWN_HOST = "/unknownHost";
     public static final String SUPPORTABILITY_DATASTORE_UNKNOWN_PORT = "/unknownPort";
     public static final String SUPPORTABILITY_DATASTORE_UNKNOWN_DATABASE_NAME = "/unknownDatabaseName";
+    public static final String SUPPORTABILITY_DATASTORE_SQL_CACHE_HITS = "Supportability/Datastore/SqlCache/Hits";
+    public static final String SUPPORTABILITY_DATASTORE_SQL_CACHE_MISSES = "Supportability/Datastore/SqlCache/Misses";
+    public static final String SUPPORTABILITY_DATASTORE_SQL_CACHE_EVICTIONS = "Supportability/Datastore/SqlCache/Evictions";
 
     public static final String SUPPORTABILITY_INIT = "Supportability/Instrumented/";
     public static final String SUPPORTABILITY_INSTRUMENT = SUPPORTABILITY_INIT + "{0}/{1}{2}";
@@ -317,6 +323,7 @@ public class MetricNames {
 
     public static final String SUPPORTABILITY_TIMING = "Supportability/Timing/";
     public static final String SUPPORTABILITY_TIMING_PREMAIN = SUPPORTABILITY_TIMING + "Premain";
+    public static final String SUPPORTABILITY_TIMING_WEAVE_PACKAGES = SUPPORTABILITY_TIMING + "WeavePackages/{0}/{1}";
 
     public static final String SUPPORTABILITY_LITE_MODE = "Supportability/litemode"; // feature is enabled
 
@@ -380,6 +387,8 @@ public class MetricNames {
     public static final String SUPPORTABILITY_HARVEST_TRANSACTION_STARTED = "Supportability/Transaction/Harvest/StartedCount";
     public static final String SUPPORTABILITY_HARVEST_TRANSACTION_FINISHED = "Supportability/Transaction/Harvest/FinishedCount";
     public static final String SUPPORTABILITY_HARVEST_TRANSACTION_CANCELLED = "Supportability/Transaction/Harvest/CancelledCount";
+    public static final String SUPPORTABILITY_TRANSACTION_ASYNC_FINISH_DROPPED = "Supportability/Transaction/AsyncFinish/DroppedCount";
+    public static final String SUPPORTABILITY_TRANSACTION_ASYNC_FINISH_QUEUE_SIZE = "Supportability/Transaction/AsyncFinish/QueueSize";
     public static final String SUPPORTABILITY_TRANSACTION_REQUEST_INITIALIZED = "Supportability/Transaction/RequestInitialized";
     public static final String SUPPORTABILITY_TRANSACTION_REQUEST_DESTROYED = "Supportability/Transaction/RequestDestroyed";
     //This metric increments if requestInitialized was started but there was already a transaction present
@@ -7,74 +7,89 @@
 
 package com.newrelic.agent;
 
-import com.newrelic.agent.bridge.AgentBridge;
-import com.newrelic.agent.bridge.CacheRemovalListener;
-import com.newrelic.agent.bridge.CleanableMap;
 import com.newrelic.agent.model.TimeoutCause;
 import com.newrelic.agent.util.TimeConversion;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 /**
- * This implementation relies on a caffeine cache, which is like a map ( it is built on top of ConcurrentHashMap). There is no set implementation which is why the
- * map stores the token reference as both the key and value.
+ * The tokens of a transaction. Each token has a {@link TokenTimeout} that is linked into a list owned by this set and
+ * is scheduled on the {@link TokenTimeoutWheel} shared by all transactions, so creating a set and adding a token only
+ * allocate small objects instead of a cache per transaction. Tokens time out after they haven't been accessed for the
+ * time out period.
  *
  * Note, changes to token behavior here should be made consistent with the old async api in AsyncTransactionService.
  */
 public class TimedTokenSet implements TimedSet<TokenImpl> {
 
     private final AtomicInteger timedOutTokens;
-    private final CleanableMap<TokenImpl, TokenImpl> activeTokens;
+    private final long timeOutMilli;
+    private final ExpirationService expirationService;
+    private final TokenTimeoutWheel wheel;
+
+    // the tokens in this set, guarded by this
+    private TokenTimeout head;
+    private int size;
 
     public TimedTokenSet(int timeOut, TimeUnit unit, final ExpirationService expirationService) {
+        this(timeOut, unit, expirationService, TokenTimeoutWheel.getSharedWheel());
+    }
+
+    TimedTokenSet(int timeOut, TimeUnit unit, ExpirationService expirationService, TokenTimeoutWheel wheel) {
         timedOutTokens = new AtomicInteger(0);
 
         // async timeout is given in seconds, but passing in 0 causes strange behavior, especially in tests, because
         // onRemoval happens immediately after put, so we can hit onRemoval logic before getToken() even finishes
-        long timeOutMilli = TimeConversion.convertToMilliWithLowerBound(timeOut, unit, 250L);
-        activeTokens = AgentBridge.collectionFactory.createCacheWithAccessExpirationAndRemovalListener(
-                timeOutMilli, TimeUnit.MILLISECONDS, 8,
-                (TokenImpl token, TokenImpl value, CacheRemovalListener.RemovalReason cause) -> {
-                    Transaction tx = token.getTransaction().getTransactionIfExists();
-
-                    try {
-                        if (cause == CacheRemovalListener.RemovalReason.EXPIRED) { // time out case
-                            Agent.LOG.log(Level.FINEST, "Timing out token {0} on transaction {1}", token, tx);
-                            timedOutTokens.incrementAndGet();
-                            token.setTruncated();
-
-                            if (tx != null) {
-                                tx.setTimeoutCause(TimeoutCause.TOKEN);
-                            }
-                        } else if (cause == CacheRemovalListener.RemovalReason.EXPLICIT) { // remove and removeAll case
-                            Agent.LOG.log(Level.FINEST, "Expiring token {0} on transaction {1}", token, tx);
-                        } else { // should never happen
-                            Agent.LOG.log(Level.FINEST, "Token {0} on transaction {1} removed due to cause {2}", token, tx, cause);
-                        }
-                    } catch (Exception e) {
-                        Agent.LOG.log(Level.FINEST, "Token {0} on transaction {1} threw exception: {2}", token, tx, e);
-                    } finally {
-                        // The expire all tokens code path doesn't iterate over, and call expire on, all the tokens
-                        // because that would make it look like the user explicitly did it. However, the on removal
-                        // cause for expiring one is the same as for expiring all (EXPLICIT). So markExpire needs to be
-                        // called in either case, since it doesn't hurt to null out the tracer again, and it still needs
-                        // to happen in the expire all case.
-                        //
-                        // In the case of a token being expired we *must* spin off the work on to a
-                        // second thread in order to prevent a possible deadlock between the expire code
-                        // and other tx usages.
-                        if (!token.isInTransfer.get()) {
-                            expirationService.expireToken(() -> token.markExpired(tx));
-                        }
-                    }
-                });
+        this.timeOutMilli = TimeConversion.convertToMilliWithLowerBound(timeOut, unit, 250L);
+        this.expirationService = expirationService;
+        this.wheel = wheel;
+    }
+
+    private void onRemoval(TokenImpl token, boolean timedOut) {
+        Transaction tx = null;
+        try {
+            tx = token.getTransaction().getTransactionIfExists();
+            if (timedOut) { // time out case
+                Agent.LOG.log(Level.FINEST, "Timing out token {0} on transaction {1}", token, tx);
+                timedOutTokens.incrementAndGet();
+                token.setTruncated();
+
+                if (tx != null) {
+                    tx.setTimeoutCause(TimeoutCause.TOKEN);
+                }
+            } else { // remove and removeAll case
+                Agent.LOG.log(Level.FINEST, "Expiring token {0} on transaction {1}", token, tx);
+            }
+        } catch (Exception e) {
+            Agent.LOG.log(Level.FINEST, "Token {0} on transaction {1} threw exception: {2}", token, tx, e);
+        }
+
+        try {
+            // The expire all tokens code path doesn't iterate over, and call expire on, all the tokens because that
+            // would make it look like the user explicitly did it. So markExpired needs to be called here for a token
+            // that is removed, since it doesn't hurt to null out the tracer again, and it still needs to happen in the
+            // expire all case.
+            //
+            // In the case of a token being expired we *must* spin off the work on to a
+            // second thread in order to prevent a possible deadlock between the expire code
+            // and other tx usages.
+            if (!token.isInTransfer.get()) {
+                final Transaction txAtRemoval = tx;
+                expirationService.expireToken(() -> token.markExpired(txAtRemoval));
+            }
+        } catch (Exception e) {
+            Agent.LOG.log(Level.FINEST, "Token {0} on transaction {1} threw exception: {2}", token, tx, e);
+        }
     }
 
     /**
-     * The number of entries in the cache that were removed due to timing out.
+     * The number of entries in the set that were removed due to timing out.
      */
     @Override
     public int timedOutCount() {
@@ -82,47 +97,156 @@ public class TimedTokenSet implements TimedSet<TokenImpl> {
     }
 
     /**
-     * Removes one entry from the set, the removal cause should be RemovalCause.EXPLICIT.
+     * Removes one entry from the set, which doesn't count as a time out.
      */
     @Override
     public boolean remove(TokenImpl token) {
-        return activeTokens.remove(token) != null;
+        if (!unlinkToken(token)) {
+            return false;
+        }
+        onRemoval(token, false);
+        return true;
     }
 
     /**
-     * Removes any and all entries from the set, the removal cause for each should be RemovalCause.EXPLICIT.
+     * Removes any and all entries from the set, which don't count as time outs.
      */
     @Override
     public void removeAll() {
-        activeTokens.clear();
+        List<TokenImpl> removed;
+        synchronized (this) {
+            removed = new ArrayList<>(size);
+            while (head != null) {
+                TokenTimeout timeout = head;
+                unlink(timeout);
+                removed.add(timeout.token);
+            }
+        }
+        for (TokenImpl token : removed) {
+            onRemoval(token, false);
+        }
     }
 
     @Override
     public void put(TokenImpl token) {
-        activeTokens.put(token, token);
+        long deadline = wheel.currentTimeMillis() + timeOutMilli;
+        synchronized (this) {
+            TokenTimeout existing = token.timeout;
+            if (existing != null && existing.set == this && existing.linked) {
+                existing.refresh(deadline);
+                return;
+            }
+            TokenTimeout timeout = new TokenTimeout(this, token);
+            timeout.linked = true;
+            timeout.nextInSet = head;
+            if (head != null) {
+                head.previousInSet = timeout;
+            }
+            head = timeout;
+            size++;
+            token.timeout = timeout;
+            wheel.schedule(timeout, deadline);
+        }
     }
 
+    /**
+     * Times out the tokens, of every transaction, that haven't been accessed for their time out period.
+     */
     @Override
     public void cleanUp() {
-        activeTokens.cleanUp();
+        wheel.expireTimeouts();
     }
 
     @Override
     public void refresh(TokenImpl token) {
-        activeTokens.get(token);
+        TokenTimeout timeout = token.timeout;
+        if (timeout != null && timeout.set == this) {
+            timeout.refresh(wheel.currentTimeMillis() + timeOutMilli);
+        }
     }
 
+    /**
+     * @return a copy of the tokens in the set
+     */
     @Override
-    public Set<TokenImpl> getTokens() {
-        return activeTokens.keySet();
+    public synchronized Set<TokenImpl> getTokens() {
+        Set<TokenImpl> tokens = new HashSet<>(size * 2);
+        for (TokenTimeout timeout = head; timeout != null; timeout = timeout.nextInSet) {
+            tokens.add(timeout.token);
+        }
+        return tokens;
     }
 
     @Override
     public void transferToken(TokenImpl token, TimedSet<TokenImpl> targetCache){
         token.isInTransfer.set(true);
-        activeTokens.remove(token);
+        if (unlinkToken(token)) {
+            Agent.LOG.log(Level.FINEST, "Transferring token {0} to {1}", token, targetCache);
+        }
         targetCache.put(token);
         token.isInTransfer.set(false);
     }
 
+    private synchronized boolean unlinkToken(TokenImpl token) {
+        TokenTimeout timeout = token.timeout;
+        if (timeout == null || timeout.set != this || !timeout.linked) {
+            return false;
+        }
+        unlink(timeout);
+        return true;
+    }
+
+    // must be called while holding the lock of this set
+    private void unlink(TokenTimeout timeout) {
+        wheel.cancel(timeout);
+        if (timeout.previousInSet == null) {
+            head = timeout.nextInSet;
+        } else {
+            timeout.previousInSet.nextInSet = timeout.nextInSet;
+        }
+        if (timeout.nextInSet != null) {
+            timeout.nextInSet.previousInSet = timeout.previousInSet;
+        }
+        timeout.previousInSet = null;
+        timeout.nextInSet = null;
+        timeout.linked = false;
+        size--;
+        if (timeout.token.timeout == timeout) {
+            timeout.token.timeout = null;
+        }
+    }
+
+    private void timedOut(TokenTimeout timeout) {
+        synchronized (this) {
+            if (!timeout.linked) {
+                // removed after the wheel fired the time out
+                return;
+            }
+            unlink(timeout);
+        }
+        onRemoval(timeout.token, true);
+    }
+
+    /**
+     * The time out of a token in a set.
+     */
+    static final class TokenTimeout extends TokenTimeoutWheel.Timeout {
+        final TimedTokenSet set;
+        final TokenImpl token;
+        // guarded by the lock of the set
+        boolean linked;
+        TokenTimeout previousInSet;
+        TokenTimeout nextInSet;
+
+        TokenTimeout(TimedTokenSet set, TokenImpl token) {
+            this.set = set;
+            this.token = token;
+        }
+
+        @Override
+        protected void expired() {
+            set.timedOut(this);
+        }
+    }
+
 }
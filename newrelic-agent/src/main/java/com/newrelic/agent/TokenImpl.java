@@ -25,6 +25,10 @@ public class TokenImpl implements Token {
      * Used to prevent this token from being prematurely expired when it is removed from the old transaction's cache.
      */
     protected final AtomicBoolean isInTransfer;
+    /**
+     * The time out of this token in the token set of its transaction, or null if it isn't in one.
+     */
+    volatile TimedTokenSet.TokenTimeout timeout;
 
     public TokenImpl(Tracer tracer) {
         initiatingTracer = tracer;
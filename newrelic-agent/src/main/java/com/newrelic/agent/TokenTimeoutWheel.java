@@ -0,0 +1,300 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+
+/**
+ * A hierarchical timing wheel that times out async tokens for every transaction in the JVM.
+ * <p>
+ * Time is divided into ticks of {@link #TICK_MILLIS}. Each level of the wheel has {@link #WHEEL_SIZE} slots, and a
+ * slot on level n covers {@code WHEEL_SIZE^n} ticks. A timeout is put in the lowest level whose slots still separate
+ * its deadline from the current tick, and is moved down a level when the wheel reaches its slot, so scheduling and
+ * cancelling a timeout are constant time and each timeout is only moved a few times before it fires.
+ * <p>
+ * The wheel is split into stripes that each have their own lock and slots, and a timeout is scheduled on the stripe
+ * of the thread that schedules it, so threads that create tokens at the same time rarely wait for each other.
+ * <p>
+ * Deadlines are extended without a lock by {@link Timeout#refresh(long)}. When the slot of a refreshed timeout is
+ * reached the timeout is scheduled again for its new deadline instead of firing, which is how a timeout measured from
+ * the last access is kept.
+ * <p>
+ * Like the caffeine caches that were used before, the wheel doesn't have a thread. Timeouts fire when
+ * {@link #expireTimeouts()} is called, which {@link TimedTokenSet#cleanUp()} does for the periodic maintenance that
+ * {@link TransactionService} runs on each transaction. The timeouts that are due are fired on the calling thread after
+ * the stripe lock is released.
+ */
+final class TokenTimeoutWheel {
+
+    static final long TICK_MILLIS = 100L;
+
+    private static final int WHEEL_BITS = 6;
+    static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final int MAX_STRIPES = 16;
+
+    private static final TokenTimeoutWheel SHARED_WHEEL = new TokenTimeoutWheel(
+            () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()), Runtime.getRuntime().availableProcessors());
+
+    private final LongSupplier clock;
+    private final Stripe[] stripes;
+
+    TokenTimeoutWheel(LongSupplier clock, int concurrency) {
+        this.clock = clock;
+        int stripeCount = 1;
+        while (stripeCount < concurrency && stripeCount < MAX_STRIPES) {
+            stripeCount <<= 1;
+        }
+        long currentTick = clock.getAsLong() / TICK_MILLIS;
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(currentTick - 1);
+        }
+    }
+
+    /**
+     * @return the wheel shared by the agent
+     */
+    static TokenTimeoutWheel getSharedWheel() {
+        return SHARED_WHEEL;
+    }
+
+    /**
+     * @return the time in milliseconds that deadlines are measured with
+     */
+    long currentTimeMillis() {
+        return clock.getAsLong();
+    }
+
+    /**
+     * Schedules the timeout, which must not already be scheduled, to fire at the deadline.
+     */
+    void schedule(Timeout timeout, long deadlineMillis) {
+        timeout.deadlineMillis = deadlineMillis;
+        Stripe stripe = stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+        stripe.lock.lock();
+        try {
+            stripe.add(timeout);
+            stripe.size++;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * @return true if the timeout was scheduled and won't fire, false if it wasn't scheduled or has already fired
+     */
+    boolean cancel(Timeout timeout) {
+        Stripe stripe = timeout.stripe;
+        if (stripe == null) {
+            return false;
+        }
+        stripe.lock.lock();
+        try {
+            if (timeout.stripe != stripe) {
+                return false;
+            }
+            stripe.unlink(timeout);
+            stripe.size--;
+            return true;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Fires every timeout whose deadline has passed.
+     */
+    void expireTimeouts() {
+        long now = clock.getAsLong();
+        for (Stripe stripe : stripes) {
+            Timeout expired;
+            stripe.lock.lock();
+            try {
+                expired = stripe.advance(now);
+            } finally {
+                stripe.lock.unlock();
+            }
+            while (expired != null) {
+                Timeout next = expired.next;
+                expired.next = null;
+                try {
+                    expired.expired();
+                } catch (Throwable t) {
+                    Agent.LOG.log(Level.FINEST, t, "Unable to time out {0}", expired);
+                }
+                expired = next;
+            }
+        }
+    }
+
+    /**
+     * @return the number of scheduled timeouts
+     */
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.size;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * An entry of the wheel. The slot links are guarded by the lock of the stripe the timeout is scheduled on.
+     */
+    abstract static class Timeout {
+        private volatile long deadlineMillis;
+        private volatile Stripe stripe;
+        private int level;
+        private int slot;
+        private Timeout previous;
+        private Timeout next;
+
+        /**
+         * Moves the deadline of a scheduled timeout to a later time.
+         */
+        final void refresh(long deadlineMillis) {
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        /**
+         * Called once the deadline has passed, without any lock of the wheel held.
+         */
+        protected abstract void expired();
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Timeout[][] slots = new Timeout[LEVELS][WHEEL_SIZE];
+        // every tick up to this one has been processed, and the next tick may have been processed in part
+        long processedTick;
+        int size;
+
+        Stripe(long processedTick) {
+            this.processedTick = processedTick;
+        }
+
+        /**
+         * @return the timeouts that are due, linked through their next field
+         */
+        Timeout advance(long now) {
+            long currentTick = now / TICK_MILLIS;
+            if (size == 0) {
+                processedTick = Math.max(processedTick, currentTick - 1);
+                return null;
+            }
+            Timeout expired = null;
+            // every deadline in a tick before the current one has passed
+            while (processedTick < currentTick - 1) {
+                long tick = processedTick + 1;
+                cascade(tick);
+                expired = fire(tick, now, expired);
+                processedTick = tick;
+            }
+            // only some of the deadlines in the current tick have passed, so it is processed again next time
+            if (processedTick == currentTick - 1) {
+                cascade(currentTick);
+                expired = fire(currentTick, now, expired);
+            }
+            return expired;
+        }
+
+        /**
+         * Moves the timeouts in the higher level slots that start at the tick down to the lower levels.
+         */
+        private void cascade(long tick) {
+            for (int level = LEVELS - 1; level > 0; level--) {
+                int shift = WHEEL_BITS * level;
+                if ((tick & ((1L << shift) - 1)) != 0) {
+                    continue;
+                }
+                int slot = (int) (tick >>> shift) & WHEEL_MASK;
+                Timeout timeout = slots[level][slot];
+                slots[level][slot] = null;
+                while (timeout != null) {
+                    Timeout next = timeout.next;
+                    add(timeout);
+                    timeout = next;
+                }
+            }
+        }
+
+        private Timeout fire(long tick, long now, Timeout expired) {
+            int slot = (int) tick & WHEEL_MASK;
+            Timeout timeout = slots[0][slot];
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                long deadline = timeout.deadlineMillis;
+                if (deadline <= now) {
+                    unlink(timeout);
+                    size--;
+                    timeout.next = expired;
+                    expired = timeout;
+                } else if (deadline / TICK_MILLIS > tick) {
+                    // refreshed since it was scheduled
+                    unlink(timeout);
+                    add(timeout);
+                }
+                timeout = next;
+            }
+            return expired;
+        }
+
+        /**
+         * Puts the timeout in the slot for its deadline, on the lowest level that has a slot for it.
+         */
+        void add(Timeout timeout) {
+            long firstTick = processedTick + 1;
+            long tick = Math.max(timeout.deadlineMillis / TICK_MILLIS, firstTick);
+            int level = 0;
+            while (level < LEVELS && (tick >>> (WHEEL_BITS * (level + 1))) != (firstTick >>> (WHEEL_BITS * (level + 1)))) {
+                level++;
+            }
+            if (level == LEVELS) {
+                // beyond the top level, so it waits in the last slot and is scheduled again from there
+                level = LEVELS - 1;
+                tick = firstTick | ((1L << (WHEEL_BITS * LEVELS)) - 1);
+            }
+            int slot = (int) (tick >>> (WHEEL_BITS * level)) & WHEEL_MASK;
+            Timeout head = slots[level][slot];
+            timeout.stripe = this;
+            timeout.level = level;
+            timeout.slot = slot;
+            timeout.previous = null;
+            timeout.next = head;
+            if (head != null) {
+                head.previous = timeout;
+            }
+            slots[level][slot] = timeout;
+        }
+
+        void unlink(Timeout timeout) {
+            if (timeout.previous == null) {
+                slots[timeout.level][timeout.slot] = timeout.next;
+            } else {
+                timeout.previous.next = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.stripe = null;
+        }
+    }
+
+}
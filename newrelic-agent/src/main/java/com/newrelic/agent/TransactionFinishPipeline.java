@@ -0,0 +1,144 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent;
+
+import com.newrelic.agent.stats.TransactionStats;
+import com.newrelic.agent.util.DefaultThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+
+/**
+ * Runs the work of finishing a transaction (the transaction listeners and merging the transaction's stats) on agent
+ * threads instead of the application thread that finished the transaction.
+ *
+ * Finished transactions are handed to a bounded queue that a fixed number of workers drain in batches. Handing off
+ * never blocks: if the queue is full the transaction is dropped and counted so the loss can be reported.
+ *
+ * This class is thread-safe.
+ */
+final class TransactionFinishPipeline {
+
+    private static final String THREAD_NAME = "New Relic Transaction Finisher";
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final BlockingQueue<FinishedTransaction> queue;
+    private final int batchSize;
+    private final BiConsumer<TransactionData, TransactionStats> processor;
+    private final ExecutorService workers;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * @param workerCount the number of threads processing finished transactions
+     * @param queueSize   the number of finished transactions that can wait to be processed before new ones are dropped
+     * @param batchSize   the maximum number of transactions a worker takes from the queue at once
+     * @param processor   does the work of finishing a transaction
+     */
+    TransactionFinishPipeline(int workerCount, int queueSize, int batchSize,
+            BiConsumer<TransactionData, TransactionStats> processor) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.batchSize = Math.max(1, batchSize);
+        this.processor = processor;
+        int workers = Math.max(1, workerCount);
+        this.workers = Executors.newFixedThreadPool(workers, new DefaultThreadFactory(THREAD_NAME, true));
+        for (int i = 0; i < workers; i++) {
+            this.workers.execute(this::processQueue);
+        }
+    }
+
+    /**
+     * Queues a finished transaction for processing.
+     *
+     * @return false if the transaction was dropped because the pipeline is full or shut down
+     */
+    boolean offer(TransactionData transactionData, TransactionStats transactionStats) {
+        if (running && queue.offer(new FinishedTransaction(transactionData, transactionStats))) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Returns the number of transactions dropped since the last call.
+     */
+    long getAndResetDroppedCount() {
+        return dropped.getAndSet(0);
+    }
+
+    int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting transactions and waits up to the given time for the queued ones to be processed.
+     */
+    void shutdown(long timeout, TimeUnit unit) {
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(timeout, unit)) {
+                Agent.LOG.log(Level.FINER, "Timed out processing {0} finished transactions at shutdown", queue.size());
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void processQueue() {
+        List<FinishedTransaction> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                FinishedTransaction first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                for (FinishedTransaction finished : batch) {
+                    process(finished);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(FinishedTransaction finished) {
+        try {
+            processor.accept(finished.transactionData, finished.transactionStats);
+        } catch (Throwable t) {
+            Agent.LOG.log(Level.FINE, t, "Error processing finished transaction");
+        }
+    }
+
+    private static final class FinishedTransaction {
+        final TransactionData transactionData;
+        final TransactionStats transactionStats;
+
+        FinishedTransaction(TransactionData transactionData, TransactionStats transactionStats) {
+            this.transactionData = transactionData;
+            this.transactionStats = transactionStats;
+        }
+    }
+
+}
@@ -9,6 +9,7 @@ package com.newrelic.agent;
 
 import com.google.common.collect.MapMaker;
 import com.newrelic.agent.attributes.AttributeNames;
+import com.newrelic.agent.config.AgentConfig;
 import com.newrelic.agent.service.AbstractService;
 import com.newrelic.agent.service.ServiceFactory;
 import com.newrelic.agent.stats.*;
@@ -35,6 +36,14 @@ public class TransactionService extends AbstractService {
 
     private static final String TRANSACTION_SERVICE_PROCESSOR_THREAD_NAME = "New Relic Transaction Service Processor";
 
+    static final String ASYNC_FINISH_ENABLED = "transaction_finish.async.enabled";
+    static final String ASYNC_FINISH_WORKER_THREADS = "transaction_finish.async.worker_threads";
+    static final String ASYNC_FINISH_QUEUE_SIZE = "transaction_finish.async.queue_size";
+    static final String ASYNC_FINISH_BATCH_SIZE = "transaction_finish.async.batch_size";
+    private static final int DEFAULT_ASYNC_FINISH_WORKER_THREADS = 1;
+    private static final int DEFAULT_ASYNC_FINISH_QUEUE_SIZE = 10_000;
+    private static final int DEFAULT_ASYNC_FINISH_BATCH_SIZE = 64;
+
     private final List<TransactionListener> transactionListeners = new CopyOnWriteArrayList<>();
     private final List<ExtendedTransactionListener> extendedTransactionListeners = new CopyOnWriteArrayList<>();
     private final List<TransactionStatsListener> transactionStatsListeners = new CopyOnWriteArrayList<>();
@@ -47,6 +56,12 @@ public class TransactionService extends AbstractService {
     private AtomicLong txFinishedThisHarvest = new AtomicLong(0);
     private AtomicLong txCancelledThisHarvest = new AtomicLong(0);
 
+    /**
+     * Processes finished transactions off the application thread when asynchronous transaction finishing is enabled,
+     * null otherwise.
+     */
+    private volatile TransactionFinishPipeline finishPipeline;
+
     public TransactionService() {
         this(1, 5L, 30L, TimeUnit.SECONDS);
     }
@@ -99,6 +114,54 @@ public class TransactionService extends AbstractService {
      * processing captured by the transaction may have resulted in an error.
      */
     public void transactionFinished(TransactionData transactionData, TransactionStats transactionStats) {
+        notifyTransactionFinishing(transactionData);
+        TransactionFinishPipeline pipeline = finishPipeline;
+        if (pipeline != null) {
+            updateQueue.remove(transactionData.getTransaction());
+            if (!pipeline.offer(transactionData, transactionStats)) {
+                releaseDroppedTransaction(transactionData);
+            }
+            return;
+        }
+        processTransaction(transactionData, transactionStats);
+    }
+
+    private void notifyTransactionFinishing(TransactionData transactionData) {
+        if (transactionData.getDispatcher() == null) {
+            return;
+        }
+        for (ExtendedTransactionListener listener : extendedTransactionListeners) {
+            try {
+                listener.dispatcherTransactionFinishing(transactionData);
+            } catch (Exception e) {
+                getLogger().log(Level.FINE, e, "Error finishing transaction \"{0}\"", transactionData.getBlameMetricName());
+            }
+        }
+    }
+
+    /**
+     * A transaction that was dropped because the finish queue is full never reaches the transaction listeners, so the
+     * listeners release what they hold for it the way they do for a cancelled transaction.
+     */
+    private void releaseDroppedTransaction(TransactionData transactionData) {
+        txFinishedThisHarvest.incrementAndGet();
+        if (Agent.isDebugEnabled()) {
+            getLogger().finer("Dropped finished transaction " + transactionData + ", the finish queue is full");
+        }
+        if (transactionData.getDispatcher() == null) {
+            return;
+        }
+        Transaction transaction = transactionData.getTransaction();
+        for (ExtendedTransactionListener listener : extendedTransactionListeners) {
+            try {
+                listener.dispatcherTransactionCancelled(transaction);
+            } catch (Exception e) {
+                getLogger().log(Level.FINE, e, "Error releasing dropped transaction \"{0}\"", transactionData.getBlameMetricName());
+            }
+        }
+    }
+
+    private void processTransaction(TransactionData transactionData, TransactionStats transactionStats) {
         try {
             doProcessTransaction(transactionData, transactionStats);
             txFinishedThisHarvest.incrementAndGet();
@@ -167,6 +230,7 @@ public class TransactionService extends AbstractService {
     @Override
     protected void doStart() {
         getLogger().finer("Transaction service starting");
+        startFinishPipeline();
         ServiceFactory.getHarvestService().addHarvestListener(new HarvestListener() {
             private volatile long txStarted = 0;
             private volatile long txFinished = 0;
@@ -191,6 +255,7 @@ public class TransactionService extends AbstractService {
                 // The size() call is quite misleading because it may report entries that are
                 // actually "dead" but have not yet been collected (see docs, they say this).
                 recordTransactionSupportabilityMetrics(started, finished, cancelled);
+                recordFinishPipelineSupportabilityMetrics();
                 Agent.LOG.log(Level.FINE, "TransactionService: harvest: s/f/c {0}/{1}/{2}, total {3}/{4}/{5}, queue {6}",
                         started, finished, cancelled, txStarted, txFinished, txCancelled, updateQueue.size());
             }
@@ -218,9 +283,47 @@ public class TransactionService extends AbstractService {
                 MetricNames.SUPPORTABILITY_HARVEST_TRANSACTION_CANCELLED);
     }
 
+    /**
+     * Starts the pipeline that finishes transactions on agent threads if it is enabled. It is never used in serverless
+     * mode because there the harvest runs right after each transaction finishes.
+     */
+    private void startFinishPipeline() {
+        AgentConfig config = ServiceFactory.getConfigService().getDefaultAgentConfig();
+        if (!config.getValue(ASYNC_FINISH_ENABLED, Boolean.FALSE) || config.getServerlessConfig().isEnabled()) {
+            return;
+        }
+        int workerThreads = config.getValue(ASYNC_FINISH_WORKER_THREADS, DEFAULT_ASYNC_FINISH_WORKER_THREADS);
+        int queueSize = config.getValue(ASYNC_FINISH_QUEUE_SIZE, DEFAULT_ASYNC_FINISH_QUEUE_SIZE);
+        int batchSize = config.getValue(ASYNC_FINISH_BATCH_SIZE, DEFAULT_ASYNC_FINISH_BATCH_SIZE);
+        finishPipeline = new TransactionFinishPipeline(workerThreads, queueSize, batchSize, this::processTransaction);
+        getLogger().log(Level.INFO, "Finishing transactions asynchronously with {0} threads and a queue of {1}", workerThreads, queueSize);
+    }
+
+    private void recordFinishPipelineSupportabilityMetrics() {
+        TransactionFinishPipeline pipeline = finishPipeline;
+        if (pipeline == null) {
+            return;
+        }
+        StatsService statsService = ServiceFactory.getStatsService();
+        long dropped = pipeline.getAndResetDroppedCount();
+        statsService.doStatsWork(StatsWorks.getIncrementCounterWork(MetricNames.SUPPORTABILITY_TRANSACTION_ASYNC_FINISH_DROPPED, (int) dropped),
+                MetricNames.SUPPORTABILITY_TRANSACTION_ASYNC_FINISH_DROPPED);
+        statsService.doStatsWork(StatsWorks.getRecordMetricWork(MetricNames.SUPPORTABILITY_TRANSACTION_ASYNC_FINISH_QUEUE_SIZE, pipeline.getQueueSize()),
+                MetricNames.SUPPORTABILITY_TRANSACTION_ASYNC_FINISH_QUEUE_SIZE);
+        if (dropped > 0) {
+            Agent.LOG.log(Level.FINE, "TransactionService: dropped {0} finished transactions because the finish queue was full", dropped);
+        }
+    }
+
     @Override
     protected void doStop() {
         getLogger().finer("Transaction service stopping");
+        TransactionFinishPipeline pipeline = finishPipeline;
+        if (pipeline != null) {
+            // let queued transactions reach the listeners before they are removed
+            finishPipeline = null;
+            pipeline.shutdown(10, TimeUnit.SECONDS);
+        }
         transactionListeners.clear();
         extendedTransactionListeners.clear();
         transactionStatsListeners.clear();
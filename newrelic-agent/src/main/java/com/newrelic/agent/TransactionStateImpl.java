@@ -19,7 +19,6 @@ import com.newrelic.agent.tracers.TracerFactory;
 import com.newrelic.agent.tracers.TracerFlags;
 import com.newrelic.agent.tracers.UltraLightTracer;
 import com.newrelic.agent.tracers.metricname.MetricNameFormat;
-import com.newrelic.agent.tracers.metricname.MetricNameFormats;
 
 import java.util.logging.Level;
 
@@ -66,7 +65,7 @@ public class TransactionStateImpl implements TransactionState {
         }
 
         Tracer tracer;
-        final MetricNameFormat mnf = MetricNameFormats.getFormatter(invocationTarget, sig, metricName, flags);
+        final MetricNameFormat mnf = sig.getMetricNameFormat(invocationTarget, metricName, flags);
 
         if (TracerFlags.isDispatcher(flags)) {
             tracer = new OtherRootTracer(tx, sig, invocationTarget, mnf);
@@ -88,7 +87,7 @@ public class TransactionStateImpl implements TransactionState {
         }
 
         Tracer tracer;
-        final MetricNameFormat mnf = MetricNameFormats.getFormatter(invocationTarget, sig, metricName, flags);
+        final MetricNameFormat mnf = sig.getMetricNameFormat(invocationTarget, metricName, flags);
 
         if (TracerFlags.isDispatcher(flags)) {
             tracer = new OtherRootSqlTracer(tx, sig, invocationTarget, mnf);
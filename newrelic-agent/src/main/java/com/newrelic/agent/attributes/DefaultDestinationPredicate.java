@@ -26,7 +26,11 @@ import java.util.logging.Level;
  */
 public class DefaultDestinationPredicate implements DestinationPredicate {
 
-    private static final int MAX_CACHE_SIZE_BUFFER = 200;
+    /**
+     * Attribute names repeat across transactions, spans and errors, so this holds the decisions for all the names of a
+     * typical application.
+     */
+    private static final int MAX_CACHE_SIZE_BUFFER = 1000;
     /**
      * This is always run first. If we match any, then we are done. High security properties go in here
      */
@@ -41,7 +45,8 @@ public class DefaultDestinationPredicate implements DestinationPredicate {
      */
     private final AttributesNode defaultExcludeTrie;
     /**
-     * Holds recent keys and result values.
+     * Holds recent keys and whether they are included. A new predicate is created when the configuration changes, so
+     * the decisions never outlive the rules they were made with.
      */
     private final Function<String, Boolean> cache;
     /**
@@ -56,7 +61,14 @@ public class DefaultDestinationPredicate implements DestinationPredicate {
         configTrie = generateConfigTrie(dest, exclude, include);
         defaultExcludeTrie = generateDefaultTrie(dest, defaultExcludes);
         destination = dest;
-        cache = AgentBridge.collectionFactory.memorize(this::isIncluded, MAX_CACHE_SIZE_BUFFER);
+        // the loader never returns null because the caches don't hold null values, and most keys don't match any rule
+        cache = AgentBridge.collectionFactory.memorize(this::isIncludedOrDefault, MAX_CACHE_SIZE_BUFFER);
+    }
+
+    private Boolean isIncludedOrDefault(String key) {
+        // if no rules were matched then return true - should not be in here if the service is disabled
+        Boolean output = isIncluded(key);
+        return output == null ? Boolean.TRUE : output;
     }
 
     private Boolean isIncluded(String key) {
@@ -86,7 +98,9 @@ public class DefaultDestinationPredicate implements DestinationPredicate {
      */
     @Override
     public boolean apply(String key) {
-        return changeToPrimitiveAndLog(key, cache.apply(key));
+        boolean out = cache.apply(key);
+        logOutput(key, out);
+        return out;
     }
 
     private void logOutput(String key, boolean value) {
@@ -95,13 +109,6 @@ public class DefaultDestinationPredicate implements DestinationPredicate {
         }
     }
 
-    private boolean changeToPrimitiveAndLog(String key, Boolean value) {
-        // if no rules were matched then return true - should not be in here if the service is disabled
-        boolean out = (value == null ? true : value);
-        logOutput(key, out);
-        return out;
-    }
-
     public boolean isPotentialConfigMatch(String key) {
         List<AttributesNode> queue = new LinkedList<>(configTrie.getChildren());
         AttributesNode node;
@@ -7,7 +7,6 @@
 
 package com.newrelic.agent.attributes;
 
-import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.newrelic.agent.Agent;
 import com.newrelic.agent.config.AgentConfig;
@@ -17,6 +16,7 @@ import com.newrelic.agent.config.BaseConfig;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -105,8 +105,35 @@ public class DestinationFilter {
         return filterAttributes(values, filter);
     }
 
+    /**
+     * Returns a read only view of the values when every key is included, which is the usual case. Otherwise the
+     * included values are copied, because a filtered view would apply the predicate again each time it is read. The
+     * predicate caches its decisions, so applying it is a lookup for keys that have been seen before. The values are
+     * expected to be built for the event being filtered and not to change while the result is used.
+     */
     private Map<String, ?> filterAttributes(Map<String, ?> values, DestinationPredicate predicate) {
-        return (isEnabled && values != null && !values.isEmpty() ? Maps.filterKeys(values, predicate) : Collections.<String, Object>emptyMap());
+        if (!isEnabled || values == null || values.isEmpty()) {
+            return Collections.<String, Object>emptyMap();
+        }
+        if (allIncluded(values, predicate)) {
+            return Collections.unmodifiableMap(values);
+        }
+        Map<String, Object> filtered = new HashMap<>((int) (values.size() / 0.75f) + 1);
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            if (predicate.apply(entry.getKey())) {
+                filtered.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return filtered;
+    }
+
+    private static boolean allIncluded(Map<String, ?> values, DestinationPredicate predicate) {
+        for (String key : values.keySet()) {
+            if (!predicate.apply(key)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public boolean shouldIncludeAttribute(String attributeName) {
@@ -91,6 +91,7 @@ public class AgentConfigImpl extends BaseConfig implements AgentConfig {
     public static final String PROXY_USER = "proxy_user";
     public static final String PUT_FOR_DATA_SEND_PROPERTY = "put_for_data_send";
     public static final String REPORT_SQL_PARSER_ERRORS = "report_sql_parser_errors";
+    public static final String STREAM_PAYLOADS_PROPERTY = "stream_payloads";
     public static final String LASP_TOKEN = "security_policies_token";
     public static final String SEND_DATA_ON_EXIT = "send_data_on_exit";
     public static final String SEND_DATA_ON_EXIT_THRESHOLD = "send_data_on_exit_threshold";
@@ -188,6 +189,7 @@ public class AgentConfigImpl extends BaseConfig implements AgentConfig {
     public static final int DEFAULT_SEND_DATA_ON_EXIT_THRESHOLD = 60;
     public static final boolean DEFAULT_SEND_ENVIRONMENT_INFO = true;
     public static final boolean DEFAULT_SIMPLE_COMPRESSION_ENABLED = false;
+    public static final boolean DEFAULT_STREAM_PAYLOADS_ENABLED = false;
     public static final int DEFAULT_SSL_PORT = 443;
     public static final boolean DEFAULT_STARTUP_TIMING = true;
     public static final boolean DEFAULT_SYNC_STARTUP = false;
@@ -245,6 +247,7 @@ public class AgentConfigImpl extends BaseConfig implements AgentConfig {
     private final String proxyScheme;
     private final String proxyUser;
     private final boolean putForDataSend;
+    private final boolean streamPayloads;
     private final int segmentTimeoutInSec;
     private final String securityPoliciesToken;
     private final boolean sendJvmProps;
@@ -317,6 +320,7 @@ public class AgentConfigImpl extends BaseConfig implements AgentConfig {
         simpleCompression = getProperty(SIMPLE_COMPRESSION_PROPERTY, DEFAULT_SIMPLE_COMPRESSION_ENABLED);
         compressedContentEncoding = initCompressedContentEncoding();
         putForDataSend = getProperty(PUT_FOR_DATA_SEND_PROPERTY, DEFAULT_PUT_FOR_DATA_SEND_ENABLED);
+        streamPayloads = getProperty(STREAM_PAYLOADS_PROPERTY, DEFAULT_STREAM_PAYLOADS_ENABLED);
         isApdexTSet = getProperty(APDEX_T) != null;
         apdexTInMillis = (long) (getDoubleProperty(APDEX_T, DEFAULT_APDEX_T) * 1000L);
         datastoreMultihostPreference = getProperty(DATASTORE_MULTIHOST_PREFERENCE, DEFAULT_DATASTORE_MULTIHOST_PREFERENCE);
@@ -1434,6 +1438,11 @@ public class AgentConfigImpl extends BaseConfig implements AgentConfig {
         return putForDataSend;
     }
 
+    @Override
+    public boolean isStreamPayloads() {
+        return streamPayloads;
+    }
+
     @Override
     public LabelsConfig getLabelsConfig() {
         return labelsConfig;
@@ -16,6 +16,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -23,6 +24,7 @@ import java.util.Enumeration;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.regex.Pattern;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 
 public class AgentJarHelper {
@@ -68,6 +70,34 @@ public class AgentJarHelper {
         return false;
     }
 
+    /**
+     * Returns a checksum of the named entries in a jar, computed from the names, sizes and CRCs recorded in the jar's
+     * central directory so that none of the entries have to be read. Returns -1 if the jar cannot be read.
+     */
+    public static long getJarEntriesChecksum(URL jarUrl, Collection<String> names) {
+        try (JarFile jarFile = getAgentJarFile(jarUrl)) {
+            CRC32 checksum = new CRC32();
+            for (String name : names) {
+                ZipEntry entry = jarFile.getEntry(name);
+                checksum.update(name.getBytes(StandardCharsets.UTF_8));
+                if (entry != null) {
+                    updateChecksum(checksum, entry.getSize());
+                    updateChecksum(checksum, entry.getCrc());
+                }
+            }
+            return checksum.getValue();
+        } catch (Exception e) {
+            logIfNRDebug("Unable to compute a checksum of the agent jar", e);
+        }
+        return -1;
+    }
+
+    private static void updateChecksum(CRC32 checksum, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            checksum.update((int) (value >>> shift));
+        }
+    }
+
     /**
      * Get the directory containing newrelic.jar.
      *
@@ -84,6 +84,15 @@ public interface ClassTransformerConfig extends Config {
      */
     boolean preMatchWeaveMethods();
 
+    /**
+     * Returns the directory the agent keeps its weave package index in, or null if the index is disabled. The index
+     * stores the manifest of every instrumentation jar in the agent so that later JVM starts with the same agent jar
+     * do not have to open the jars again. This is disabled by default.
+     *
+     * @return the weave package index directory, or null if the index should not be used
+     */
+    String getWeavePackageCacheDirectory();
+
     /**
      * True means the agent should instrument {@link ClassLoader#checkPackageAccess} to bypass the call to
      * {@link SecurityManager#checkPackageAccess} for weaved classes.
@@ -40,6 +40,7 @@ final class ClassTransformerConfigImpl extends BaseConfig implements ClassTransf
     public static final String MAX_PREVALIDATED_CLASSLOADERS = "max_prevalidated_classloaders";
     public static final String PREVALIDATE_WEAVE_PACKAGES = "prevalidate_weave_packages";
     public static final String PREMATCH_WEAVE_METHODS = "prematch_weave_methods";
+    public static final String WEAVE_PACKAGE_CACHE_DIR = "weave_package_cache_dir";
     public static final String DEFAULT_INSTRUMENTATION = "instrumentation_default";
     public static final String BUILTIN_EXTENSIONS = "builtin_extensions";
     public static final String COMPUTE_FRAMES = "compute_frames";
@@ -99,6 +100,7 @@ final class ClassTransformerConfigImpl extends BaseConfig implements ClassTransf
     private final int maxPreValidatedClassLoaders;
     private final boolean preValidateWeavePackages;
     private final boolean preMatchWeaveMethods;
+    private final String weavePackageCacheDirectory;
     private final boolean isEnhancedSpringTransactionNaming;
     private final boolean useControllerClassForSpringTransactionNaming;
 
@@ -128,6 +130,7 @@ final class ClassTransformerConfigImpl extends BaseConfig implements ClassTransf
         maxPreValidatedClassLoaders = getProperty(MAX_PREVALIDATED_CLASSLOADERS, DEFAULT_MAX_PREVALIDATED_CLASSLOADERS);
         preValidateWeavePackages = getProperty(PREVALIDATE_WEAVE_PACKAGES, DEFAULT_PREVALIDATE_WEAVE_PACKAGES);
         preMatchWeaveMethods = getProperty(PREMATCH_WEAVE_METHODS, DEFAULT_PREMATCH_WEAVE_METHODS);
+        weavePackageCacheDirectory = getProperty(WEAVE_PACKAGE_CACHE_DIR);
         defaultMethodTracingEnabled = getProperty("default_method_tracing_enabled", true);
         autoAsyncLinkRateLimit = getProperty("auto_async_link_rate_limit", TimeUnit.SECONDS.toMillis(1));
         isEnhancedSpringTransactionNaming = getProperty(ENHANCED_SPRING_TRANSACTION_NAMING, DEFAULT_ENHANCED_SPRING_TRANSACTION_NAMING);
@@ -322,6 +325,11 @@ final class ClassTransformerConfigImpl extends BaseConfig implements ClassTransf
         return preMatchWeaveMethods;
     }
 
+    @Override
+    public String getWeavePackageCacheDirectory() {
+        return weavePackageCacheDirectory;
+    }
+
     @Override
     public long getAutoAsyncLinkRateLimit() {
         return autoAsyncLinkRateLimit;
@@ -57,6 +57,14 @@ public interface DataSenderConfig {
      */
     boolean isPutForDataSend();
 
+    /**
+     * If this is enabled, payloads are serialized and compressed straight into the request body as it is sent, using
+     * chunked transfer encoding, instead of being buffered in memory first.
+     *
+     * @return true if payloads should be streamed to the collector, false (default) if they should be buffered
+     */
+    boolean isStreamPayloads();
+
     AuditModeConfig getAuditModeConfig();
 
     /**
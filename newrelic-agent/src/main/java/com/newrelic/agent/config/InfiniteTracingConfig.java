@@ -14,6 +14,8 @@ public interface InfiniteTracingConfig {
 
     int getSpanEventsQueueSize();
 
+    boolean getUseSpanEventsRingBuffer();
+
     Double getFlakyPercentage();
 
     Long getFlakyCode();
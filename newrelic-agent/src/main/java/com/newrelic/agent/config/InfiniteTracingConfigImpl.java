@@ -72,6 +72,11 @@ public class InfiniteTracingConfigImpl extends BaseConfig implements InfiniteTra
         return spanEventsConfig.getQueueSize();
     }
 
+    @Override
+    public boolean getUseSpanEventsRingBuffer() {
+        return spanEventsConfig.isRingBuffer();
+    }
+
     @Override
     public Double getFlakyPercentage() {
         return getProperty(FLAKY_PERCENTAGE);
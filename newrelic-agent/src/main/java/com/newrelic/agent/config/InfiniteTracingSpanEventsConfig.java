@@ -13,17 +13,25 @@ public class InfiniteTracingSpanEventsConfig extends BaseConfig {
 
     public static final String ROOT = "span_events";
     public static final String QUEUE_SIZE = "queue_size";
+    public static final String RING_BUFFER = "ring_buffer";
 
     public static final int DEFAULT_SPAN_EVENTS_QUEUE_SIZE = 100000;
+    public static final boolean DEFAULT_RING_BUFFER = false;
 
     private final int queue_size;
+    private final boolean ring_buffer;
 
     public InfiniteTracingSpanEventsConfig(Map<String, Object> props, String parentRoot) {
         super(props, parentRoot + ROOT + ".");
         queue_size = getIntProperty(QUEUE_SIZE, DEFAULT_SPAN_EVENTS_QUEUE_SIZE);
+        ring_buffer = getProperty(RING_BUFFER, DEFAULT_RING_BUFFER);
     }
 
     public int getQueueSize() {
         return queue_size;
     }
+
+    public boolean isRingBuffer() {
+        return ring_buffer;
+    }
 }
@@ -8,40 +8,26 @@
 package com.newrelic.agent.database;
 
 import com.newrelic.agent.Agent;
-import com.newrelic.agent.bridge.AgentBridge;
 import com.newrelic.agent.bridge.datastore.DatabaseVendor;
+import com.newrelic.agent.bridge.datastore.SqlFingerprintCache;
+
 import java.sql.ResultSetMetaData;
-import java.util.Map;
 import java.util.logging.Level;
 
 /**
- * Cache a limited number of parsed database statements. <br>
+ * Cache parsed database statements in the agent wide {@link SqlFingerprintCache}, so that statements that only differ
+ * in their literals are parsed once. <br>
  * This class is thread safe.
  */
 public class CachingDatabaseStatementParser implements DatabaseStatementParser {
 
-    // This class is thread safe post-v3.5.1 of the Agent. See JAVA-651.
-
     private final DatabaseStatementParser databaseStatementParser;
-    private volatile Map<String, ParsedDatabaseStatement> statements;
+    private final SqlFingerprintCache cache = SqlFingerprintCache.getSharedCache();
 
     public CachingDatabaseStatementParser(DatabaseStatementParser databaseStatementParser) {
         this.databaseStatementParser = databaseStatementParser;
     }
 
-    private Map<String, ParsedDatabaseStatement> getOrCreateCache() {
-        // The infamous double-check locking pattern, which works correctly post-Java-1.5
-        // so long as the shared instance variable ("statements") is declared volatile.
-        if (null == statements) {
-            synchronized (this) {
-                if (null == statements) {
-                    statements = AgentBridge.collectionFactory.createCacheWithWeakKeysAndSize(1000);
-                }
-            }
-        }
-        return statements;
-    }
-
     /**
      * Get parsed SQL, with caching.
      * 
@@ -59,14 +45,9 @@ public class CachingDatabaseStatementParser implements DatabaseStatementParser {
                 return UNPARSEABLE_STATEMENT;
             }
 
-            Map<String, ParsedDatabaseStatement> cache = getOrCreateCache();
-            ParsedDatabaseStatement parsedStatement = cache.get(statement);
-            if (parsedStatement == null) {
-                parsedStatement = databaseStatementParser.getParsedDatabaseStatement(databaseVendor, statement, resultSetMetaData);
-                cache.put(statement, parsedStatement);
-            }
-
-            return parsedStatement;
+            // every transaction wraps the database service's parser, so keying on it shares entries between transactions
+            return cache.get(databaseStatementParser, getVariant(databaseVendor, resultSetMetaData), statement,
+                    sql -> databaseStatementParser.getParsedDatabaseStatement(databaseVendor, sql, resultSetMetaData));
         } catch (RuntimeException ex) {
             toLog = ex;
         }
@@ -76,4 +57,25 @@ public class CachingDatabaseStatementParser implements DatabaseStatementParser {
         return UNPARSEABLE_STATEMENT;
     }
 
+    /**
+     * The parsed statement holds the vendor, and the table of a query's result set is used as the statement's table,
+     * so both are part of the cache key.
+     */
+    private static String getVariant(DatabaseVendor databaseVendor, ResultSetMetaData resultSetMetaData) {
+        String vendorName = databaseVendor == null ? null : databaseVendor.getName();
+        String tableName = null;
+        if (resultSetMetaData != null) {
+            try {
+                if (resultSetMetaData.getColumnCount() > 0) {
+                    tableName = resultSetMetaData.getTableName(1);
+                }
+            } catch (Exception ignored) {
+            }
+        }
+        if (tableName == null || tableName.isEmpty()) {
+            return vendorName;
+        }
+        return vendorName + '/' + tableName;
+    }
+
 }
@@ -8,14 +8,18 @@
 package com.newrelic.agent.database;
 
 import com.newrelic.agent.Agent;
+import com.newrelic.agent.HarvestListener;
+import com.newrelic.agent.MetricNames;
 import com.newrelic.agent.bridge.datastore.ConnectionFactory;
 import com.newrelic.agent.bridge.datastore.DatabaseVendor;
 import com.newrelic.agent.bridge.datastore.JdbcHelper;
+import com.newrelic.agent.bridge.datastore.SqlFingerprintCache;
 import com.newrelic.agent.config.AgentConfig;
 import com.newrelic.agent.config.AgentConfigListener;
 import com.newrelic.agent.config.TransactionTracerConfig;
 import com.newrelic.agent.service.AbstractService;
 import com.newrelic.agent.service.ServiceFactory;
+import com.newrelic.agent.stats.StatsEngine;
 import com.newrelic.agent.tracers.SqlTracer;
 
 import java.sql.Connection;
@@ -25,30 +29,39 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 
-public class DatabaseService extends AbstractService implements AgentConfigListener {
+public class DatabaseService extends AbstractService implements AgentConfigListener, HarvestListener {
 
-    private static final SqlObfuscator DEFAULT_SQL_OBFUSCATOR = SqlObfuscator.getDefaultSqlObfuscator();
+    /**
+     * Selects the implementation used to obfuscate sql, {@link SqlObfuscator#REGEX_ENGINE} (the default) or
+     * {@link SqlObfuscator#LEXER_ENGINE}.
+     */
+    static final String SQL_OBFUSCATION_ENGINE = "transaction_tracer.obfuscation_engine";
 
     private final ConcurrentMap<String, SqlObfuscator> sqlObfuscators = new ConcurrentHashMap<>();
     private final AtomicReference<SqlObfuscator> defaultSqlObfuscator = new AtomicReference<>();
     private final String defaultAppName;
     private final DatabaseStatementParser databaseStatementParser;
+    private final SqlObfuscator obfuscatingSqlObfuscator;
 
     public DatabaseService() {
         super(DatabaseService.class.getSimpleName());
         AgentConfig config = ServiceFactory.getConfigService().getDefaultAgentConfig();
         defaultAppName = config.getApplicationName();
+        obfuscatingSqlObfuscator = SqlObfuscator.getDefaultSqlObfuscator(
+                config.getValue(SQL_OBFUSCATION_ENGINE, SqlObfuscator.REGEX_ENGINE));
         databaseStatementParser = new DefaultDatabaseStatementParser();
     }
 
     @Override
     protected void doStart() {
         ServiceFactory.getConfigService().addIAgentConfigListener(this);
+        ServiceFactory.getHarvestService().addHarvestListener(this);
     }
 
     @Override
     protected void doStop() {
         ServiceFactory.getConfigService().removeIAgentConfigListener(this);
+        ServiceFactory.getHarvestService().removeHarvestListener(this);
     }
 
     @Override
@@ -63,7 +76,7 @@ public class DatabaseService extends AbstractService implements AgentConfigListe
      * 
      */
     public SqlObfuscator getDefaultSqlObfuscator() {
-        return DEFAULT_SQL_OBFUSCATOR;
+        return obfuscatingSqlObfuscator;
     }
 
     public SqlObfuscator getSqlObfuscator(String appName) {
@@ -107,7 +120,7 @@ public class DatabaseService extends AbstractService implements AgentConfigListe
         if (SqlObfuscator.RAW_SETTING.equals(recordSql)) {
             return SqlObfuscator.getNoObfuscationSqlObfuscator();
         }
-        return SqlObfuscator.getDefaultSqlObfuscator();
+        return obfuscatingSqlObfuscator;
     }
 
     private void logConfig(String appName, TransactionTracerConfig ttConfig) {
@@ -145,6 +158,28 @@ public class DatabaseService extends AbstractService implements AgentConfigListe
         JdbcHelper.invalidateMetadataCommentConfig();
     }
 
+    @Override
+    public void beforeHarvest(String appName, StatsEngine statsEngine) {
+        // the sql cache is shared by all applications, so it is reported once
+        if (!appName.equals(defaultAppName)) {
+            return;
+        }
+        SqlFingerprintCache sqlCache = SqlFingerprintCache.getSharedCache();
+        recordCount(statsEngine, MetricNames.SUPPORTABILITY_DATASTORE_SQL_CACHE_HITS, sqlCache.getAndResetHits());
+        recordCount(statsEngine, MetricNames.SUPPORTABILITY_DATASTORE_SQL_CACHE_MISSES, sqlCache.getAndResetMisses());
+        recordCount(statsEngine, MetricNames.SUPPORTABILITY_DATASTORE_SQL_CACHE_EVICTIONS, sqlCache.getAndResetEvictions());
+    }
+
+    private static void recordCount(StatsEngine statsEngine, String metricName, long count) {
+        if (count > 0) {
+            statsEngine.getStats(metricName).incrementCallCount((int) Math.min(count, Integer.MAX_VALUE));
+        }
+    }
+
+    @Override
+    public void afterHarvest(String appName) {
+    }
+
     public void runExplainPlan(SqlTracer sqlTracer) {
         ExplainPlanExecutor explainExecutor = sqlTracer.getExplainPlanExecutor();
         ConnectionFactory connectionFactory = sqlTracer.getConnectionFactory();
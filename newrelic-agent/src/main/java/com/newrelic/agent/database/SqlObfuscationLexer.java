@@ -0,0 +1,432 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.database;
+
+/**
+ * Obfuscates sql in a single left to right scan over its characters, replacing every quoted string, comment and
+ * literal with a "?".
+ *
+ * The output is the same as the alternation patterns used by {@link SqlObfuscator.DefaultSqlObfuscator}: at every
+ * position the token kinds are tried in the same order as the alternatives in those patterns and each kind consumes
+ * exactly what its pattern would. The unmatched quote and comment check that the patterns follow up with is done over
+ * the output buffer instead of a second regex.
+ *
+ * This class is stateless and thread-safe.
+ */
+final class SqlObfuscationLexer {
+
+    private static final int NO_MATCH = -1;
+
+    // token kinds, see the patterns in SqlObfuscator for their definitions
+    private static final int SINGLE_QUOTE = 1;
+    private static final int DOUBLE_QUOTE = 1 << 1;
+    private static final int DOLLAR_QUOTE = 1 << 2;
+    private static final int ORACLE_QUOTE = 1 << 3;
+    private static final int COMMENT = 1 << 4;
+    private static final int MULTILINE_COMMENT = 1 << 5;
+    private static final int UUID = 1 << 6;
+    private static final int HEX = 1 << 7;
+    private static final int BOOLEAN = 1 << 8;
+    private static final int NUMBER = 1 << 9;
+
+    // characters left over after obfuscation that mean a token wasn't terminated
+    private static final int UNMATCHED_SINGLE_QUOTE = 1;
+    private static final int UNMATCHED_DOUBLE_QUOTE = 1 << 1;
+    private static final int UNMATCHED_COMMENT_DELIMITER = 1 << 2;
+    private static final int UNMATCHED_DOLLAR = 1 << 3;
+    private static final int UNMATCHED_DOLLAR_NOT_BEFORE_PLACEHOLDER = 1 << 4;
+
+    enum Dialect {
+        ALL(SINGLE_QUOTE | DOUBLE_QUOTE | DOLLAR_QUOTE | ORACLE_QUOTE | COMMENT | MULTILINE_COMMENT | UUID | HEX | BOOLEAN | NUMBER,
+                UNMATCHED_SINGLE_QUOTE | UNMATCHED_DOUBLE_QUOTE | UNMATCHED_COMMENT_DELIMITER | UNMATCHED_DOLLAR),
+        MYSQL(SINGLE_QUOTE | DOUBLE_QUOTE | COMMENT | MULTILINE_COMMENT | HEX | BOOLEAN | NUMBER,
+                UNMATCHED_SINGLE_QUOTE | UNMATCHED_DOUBLE_QUOTE | UNMATCHED_COMMENT_DELIMITER),
+        POSTGRES(SINGLE_QUOTE | DOLLAR_QUOTE | COMMENT | MULTILINE_COMMENT | UUID | BOOLEAN | NUMBER,
+                UNMATCHED_SINGLE_QUOTE | UNMATCHED_COMMENT_DELIMITER | UNMATCHED_DOLLAR_NOT_BEFORE_PLACEHOLDER),
+        ORACLE(SINGLE_QUOTE | ORACLE_QUOTE | COMMENT | MULTILINE_COMMENT | NUMBER,
+                UNMATCHED_SINGLE_QUOTE | UNMATCHED_COMMENT_DELIMITER);
+
+        private final int tokens;
+        private final int unmatched;
+
+        Dialect(int tokens, int unmatched) {
+            this.tokens = tokens;
+            this.unmatched = unmatched;
+        }
+    }
+
+    private SqlObfuscationLexer() {
+    }
+
+    static String obfuscate(String sql, Dialect dialect) {
+        char[] input = sql.toCharArray();
+        char[] output = new char[input.length];
+        int outputLength = 0;
+        int position = 0;
+        while (position < input.length) {
+            int end = matchToken(input, position, dialect.tokens);
+            if (end == NO_MATCH) {
+                output[outputLength++] = input[position++];
+            } else {
+                output[outputLength++] = '?';
+                position = end;
+            }
+        }
+        if (hasUnmatchedPairs(output, outputLength, dialect.unmatched)) {
+            return "?";
+        }
+        return new String(output, 0, outputLength);
+    }
+
+    /**
+     * Returns the end of the token starting at {@code start}, or {@link #NO_MATCH}. Token kinds are tried in the order
+     * of the alternatives in the regex patterns and the first one that matches wins.
+     */
+    private static int matchToken(char[] sql, int start, int tokens) {
+        int end;
+        if ((tokens & SINGLE_QUOTE) != 0 && (end = matchQuoted(sql, start, '\'')) != NO_MATCH) {
+            return end;
+        }
+        if ((tokens & DOUBLE_QUOTE) != 0 && (end = matchQuoted(sql, start, '"')) != NO_MATCH) {
+            return end;
+        }
+        if ((tokens & DOLLAR_QUOTE) != 0 && (end = matchDollarQuoted(sql, start)) != NO_MATCH) {
+            return end;
+        }
+        if ((tokens & ORACLE_QUOTE) != 0 && (end = matchOracleQuoted(sql, start)) != NO_MATCH) {
+            return end;
+        }
+        if ((tokens & COMMENT) != 0 && (end = matchComment(sql, start)) != NO_MATCH) {
+            return end;
+        }
+        if ((tokens & MULTILINE_COMMENT) != 0 && (end = matchMultilineComment(sql, start)) != NO_MATCH) {
+            return end;
+        }
+        if ((tokens & UUID) != 0 && (end = matchUuid(sql, start)) != NO_MATCH) {
+            return end;
+        }
+        if ((tokens & HEX) != 0 && (end = matchHex(sql, start)) != NO_MATCH) {
+            return end;
+        }
+        if ((tokens & BOOLEAN) != 0 && (end = matchBoolean(sql, start)) != NO_MATCH) {
+            return end;
+        }
+        if ((tokens & NUMBER) != 0) {
+            return matchNumber(sql, start);
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * A quoted string where the quote is escaped by doubling it. A backslash escaped quote swallows the rest of the
+     * statement since we can't tell where the string ends.
+     */
+    private static int matchQuoted(char[] sql, int start, char quote) {
+        if (sql[start] != quote) {
+            return NO_MATCH;
+        }
+        int i = start + 1;
+        while (i < sql.length) {
+            char c = sql[i];
+            if (c == '\\' && i + 1 < sql.length && sql[i + 1] == quote) {
+                return sql.length;
+            }
+            if (c == quote) {
+                if (i + 1 < sql.length && sql[i + 1] == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * A postgres dollar quoted string, $tag$ ... $tag$. An unterminated string runs to the end of the statement.
+     */
+    private static int matchDollarQuoted(char[] sql, int start) {
+        if (sql[start] != '$' || (start + 1 < sql.length && isDigit(sql[start + 1]))) {
+            return NO_MATCH;
+        }
+        int tagEnd = start + 1;
+        while (tagEnd < sql.length && sql[tagEnd] != '$') {
+            tagEnd++;
+        }
+        if (tagEnd == sql.length) {
+            return NO_MATCH;
+        }
+        int tagLength = tagEnd - start + 1;
+        for (int i = tagEnd + 1; ; i++) {
+            if (regionMatchesIgnoreCase(sql, i, start, tagLength)) {
+                return i + tagLength;
+            }
+            if (isEnd(sql, i)) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * An oracle alternative quoted string, q'[...]', q'{...}', q'<...>' or q'(...)'. An unterminated string runs to
+     * the end of the statement.
+     */
+    private static int matchOracleQuoted(char[] sql, int start) {
+        char q = sql[start];
+        if ((q != 'q' && q != 'Q') || start + 2 >= sql.length || sql[start + 1] != '\'') {
+            return NO_MATCH;
+        }
+        char close;
+        switch (sql[start + 2]) {
+            case '[':
+                close = ']';
+                break;
+            case '{':
+                close = '}';
+                break;
+            case '<':
+                close = '>';
+                break;
+            case '(':
+                close = ')';
+                break;
+            default:
+                return NO_MATCH;
+        }
+        for (int i = start + 3; ; i++) {
+            if (i + 1 < sql.length && sql[i] == close && sql[i + 1] == '\'') {
+                return i + 2;
+            }
+            if (isEnd(sql, i)) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * A # or -- comment, up to but not including the end of the line.
+     */
+    private static int matchComment(char[] sql, int start) {
+        int i;
+        if (sql[start] == '#') {
+            i = start + 1;
+        } else if (sql[start] == '-' && start + 1 < sql.length && sql[start + 1] == '-') {
+            i = start + 2;
+        } else {
+            return NO_MATCH;
+        }
+        while (i < sql.length && sql[i] != '\r' && sql[i] != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * A slash star comment. A nested opening slash star swallows the rest of the statement.
+     */
+    private static int matchMultilineComment(char[] sql, int start) {
+        if (sql[start] != '/' || start + 1 >= sql.length || sql[start + 1] != '*') {
+            return NO_MATCH;
+        }
+        int i = start + 2;
+        while (i < sql.length) {
+            char c = sql[i];
+            if (i + 1 < sql.length) {
+                if (c == '*' && sql[i + 1] == '/') {
+                    return i + 2;
+                }
+                if (c == '/' && sql[i + 1] == '*') {
+                    return sql.length;
+                }
+            }
+            if (c != '/') {
+                i++;
+            } else if (i + 1 < sql.length) {
+                // the pattern consumes a slash together with the character after it
+                i += 2;
+            } else {
+                return NO_MATCH;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * 32 hex digits with any number of dashes after each one, optionally in braces.
+     */
+    private static int matchUuid(char[] sql, int start) {
+        int i = sql[start] == '{' ? start + 1 : start;
+        for (int digits = 0; digits < 32; digits++) {
+            if (i >= sql.length || !isHexDigit(sql[i])) {
+                return NO_MATCH;
+            }
+            i++;
+            while (i < sql.length && sql[i] == '-') {
+                i++;
+            }
+        }
+        if (i < sql.length && sql[i] == '}') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int matchHex(char[] sql, int start) {
+        if (sql[start] != '0' || start + 2 >= sql.length || (sql[start + 1] != 'x' && sql[start + 1] != 'X')
+                || !isHexDigit(sql[start + 2])) {
+            return NO_MATCH;
+        }
+        int i = start + 3;
+        while (i < sql.length && isHexDigit(sql[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int matchBoolean(char[] sql, int start) {
+        if (start > 0 && isWordChar(sql[start - 1])) {
+            return NO_MATCH;
+        }
+        int end = matchKeyword(sql, start, "true");
+        if (end == NO_MATCH) {
+            end = matchKeyword(sql, start, "false");
+        }
+        if (end == NO_MATCH) {
+            end = matchKeyword(sql, start, "null");
+        }
+        return end;
+    }
+
+    private static int matchKeyword(char[] sql, int start, String keyword) {
+        int end = start + keyword.length();
+        if (end > sql.length) {
+            return NO_MATCH;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            // keywords are lower case ascii letters, setting the case bit folds upper case ascii letters onto them
+            if ((sql[start + i] | 0x20) != keyword.charAt(i)) {
+                return NO_MATCH;
+            }
+        }
+        if (end < sql.length && isWordChar(sql[end])) {
+            return NO_MATCH;
+        }
+        return end;
+    }
+
+    /**
+     * An optionally negative integer or decimal that starts on a word boundary, with an optional exponent. Underscores
+     * are allowed anywhere in the digits.
+     */
+    private static int matchNumber(char[] sql, int start) {
+        int i = sql[start] == '-' ? start + 1 : start;
+        if (i >= sql.length || !isNumberChar(sql[i]) || (i > 0 && isWordChar(sql[i - 1]))) {
+            return NO_MATCH;
+        }
+        int end = skipNumberChars(sql, i);
+        if (end + 1 < sql.length && sql[end] == '.' && isNumberChar(sql[end + 1])) {
+            end = skipNumberChars(sql, end + 1);
+        }
+        if (end < sql.length && (sql[end] == 'e' || sql[end] == 'E')) {
+            int exponent = end + 1;
+            if (exponent < sql.length && (sql[exponent] == '+' || sql[exponent] == '-')) {
+                exponent++;
+            }
+            if (exponent < sql.length && isNumberChar(sql[exponent])) {
+                end = skipNumberChars(sql, exponent);
+            }
+        }
+        return end;
+    }
+
+    private static int skipNumberChars(char[] sql, int start) {
+        int i = start;
+        while (i < sql.length && isNumberChar(sql[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Whether the regex $ matches at this position: the end of the statement or right before a final line feed.
+     */
+    private static boolean isEnd(char[] sql, int i) {
+        return i == sql.length || (i == sql.length - 1 && sql[i] == '\n');
+    }
+
+    private static boolean regionMatchesIgnoreCase(char[] sql, int offset, int otherOffset, int length) {
+        if (offset + length > sql.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c1 = sql[offset + i];
+            char c2 = sql[otherOffset + i];
+            if (c1 != c2 && Character.toUpperCase(c1) != Character.toUpperCase(c2)
+                    && Character.toLowerCase(c1) != Character.toLowerCase(c2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasUnmatchedPairs(char[] sql, int length, int unmatched) {
+        for (int i = 0; i < length; i++) {
+            char c = sql[i];
+            char next = i + 1 < length ? sql[i + 1] : 0;
+            switch (c) {
+                case '\'':
+                    if ((unmatched & UNMATCHED_SINGLE_QUOTE) != 0) {
+                        return true;
+                    }
+                    break;
+                case '"':
+                    if ((unmatched & UNMATCHED_DOUBLE_QUOTE) != 0) {
+                        return true;
+                    }
+                    break;
+                case '/':
+                    if (next == '*' && (unmatched & UNMATCHED_COMMENT_DELIMITER) != 0) {
+                        return true;
+                    }
+                    break;
+                case '*':
+                    if (next == '/' && (unmatched & UNMATCHED_COMMENT_DELIMITER) != 0) {
+                        return true;
+                    }
+                    break;
+                case '$':
+                    if ((unmatched & UNMATCHED_DOLLAR) != 0
+                            || ((unmatched & UNMATCHED_DOLLAR_NOT_BEFORE_PLACEHOLDER) != 0 && next != '?')) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static boolean isNumberChar(char c) {
+        return (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+}
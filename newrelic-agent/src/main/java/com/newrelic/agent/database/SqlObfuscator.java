@@ -8,12 +8,10 @@
 package com.newrelic.agent.database;
 
 import com.google.common.base.Joiner;
+import com.newrelic.agent.bridge.datastore.SqlFingerprintCache;
 import com.newrelic.api.agent.QueryConverter;
 import jregex.Pattern;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * The agent can be configured to report raw sql in transaction traces, report no sql at all, or report sql with string
  * and numeric literals replaced with the ? character.
@@ -33,6 +31,8 @@ public abstract class SqlObfuscator {
     public static final String OBFUSCATED_SETTING = "obfuscated";
     public static final String RAW_SETTING = "raw";
     public static final String OFF_SETTING = "off";
+    public static final String REGEX_ENGINE = "regex";
+    public static final String LEXER_ENGINE = "lexer";
     private final QueryConverter<String> queryConverter = new QueryConverter<String>() {
         @Override
         public String toRawQueryString(String rawQuery) {
@@ -151,10 +151,56 @@ public abstract class SqlObfuscator {
         }
     }
 
+    /**
+     * Obfuscates sql with the same results as {@link DefaultSqlObfuscator}, but with a hand written lexer that makes a
+     * single pass over the statement instead of running the dialect regexes.
+     */
+    static class LexingSqlObfuscator extends SqlObfuscator {
+
+        @Override
+        public String obfuscateSql(String sql) {
+            if (sql == null || sql.length() == 0) {
+                return sql;
+            }
+            return SqlObfuscationLexer.obfuscate(sql, SqlObfuscationLexer.Dialect.ALL);
+        }
+
+        @Override
+        public String obfuscateSql(String sql, String dialect) {
+            if (sql == null || sql.length() == 0) {
+                return sql;
+            }
+            if (dialect.equals("mysql")) {
+                return SqlObfuscationLexer.obfuscate(sql, SqlObfuscationLexer.Dialect.MYSQL);
+            } else if (dialect.equals("postgresql") || dialect.equals("postgres")) {
+                return SqlObfuscationLexer.obfuscate(sql, SqlObfuscationLexer.Dialect.POSTGRES);
+            } else if (dialect.equals("oracle")) {
+                return SqlObfuscationLexer.obfuscate(sql, SqlObfuscationLexer.Dialect.ORACLE);
+            }
+            return obfuscateSql(sql);
+        }
+
+        @Override
+        public boolean isObfuscating() {
+            return true;
+        }
+    }
+
     public static SqlObfuscator getDefaultSqlObfuscator() {
         return new DefaultSqlObfuscator();
     }
 
+    /**
+     * Returns the obfuscating sql obfuscator for the given engine, {@link #LEXER_ENGINE} or {@link #REGEX_ENGINE}.
+     * Unknown engines get the regex obfuscator.
+     */
+    public static SqlObfuscator getDefaultSqlObfuscator(String engine) {
+        if (LEXER_ENGINE.equals(engine)) {
+            return new LexingSqlObfuscator();
+        }
+        return getDefaultSqlObfuscator();
+    }
+
     static SqlObfuscator getNoObfuscationSqlObfuscator() {
         return new SqlObfuscator() {
 
@@ -193,8 +239,12 @@ public abstract class SqlObfuscator {
         }
     }
 
+    /**
+     * Caches the results of an obfuscating sql obfuscator in the agent wide {@link SqlFingerprintCache}, so that
+     * statements that only differ in their literals are obfuscated once.
+     */
     static class CachingSqlObfuscator extends SqlObfuscator {
-        private final Map<String, String> cache = new HashMap<>();
+        private final SqlFingerprintCache cache = SqlFingerprintCache.getSharedCache();
         private final SqlObfuscator sqlObfuscator;
 
         public CachingSqlObfuscator(SqlObfuscator sqlObfuscator) {
@@ -203,22 +253,12 @@ public abstract class SqlObfuscator {
 
         @Override
         public String obfuscateSql(String sql) {
-            String obfuscatedSql = cache.get(sql);
-            if (obfuscatedSql == null) {
-                obfuscatedSql = sqlObfuscator.obfuscateSql(sql);
-                cache.put(sql, obfuscatedSql);
-            }
-            return obfuscatedSql;
+            return cache.get(sqlObfuscator, null, sql, sqlObfuscator::obfuscateSql);
         }
 
         @Override
-        public String obfuscateSql(String sql, String dialect) {
-            String obfuscatedSql = cache.get(sql);
-            if (obfuscatedSql == null) {
-                obfuscatedSql = sqlObfuscator.obfuscateSql(sql, dialect);
-                cache.put(sql, obfuscatedSql);
-            }
-            return obfuscatedSql;
+        public String obfuscateSql(String sql, final String dialect) {
+            return cache.get(sqlObfuscator, dialect, sql, rawSql -> sqlObfuscator.obfuscateSql(rawSql, dialect));
         }
 
         @Override
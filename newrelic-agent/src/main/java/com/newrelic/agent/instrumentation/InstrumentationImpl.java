@@ -45,7 +45,6 @@ import com.newrelic.agent.tracers.Tracer;
 import com.newrelic.agent.tracers.TracerFlags;
 import com.newrelic.agent.tracers.UltraLightTracer;
 import com.newrelic.agent.tracers.metricname.MetricNameFormat;
-import com.newrelic.agent.tracers.metricname.MetricNameFormats;
 import com.newrelic.agent.util.InsertOnlyArray;
 import com.newrelic.api.agent.NewRelic;
 import org.objectweb.asm.Opcodes;
@@ -175,7 +174,7 @@ public class InstrumentationImpl implements Instrumentation {
                     flags = flags | TracerFlags.ASYNC;
 
                     ClassMethodSignature sig = ClassMethodSignatures.get().get(signatureId);
-                    MetricNameFormat mnf = MetricNameFormats.getFormatter(invocationTarget, sig, metricName, flags);
+                    MetricNameFormat mnf = sig.getMetricNameFormat(invocationTarget, metricName, flags);
                     Tracer tracer;
                     if (TracerFlags.isRoot(flags)) { // Dispatcher || Async
                         tracer = new OtherRootTracer(txa, sig, invocationTarget, mnf, flags);
@@ -218,12 +217,10 @@ public class InstrumentationImpl implements Instrumentation {
 
                 try {
                     ClassMethodSignature sig = ClassMethodSignatures.get().get(signatureId);
-                    // Metric naming. When we come here from an @Trace that doesn't specify a metric name, a
-                    // very common case, getFormatter() will return one of a couple of reusable instances of
-                    // MetricNameFormat, so we avoid proliferating small objects. But when we come here from
-                    // XML instrumentation, getFormatter() is forced to create a new MNF instance every time.
-                    // This proved to be messy to optimize, so unfortunately has been left as-is. 2015-05.
-                    MetricNameFormat mnf = MetricNameFormats.getFormatter(invocationTarget, sig, metricName, flags);
+                    // Metric naming. The signature remembers the formats it has returned for the classes it is
+                    // invoked on, including the metric names of XML and YAML instrumentation, so no MetricNameFormat
+                    // or cache key is created here once the method has been called.
+                    MetricNameFormat mnf = sig.getMetricNameFormat(invocationTarget, metricName, flags);
                     if (TracerFlags.isDispatcher(flags)
                             || (TracerFlags.isAsync(flags) && txa.getTransaction() != null && !txa.isStarted())) {
                         result = new OtherRootTracer(txa, sig, invocationTarget, mnf);
@@ -285,7 +282,7 @@ public class InstrumentationImpl implements Instrumentation {
                     flags = flags | TracerFlags.ASYNC;
 
                     ClassMethodSignature sig = ClassMethodSignatures.get().get(signatureId);
-                    MetricNameFormat mnf = MetricNameFormats.getFormatter(invocationTarget, sig, metricName, flags);
+                    MetricNameFormat mnf = sig.getMetricNameFormat(invocationTarget, metricName, flags);
                     Tracer tracer;
 
                     if (TracerFlags.isRoot(flags)) { // Dispatcher || Async
@@ -333,12 +330,10 @@ public class InstrumentationImpl implements Instrumentation {
 
                 try {
                     ClassMethodSignature sig = ClassMethodSignatures.get().get(signatureId);
-                    // Metric naming. When we come here from an @Trace that doesn't specify a metric name, a
-                    // very common case, getFormatter() will return one of a couple of reusable instances of
-                    // MetricNameFormat, so we avoid proliferating small objects. But when we come here from
-                    // XML instrumentation, getFormatter() is forced to create a new MNF instance every time.
-                    // This proved to be messy to optimize, so unfortunately has been left as-is. 2015-05.
-                    MetricNameFormat mnf = MetricNameFormats.getFormatter(invocationTarget, sig, metricName, flags);
+                    // Metric naming. The signature remembers the formats it has returned for the classes it is
+                    // invoked on, including the metric names of XML and YAML instrumentation, so no MetricNameFormat
+                    // or cache key is created here once the method has been called.
+                    MetricNameFormat mnf = sig.getMetricNameFormat(invocationTarget, metricName, flags);
                     if (TracerFlags.isDispatcher(flags)
                             || (TracerFlags.isAsync(flags) && txa.getTransaction() != null && !txa.isStarted())) {
                         result = new OtherRootSqlTracer(txa, sig, invocationTarget, mnf);
@@ -402,7 +397,7 @@ public class InstrumentationImpl implements Instrumentation {
     // inconvenience is absolutely critical to the performance of our async instrumentation.
     private Tracer startTracer(TransactionActivity txa, Object target, int signatureId, String metricName, int flags) {
         ClassMethodSignature sig = ClassMethodSignatures.get().get(signatureId);
-        MetricNameFormat mnf = MetricNameFormats.getFormatter(target, sig, metricName, flags);
+        MetricNameFormat mnf = sig.getMetricNameFormat(target, metricName, flags);
         Tracer tracer;
         if (TracerFlags.isRoot(flags)) { // Dispatcher || Async
             tracer = new OtherRootTracer(txa, sig, target, mnf, flags, System.nanoTime());
@@ -415,7 +410,7 @@ public class InstrumentationImpl implements Instrumentation {
 
     private Tracer startSqlTracer(TransactionActivity txa, Object target, int signatureId, String metricName, int flags) {
         ClassMethodSignature sig = ClassMethodSignatures.get().get(signatureId);
-        MetricNameFormat mnf = MetricNameFormats.getFormatter(target, sig, metricName, flags);
+        MetricNameFormat mnf = sig.getMetricNameFormat(target, metricName, flags);
         Tracer tracer;
         if (TracerFlags.isRoot(flags)) { // Dispatcher || Async
             tracer = new OtherRootSqlTracer(txa, sig, target, mnf, flags, System.nanoTime());
@@ -454,7 +449,7 @@ public class InstrumentationImpl implements Instrumentation {
                 flags = flags | TracerFlags.ASYNC;
 
                 ClassMethodSignature sig = ClassMethodSignatures.get().get(signatureId);
-                MetricNameFormat mnf = MetricNameFormats.getFormatter(invocationTarget, sig, metricName, flags);
+                MetricNameFormat mnf = sig.getMetricNameFormat(invocationTarget, metricName, flags);
                 Tracer tracer;
                 if (TracerFlags.isRoot(flags)) { // Dispatcher || Async
                     tracer = new OtherRootTracer(txa, sig, invocationTarget, mnf, flags);
@@ -518,7 +513,7 @@ public class InstrumentationImpl implements Instrumentation {
                 flags = flags | TracerFlags.ASYNC;
 
                 ClassMethodSignature sig = ClassMethodSignatures.get().get(signatureId);
-                MetricNameFormat mnf = MetricNameFormats.getFormatter(invocationTarget, sig, metricName, flags);
+                MetricNameFormat mnf = sig.getMetricNameFormat(invocationTarget, metricName, flags);
                 Tracer tracer;
                 if (TracerFlags.isRoot(flags)) { // Dispatcher || Async
                     tracer = new OtherRootSqlTracer(txa, sig, invocationTarget, mnf, flags);
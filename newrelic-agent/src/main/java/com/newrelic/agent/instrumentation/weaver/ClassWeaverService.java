@@ -59,22 +59,25 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.lang.instrument.IllegalClassFormatException;
 import java.lang.instrument.Instrumentation;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.security.ProtectionDomain;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.JarInputStream;
+import java.util.jar.Manifest;
 import java.util.logging.Level;
 import java.util.regex.Pattern;
 
@@ -86,9 +89,9 @@ import static com.newrelic.agent.config.SecurityAgentConfig.shouldInitializeSecu
  */
 public class ClassWeaverService implements ClassMatchVisitorFactory, ContextClassTransformer {
     /**
-     * Determines how many threads to run in parallel when loading instrumentation packages
+     * Upper bound on the number of threads loading instrumentation packages in parallel
      */
-    private static final int PARTITIONS = 8;
+    private static final int MAX_LOADER_THREADS = 8;
     private static ClassNode EXTENSION_TEMPLATE;
 
     static {
@@ -154,13 +157,16 @@ public class ClassWeaverService implements ClassMatchVisitorFactory, ContextClas
     /**
      * Create a weave package from a jar source.
      *
-     * @param inputStream The JarInputStream to read from.
-     * @param source      URL where the jar was read from.
+     * @param jarUrl    URL of the jar.
+     * @param manifest  The manifest of the jar.
+     * @param jarStream The open jar, or null if the manifest came from the weave package index.
+     * @param timeline  Timeline to record the configure and build phases in.
      */
-    private WeavePackage createWeavePackage(InputStream inputStream, String source) throws Exception {
-        JarInputStream jarStream = new JarInputStream(inputStream);
+    private WeavePackage createWeavePackage(URL jarUrl, Manifest manifest, JarInputStream jarStream,
+            WeavePackageLoadTimeline timeline) throws Exception {
+        long phaseStart = System.nanoTime();
         AgentConfig agentConfig = ServiceFactory.getConfigService().getDefaultAgentConfig();
-        WeavePackageConfig weavePackageConfig = createWeavePackageConfig(jarStream, source,
+        WeavePackageConfig weavePackageConfig = createWeavePackageConfig(manifest, jarUrl.toExternalForm(),
                 instrumentation, WeavePackageType.INTERNAL, agentConfig);
         ClassTransformerConfig classTransformerConfig = agentConfig.getClassTransformerConfig();
 
@@ -170,6 +176,7 @@ public class ClassWeaverService implements ClassMatchVisitorFactory, ContextClas
                 // Only log this if the module has been explicitly disabled (not if it is disabled by default)
                 LOG.log(Level.INFO, "Instrumentation {0} is disabled. Skipping.", weavePackageName);
             }
+            timeline.record(WeavePackageLoadTimeline.Phase.CONFIGURE, phaseStart);
             return null;
         }
 
@@ -183,22 +190,35 @@ public class ClassWeaverService implements ClassMatchVisitorFactory, ContextClas
             if (jcacheDatastoreEnabled) {
                 LOG.log(Level.INFO, " Instrumentation {0} is disabled since {1} is enabled. Skipping.",
                         weavePackageName, "com.newrelic.instrumentation.jcache-datastore-1.0.0");
+                timeline.record(WeavePackageLoadTimeline.Phase.CONFIGURE, phaseStart);
                 return null;
             }
         }
+        phaseStart = timeline.record(WeavePackageLoadTimeline.Phase.CONFIGURE, phaseStart);
 
-        WeavePackage weavePackage = CachedWeavePackage.createWeavePackage(new URL(source), jarStream, weavePackageConfig);
+        WeavePackage weavePackage = CachedWeavePackage.createWeavePackage(jarUrl, manifest, weavePackageConfig);
+        if (weavePackage == null) {
+            // the manifest does not describe the weave classes so the package has to be built from the jar itself
+            if (jarStream != null) {
+                weavePackage = WeavePackage.createWeavePackage(jarStream, weavePackageConfig);
+            } else {
+                try (JarInputStream indexedJarStream = new JarInputStream(jarUrl.openStream())) {
+                    weavePackage = WeavePackage.createWeavePackage(indexedJarStream, weavePackageConfig);
+                }
+            }
+        }
+        timeline.record(WeavePackageLoadTimeline.Phase.BUILD, phaseStart);
         return weavePackage;
     }
 
-    private WeavePackageConfig createWeavePackageConfig(JarInputStream jarStream, String source,
+    private WeavePackageConfig createWeavePackageConfig(Manifest manifest, String source,
             Instrumentation instrumentation, WeavePackageType type, AgentConfig agentConfig) throws Exception {
         AgentPreprocessors preprocessors = new AgentPreprocessors(agentConfig, tracedWeaveInstrumentationDetails);
         AgentPostprocessors postprocessors = new AgentPostprocessors();
 
         WeavePackageConfig result = WeavePackageConfig.builder()
                 .source(source)
-                .jarInputStream(jarStream)
+                .manifest(manifest)
                 .weavePreprocessor(preprocessors)
                 .weavePostprocessor(postprocessors)
                 .errorHandleClassNode(LogAndReturnOriginal.ERROR_HANDLER_NODE)
@@ -236,37 +256,15 @@ public class ClassWeaverService implements ClassMatchVisitorFactory, ContextClas
             LOG.log(Level.FINE, "Loading {0} security instrumentation packages", jarFileNames.size());
         }
 
-        int partitions = Math.min(jarFileNames.size(), PARTITIONS);
-        // Note: An ExecutorService would be better suited for this work but we are
-        // specifically not using it here to prevent the ConcurrentCallablePointCut
-        // from being loaded too early
-        final CountDownLatch executorCountDown = new CountDownLatch(partitions);
-        List<Set<String>> weavePackagePartitions = partitionInstrumentationJars(jarFileNames, partitions);
-
-        for (final Set<String> weavePackageJars : weavePackagePartitions) {
-            Runnable loadWeavePackagesRunnable = () -> {
-                try {
-                    for (final String name : weavePackageJars) {
-                        URL instrumentationUrl = new URL("jar:" + securityAgentUrl.toExternalForm() + "!/" + name);
-                        registerInstrumentation(instrumentationUrl);
-                    }
-                } catch (Throwable t) {
-                    LOG.log(Level.FINER, t, "A thread loading weaved packages threw an error");
-                } finally {
-                    executorCountDown.countDown();
-                }
-            };
-
-            new Thread(loadWeavePackagesRunnable).start();
-        }
-
-        try {
-            // Wait for all partitions to complete
-            executorCountDown.await();
-            LOG.log(Level.FINE, "Loaded {0} internal instrumentation packages", internalWeavePackages.size());
-        } catch (InterruptedException e) {
-            LOG.log(Level.FINE, e, "Interrupted while waiting for instrumentation packages.");
+        Map<String, URL> instrumentationJars = new LinkedHashMap<>();
+        for (String name : jarFileNames) {
+            try {
+                instrumentationJars.put(name, new URL("jar:" + securityAgentUrl.toExternalForm() + "!/" + name));
+            } catch (MalformedURLException e) {
+                LOG.log(Level.FINER, e, "Unable to find security instrumentation jar: {0}", name);
+            }
         }
+        loadWeavePackages("Security", instrumentationJars, openWeavePackageIndex("Security", securityAgentUrl, jarFileNames));
     }
 
     /**
@@ -288,24 +286,66 @@ public class ClassWeaverService implements ClassMatchVisitorFactory, ContextClas
             LOG.log(Level.FINE, "Loading {0} instrumentation packages", jarFileNames.size());
         }
 
-        int partitions = Math.min(jarFileNames.size(), PARTITIONS);
+        Map<String, URL> instrumentationJars = new LinkedHashMap<>();
+        for (String name : jarFileNames) {
+            URL instrumentationUrl = BootstrapAgent.class.getResource('/' + name);
+            if (instrumentationUrl == null) {
+                Agent.LOG.error("Unable to find instrumentation jar: " + name);
+            } else {
+                instrumentationJars.put(name, instrumentationUrl);
+            }
+        }
+        loadWeavePackages("Internal", instrumentationJars,
+                openWeavePackageIndex("Internal", AgentJarHelper.getAgentJarUrl(), jarFileNames));
+    }
+
+    /**
+     * Open the weave package index for the instrumentation jars in the given agent jar.
+     *
+     * @return the index, or null if the index is disabled or the agent jar cannot be checksummed
+     */
+    private WeavePackageIndex openWeavePackageIndex(String source, URL agentJarUrl, Collection<String> jarFileNames) {
+        AgentConfig agentConfig = ServiceFactory.getConfigService().getDefaultAgentConfig();
+        String cacheDirectory = agentConfig.getClassTransformerConfig().getWeavePackageCacheDirectory();
+        if (cacheDirectory == null || jarFileNames.isEmpty()) {
+            return null;
+        }
+        long checksum = AgentJarHelper.getJarEntriesChecksum(agentJarUrl, jarFileNames);
+        if (checksum == -1) {
+            LOG.log(Level.FINE, "Unable to checksum {0}. Not using the weave package index.", agentJarUrl);
+            return null;
+        }
+        String key = Agent.getVersion() + ':' + Long.toHexString(checksum);
+        File indexFile = new File(cacheDirectory, "weave-package-index-" + source.toLowerCase() + ".bin");
+        return WeavePackageIndex.open(indexFile, key);
+    }
+
+    /**
+     * Load and register the given weave package jars on a bounded set of loader threads. Each thread repeatedly claims
+     * the next unclaimed jar, so a few slow packages hold up one thread rather than a whole pre-assigned partition. The
+     * time spent reading, configuring, building and registering packages is reported when loading completes.
+     *
+     * @param source              what is being loaded, used in the startup timeline
+     * @param instrumentationJars the jars to load, by their name in the agent jar
+     * @param index               the weave package index, or null if it is disabled
+     */
+    private void loadWeavePackages(String source, Map<String, URL> instrumentationJars, final WeavePackageIndex index) {
+        final List<Map.Entry<String, URL>> jars = new ArrayList<>(instrumentationJars.entrySet());
+        int threads = Math.min(jars.size(),
+                Math.min(MAX_LOADER_THREADS, Math.max(2, Runtime.getRuntime().availableProcessors())));
+        final WeavePackageLoadTimeline timeline = new WeavePackageLoadTimeline(source, threads);
+        final AtomicInteger nextJar = new AtomicInteger();
+
         // Note: An ExecutorService would be better suited for this work but we are
         // specifically not using it here to prevent the ConcurrentCallablePointCut
         // from being loaded too early
-        final CountDownLatch executorCountDown = new CountDownLatch(partitions);
-        List<Set<String>> weavePackagePartitions = partitionInstrumentationJars(jarFileNames, partitions);
-
-        for (final Set<String> weavePackageJars : weavePackagePartitions) {
-
+        final CountDownLatch executorCountDown = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
             Runnable loadWeavePackagesRunnable = () -> {
                 try {
-                    for (final String name : weavePackageJars) {
-                        URL instrumentationUrl = BootstrapAgent.class.getResource('/' + name);
-                        if (instrumentationUrl == null) {
-                            Agent.LOG.error("Unable to find instrumentation jar: " + name);
-                        } else {
-                            registerInstrumentation(instrumentationUrl);
-                        }
+                    int next;
+                    while ((next = nextJar.getAndIncrement()) < jars.size()) {
+                        registerInstrumentation(jars.get(next).getKey(), jars.get(next).getValue(), index, timeline);
                     }
                 } catch (Throwable t) {
                     LOG.log(Level.FINER, t, "A thread loading weaved packages threw an error");
@@ -313,21 +353,51 @@ public class ClassWeaverService implements ClassMatchVisitorFactory, ContextClas
                     executorCountDown.countDown();
                 }
             };
-            new Thread(loadWeavePackagesRunnable).start();
+            Thread loaderThread = new Thread(loadWeavePackagesRunnable, "New Relic Weave Package Loader-" + source + "-" + i);
+            loaderThread.setDaemon(true);
+            loaderThread.start();
         }
 
         try {
-            // Wait for all partitions to complete
+            // Wait for all loader threads to complete
             executorCountDown.await();
-            LOG.log(Level.FINE, "Loaded {0} internal instrumentation packages", internalWeavePackages.size());
+            timeline.finish();
+            reportTimeline(timeline);
+            if (index != null) {
+                index.save();
+            }
         } catch (InterruptedException e) {
             LOG.log(Level.FINE, e, "Interrupted while waiting for instrumentation packages.");
         }
     }
 
-    private void registerInstrumentation(URL instrumentationUrl) {
-        try (InputStream inputStream = instrumentationUrl.openStream()) {
-            WeavePackage internalWeavePackage = createWeavePackage(inputStream, instrumentationUrl.toExternalForm());
+    private void reportTimeline(WeavePackageLoadTimeline timeline) {
+        AgentConfig agentConfig = ServiceFactory.getConfigService().getDefaultAgentConfig();
+        if (agentConfig.isStartupTimingEnabled()) {
+            timeline.report(ServiceFactory.getStatsService(), Level.INFO);
+        } else {
+            timeline.report(null, Level.FINE);
+        }
+    }
+
+    private void registerInstrumentation(String jarName, URL instrumentationUrl, WeavePackageIndex index,
+            WeavePackageLoadTimeline timeline) {
+        long phaseStart = System.nanoTime();
+        Manifest indexedManifest = index == null ? null : index.getManifest(jarName);
+        try (JarInputStream jarStream = indexedManifest == null ? new JarInputStream(instrumentationUrl.openStream()) : null) {
+            Manifest manifest = indexedManifest;
+            if (jarStream == null) {
+                timeline.indexHit();
+            } else {
+                manifest = jarStream.getManifest();
+                if (index != null && manifest != null) {
+                    index.putManifest(jarName, manifest);
+                }
+            }
+            phaseStart = timeline.record(WeavePackageLoadTimeline.Phase.READ, phaseStart);
+
+            WeavePackage internalWeavePackage = createWeavePackage(instrumentationUrl, manifest, jarStream, timeline);
+            phaseStart = System.nanoTime();
             if (null == internalWeavePackage) {
                 LOG.log(Level.FINEST, "internal weave package: {0} was null", instrumentationUrl.toExternalForm());
             } else if (internalWeavePackage.getPackageViolations().size() > 0) {
@@ -339,29 +409,14 @@ public class ClassWeaverService implements ClassMatchVisitorFactory, ContextClas
                 LOG.log(Level.FINER, "adding weave package: {0}", internalWeavePackage.getName());
                 internalWeavePackages.add(internalWeavePackage.getName());
                 weavePackageManager.register(internalWeavePackage);
+                timeline.packageLoaded();
             }
+            timeline.record(WeavePackageLoadTimeline.Phase.REGISTER, phaseStart);
         } catch (Throwable t) {
             LOG.log(Level.FINER, t, "unable to load weave package jar {0}", instrumentationUrl);
         }
     }
 
-    private List<Set<String>> partitionInstrumentationJars(Collection<String> jarFileNames, int partitions) {
-        List<Set<String>> instrumentationPartitions = new ArrayList<>(partitions);
-
-        // Initialize each partition with an empty set
-        for (int i = 0; i < partitions; i++) {
-            instrumentationPartitions.add(new HashSet<String>());
-        }
-
-        int index = 0;
-        for (String jarFileName : jarFileNames) {
-            // Attempt to evenly distribute the jarFileNames across the partitions
-            instrumentationPartitions.get(index++ % partitions).add(jarFileName);
-        }
-
-        return instrumentationPartitions;
-    }
-
     /**
      * Load new instrumentation packages from disk and put any new matchers in the matchers collection.
      *
@@ -373,7 +428,7 @@ public class ClassWeaverService implements ClassMatchVisitorFactory, ContextClas
         for (File weaveExtension : weaveExtensions) {
             try (JarInputStream stream = new JarInputStream(new FileInputStream(weaveExtension))) {
                 AgentConfig agentConfig = ServiceFactory.getConfigService().getDefaultAgentConfig();
-                WeavePackageConfig weaveConfig = createWeavePackageConfig(stream, weaveExtension.getAbsolutePath(),
+                WeavePackageConfig weaveConfig = createWeavePackageConfig(stream.getManifest(), weaveExtension.getAbsolutePath(),
                         instrumentation, WeavePackageType.CUSTOM, agentConfig);
                 ClassTransformerConfig classTransformerConfig = agentConfig.getClassTransformerConfig();
                 String instrName = weaveConfig.getName();
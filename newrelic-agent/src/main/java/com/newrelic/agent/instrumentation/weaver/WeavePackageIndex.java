@@ -0,0 +1,184 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.instrumentation.weaver;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+import java.util.logging.Level;
+
+import static com.newrelic.agent.Agent.LOG;
+
+/**
+ * An on-disk index of the manifests of the instrumentation jars packaged in an agent jar. The manifest holds the weave
+ * package metadata and the weave classes, weave methods, reference classes and required annotations that a
+ * {@link com.newrelic.weave.weavepackage.CachedWeavePackage} needs, so with the index loaded a weave package can be
+ * created without opening its jar.
+ *
+ * The index is keyed by a checksum of the instrumentation jars in the agent jar. An index written by a different agent
+ * jar is ignored and replaced. Reads and updates are thread-safe; {@link #save()} should be called once loading is
+ * complete.
+ */
+final class WeavePackageIndex {
+
+    private static final int MAGIC = 0x4E525750;
+    private static final int FORMAT_VERSION = 1;
+
+    private final File file;
+    private final String key;
+    private final Map<String, Map<String, String>> manifests;
+    private volatile boolean modified = false;
+
+    private WeavePackageIndex(File file, String key, Map<String, Map<String, String>> manifests) {
+        this.file = file;
+        this.key = key;
+        this.manifests = manifests;
+    }
+
+    /**
+     * Opens the index stored in {@code file}. If the file does not exist, cannot be read or was written for a different
+     * key an empty index is returned that will replace the file when saved.
+     */
+    static WeavePackageIndex open(File file, String key) {
+        Map<String, Map<String, String>> manifests = new ConcurrentHashMap<>();
+        if (file.isFile()) {
+            try {
+                if (!read(Files.readAllBytes(file.toPath()), key, manifests)) {
+                    LOG.log(Level.FINE, "Weave package index {0} was written by a different agent jar. Rebuilding it.", file);
+                    manifests.clear();
+                }
+            } catch (Exception e) {
+                LOG.log(Level.FINE, e, "Unable to read weave package index {0}. Rebuilding it.", file);
+                manifests.clear();
+            }
+        }
+        return new WeavePackageIndex(file, key, manifests);
+    }
+
+    /**
+     * Returns the indexed manifest of the given instrumentation jar, or null if the jar is not in the index.
+     */
+    Manifest getManifest(String jarName) {
+        Map<String, String> attributes = manifests.get(jarName);
+        if (attributes == null) {
+            return null;
+        }
+        Manifest manifest = new Manifest();
+        Attributes mainAttributes = manifest.getMainAttributes();
+        for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+            mainAttributes.putValue(attribute.getKey(), attribute.getValue());
+        }
+        return manifest;
+    }
+
+    /**
+     * Adds the manifest of an instrumentation jar that was not in the index.
+     */
+    void putManifest(String jarName, Manifest manifest) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        for (Map.Entry<Object, Object> attribute : manifest.getMainAttributes().entrySet()) {
+            attributes.put(attribute.getKey().toString(), String.valueOf(attribute.getValue()));
+        }
+        manifests.put(jarName, attributes);
+        modified = true;
+    }
+
+    int size() {
+        return manifests.size();
+    }
+
+    boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Writes the index if it changed since it was opened. The file is replaced atomically where the file system allows
+     * it so a concurrently starting JVM never reads a partial index.
+     */
+    void save() {
+        if (!modified) {
+            return;
+        }
+        File tempFile = null;
+        try {
+            File directory = file.getAbsoluteFile().getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                LOG.log(Level.FINE, "Unable to create weave package index directory {0}", directory);
+                return;
+            }
+            tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                write(out);
+            }
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            modified = false;
+            LOG.log(Level.FINE, "Wrote {0} weave packages to index {1}", manifests.size(), file);
+        } catch (Exception e) {
+            LOG.log(Level.FINE, e, "Unable to write weave package index {0}", file);
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(key);
+        out.writeInt(manifests.size());
+        for (Map.Entry<String, Map<String, String>> entry : manifests.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (Map.Entry<String, String> attribute : entry.getValue().entrySet()) {
+                out.writeUTF(attribute.getKey());
+                // attribute values such as Reference-Classes can be longer than writeUTF allows
+                byte[] value = attribute.getValue().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(value.length);
+                out.write(value);
+            }
+        }
+    }
+
+    private static boolean read(byte[] bytes, String key, Map<String, Map<String, String>> manifests) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !key.equals(in.readUTF())) {
+            return false;
+        }
+        int packages = in.readInt();
+        for (int i = 0; i < packages; i++) {
+            String jarName = in.readUTF();
+            int attributeCount = in.readInt();
+            Map<String, String> attributes = new LinkedHashMap<>();
+            for (int j = 0; j < attributeCount; j++) {
+                String name = in.readUTF();
+                byte[] value = new byte[in.readInt()];
+                in.readFully(value);
+                attributes.put(name, new String(value, StandardCharsets.UTF_8));
+            }
+            manifests.put(jarName, attributes);
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.instrumentation.weaver;
+
+import com.newrelic.agent.MetricNames;
+import com.newrelic.agent.stats.StatsService;
+import com.newrelic.agent.stats.StatsWorks;
+
+import java.text.MessageFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+
+import static com.newrelic.agent.Agent.LOG;
+
+/**
+ * Records where the time goes while a set of weave packages is loaded at startup. Each loader thread adds the time it
+ * spent in every phase, so phase times are summed across threads while the total is the elapsed wall clock time.
+ *
+ * This class is thread-safe.
+ */
+final class WeavePackageLoadTimeline {
+
+    enum Phase {
+        /**
+         * Opening the instrumentation jar and reading its manifest, or looking the manifest up in the weave package index.
+         */
+        READ("Read"),
+        /**
+         * Building the weave package config from the manifest and deciding whether the package is enabled.
+         */
+        CONFIGURE("Configure"),
+        /**
+         * Parsing the weave classes into a {@link com.newrelic.weave.weavepackage.CachedWeavePackage}.
+         */
+        BUILD("Build"),
+        /**
+         * Checking package violations and registering the package with the weave package manager.
+         */
+        REGISTER("Register");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    private final String source;
+    private final int threads;
+    private final long startNanos;
+    private final AtomicLongArray phaseNanos = new AtomicLongArray(Phase.values().length);
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final AtomicInteger indexed = new AtomicInteger();
+    private volatile long totalNanos = -1;
+
+    /**
+     * @param source  what is being loaded, used in the metric names and log message (for example "Internal")
+     * @param threads the number of threads loading packages
+     */
+    WeavePackageLoadTimeline(String source, int threads) {
+        this.source = source;
+        this.threads = threads;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Adds the time since {@code phaseStartNanos} to the given phase and returns the current time so consecutive phases
+     * can be chained.
+     */
+    long record(Phase phase, long phaseStartNanos) {
+        long now = System.nanoTime();
+        phaseNanos.addAndGet(phase.ordinal(), now - phaseStartNanos);
+        return now;
+    }
+
+    void packageLoaded() {
+        loaded.incrementAndGet();
+    }
+
+    /**
+     * Records that a package's manifest came from the weave package index so its jar was not read.
+     */
+    void indexHit() {
+        indexed.incrementAndGet();
+    }
+
+    void finish() {
+        totalNanos = System.nanoTime() - startNanos;
+    }
+
+    long getPhaseMillis(Phase phase) {
+        return TimeUnit.NANOSECONDS.toMillis(phaseNanos.get(phase.ordinal()));
+    }
+
+    long getTotalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos);
+    }
+
+    int getLoadedCount() {
+        return loaded.get();
+    }
+
+    int getIndexedCount() {
+        return indexed.get();
+    }
+
+    /**
+     * Logs the timeline and, if a stats service is given, records it as supportability metrics.
+     */
+    void report(StatsService statsService, Level level) {
+        LOG.log(level, "Loaded {0} {1} instrumentation packages in {2}ms using {3} threads, {4} manifests from the weave "
+                        + "package index (read: {5}ms, configure: {6}ms, build: {7}ms, register: {8}ms summed across threads)",
+                getLoadedCount(), source.toLowerCase(), getTotalMillis(), threads, getIndexedCount(),
+                getPhaseMillis(Phase.READ), getPhaseMillis(Phase.CONFIGURE), getPhaseMillis(Phase.BUILD),
+                getPhaseMillis(Phase.REGISTER));
+
+        if (statsService == null) {
+            return;
+        }
+        recordMetric(statsService, "Total", getTotalMillis());
+        for (Phase phase : Phase.values()) {
+            recordMetric(statsService, phase.metricName, getPhaseMillis(phase));
+        }
+    }
+
+    private void recordMetric(StatsService statsService, String name, long millis) {
+        String metricName = MessageFormat.format(MetricNames.SUPPORTABILITY_TIMING_WEAVE_PACKAGES, source, name);
+        statsService.doStatsWork(StatsWorks.getRecordResponseTimeWork(metricName, millis), metricName);
+    }
+
+}
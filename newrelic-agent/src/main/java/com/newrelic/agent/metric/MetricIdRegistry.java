@@ -7,17 +7,24 @@
 
 package com.newrelic.agent.metric;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A class to map {@link MetricName} to ids.
+ *
+ * It also keeps the agent-wide {@link NameIds}, which give metric names dense integer ids that can index primitive
+ * arrays. See {@link #getNameIds()}.
  * 
- * This class is not thread-safe.
+ * This class is not thread-safe. {@link NameIds} is.
  */
 public class MetricIdRegistry {
 
     public static final int METRIC_LIMIT;
+    public static final int NO_ID = -1;
     private static final int INITIAL_CAPACITY = 1000;
 
     static {
@@ -25,6 +32,8 @@ public class MetricIdRegistry {
         METRIC_LIMIT = ((null != property) ? Integer.parseInt(property) : 15000);
     }
 
+    private static final AtomicReference<NameIds> NAME_IDS = new AtomicReference<>(new NameIds(METRIC_LIMIT));
+
     private final Map<MetricName, Integer> metricIds = new HashMap<>(INITIAL_CAPACITY);
 
     public Integer getMetricId(MetricName metricName) {
@@ -46,4 +55,108 @@ public class MetricIdRegistry {
         return metricIds.size();
     }
 
+    /**
+     * Returns the agent-wide name ids. Once the current name ids are full a new, empty generation replaces them, much
+     * like {@link #setMetricId(MetricName, Integer)} clears the registry when it reaches the limit. Ids are only
+     * comparable between users of the same generation, so callers hold on to the instance they were given.
+     */
+    public static NameIds getNameIds() {
+        NameIds current = NAME_IDS.get();
+        if (current.isFull()) {
+            NameIds next = new NameIds(METRIC_LIMIT);
+            // only one thread starts the new generation, the others use the one it created
+            return NAME_IDS.compareAndSet(current, next) ? next : NAME_IDS.get();
+        }
+        return current;
+    }
+
+    /**
+     * Interns metric names and assigns each one a stable integer id. The ids are dense, starting at zero.
+     *
+     * Ids are never reused or cleared. Once the limit has been reached no more ids are handed out and
+     * {@link #getId(String)} returns {@link #NO_ID}, callers should fall back to keying by name.
+     *
+     * This class is thread-safe.
+     */
+    public static final class NameIds {
+
+        private final int limit;
+        private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+        private final Object lock = new Object();
+        private volatile String[] names;
+        private volatile boolean full;
+        private int size = 0; // guarded by lock
+
+        public NameIds(int limit) {
+            this.limit = limit;
+            this.names = new String[Math.max(1, Math.min(limit, INITIAL_CAPACITY))];
+            this.full = limit <= 0;
+        }
+
+        /**
+         * Returns the id for the metric name, registering the name if it has not been seen before.
+         *
+         * @return the id, or {@link #NO_ID} if the name ids are full
+         */
+        public int getId(String metricName) {
+            Integer id = ids.get(metricName);
+            if (id != null) {
+                return id;
+            }
+            if (full) {
+                return NO_ID;
+            }
+            return register(metricName);
+        }
+
+        /**
+         * Returns the id for the metric name without registering the name.
+         *
+         * @return the id, or {@link #NO_ID} if the name has not been registered
+         */
+        public int findId(String metricName) {
+            Integer id = ids.get(metricName);
+            return id == null ? NO_ID : id;
+        }
+
+        /**
+         * Returns the metric name for an id returned by {@link #getId(String)}.
+         */
+        public String getName(int id) {
+            return names[id];
+        }
+
+        public int getSize() {
+            return ids.size();
+        }
+
+        public boolean isFull() {
+            return full;
+        }
+
+        private int register(String metricName) {
+            synchronized (lock) {
+                Integer id = ids.get(metricName);
+                if (id != null) {
+                    return id;
+                }
+                if (size >= limit) {
+                    return NO_ID;
+                }
+                String[] current = names;
+                if (size == current.length) {
+                    current = Arrays.copyOf(current, Math.min(limit, current.length * 2));
+                }
+                current[size] = metricName;
+                names = current;
+                // publishing the id after the name is written means any thread that sees the id also sees the name
+                ids.put(metricName, size);
+                if (size + 1 == limit) {
+                    full = true;
+                }
+                return size++;
+            }
+        }
+    }
+
 }
@@ -8,25 +8,46 @@
 package com.newrelic.agent.normalization;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
 import java.util.logging.Level;
 
 import com.newrelic.agent.Agent;
+import com.newrelic.agent.bridge.AgentBridge;
 
 /**
  * A class for applying renaming rules.
  * 
+ * The rules are applied in order to each name. Rules whose pattern requires a literal that isn't in the name are
+ * skipped without running the pattern (see {@link RuleLiteralIndex}), and the results for recent names are cached.
+ * 
  * This class is thread-safe.
  */
 public class NormalizerImpl implements Normalizer {
 
+    static final int MAX_CACHED_NAMES = 1000;
+
+    /**
+     * Longer names are not cached so that a few very long urls can't hold on to a lot of memory.
+     */
+    static final int MAX_CACHED_NAME_LENGTH = 1024;
+
+    // the cached result for names that are ignored
+    private static final Object IGNORED = new Object();
+
     private final List<NormalizationRule> rules;
     private final String appName;
+    private final RuleLiteralIndex literalIndex;
+    private final Function<String, Object> cache;
 
     public NormalizerImpl(String appName, List<NormalizationRule> rules) {
         this.appName = appName;
-        this.rules = Collections.unmodifiableList(rules);
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        this.literalIndex = new RuleLiteralIndex(this.rules);
+        this.cache = AgentBridge.collectionFactory.memorize(this::normalizeToCacheValue, MAX_CACHED_NAMES);
     }
 
     @Override
@@ -35,9 +56,29 @@ public class NormalizerImpl implements Normalizer {
         if (name == null) {
             return null;
         }
+        if (rules.isEmpty()) {
+            return name;
+        }
+        if (name.length() > MAX_CACHED_NAME_LENGTH) {
+            return applyRules(name);
+        }
+        Object result = cache.apply(name);
+        return result == IGNORED ? null : (String) result;
+    }
+
+    private Object normalizeToCacheValue(String name) {
+        String normalizedName = applyRules(name);
+        return normalizedName == null ? IGNORED : normalizedName;
+    }
 
+    private String applyRules(String name) {
         String normalizedName = name;
-        for (NormalizationRule rule : rules) {
+        BitSet literals = literalIndex.findLiterals(normalizedName);
+        for (int i = 0; i < rules.size(); i++) {
+            if (!literalIndex.mayMatch(i, literals)) {
+                continue;
+            }
+            NormalizationRule rule = rules.get(i);
             RuleResult result = rule.normalize(normalizedName);
             if (!result.isMatch()) {
                 continue;
@@ -58,6 +99,7 @@ public class NormalizerImpl implements Normalizer {
                     Agent.LOG.finer(msg);
                 }
                 normalizedName = replacement;
+                literals = literalIndex.findLiterals(normalizedName);
             }
             if (rule.isTerminateChain()) {
                 break;
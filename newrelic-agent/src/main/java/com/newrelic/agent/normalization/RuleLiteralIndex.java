@@ -0,0 +1,338 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.normalization;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Finds the rules that can't match a name without running their patterns.
+ * <p>
+ * A literal that every match of a rule's pattern has to contain is taken from the pattern, when the pattern is simple
+ * enough to tell. The literals of all the rules are compiled into one Aho-Corasick automaton, so a single pass over a
+ * name finds the literals it contains. A rule whose literal isn't in the name can't match it, including when the rule
+ * matches each segment of the name, since the segments are parts of the name.
+ * <p>
+ * The patterns are case insensitive, so the literals and the names are compared after folding the case of each char.
+ * Folding matches at least every char that the patterns match, so a rule is never skipped for a name it would match.
+ * <p>
+ * This class is thread-safe.
+ */
+final class RuleLiteralIndex {
+
+    private static final int NO_LITERAL = -1;
+
+    // literals shorter than this occur in most names, so they don't rule anything out
+    private static final int MIN_LITERAL_LENGTH = 2;
+
+    // the literal id for each rule, or NO_LITERAL
+    private final int[] ruleLiterals;
+    private final Node root = new Node();
+    private final int literalCount;
+
+    RuleLiteralIndex(List<NormalizationRule> rules) {
+        ruleLiterals = new int[rules.size()];
+        Map<String, Integer> literalIds = new HashMap<>();
+        for (int i = 0; i < rules.size(); i++) {
+            String literal = requiredLiteral(rules.get(i).getMatchExpression());
+            if (literal == null || literal.length() < MIN_LITERAL_LENGTH) {
+                ruleLiterals[i] = NO_LITERAL;
+                continue;
+            }
+            String folded = fold(literal);
+            Integer id = literalIds.get(folded);
+            if (id == null) {
+                id = literalIds.size();
+                literalIds.put(folded, id);
+                addLiteral(folded, id);
+            }
+            ruleLiterals[i] = id;
+        }
+        literalCount = literalIds.size();
+        linkFailures();
+    }
+
+    /**
+     * @return the literals in the name, to pass to {@link #mayMatch(int, BitSet)}
+     */
+    BitSet findLiterals(String name) {
+        BitSet found = new BitSet(literalCount);
+        if (literalCount == 0) {
+            return found;
+        }
+        Node node = root;
+        for (int i = 0; i < name.length(); i++) {
+            char c = fold(name.charAt(i));
+            while (node != root && node.next(c) == null) {
+                node = node.failure;
+            }
+            Node next = node.next(c);
+            if (next != null) {
+                node = next;
+            }
+            for (Node output = node; output != root; output = output.failure) {
+                if (output.literalId != NO_LITERAL) {
+                    found.set(output.literalId);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return false if the rule can't match a name that contains the literals
+     */
+    boolean mayMatch(int ruleIndex, BitSet literals) {
+        int literalId = ruleLiterals[ruleIndex];
+        return literalId == NO_LITERAL || literals.get(literalId);
+    }
+
+    private void addLiteral(String literal, int id) {
+        Node node = root;
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            Node next = node.next(c);
+            if (next == null) {
+                next = new Node();
+                node.children.put(c, next);
+            }
+            node = next;
+        }
+        node.literalId = id;
+    }
+
+    private void linkFailures() {
+        Queue<Node> queue = new ArrayDeque<>();
+        root.failure = root;
+        for (Node child : root.children.values()) {
+            child.failure = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.remove();
+            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                Node child = entry.getValue();
+                Node failure = node.failure;
+                while (failure != root && failure.next(entry.getKey()) == null) {
+                    failure = failure.failure;
+                }
+                Node failureNext = failure.next(entry.getKey());
+                child.failure = failureNext == null || failureNext == child ? root : failureNext;
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Folds the case of a char the same way as {@link String#regionMatches(boolean, int, String, int, int)}.
+     */
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static String fold(String value) {
+        char[] chars = new char[value.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(value.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Returns the longest run of literal chars that every match of the regex contains, or null if there is none or the
+     * regex uses constructs that this doesn't read, such as top level alternation, inline flags or quoting. Groups and
+     * character classes are skipped.
+     */
+    static String requiredLiteral(String regex) {
+        if (hasInlineFlags(regex) || regex.contains("\\Q")) {
+            return null;
+        }
+        List<String> runs = new ArrayList<>();
+        StringBuilder run = new StringBuilder();
+        int length = regex.length();
+        int i = 0;
+        while (i < length) {
+            char c = regex.charAt(i);
+            int next;
+            boolean literal = false;
+            char literalChar = 0;
+            if (c == '\\') {
+                if (i + 1 >= length) {
+                    return null;
+                }
+                char escaped = regex.charAt(i + 1);
+                if (Character.isLetterOrDigit(escaped)) {
+                    // predefined character classes and boundaries. Back references and escapes for chars aren't read
+                    if ("dDsSwWbBAGZzhHvVR".indexOf(escaped) < 0) {
+                        return null;
+                    }
+                } else {
+                    literal = true;
+                    literalChar = escaped;
+                }
+                next = i + 2;
+            } else if (c == '[') {
+                next = skipCharacterClass(regex, i);
+            } else if (c == '(') {
+                next = skipGroup(regex, i);
+            } else if (c == '|' || c == ')' || c == '?' || c == '*' || c == '+' || c == '{') {
+                // alternatives at the top level don't share a literal
+                return null;
+            } else if (c == '^' || c == '$' || c == '.') {
+                next = i + 1;
+            } else {
+                literal = true;
+                literalChar = c;
+                next = i + 1;
+            }
+            if (next < 0) {
+                return null;
+            }
+
+            int afterQuantifier = next;
+            boolean optional = false;
+            boolean repeated = false;
+            if (next < length) {
+                char quantifier = regex.charAt(next);
+                if (quantifier == '?' || quantifier == '*') {
+                    optional = true;
+                    afterQuantifier = next + 1;
+                } else if (quantifier == '+') {
+                    repeated = true;
+                    afterQuantifier = next + 1;
+                } else if (quantifier == '{') {
+                    int close = regex.indexOf('}', next);
+                    if (close < 0) {
+                        return null;
+                    }
+                    String bounds = regex.substring(next + 1, close);
+                    optional = bounds.startsWith("0") || bounds.startsWith(",");
+                    repeated = !bounds.equals("1");
+                    afterQuantifier = close + 1;
+                }
+                // lazy and possessive quantifiers
+                if (afterQuantifier != next && afterQuantifier < length
+                        && (regex.charAt(afterQuantifier) == '?' || regex.charAt(afterQuantifier) == '+')) {
+                    afterQuantifier++;
+                }
+            }
+
+            if (literal && !optional) {
+                run.append(literalChar);
+                if (repeated) {
+                    runs.add(run.toString());
+                    run.setLength(0);
+                }
+            } else {
+                runs.add(run.toString());
+                run.setLength(0);
+            }
+            i = afterQuantifier;
+        }
+        runs.add(run.toString());
+
+        String longest = null;
+        for (String candidate : runs) {
+            if (!candidate.isEmpty() && (longest == null || candidate.length() > longest.length())) {
+                longest = candidate;
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * Inline flags such as {@code (?x)} change how the rest of the regex is read. Other groups that start with
+     * {@code (?}, such as non capturing groups and lookarounds, don't.
+     */
+    private static boolean hasInlineFlags(String regex) {
+        for (int i = regex.indexOf("(?"); i >= 0; i = regex.indexOf("(?", i + 1)) {
+            if (i + 2 >= regex.length() || Character.isLetter(regex.charAt(i + 2)) || regex.charAt(i + 2) == '-') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the index after the character class that starts at start, or -1 if it can't be read
+     */
+    private static int skipCharacterClass(String regex, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+                int first = i + 1 < regex.length() && regex.charAt(i + 1) == '^' ? i + 2 : i + 1;
+                if (first < regex.length() && regex.charAt(first) == ']') {
+                    // a leading ] is read differently by different regex engines
+                    return -1;
+                }
+            } else if (c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index after the group that starts at start, or -1 if it can't be read
+     */
+    private static int skipGroup(String regex, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                i = skipCharacterClass(regex, i);
+                if (i < 0) {
+                    return -1;
+                }
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>(4);
+        Node failure;
+        int literalId = NO_LITERAL;
+
+        Node next(char c) {
+            return children.get(c);
+        }
+    }
+
+}
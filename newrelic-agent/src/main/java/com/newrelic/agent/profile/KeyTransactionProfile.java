@@ -34,8 +34,8 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Level;
 
 /**
- * This class is not thread-safe. Use only on the sampling thread, except for the dispatcherTransactionFinished method
- * which runs on a request thread.
+ * This class is not thread-safe. Use only on the sampling thread, except for the transaction listener methods which run
+ * on request threads or on the threads that finish transactions.
  */
 public class KeyTransactionProfile implements IProfile, ExtendedTransactionListener, JSONStreamAware {
 
@@ -151,8 +151,9 @@ public class KeyTransactionProfile implements IProfile, ExtendedTransactionListe
     }
 
     /**
-     * This usually runs on the request thread, but for transactions that end because of a token timing out, it can be
-     * called from an arbitrary thread that happens to run the onRemoval listener in TimedTokenSet.
+     * This usually runs on the request thread, or on an agent thread when transactions are finished asynchronously, but
+     * for transactions that end because of a token timing out, it can be called from an arbitrary thread that happens to
+     * run the onRemoval listener in TimedTokenSet.
      */
     @Override
     public void dispatcherTransactionFinished(TransactionData td, TransactionStats stats) {
@@ -166,13 +167,20 @@ public class KeyTransactionProfile implements IProfile, ExtendedTransactionListe
             } else {
                 Agent.LOG.finer(msg);
             }
-        } finally {
-            long threadId = td.getTransaction().getInitiatingThreadId();
-            boolean success = getActiveThreadIds().remove(threadId);
-            Agent.LOG.finer("Attempt to remove thread id: " + threadId + " was " + (success ? "" : "not ") + "successful");
         }
     }
 
+    /**
+     * The thread id is released on the finishing thread, since the listeners can process the transaction after the
+     * thread has started another one.
+     */
+    @Override
+    public void dispatcherTransactionFinishing(TransactionData td) {
+        long threadId = td.getTransaction().getInitiatingThreadId();
+        boolean success = getActiveThreadIds().remove(threadId);
+        Agent.LOG.finer("Attempt to remove thread id: " + threadId + " was " + (success ? "" : "not ") + "successful");
+    }
+
     @Override
     public void dispatcherTransactionCancelled(Transaction transaction) {
         getActiveThreadIds().remove(transaction.getInitiatingThreadId());
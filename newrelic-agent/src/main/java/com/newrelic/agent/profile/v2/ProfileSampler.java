@@ -8,9 +8,11 @@
 package com.newrelic.agent.profile.v2;
 
 import com.newrelic.agent.Agent;
+import com.newrelic.agent.profile.ProfilerParameters;
 import com.newrelic.agent.profile.RunnableThreadRules;
 import com.newrelic.agent.profile.ThreadType;
 import com.newrelic.agent.service.ServiceFactory;
+import com.newrelic.agent.threads.BasicThreadInfo;
 import com.newrelic.agent.util.StackTraces;
 
 import java.lang.management.ManagementFactory;
@@ -20,6 +22,7 @@ import java.text.MessageFormat;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.logging.Level;
 
 /**
  * Sample stack traces for the profiles in a profiling session.
@@ -30,6 +33,15 @@ public class ProfileSampler {
 
     public static final int MAX_STACK_DEPTH = 300;
 
+    /**
+     * Hidden config that samples multi-sample sessions with JFR execution sample events instead of
+     * {@link ThreadMXBean#getThreadInfo(long[], int)}, which brings every thread to a safepoint for every sample.
+     */
+    static final String JFR_SAMPLER_ENABLED = "thread_profiler.jfr_sampler.enabled";
+
+    // compiled with the Java 11 sources
+    private static final String JFR_PROFILE_SAMPLER_CLASS = "com.newrelic.agent.profile.v2.JfrProfileSampler";
+
     private static final ThreadInfo[] EMPTY_THREAD_INFO_ARRAY = new ThreadInfo[0];
     
     private final RunnableThreadRules runnableThreadRules = new RunnableThreadRules();
@@ -37,6 +49,44 @@ public class ProfileSampler {
     public ProfileSampler() {
     }
 
+    /**
+     * Creates the sampler for a session. The JFR sampler is used when it is enabled, the session takes more than one
+     * sample and JFR can be started. Otherwise the sampler that takes thread dumps is used.
+     */
+    public static ProfileSampler create(ProfilerParameters parameters) {
+        boolean jfrEnabled = ServiceFactory.getConfigService().getDefaultAgentConfig().getValue(JFR_SAMPLER_ENABLED, false);
+        if (jfrEnabled && parameters.getSamplePeriodInMillis() < parameters.getDurationInMillis()) {
+            try {
+                ProfileSampler sampler = (ProfileSampler) Class.forName(JFR_PROFILE_SAMPLER_CLASS).getDeclaredConstructor().newInstance();
+                sampler.start(parameters);
+                return sampler;
+            } catch (Throwable t) {
+                Agent.LOG.log(Level.FINE, "Unable to sample the thread profile with JFR, using thread dumps: {0}", t.toString());
+            }
+        }
+        return new ProfileSampler();
+    }
+
+    /**
+     * Called before the first call to {@link #sampleStackTraces(List)}.
+     */
+    protected void start(ProfilerParameters parameters) {
+    }
+
+    /**
+     * Called after the last call to {@link #sampleStackTraces(List)}, before the profiles are reported.
+     */
+    public void stop(List<IProfile> profiles) {
+    }
+
+    /**
+     * @return how often {@link #sampleStackTraces(List)} is called for a session that samples every
+     * samplePeriodInMillis
+     */
+    public long getSampleTaskPeriodInMillis(long samplePeriodInMillis) {
+        return samplePeriodInMillis;
+    }
+
     public void sampleStackTraces(List<IProfile> profiles) {
         if (profiles.isEmpty()) {
             return;
@@ -57,22 +107,37 @@ public class ProfileSampler {
             if (null != threadInfo) {
                 boolean isRunnable = runnableThreadRules.isRunnable(threadInfo);
                 if (isRunnable || !profiler.getProfilerParameters().isRunnablesOnly()) {
-                    ThreadType type;
-                    long threadId = threadInfo.getThreadId();
-                    if (agentThreadIds.contains(threadId)) {
-                        type = ThreadType.BasicThreadType.AGENT;
-                    } else if (profiler.getProfilerParameters().isProfileAgentThreads()
-                            && StackTraces.isInAgentInstrumentation(threadInfo.getStackTrace())) {
-                        type = ThreadType.BasicThreadType.AGENT_INSTRUMENTATION;
-                    } else {
-                        type = ThreadType.BasicThreadType.OTHER;
-                    }
+                    ThreadType type = getThreadType(profiler, threadInfo.getThreadId(), threadInfo.getStackTrace(), agentThreadIds);
                     profiler.addStackTrace(threadInfo, isRunnable, type);
                 }
             }
         }
     }
 
+    /**
+     * Adds a stack trace that was sampled while the thread was running. The stack trace starts with the leaf frame.
+     */
+    protected void addRunningStackTrace(IProfile profiler, BasicThreadInfo threadInfo, StackTraceElement[] stackTrace,
+            Set<Long> agentThreadIds) {
+        if (stackTrace.length == 0) {
+            return;
+        }
+        boolean isRunnable = runnableThreadRules.isRunnable(stackTrace[0]);
+        if (isRunnable || !profiler.getProfilerParameters().isRunnablesOnly()) {
+            ThreadType type = getThreadType(profiler, threadInfo.getId(), stackTrace, agentThreadIds);
+            profiler.addStackTrace(threadInfo, stackTrace, isRunnable, type);
+        }
+    }
+
+    private ThreadType getThreadType(IProfile profiler, long threadId, StackTraceElement[] stackTrace, Set<Long> agentThreadIds) {
+        if (agentThreadIds.contains(threadId)) {
+            return ThreadType.BasicThreadType.AGENT;
+        } else if (profiler.getProfilerParameters().isProfileAgentThreads() && StackTraces.isInAgentInstrumentation(stackTrace)) {
+            return ThreadType.BasicThreadType.AGENT_INSTRUMENTATION;
+        }
+        return ThreadType.BasicThreadType.OTHER;
+    }
+
     private ThreadInfo[] getAllThreadInfos() {
         long[] threadIds = getAllThreadIds();
         if (threadIds == null || threadIds.length == 0) {
@@ -27,7 +27,7 @@ import java.util.logging.Level;
 
 public class ProfileSession {
 
-    private final ProfileSampler profileSampler = new ProfileSampler();
+    private ProfileSampler profileSampler = new ProfileSampler();
     private final IProfile profile;
     private final List<IProfile> profiles = new ArrayList<>();
     private final ProfilerService profilerService;
@@ -63,6 +63,7 @@ public class ProfileSession {
     }
 
     private void startMultiSample(long samplePeriodInMillis, long durationInMillis) {
+        profileSampler = ProfileSampler.create(profile.getProfilerParameters());
         ScheduledExecutorService scheduler = profilerService.getScheduledExecutorService();
         ScheduledFuture<?> handle = scheduler.scheduleWithFixedDelay(new Runnable() {
             @Override public void run() {
@@ -78,13 +79,14 @@ public class ProfileSession {
                     }
                 }
             }
-        }, 0L, samplePeriodInMillis, TimeUnit.MILLISECONDS);
+        }, 0L, profileSampler.getSampleTaskPeriodInMillis(samplePeriodInMillis), TimeUnit.MILLISECONDS);
         profileHandle.set(handle);
         handle = scheduler.schedule(new Runnable() {
             @Override
             public void run() {
                 profileHandle.get().cancel(false);
                 if (!done.getAndSet(true)) {
+                    stopSampler();
                     report();
                 }
                 sessionCompleted();
@@ -117,6 +119,14 @@ public class ProfileSession {
         profileHandle.set(handle);
     }
 
+    private void stopSampler() {
+        try {
+            profileSampler.stop(profiles);
+        } catch (Throwable t) {
+            getLogger().log(Level.FINER, "An error occurred stopping the thread sampler", t);
+        }
+    }
+
     private void report() {
         try {
             profile.end();
@@ -164,6 +174,7 @@ public class ProfileSession {
         profilerService.getScheduledExecutorService().schedule(new Runnable() {
             @Override
             public void run() {
+                stopSampler();
                 if (shouldReport) {
                     report();
                 }
@@ -367,6 +367,7 @@ public class ServiceManagerImpl extends AbstractService implements ServiceManage
                 .usePlaintext(config.getUsePlaintext())
                 .useCompression(config.getUseCompression())
                 .useBatching(config.getUseBatching())
+                .useRingBuffer(config.getUseSpanEventsRingBuffer())
                 .build();
 
         return InfiniteTracing.initialize(infiniteTracingConfig, NewRelic.getAgent().getMetricAggregator());
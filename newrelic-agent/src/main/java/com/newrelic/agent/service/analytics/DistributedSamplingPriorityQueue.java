@@ -12,6 +12,7 @@ import com.newrelic.agent.model.PriorityAware;
 import com.newrelic.agent.tracing.DistributedTraceUtil;
 import com.newrelic.agent.util.MinAwareQueue;
 import com.newrelic.agent.util.NoOpQueue;
+import com.newrelic.agent.util.ShardedMinAwareQueue;
 import com.newrelic.agent.util.SynchronizedMinAwareQueue;
 import com.newrelic.api.agent.NewRelic;
 
@@ -21,6 +22,9 @@ import java.util.logging.Level;
 
 public class DistributedSamplingPriorityQueue<E extends PriorityAware> implements SamplingPriorityQueue<E> {
 
+    static final String SHARDED_RESERVOIR_ENABLED = "event_reservoir.sharded.enabled";
+    static final String SHARDED_RESERVOIR_SHARDS = "event_reservoir.sharded.shards";
+
     private final String appName;
     private final String serviceName;
     private final MinAwareQueue<E> data;
@@ -53,6 +57,9 @@ public class DistributedSamplingPriorityQueue<E extends PriorityAware> implement
     private MinAwareQueue<E> createQueue(int reservoirSize, Comparator<E> comparator) {
         if (reservoirSize <= 0) {
             return new NoOpQueue<>();
+        } else if (NewRelic.getAgent().getConfig().getValue(SHARDED_RESERVOIR_ENABLED, Boolean.FALSE)) {
+            int shards = NewRelic.getAgent().getConfig().getValue(SHARDED_RESERVOIR_SHARDS, Runtime.getRuntime().availableProcessors());
+            return new ShardedMinAwareQueue<>(reservoirSize, comparator, shards);
         } else {
             return new SynchronizedMinAwareQueue<>(reservoirSize, comparator);
         }
@@ -0,0 +1,47 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.service.logging;
+
+import com.newrelic.agent.attributes.AttributeValidator;
+import com.newrelic.agent.bridge.logging.LogErrorStack;
+import com.newrelic.agent.config.ConfigConstant;
+import org.json.simple.JSONStreamAware;
+import org.json.simple.JSONValue;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * The error stack attribute of a LogEvent. The stack is formatted and truncated to the log event attribute size limit
+ * when the event is serialized, so events that are sampled out of the reservoir never pay for formatting their stack.
+ */
+final class DeferredErrorStack implements JSONStreamAware {
+
+    private final LogErrorStack errorStack;
+    private volatile String value;
+
+    DeferredErrorStack(LogErrorStack errorStack) {
+        this.errorStack = errorStack;
+    }
+
+    @Override
+    public void writeJSONString(Writer out) throws IOException {
+        JSONValue.writeJSONString(toString(), out);
+    }
+
+    @Override
+    public String toString() {
+        String result = value;
+        if (result == null) {
+            result = AttributeValidator.truncateString(errorStack.toString(), ConfigConstant.MAX_LOG_EVENT_ATTRIBUTE_SIZE);
+            value = result;
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.service.logging;
+
+import com.newrelic.agent.bridge.logging.LogEventSampler;
+import com.newrelic.agent.model.LogEvent;
+import com.newrelic.agent.service.analytics.DistributedSamplingPriorityQueue;
+import com.newrelic.agent.tracing.DistributedTraceServiceImpl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rejects log events that the log event reservoir would discard before the logging instrumentation captures them.
+ * <p>
+ * The reservoir keeps the events with the highest priorities, and once it is full the lowest priority it holds only
+ * rises until the next harvest. An event's priority is drawn up front and the event is rejected if the reservoir is
+ * full and the priority is below that floor, which is exactly the set of events the reservoir would have discarded,
+ * so the events that are sent are the same as without pre-sampling. Rejected events still count as seen.
+ * <p>
+ * Drawing the priority and reading the floor is only worth doing when events are being dropped, so it is done for
+ * an application only if the previous harvest saw more events than it sent.
+ */
+final class LogEventPreSampler {
+
+    private final ConcurrentMap<String, AppState> appStates = new ConcurrentHashMap<>();
+
+    /**
+     * Samples a log event that will be added to the given reservoir.
+     *
+     * @return the priority to record the event with, {@link LogEventSampler#UNASSIGNED}, or {@link LogEventSampler#REJECTED}
+     */
+    float sample(String appName, DistributedSamplingPriorityQueue<LogEvent> reservoir) {
+        AppState state = appStates.get(appName);
+        if (state == null || !state.saturated || reservoir == null) {
+            return LogEventSampler.UNASSIGNED;
+        }
+
+        float priority = DistributedTraceServiceImpl.nextTruncatedFloat();
+        if (reservoir.isFull() && priority < reservoir.getMinPriority()) {
+            reservoir.incrementNumberOfTries();
+            state.rejected.incrementAndGet();
+            return LogEventSampler.REJECTED;
+        }
+        return priority;
+    }
+
+    /**
+     * Records the outcome of a harvest for an application and returns the number of events rejected since the previous
+     * harvest.
+     *
+     * @param seen the number of events offered to the harvested reservoir, including rejected ones
+     * @param sent the number of events the harvested reservoir held
+     */
+    int harvested(String appName, int seen, int sent) {
+        AppState state = appStates.get(appName);
+        if (state == null) {
+            state = new AppState();
+            AppState existing = appStates.putIfAbsent(appName, state);
+            if (existing != null) {
+                state = existing;
+            }
+        }
+        state.saturated = seen > sent;
+        return state.rejected.getAndSet(0);
+    }
+
+    void clear() {
+        appStates.clear();
+    }
+
+    private static final class AppState {
+        volatile boolean saturated;
+        final AtomicInteger rejected = new AtomicInteger();
+    }
+
+}
@@ -26,6 +26,9 @@ import com.newrelic.agent.bridge.AgentBridge;
 import com.newrelic.agent.bridge.logging.AppLoggingUtils;
 import com.newrelic.agent.bridge.logging.LogAttributeKey;
 import com.newrelic.agent.bridge.logging.LogAttributeType;
+import com.newrelic.agent.bridge.logging.LogErrorStack;
+import com.newrelic.agent.bridge.logging.LogEventCapture;
+import com.newrelic.agent.bridge.logging.LogEventSampler;
 import com.newrelic.agent.config.AgentConfig;
 import com.newrelic.agent.config.AgentConfigListener;
 import com.newrelic.agent.config.ApplicationLoggingConfig;
@@ -87,9 +90,15 @@ public class LogSenderServiceImpl extends AbstractService implements LogSenderSe
 
     public static final String METHOD = "add log event attribute";
     public static final String LOG_SENDER_SERVICE = "Log Sender Service";
+    private static final String PRE_SAMPLING_ENABLED = "application_logging.forwarding.pre_sampling.enabled";
 
     private volatile ExcludeIncludeFilter contextDataKeyFilter;
 
+    // Rejects log events on the logging thread that the reservoir would discard
+    private final boolean preSamplingEnabled;
+    private final LogEventPreSampler preSampler = new LogEventPreSampler();
+    private final LogEventSampler logEventSampler = this::sampleLogEvent;
+
     /**
      * Lifecycle listener for log events associated with a transaction
      */
@@ -184,6 +193,7 @@ public class LogSenderServiceImpl extends AbstractService implements LogSenderSe
         logLabelsEnabled = appLoggingConfig.isLogLabelsEnabled();
         labels = appLoggingConfig.removeExcludedLogLabels(config.getLabelsConfig().getLabels());
         logLevelDenylist = appLoggingConfig.getLogLevelDenylist();
+        preSamplingEnabled = config.getValue(PRE_SAMPLING_ENABLED, true);
 
         isEnabledForApp.put(config.getApplicationName(), forwardingEnabled);
     }
@@ -217,6 +227,9 @@ public class LogSenderServiceImpl extends AbstractService implements LogSenderSe
         // Register transaction listener to associate log events with transaction lifecycle
         ServiceFactory.getTransactionService().addTransactionListener(transactionListener);
         ServiceFactory.getConfigService().addIAgentConfigListener(configListener);
+        if (preSamplingEnabled) {
+            LogEventCapture.setSampler(logEventSampler);
+        }
     }
 
     /**
@@ -225,11 +238,13 @@ public class LogSenderServiceImpl extends AbstractService implements LogSenderSe
      */
     @Override
     protected void doStop() throws Exception {
+        LogEventCapture.setSampler(null);
         removeHarvestables();
         ServiceFactory.getTransactionService().removeTransactionListener(transactionListener);
         ServiceFactory.getConfigService().removeIAgentConfigListener(configListener);
         reservoirForApp.clear();
         isEnabledForApp.clear();
+        preSampler.clear();
     }
 
     private void removeHarvestables() {
@@ -275,6 +290,36 @@ public class LogSenderServiceImpl extends AbstractService implements LogSenderSe
         MetricNames.recordApiSupportabilityMetric(MetricNames.SUPPORTABILITY_API_RECORD_LOG_EVENT);
     }
 
+    /**
+     * Called by the logging instrumentation before it captures a log event to find out if the event would be kept.
+     *
+     * @return the priority to record the event with, {@link LogEventSampler#UNASSIGNED}, or {@link LogEventSampler#REJECTED}
+     */
+    private float sampleLogEvent() {
+        try {
+            if (!forwardingEnabled) {
+                return LogEventSampler.REJECTED;
+            }
+            Set<String> denylist = logLevelDenylist;
+            if (denylist != null && !denylist.isEmpty()) {
+                // the level is not known yet and events denied by level must not be counted as seen
+                return LogEventSampler.UNASSIGNED;
+            }
+            Transaction transaction = ServiceFactory.getTransactionService().getTransaction(false);
+            if (transaction != null && transaction.isInProgress() && !transaction.isIgnore()) {
+                // events recorded in a transaction are given the transaction's priority when it finishes
+                return LogEventSampler.UNASSIGNED;
+            }
+            String applicationName = (transaction != null && transaction.getApplicationName() != null)
+                    ? transaction.getApplicationName()
+                    : ServiceFactory.getRPMService().getApplicationName();
+            return preSampler.sample(applicationName, reservoirForApp.get(applicationName));
+        } catch (Throwable t) {
+            Agent.LOG.log(Level.FINEST, t, "Unable to sample log event");
+            return LogEventSampler.UNASSIGNED;
+        }
+    }
+
     /**
      * Store a collection of LogEvents in the priority queue when a Transaction is finished or cancelled
      *
@@ -447,6 +492,9 @@ public class LogSenderServiceImpl extends AbstractService implements LogSenderSe
         final DistributedSamplingPriorityQueue<LogEvent> reservoir = this.reservoirForApp.put(appName,
                 new DistributedSamplingPriorityQueue<>(appName, LOG_SENDER_SERVICE, maxSamplesStored));
 
+        final int preSamplingRejected = reservoir == null ? 0
+                : preSampler.harvested(appName, reservoir.getNumberOfTries(), reservoir.size());
+
         if (reservoir != null && reservoir.size() > 0) {
             try {
                 // Send LogEvents
@@ -458,7 +506,7 @@ public class LogSenderServiceImpl extends AbstractService implements LogSenderSe
                 ServiceFactory.getStatsService().doStatsWork(new StatsWork() {
                     @Override
                     public void doWork(StatsEngine statsEngine) {
-                        recordSupportabilityMetrics(statsEngine, durationInNanos, reservoir);
+                        recordSupportabilityMetrics(statsEngine, durationInNanos, reservoir, preSamplingRejected);
                     }
 
                     @Override
@@ -506,7 +554,7 @@ public class LogSenderServiceImpl extends AbstractService implements LogSenderSe
     }
 
     private void recordSupportabilityMetrics(StatsEngine statsEngine, long durationInNanoseconds,
-                                             DistributedSamplingPriorityQueue<LogEvent> reservoir) {
+                                             DistributedSamplingPriorityQueue<LogEvent> reservoir, int preSamplingRejected) {
         statsEngine.getStats(MetricNames.SUPPORTABILITY_LOGGING_FORWARDING_SENT)
                 .incrementCallCount(reservoir.size());
         statsEngine.getStats(MetricNames.SUPPORTABILITY_LOGGING_FORWARDING_SEEN)
@@ -519,6 +567,10 @@ public class LogSenderServiceImpl extends AbstractService implements LogSenderSe
             Agent.LOG.log(Level.FINE, "Invalid dropped log events value of {0}. This must be a non-negative value.", droppedLogEvents);
         }
 
+        if (preSamplingRejected > 0) {
+            statsEngine.getStats(MetricNames.SUPPORTABILITY_LOGGING_FORWARDING_PRE_SAMPLING_REJECTED).incrementCallCount(preSamplingRejected);
+        }
+
         statsEngine.getResponseTimeStats(MetricNames.SUPPORTABILITY_LOG_SENDER_SERVICE_EVENT_HARVEST_TRANSMIT)
                 .recordResponseTime(durationInNanoseconds, TimeUnit.NANOSECONDS);
     }
@@ -575,14 +627,16 @@ public class LogSenderServiceImpl extends AbstractService implements LogSenderSe
             }
         }
 
-        LogEvent event = new LogEvent(logEventAttributes, DistributedTraceServiceImpl.nextTruncatedFloat());
+        // use the priority the event was pre-sampled with, if it was
+        float priority = attributes instanceof LogEventCapture ? ((LogEventCapture) attributes).getPriority() : LogEventSampler.UNASSIGNED;
+        LogEvent event = new LogEvent(logEventAttributes, Float.isNaN(priority) ? DistributedTraceServiceImpl.nextTruncatedFloat() : priority);
 
         // Now add the attributes from the argument map to the event using an AttributeSender.
         // An AttributeSender is the way to reuse all the existing attribute validations. We
         // also locally "intern" Strings because we anticipate a lot of reuse of the keys and,
         // possibly, the values. But there's an interaction: if the key or value is chopped
         // within the attribute sender, the modified value won't be "interned" in our map.
-        AttributeSender sender = new LogEventAttributeSender(logEventAttributes);
+        LogEventAttributeSender sender = new LogEventAttributeSender(logEventAttributes);
 
         for (Map.Entry<LogAttributeKey, ?> entry : attributes.entrySet()) {
             LogAttributeKey logAttrKey = entry.getKey();
@@ -603,7 +657,9 @@ public class LogSenderServiceImpl extends AbstractService implements LogSenderSe
             }
 
             String prefixedKey = mapInternString(logAttrKey.getPrefixedKey());
-            if (value instanceof String) {
+            if (value instanceof LogErrorStack) {
+                sender.addErrorStack(prefixedKey, (LogErrorStack) value);
+            } else if (value instanceof String) {
                 sender.addAttribute(prefixedKey, mapInternString((String) value), METHOD);
             } else if (value instanceof Number) {
                 sender.addAttribute(prefixedKey, (Number) value, METHOD);
@@ -644,6 +700,16 @@ public class LogSenderServiceImpl extends AbstractService implements LogSenderSe
             }
             return null;
         }
+
+        /**
+         * Adds an error stack that is formatted when the event is sent instead of when it is recorded.
+         */
+        void addErrorStack(String key, LogErrorStack errorStack) {
+            Map<String, Object> attributeMap = getAttributeMap();
+            if (attributeMap != null) {
+                attributeMap.put(key, new DeferredErrorStack(errorStack));
+            }
+        }
     }
 
     @Override
@@ -26,11 +26,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 public class SlowTransactionService extends AbstractService implements ExtendedTransactionListener, HarvestListener {
 
     private final ConcurrentHashMap<String, Transaction> openTransactions = new ConcurrentHashMap<>();
+    // transactions that finished while they were open, until the transaction listeners process them
+    private final ConcurrentHashMap<String, Transaction> finishingTransactions = new ConcurrentHashMap<>();
     private final ThreadMXBean threadMXBean;
 
     private final boolean isEnabled;
@@ -100,6 +103,19 @@ public class SlowTransactionService extends AbstractService implements ExtendedT
             getLogger().finest("Transaction cancelled with guid " + transaction.getGuid());
         }
         openTransactions.remove(transaction.getGuid());
+        finishingTransactions.remove(transaction.getGuid());
+    }
+
+    /**
+     * Stops a finished transaction from being reported as an open one by the harvest, even when the transaction
+     * listeners process it later.
+     */
+    @Override
+    public void dispatcherTransactionFinishing(TransactionData transactionData) {
+        Transaction txn = openTransactions.remove(transactionData.getGuid());
+        if (txn != null && evalCompletedTransactions) {
+            finishingTransactions.put(transactionData.getGuid(), txn);
+        }
     }
 
     @Override
@@ -107,11 +123,14 @@ public class SlowTransactionService extends AbstractService implements ExtendedT
         if (getLogger().isLoggable(Level.FINEST)) {
             getLogger().finest("Transaction finished with guid " + transactionData.getGuid());
         }
-        Transaction txn = openTransactions.remove(transactionData.getGuid());
+        Transaction txn = finishingTransactions.remove(transactionData.getGuid());
+        if (txn == null) {
+            txn = openTransactions.remove(transactionData.getGuid());
+        }
 
         // txn will be null if it's been reported as part of the harvest cycle.
         if (txn != null && evalCompletedTransactions) {
-            long txnExecutionTimeInMs = System.currentTimeMillis() - txn.getWallClockStartTimeMs();
+            long txnExecutionTimeInMs = TimeUnit.NANOSECONDS.toMillis(transactionData.getTransactionDuration());
             if (txnExecutionTimeInMs > this.thresholdMillis) {
                 reportSlowTransaction(txn, txnExecutionTimeInMs, true);
             }
@@ -10,29 +10,35 @@ package com.newrelic.agent.sql;
 import com.newrelic.agent.bridge.AgentBridge;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * 
+ *
  * Bounded concurrent cache that stores key value pairs (K,V).
- * 
- * When the cache reaches its maximum capacity, any new item added replaces the largest item in the cache.
- * 
+ *
+ * When the cache reaches its maximum capacity, any new item added replaces the smallest item in the cache.
+ *
  * To update a value in the cache, call <tt>putReplace</tt>.
- * 
- * This cache is thread-safe, but the behavior is not 100% deterministic and may end up returning slightly less
- * than the size limit in order to boost performance. However, it will never return a list that is over the limit. 
- * 
+ *
+ * The values are kept in a binary min heap that records the position of each entry, so adding a value, evicting the
+ * smallest value and moving a value whose ordering changed are all O(log n). Lookups read a concurrent map and do not
+ * take the lock that guards the heap.
+ *
  * @param <K> Key type
  * @param <V> Value type
  */
 public class BoundedConcurrentCache<K, V extends Comparable<V> & CacheValue<K>> {
     private final int maxCapacity;
-    private final PriorityBlockingQueue<V> priorityQueue;
-    private final Map<K, V> cache;
+    private final Comparator<V> comparator;
+    private final Map<K, Node<V>> cache;
+    private final ReentrantLock lock = new ReentrantLock();
+    // guarded by lock. heap[0] holds the smallest value
+    private Node<V>[] heap;
+    private int size;
 
     public BoundedConcurrentCache(int size) {
         this(size, null);
@@ -40,55 +46,171 @@ public class BoundedConcurrentCache<K, V extends Comparable<V> & CacheValue<K>>
 
     public BoundedConcurrentCache(int size, Comparator<V> comparator) {
         this.maxCapacity = size;
-        this.priorityQueue = new PriorityBlockingQueue<>(size, comparator);
+        this.comparator = comparator;
+        this.heap = newHeap(Math.min(size, 16));
         cache = AgentBridge.collectionFactory.createCacheWithInitialCapacity(16);
     }
 
     public V get(K sql) {
-        return cache.get(sql);
+        Node<V> node = cache.get(sql);
+        return node == null ? null : node.value;
     }
 
     public V putIfAbsent(K key, V value) {
-        V putValue = cache.putIfAbsent(key, value);
-        if (putValue != null) {
-            return putValue;
+        lock.lock();
+        try {
+            Node<V> existing = cache.get(key);
+            if (existing != null) {
+                return existing.value;
+            }
+            add(key, value);
+            return null;
+        } finally {
+            lock.unlock();
         }
-        priorityQueue.add(value);
-
-        // replace min if cache gets full
-        while (priorityQueue.size() > maxCapacity) {
-            V val = priorityQueue.poll();
-            K sqlToRemove = val.getKey();
-            cache.remove(sqlToRemove);
-        }
-        return null;
     }
 
     /**
      * Inserts and replaces value in the cache. This method should be called whenever a value is modified.
-     * 
+     *
      * @param key key of value to update.
      */
     public void putReplace(K key, V value) {
-        V valueToRemove = cache.get(key);
-        if (valueToRemove != null) {
-            cache.remove(key);
-            priorityQueue.remove(valueToRemove);
+        lock.lock();
+        try {
+            Node<V> existing = cache.get(key);
+            if (existing != null && existing.index >= 0) {
+                existing.value = value;
+                // the value may have moved either way in the ordering
+                siftDown(siftUp(existing.index, existing), existing);
+            } else {
+                if (existing != null) {
+                    cache.remove(key, existing);
+                }
+                add(key, value);
+            }
+        } finally {
+            lock.unlock();
         }
-
-        putIfAbsent(key, value);
     }
 
     public int size() {
-        return priorityQueue.size();
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
     }
 
     public void clear() {
-        cache.clear();
-        priorityQueue.clear();
+        lock.lock();
+        try {
+            cache.clear();
+            Arrays.fill(heap, 0, size, null);
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
     }
 
     public List<V> asList() {
-        return new ArrayList<>(priorityQueue);
+        lock.lock();
+        try {
+            List<V> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(heap[i].value);
+            }
+            return values;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // must hold lock
+    private void add(K key, V value) {
+        Node<V> node = new Node<>(value);
+        cache.put(key, node);
+        if (size < maxCapacity) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, Math.min(maxCapacity, size * 2));
+            }
+            siftUp(size++, node);
+        } else if (size > 0 && compare(value, heap[0].value) > 0) {
+            // replace min when the cache is full
+            Node<V> min = heap[0];
+            min.index = -1;
+            cache.remove(min.value.getKey(), min);
+            siftDown(0, node);
+        } else {
+            // the new value is the smallest, so it is the one that is evicted
+            node.index = -1;
+            cache.remove(value.getKey(), node);
+        }
+    }
+
+    /**
+     * Moves node towards the root from position index until its parent is not larger.
+     *
+     * @return the position the node was placed at
+     */
+    private int siftUp(int index, Node<V> node) {
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            Node<V> parent = heap[parentIndex];
+            if (compare(node.value, parent.value) >= 0) {
+                break;
+            }
+            place(index, parent);
+            index = parentIndex;
+        }
+        place(index, node);
+        return index;
+    }
+
+    /**
+     * Moves node towards the leaves from position index until neither of its children is smaller.
+     */
+    private void siftDown(int index, Node<V> node) {
+        int half = size >>> 1;
+        while (index < half) {
+            int childIndex = (index << 1) + 1;
+            Node<V> child = heap[childIndex];
+            int rightIndex = childIndex + 1;
+            if (rightIndex < size && compare(heap[rightIndex].value, child.value) < 0) {
+                childIndex = rightIndex;
+                child = heap[rightIndex];
+            }
+            if (compare(node.value, child.value) <= 0) {
+                break;
+            }
+            place(index, child);
+            index = childIndex;
+        }
+        place(index, node);
+    }
+
+    private void place(int index, Node<V> node) {
+        heap[index] = node;
+        node.index = index;
+    }
+
+    private int compare(V first, V second) {
+        return comparator == null ? first.compareTo(second) : comparator.compare(first, second);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Node<V>[] newHeap(int capacity) {
+        return (Node<V>[]) new Node[Math.max(capacity, 1)];
+    }
+
+    private static final class Node<V> {
+        volatile V value;
+        // position in the heap, or -1 once the node has been evicted. Guarded by lock
+        int index;
+
+        Node(V value) {
+            this.value = value;
+        }
     }
 }
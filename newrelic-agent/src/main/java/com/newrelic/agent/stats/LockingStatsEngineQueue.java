@@ -0,0 +1,133 @@
+/*
+ *
+ *  * Copyright 2020 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.stats;
+
+import com.newrelic.agent.Agent;
+
+import java.text.MessageFormat;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The default {@link StatsEngineQueue}. Stats engines are pooled in a queue which is guarded by a read/write lock so
+ * that the harvest can wait out any in-flight work before draining it.
+ *
+ * This class is thread-safe.
+ */
+class LockingStatsEngineQueue implements StatsEngineQueue {
+
+    private final Lock readLock;
+    private final Lock writeLock;
+    private final AtomicInteger statsEngineCount = new AtomicInteger();
+
+    // reference is guarded by readLock + writeLock
+    private ConcurrentLinkedQueue<StatsEngine> statsEngineQueue = new ConcurrentLinkedQueue<>();
+
+    LockingStatsEngineQueue() {
+        ReadWriteLock lock = new ReentrantReadWriteLock();
+        readLock = lock.readLock();
+        writeLock = lock.writeLock();
+    }
+
+    @Override
+    public boolean doStatsWork(StatsWork work) {
+        if (readLock.tryLock()) {
+            try {
+                final Queue<StatsEngine> statsEngineQueue = this.statsEngineQueue;
+                if (statsEngineQueue == null) {
+                    //
+                    // We've already been harvested.
+                    //
+                    return false;
+                }
+                doStatsWorkUnderLock(statsEngineQueue, work);
+                return true;
+            } finally {
+                readLock.unlock();
+            }
+        }
+        return false;
+    }
+
+    private void doStatsWorkUnderLock(Queue<StatsEngine> statsEngineQueue, StatsWork work) {
+        StatsEngine statsEngine = null;
+        try {
+            statsEngine = statsEngineQueue.poll();
+            if (statsEngine == null) {
+                statsEngine = createStatsEngine();
+                statsEngineCount.incrementAndGet();
+            }
+            work.doWork(statsEngine);
+        } catch (Exception e) {
+            String msg = MessageFormat.format("Exception doing stats work: {0}", e);
+            Agent.LOG.warning(msg);
+        } finally {
+            if (statsEngine != null) {
+                try {
+                    if (!statsEngineQueue.offer(statsEngine)) {
+                        // should never happen
+                        Agent.LOG.warning("Failed to return stats engine to queue");
+                    }
+                } catch (Exception e) {
+                    // should never happen
+                    String msg = MessageFormat.format("Exception returning stats engine to queue: {0}", e);
+                    Agent.LOG.warning(msg);
+                }
+            }
+        }
+    }
+
+    @Override
+    public StatsEngine getStatsEngineForHarvest() {
+        final Queue<StatsEngine> statsEngineQueue;
+        writeLock.lock();
+        try {
+            statsEngineQueue = this.statsEngineQueue;
+
+            //
+            // Clear the reference to the queue so that future calls to doStatsWork() get short-circuited.
+            //
+            this.statsEngineQueue = null;
+        } finally {
+            writeLock.unlock();
+        }
+
+        //
+        // Operations on statsEngineQueue will only occur within an acquired readLock and we've short-circuited
+        // any threads that might be racing for it, so safe to do the bulk of the harvest work outside of writeLock.
+        //
+        return getStatsEngineForHarvest(statsEngineQueue);
+    }
+
+    private StatsEngine getStatsEngineForHarvest(Queue<StatsEngine> statsEngines) {
+        StatsEngine harvestStatsEngine = createStatsEngine();
+
+        int actualStatsEngineCount = 0;
+        for (StatsEngine statsEngine : statsEngines) {
+            harvestStatsEngine.mergeStats(statsEngine);
+            actualStatsEngineCount++;
+        }
+
+        final int expectedStatsEngineCount = statsEngineCount.get();
+        if (actualStatsEngineCount != expectedStatsEngineCount) {
+            String msg = MessageFormat.format("Error draining stats engine queue. Expected: {0} actual: {1}",
+                    expectedStatsEngineCount, actualStatsEngineCount);
+            Agent.LOG.warning(msg);
+        }
+
+        return harvestStatsEngine;
+    }
+
+    private StatsEngine createStatsEngine() {
+        return new StatsEngineImpl();
+    }
+}
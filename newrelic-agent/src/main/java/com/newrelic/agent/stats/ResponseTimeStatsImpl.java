@@ -20,7 +20,7 @@ import java.util.logging.Level;
  */
 public class ResponseTimeStatsImpl extends AbstractStats implements ResponseTimeStats {
 
-    private static final long NANOSECONDS_PER_SECOND_SQUARED = TimeConversion.NANOSECONDS_PER_SECOND
+    static final long NANOSECONDS_PER_SECOND_SQUARED = TimeConversion.NANOSECONDS_PER_SECOND
             * TimeConversion.NANOSECONDS_PER_SECOND;
 
     private long total;
@@ -33,6 +33,15 @@ public class ResponseTimeStatsImpl extends AbstractStats implements ResponseTime
         super();
     }
 
+    ResponseTimeStatsImpl(int count, long total, long totalExclusive, long minValue, long maxValue, double sumOfSquares) {
+        super(count);
+        this.total = total;
+        this.totalExclusive = totalExclusive;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.sumOfSquares = sumOfSquares;
+    }
+
     @Override
     public Object clone() throws CloneNotSupportedException {
         ResponseTimeStatsImpl newStats = new ResponseTimeStatsImpl();
@@ -77,6 +86,10 @@ public class ResponseTimeStatsImpl extends AbstractStats implements ResponseTime
         total += responseTime;
         maxValue = Math.max(responseTime, maxValue);
         totalExclusive += exclusiveTime;
+        checkForNegativeValues(count, total, totalExclusive, sumOfSquares);
+    }
+
+    static void checkForNegativeValues(int count, long total, long totalExclusive, double sumOfSquares) {
         if (NewRelic.getAgent().getConfig().getValue(AgentConfigImpl.METRIC_DEBUG, AgentConfigImpl.DEFAULT_METRIC_DEBUG)) {
             if (count < 0 || total < 0 || totalExclusive < 0 || sumOfSquares < 0) {
                 NewRelic.incrementCounter("Supportability/ResponseTimeStatsImpl/NegativeValue");
@@ -84,7 +97,6 @@ public class ResponseTimeStatsImpl extends AbstractStats implements ResponseTime
                         count, total, totalExclusive, sumOfSquares);
             }
         }
-
     }
 
     @Override
@@ -141,9 +153,15 @@ public class ResponseTimeStatsImpl extends AbstractStats implements ResponseTime
 
             maxValue = Math.max(maxValue, stats.maxValue);
             sumOfSquares += stats.sumOfSquares;
+        } else if (statsObj instanceof ResponseTimeStatsTable.SlotStats) {
+            merge(((ResponseTimeStatsTable.SlotStats) statsObj).toStats());
         }
     }
 
+    void mergeInto(ResponseTimeStatsTable table, int slot) {
+        table.merge(slot, count, total, totalExclusive, minValue, maxValue, sumOfSquares);
+    }
+
     @Override
     public void recordResponseTime(int count, long totalTime, long minTime, long maxTime, TimeUnit unit) {
         long totalTimeInNanos = TimeUnit.NANOSECONDS.convert(totalTime, unit);
@@ -0,0 +1,368 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.stats;
+
+import com.newrelic.agent.metric.MetricIdRegistry;
+import com.newrelic.agent.util.TimeConversion;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response time stats for a set of metrics kept in parallel primitive arrays. Every metric is identified by its
+ * {@link MetricIdRegistry.NameIds} id and owns one slot in the arrays, so recording a value is a handful of array
+ * writes and merging two tables is element-wise addition. A small open addressed index maps metric ids to slots.
+ *
+ * The values are stored exactly as {@link ResponseTimeStatsImpl} stores them (nanoseconds) and follow the same
+ * recording and merging rules.
+ *
+ * This class is not thread-safe. Like the map of stats objects it replaces, a table is either owned by a single
+ * transaction activity or guarded by the lock of its stats engine.
+ */
+final class ResponseTimeStatsTable {
+
+    static final int NO_SLOT = -1;
+    private static final int MIN_CAPACITY = 8;
+
+    private int size = 0;
+    private int[] metricIds;
+    private int[] counts;
+    private long[] totals;
+    private long[] totalExclusives;
+    private long[] minValues;
+    private long[] maxValues;
+    private double[] sumsOfSquares;
+    private SlotStats[] views;
+
+    /**
+     * Metric id to slot, sized to a power of two at least twice the slot capacity so probes stay short.
+     */
+    private int[] index;
+
+    ResponseTimeStatsTable(int capacity) {
+        int slotCapacity = Math.max(MIN_CAPACITY, capacity);
+        metricIds = new int[slotCapacity];
+        counts = new int[slotCapacity];
+        totals = new long[slotCapacity];
+        totalExclusives = new long[slotCapacity];
+        minValues = new long[slotCapacity];
+        maxValues = new long[slotCapacity];
+        sumsOfSquares = new double[slotCapacity];
+        views = new SlotStats[slotCapacity];
+        index = createIndex(slotCapacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int getMetricId(int slot) {
+        return metricIds[slot];
+    }
+
+    /**
+     * @return the slot holding the metric, or {@link #NO_SLOT} if nothing has been recorded for it
+     */
+    int findSlot(int metricId) {
+        int mask = index.length - 1;
+        for (int i = metricId & mask; ; i = (i + 1) & mask) {
+            int slot = index[i];
+            if (slot == NO_SLOT || metricIds[slot] == metricId) {
+                return slot;
+            }
+        }
+    }
+
+    int getOrCreateSlot(int metricId) {
+        int slot = findSlot(metricId);
+        if (slot != NO_SLOT) {
+            return slot;
+        }
+        if (size == metricIds.length) {
+            grow();
+        }
+        slot = size++;
+        metricIds[slot] = metricId;
+        reset(slot);
+        addToIndex(index, metricId, slot);
+        return slot;
+    }
+
+    /**
+     * Returns a {@link ResponseTimeStats} that reads and writes the metric's slot, creating the slot if needed. The
+     * same object is returned for a metric until the table is cleared.
+     */
+    ResponseTimeStats getStats(int metricId) {
+        int slot = getOrCreateSlot(metricId);
+        SlotStats view = views[slot];
+        if (view == null || view.metricId != metricId) {
+            view = new SlotStats(metricId, slot);
+            views[slot] = view;
+        }
+        return view;
+    }
+
+    void recordResponseTimeInNanos(int slot, long responseTime, long exclusiveTime) {
+        double responseTimeAsDouble = responseTime;
+        responseTimeAsDouble *= responseTimeAsDouble;
+        sumsOfSquares[slot] += responseTimeAsDouble;
+        if (counts[slot] > 0) {
+            minValues[slot] = Math.min(responseTime, minValues[slot]);
+        } else {
+            minValues[slot] = responseTime;
+        }
+        counts[slot]++;
+        totals[slot] += responseTime;
+        maxValues[slot] = Math.max(responseTime, maxValues[slot]);
+        totalExclusives[slot] += exclusiveTime;
+    }
+
+    void merge(int slot, int count, long total, long totalExclusive, long minValue, long maxValue, double sumOfSquares) {
+        if (count > 0) {
+            if (counts[slot] > 0) {
+                minValues[slot] = Math.min(minValues[slot], minValue);
+            } else {
+                minValues[slot] = minValue;
+            }
+        }
+        counts[slot] += count;
+        totals[slot] += total;
+        totalExclusives[slot] += totalExclusive;
+        maxValues[slot] = Math.max(maxValues[slot], maxValue);
+        sumsOfSquares[slot] += sumOfSquares;
+    }
+
+    /**
+     * Adds the stats to the metric's slot, creating the slot if needed.
+     */
+    void merge(int metricId, ResponseTimeStatsImpl stats) {
+        stats.mergeInto(this, getOrCreateSlot(metricId));
+    }
+
+    /**
+     * Adds every metric in the other table to this one.
+     */
+    void mergeFrom(ResponseTimeStatsTable other) {
+        for (int otherSlot = 0; otherSlot < other.size; otherSlot++) {
+            int slot = getOrCreateSlot(other.metricIds[otherSlot]);
+            merge(slot, other.counts[otherSlot], other.totals[otherSlot], other.totalExclusives[otherSlot],
+                    other.minValues[otherSlot], other.maxValues[otherSlot], other.sumsOfSquares[otherSlot]);
+        }
+    }
+
+    void reset(int slot) {
+        counts[slot] = 0;
+        totals[slot] = 0;
+        totalExclusives[slot] = 0;
+        minValues[slot] = 0;
+        maxValues[slot] = 0;
+        sumsOfSquares[slot] = 0;
+    }
+
+    ResponseTimeStatsImpl toStats(int slot) {
+        return new ResponseTimeStatsImpl(counts[slot], totals[slot], totalExclusives[slot], minValues[slot],
+                maxValues[slot], sumsOfSquares[slot]);
+    }
+
+    /**
+     * Copies every metric into the map, keyed by metric name.
+     */
+    void copyTo(Map<String, StatsBase> stats, MetricIdRegistry.NameIds nameIds) {
+        for (int slot = 0; slot < size; slot++) {
+            stats.put(nameIds.getName(metricIds[slot]), toStats(slot));
+        }
+    }
+
+    void clear() {
+        size = 0;
+        Arrays.fill(index, NO_SLOT);
+        Arrays.fill(views, null);
+    }
+
+    private void grow() {
+        int slotCapacity = metricIds.length * 2;
+        metricIds = Arrays.copyOf(metricIds, slotCapacity);
+        counts = Arrays.copyOf(counts, slotCapacity);
+        totals = Arrays.copyOf(totals, slotCapacity);
+        totalExclusives = Arrays.copyOf(totalExclusives, slotCapacity);
+        minValues = Arrays.copyOf(minValues, slotCapacity);
+        maxValues = Arrays.copyOf(maxValues, slotCapacity);
+        sumsOfSquares = Arrays.copyOf(sumsOfSquares, slotCapacity);
+        views = Arrays.copyOf(views, slotCapacity);
+        int[] newIndex = createIndex(slotCapacity);
+        for (int slot = 0; slot < size; slot++) {
+            addToIndex(newIndex, metricIds[slot], slot);
+        }
+        index = newIndex;
+    }
+
+    private static int[] createIndex(int slotCapacity) {
+        int indexCapacity = Integer.highestOneBit(slotCapacity - 1) << 2;
+        int[] index = new int[indexCapacity];
+        Arrays.fill(index, NO_SLOT);
+        return index;
+    }
+
+    private static void addToIndex(int[] index, int metricId, int slot) {
+        int mask = index.length - 1;
+        int i = metricId & mask;
+        while (index[i] != NO_SLOT) {
+            i = (i + 1) & mask;
+        }
+        index[i] = slot;
+    }
+
+    /**
+     * A {@link ResponseTimeStats} backed by one slot of the table. The slot is looked up again if the table has been
+     * cleared since the view was handed out.
+     */
+    final class SlotStats implements ResponseTimeStats {
+
+        private final int metricId;
+        private int slot;
+
+        private SlotStats(int metricId, int slot) {
+            this.metricId = metricId;
+            this.slot = slot;
+        }
+
+        private int slot() {
+            if (slot >= size || metricIds[slot] != metricId) {
+                slot = getOrCreateSlot(metricId);
+            }
+            return slot;
+        }
+
+        @Override
+        public void recordResponseTime(long responseTime, TimeUnit timeUnit) {
+            long responseTimeInNanos = TimeUnit.NANOSECONDS.convert(responseTime, timeUnit);
+            recordResponseTimeInNanos(responseTimeInNanos, responseTimeInNanos);
+        }
+
+        @Override
+        public void recordResponseTime(long responseTime, long exclusiveTime, TimeUnit timeUnit) {
+            long responseTimeInNanos = TimeUnit.NANOSECONDS.convert(responseTime, timeUnit);
+            long exclusiveTimeInNanos = TimeUnit.NANOSECONDS.convert(exclusiveTime, timeUnit);
+            recordResponseTimeInNanos(responseTimeInNanos, exclusiveTimeInNanos);
+        }
+
+        @Override
+        public void recordResponseTime(int count, long totalTime, long minTime, long maxTime, TimeUnit unit) {
+            long totalTimeInNanos = TimeUnit.NANOSECONDS.convert(totalTime, unit);
+            double totalTimeInNanosAsDouble = totalTimeInNanos;
+            totalTimeInNanosAsDouble *= totalTimeInNanosAsDouble;
+            int s = slot();
+            counts[s] = count;
+            totals[s] = totalTimeInNanos;
+            totalExclusives[s] = totalTimeInNanos;
+            minValues[s] = TimeUnit.NANOSECONDS.convert(minTime, unit);
+            maxValues[s] = TimeUnit.NANOSECONDS.convert(maxTime, unit);
+            sumsOfSquares[s] += totalTimeInNanosAsDouble;
+        }
+
+        @Override
+        public void recordResponseTimeInNanos(long responseTime) {
+            recordResponseTimeInNanos(responseTime, responseTime);
+        }
+
+        @Override
+        public void recordResponseTimeInNanos(long responseTime, long exclusiveTime) {
+            int s = slot();
+            ResponseTimeStatsTable.this.recordResponseTimeInNanos(s, responseTime, exclusiveTime);
+            ResponseTimeStatsImpl.checkForNegativeValues(counts[s], totals[s], totalExclusives[s], sumsOfSquares[s]);
+        }
+
+        @Override
+        public void incrementCallCount() {
+            counts[slot()]++;
+        }
+
+        @Override
+        public void incrementCallCount(int value) {
+            counts[slot()] += value;
+        }
+
+        @Override
+        public int getCallCount() {
+            return counts[slot()];
+        }
+
+        @Override
+        public void setCallCount(int count) {
+            counts[slot()] = count;
+        }
+
+        @Override
+        public float getTotal() {
+            return (float) totals[slot()] / TimeConversion.NANOSECONDS_PER_SECOND;
+        }
+
+        @Override
+        public float getTotalExclusiveTime() {
+            return (float) totalExclusives[slot()] / TimeConversion.NANOSECONDS_PER_SECOND;
+        }
+
+        @Override
+        public float getMinCallTime() {
+            return (float) minValues[slot()] / TimeConversion.NANOSECONDS_PER_SECOND;
+        }
+
+        @Override
+        public float getMaxCallTime() {
+            return (float) maxValues[slot()] / TimeConversion.NANOSECONDS_PER_SECOND;
+        }
+
+        @Override
+        public double getSumOfSquares() {
+            return sumsOfSquares[slot()] / ResponseTimeStatsImpl.NANOSECONDS_PER_SECOND_SQUARED;
+        }
+
+        @Override
+        public boolean hasData() {
+            int s = slot();
+            return counts[s] > 0 || totals[s] > 0 || totalExclusives[s] > 0;
+        }
+
+        @Override
+        public void reset() {
+            ResponseTimeStatsTable.this.reset(slot());
+        }
+
+        @Override
+        public void merge(StatsBase stats) {
+            if (stats instanceof ResponseTimeStatsImpl) {
+                ResponseTimeStatsTable.this.merge(metricId, (ResponseTimeStatsImpl) stats);
+            } else if (stats instanceof SlotStats) {
+                ResponseTimeStatsTable.this.merge(metricId, ((SlotStats) stats).toStats());
+            }
+        }
+
+        ResponseTimeStatsImpl toStats() {
+            return ResponseTimeStatsTable.this.toStats(slot());
+        }
+
+        @Override
+        public Object clone() throws CloneNotSupportedException {
+            return toStats();
+        }
+
+        @Override
+        public void writeJSONString(Writer writer) throws IOException {
+            toStats().writeJSONString(writer);
+        }
+
+        @Override
+        public String toString() {
+            return toStats().toString();
+        }
+    }
+
+}
@@ -0,0 +1,229 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.stats;
+
+import com.newrelic.agent.MetricData;
+import com.newrelic.agent.metric.MetricIdRegistry;
+import com.newrelic.agent.normalization.Normalizer;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * A {@link SimpleStatsEngine} for scoped metrics. Scoped metrics are all response time metrics, so they are stored in a
+ * {@link ResponseTimeStatsTable} keyed by {@link MetricIdRegistry.NameIds} id instead of a map of stats objects keyed by
+ * name. Merging one scoped engine into another that uses the same name ids adds the arrays together.
+ *
+ * Any other kind of stats, and names the name ids have no room for, are kept in the map of the super class. A name in
+ * that map takes precedence over the same name in the table. {@link #getStatsMap()} returns a snapshot of both.
+ *
+ * This class is not thread-safe. It is used for the stats of a single transaction activity, which only the activity's
+ * thread records, and by {@link StatsEngineImpl}, which is not thread-safe either.
+ */
+class ScopedStatsEngine extends SimpleStatsEngine {
+
+    private static final int CACHE_SIZE = 16;
+
+    private final MetricIdRegistry.NameIds nameIds;
+    private final ResponseTimeStatsTable responseTimeStats;
+
+    /**
+     * The stats of recently used metrics, indexed by the hash of the name. Tracers usually record the same few names
+     * over and over, and a hit skips the name id and slot lookups.
+     */
+    private final String[] cachedNames = new String[CACHE_SIZE];
+    private final ResponseTimeStats[] cachedStats = new ResponseTimeStats[CACHE_SIZE];
+
+    ScopedStatsEngine() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    ScopedStatsEngine(int capacity) {
+        this(capacity, MetricIdRegistry.getNameIds());
+    }
+
+    ScopedStatsEngine(int capacity, MetricIdRegistry.NameIds nameIds) {
+        super(0);
+        this.nameIds = nameIds;
+        this.responseTimeStats = new ResponseTimeStatsTable(capacity);
+    }
+
+    /**
+     * Returns a snapshot of the stats. Changes to the returned map or its values are not reflected in this engine.
+     */
+    @Override
+    public Map<String, StatsBase> getStatsMap() {
+        Map<String, StatsBase> fallbackStats = super.getStatsMap();
+        Map<String, StatsBase> stats = new HashMap<>((int) ((responseTimeStats.size() + fallbackStats.size()) / 0.75f) + 1);
+        responseTimeStats.copyTo(stats, nameIds);
+        stats.putAll(fallbackStats);
+        return stats;
+    }
+
+    @Override
+    public Stats getStats(String metricName) {
+        checkNotResponseTimeStats(metricName);
+        return super.getStats(metricName);
+    }
+
+    @Override
+    public ResponseTimeStats getOrCreateResponseTimeStats(String metric) {
+        if (metric == null) {
+            throw new RuntimeException("Cannot get a stat for a null metric");
+        }
+        int cacheIndex = cacheIndex(metric);
+        String cachedName = cachedNames[cacheIndex];
+        if (cachedName == metric || metric.equals(cachedName)) {
+            return cachedStats[cacheIndex];
+        }
+        Map<String, StatsBase> fallbackStats = super.getStatsMap();
+        if (fallbackStats.isEmpty() || !fallbackStats.containsKey(metric)) {
+            int metricId = nameIds.getId(metric);
+            if (metricId != MetricIdRegistry.NO_ID) {
+                ResponseTimeStats stats = responseTimeStats.getStats(metricId);
+                cachedNames[cacheIndex] = metric;
+                cachedStats[cacheIndex] = stats;
+                return stats;
+            }
+        }
+        return super.getOrCreateResponseTimeStats(metric);
+    }
+
+    @Override
+    public void recordEmptyStats(String metricName) {
+        int slot = findSlot(metricName);
+        if (slot != ResponseTimeStatsTable.NO_SLOT) {
+            responseTimeStats.reset(slot);
+        }
+        if (metricName != null) {
+            // the empty stats in the map take precedence over the table from now on
+            uncache(metricName);
+        }
+        super.recordEmptyStats(metricName);
+    }
+
+    @Override
+    public ApdexStats getApdexStats(String metricName) {
+        checkNotResponseTimeStats(metricName);
+        return super.getApdexStats(metricName);
+    }
+
+    @Override
+    public DataUsageStats getDataUsageStats(String metricName) {
+        checkNotResponseTimeStats(metricName);
+        return super.getDataUsageStats(metricName);
+    }
+
+    @Override
+    public void mergeStats(SimpleStatsEngine other) {
+        if (other instanceof ScopedStatsEngine && ((ScopedStatsEngine) other).nameIds == nameIds) {
+            ScopedStatsEngine otherScoped = (ScopedStatsEngine) other;
+            responseTimeStats.mergeFrom(otherScoped.responseTimeStats);
+            Map<String, StatsBase> otherFallbackStats = otherScoped.getFallbackStatsMap();
+            if (!otherFallbackStats.isEmpty()) {
+                clearCache();
+                super.mergeStats(otherFallbackStats);
+            }
+            return;
+        }
+
+        Map<String, StatsBase> otherStats = other.getStatsMap();
+        Map<String, StatsBase> fallbackStats = super.getStatsMap();
+        for (Entry<String, StatsBase> entry : otherStats.entrySet()) {
+            int metricId = MetricIdRegistry.NO_ID;
+            if (entry.getValue() instanceof ResponseTimeStatsImpl && !fallbackStats.containsKey(entry.getKey())) {
+                metricId = nameIds.getId(entry.getKey());
+            }
+            if (metricId != MetricIdRegistry.NO_ID) {
+                responseTimeStats.merge(metricId, (ResponseTimeStatsImpl) entry.getValue());
+            } else {
+                uncache(entry.getKey());
+                StatsBase ourStats = fallbackStats.get(entry.getKey());
+                if (ourStats == null) {
+                    fallbackStats.put(entry.getKey(), entry.getValue());
+                } else {
+                    ourStats.merge(entry.getValue());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        responseTimeStats.clear();
+        clearCache();
+        super.clear();
+    }
+
+    @Override
+    public int getSize() {
+        if (super.getStatsMap().isEmpty()) {
+            return responseTimeStats.size();
+        }
+        return getStatsMap().size();
+    }
+
+    @Override
+    public List<MetricData> getMetricData(Normalizer metricNormalizer, String scope) {
+        return getMetricData(getStatsMap(), metricNormalizer, scope);
+    }
+
+    private Map<String, StatsBase> getFallbackStatsMap() {
+        return super.getStatsMap();
+    }
+
+    private static int cacheIndex(String metricName) {
+        int hash = metricName.hashCode();
+        return (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+    }
+
+    private void uncache(String metricName) {
+        int cacheIndex = cacheIndex(metricName);
+        if (metricName.equals(cachedNames[cacheIndex])) {
+            cachedNames[cacheIndex] = null;
+            cachedStats[cacheIndex] = null;
+        }
+    }
+
+    private void clearCache() {
+        Arrays.fill(cachedNames, null);
+        Arrays.fill(cachedStats, null);
+    }
+
+    /**
+     * Looking up a slot doesn't register the name, so reads don't grow the name ids.
+     */
+    private int findSlot(String metricName) {
+        if (metricName == null || responseTimeStats.size() == 0) {
+            return ResponseTimeStatsTable.NO_SLOT;
+        }
+        int metricId = nameIds.findId(metricName);
+        if (metricId == MetricIdRegistry.NO_ID) {
+            return ResponseTimeStatsTable.NO_SLOT;
+        }
+        return responseTimeStats.findSlot(metricId);
+    }
+
+    private void checkNotResponseTimeStats(String metricName) {
+        if (findSlot(metricName) != ResponseTimeStatsTable.NO_SLOT && !super.getStatsMap().containsKey(metricName)) {
+            String msg = MessageFormat.format("The stats object for {0} is of type {1}", metricName,
+                    ResponseTimeStatsImpl.class.getName());
+            throw new RuntimeException(msg);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ScopedStatsEngine [stats=" + getStatsMap() + "]";
+    }
+
+}
@@ -124,7 +124,11 @@ public class SimpleStatsEngine {
     }
 
     public void mergeStats(SimpleStatsEngine other) {
-        for (Entry<String, StatsBase> entry : other.stats.entrySet()) {
+        mergeStats(other.getStatsMap());
+    }
+
+    void mergeStats(Map<String, StatsBase> other) {
+        for (Entry<String, StatsBase> entry : other.entrySet()) {
             StatsBase ourStats = stats.get(entry.getKey());
             StatsBase otherStats = entry.getValue();
             if (ourStats == null) {
@@ -151,11 +155,15 @@ public class SimpleStatsEngine {
      * @return The list of metric data generated from the internal stats object.
      */
     public List<MetricData> getMetricData(Normalizer metricNormalizer, String scope) {
+        return getMetricData(stats, metricNormalizer, scope);
+    }
+
+    static List<MetricData> getMetricData(Map<String, StatsBase> stats, Normalizer metricNormalizer, String scope) {
         List<MetricData> result = new ArrayList<>(stats.size() + 1); // +1 for Java/other
         boolean isTrimStats = ServiceFactory.getConfigService().getDefaultAgentConfig().isTrimStats();
 
         if (isTrimStats && !scope.equals(MetricName.EMPTY_SCOPE)) {
-            trimStats();
+            trimStats(stats);
         }
 
         for (Entry<String, StatsBase> entry : stats.entrySet()) {
@@ -187,11 +195,11 @@ public class SimpleStatsEngine {
         return MetricData.create(normalizedMetricName, statsBase);
     }
 
-    private void trimStats() {
+    private static void trimStats(Map<String, StatsBase> stats) {
         float totalTime = 0;
         for (StatsBase statsBase : stats.values()) {
-            ResponseTimeStats stats = (ResponseTimeStats) statsBase;
-            totalTime += stats.getTotalExclusiveTime();
+            ResponseTimeStats responseTimeStats = (ResponseTimeStats) statsBase;
+            totalTime += responseTimeStats.getTotalExclusiveTime();
         }
 
         ResponseTimeStatsImpl other = null;
@@ -217,7 +225,7 @@ public class SimpleStatsEngine {
     }
 
     // this is less than awesome and should be cleaned up
-    private boolean trimmableMetric(String key) {
+    private static boolean trimmableMetric(String key) {
         return !(key.startsWith(DatastoreMetrics.METRIC_NAMESPACE) || key.startsWith(MetricNames.EXTERNAL_PATH) ||
                 key.startsWith(MetricNames.REQUEST_DISPATCHER) || key.startsWith(MetricNames.GRAPHQL)) ;
     }
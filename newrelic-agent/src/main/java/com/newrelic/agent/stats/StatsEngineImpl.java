@@ -84,7 +84,7 @@ public class StatsEngineImpl implements StatsEngine {
         if (metricName.isScoped()) {
             SimpleStatsEngine statsEngine = scopedStats.get(metricName.getScope());
             if (statsEngine == null) {
-                statsEngine = new SimpleStatsEngine(DEFAULT_SCOPED_CAPACITY);
+                statsEngine = new ScopedStatsEngine(DEFAULT_SCOPED_CAPACITY);
                 scopedStats.put(metricName.getScope(), statsEngine);
             }
             return statsEngine;
@@ -149,7 +149,7 @@ public class StatsEngineImpl implements StatsEngine {
     public int getSize() {
         int size = unscopedStats.getStatsMap().size();
         for (SimpleStatsEngine engine : scopedStats.values()) {
-            size += engine.getStatsMap().size();
+            size += engine.getSize();
         }
         return size;
     }
@@ -166,7 +166,7 @@ public class StatsEngineImpl implements StatsEngine {
         for (Entry<String, SimpleStatsEngine> entry : other.scopedStats.entrySet()) {
             SimpleStatsEngine scopedStatsEngine = scopedStats.get(entry.getKey());
             if (scopedStatsEngine == null) {
-                scopedStatsEngine = new SimpleStatsEngine(entry.getValue().getSize());
+                scopedStatsEngine = new ScopedStatsEngine(entry.getValue().getSize());
                 scopedStats.put(entry.getKey(), scopedStatsEngine);
             }
             scopedStatsEngine.mergeStats(entry.getValue());
@@ -181,7 +181,7 @@ public class StatsEngineImpl implements StatsEngine {
         }
         SimpleStatsEngine scopedStatsEngine = scopedStats.get(resolvedScope);
         if (scopedStatsEngine == null) {
-            scopedStatsEngine = new SimpleStatsEngine(txStats.getScopedStats().getSize());
+            scopedStatsEngine = new ScopedStatsEngine(txStats.getScopedStats().getSize());
             scopedStats.put(resolvedScope, scopedStatsEngine);
         }
         scopedStatsEngine.mergeStats(txStats.getScopedStats());
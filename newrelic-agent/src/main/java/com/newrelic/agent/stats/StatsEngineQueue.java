@@ -0,0 +1,26 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.stats;
+
+/**
+ * Aggregates {@link StatsWork} for a single application between harvests.
+ *
+ * A queue is used for exactly one harvest cycle. Once {@link #getStatsEngineForHarvest()} has been called the
+ * {@link StatsServiceImpl} replaces it with a new queue and any further calls to {@link #doStatsWork(StatsWork)}
+ * return false so the caller can retry against the replacement.
+ */
+interface StatsEngineQueue {
+
+    /**
+     * @return true if the work was applied, false if this queue has already been harvested
+     */
+    boolean doStatsWork(StatsWork work);
+
+    StatsEngine getStatsEngineForHarvest();
+
+}
@@ -0,0 +1,198 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.stats;
+
+import com.newrelic.agent.Agent;
+
+import java.text.MessageFormat;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A {@link StatsEngineQueue} that spreads stats engines over a fixed number of stripes selected by thread id. The
+ * transaction finish path never takes a lock and never waits: a thread claims the engine parked in its stripe with a
+ * single atomic swap and falls back to a shared overflow queue (or a new engine) if another thread already holds it.
+ *
+ * Instead of a read/write lock the harvest is coordinated with a per-stripe in-flight counter. A worker increments its
+ * stripe's counter before checking the harvested flag and the harvest sets the flag before waiting for every counter to
+ * drain, so a worker either sees the flag and backs out or the harvest sees the worker and waits for it. Only the
+ * harvest thread ever waits.
+ *
+ * Every stripe is written on each transaction finish, so the stripes are padded to keep threads on different stripes
+ * from invalidating each other's cache lines.
+ *
+ * This class is thread-safe.
+ */
+class StripedStatsEngineQueue implements StatsEngineQueue {
+
+    private static final int MAX_STRIPES = 256;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final ConcurrentLinkedQueue<StatsEngine> overflow = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger statsEngineCount = new AtomicInteger();
+    private volatile boolean harvested = false;
+
+    StripedStatsEngineQueue() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    StripedStatsEngineQueue(int minStripes) {
+        int stripeCount = 1;
+        while (stripeCount < minStripes && stripeCount < MAX_STRIPES) {
+            stripeCount <<= 1;
+        }
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        stripeMask = stripeCount - 1;
+    }
+
+    int getStripeCount() {
+        return stripes.length;
+    }
+
+    @Override
+    public boolean doStatsWork(StatsWork work) {
+        Stripe stripe = stripes[stripeIndex(Thread.currentThread().getId())];
+        stripe.enter();
+        try {
+            if (harvested) {
+                return false;
+            }
+            doStatsWork(stripe, work);
+            return true;
+        } finally {
+            stripe.exit();
+        }
+    }
+
+    private void doStatsWork(Stripe stripe, StatsWork work) {
+        StatsEngine statsEngine = null;
+        try {
+            statsEngine = stripe.takeStatsEngine();
+            if (statsEngine == null) {
+                statsEngine = overflow.poll();
+            }
+            if (statsEngine == null) {
+                statsEngine = createStatsEngine();
+                statsEngineCount.incrementAndGet();
+            }
+            work.doWork(statsEngine);
+        } catch (Exception e) {
+            String msg = MessageFormat.format("Exception doing stats work: {0}", e);
+            Agent.LOG.warning(msg);
+        } finally {
+            if (statsEngine != null && !stripe.parkStatsEngine(statsEngine)) {
+                overflow.offer(statsEngine);
+            }
+        }
+    }
+
+    @Override
+    public StatsEngine getStatsEngineForHarvest() {
+        harvested = true;
+
+        //
+        // Wait out any workers that checked the flag before we set it. New workers will see the flag and retry
+        // against the replacement queue, so this only ever waits for work that is already in progress.
+        //
+        for (Stripe stripe : stripes) {
+            while (stripe.inFlight != 0) {
+                Thread.yield();
+            }
+        }
+
+        StatsEngine harvestStatsEngine = createStatsEngine();
+        int actualStatsEngineCount = 0;
+        for (Stripe stripe : stripes) {
+            StatsEngine statsEngine = stripe.takeStatsEngine();
+            if (statsEngine != null) {
+                harvestStatsEngine.mergeStats(statsEngine);
+                actualStatsEngineCount++;
+            }
+        }
+        StatsEngine statsEngine;
+        while ((statsEngine = overflow.poll()) != null) {
+            harvestStatsEngine.mergeStats(statsEngine);
+            actualStatsEngineCount++;
+        }
+
+        final int expectedStatsEngineCount = statsEngineCount.get();
+        if (actualStatsEngineCount != expectedStatsEngineCount) {
+            String msg = MessageFormat.format("Error draining striped stats engines. Expected: {0} actual: {1}",
+                    expectedStatsEngineCount, actualStatsEngineCount);
+            Agent.LOG.warning(msg);
+        }
+
+        return harvestStatsEngine;
+    }
+
+    private int stripeIndex(long threadId) {
+        // thread ids are usually sequential, spread them so neighbouring threads don't share a stripe
+        int hash = (int) (threadId ^ (threadId >>> 32));
+        hash ^= (hash >>> 16);
+        hash *= 0x85ebca6b;
+        hash ^= (hash >>> 13);
+        return hash & stripeMask;
+    }
+
+    private StatsEngine createStatsEngine() {
+        return new StatsEngineImpl();
+    }
+
+    /**
+     * The hot fields live in the stripe itself rather than in separate atomic objects, which would be allocated next to
+     * each other, and the classes on either side of them hold 56 bytes of padding. With the object header that puts at
+     * least 128 bytes between the hot fields of two stripes, so they never share a cache line (or an adjacent line
+     * pair, which some CPUs prefetch together). The padding is split across a class hierarchy because the JVM only
+     * reorders fields within a class.
+     */
+    @SuppressWarnings("unused")
+    private abstract static class StripeLeftPadding {
+        long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    private abstract static class StripeFields extends StripeLeftPadding {
+        private static final AtomicIntegerFieldUpdater<StripeFields> IN_FLIGHT_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(StripeFields.class, "inFlight");
+        private static final AtomicReferenceFieldUpdater<StripeFields, StatsEngine> STATS_ENGINE_UPDATER =
+                AtomicReferenceFieldUpdater.newUpdater(StripeFields.class, StatsEngine.class, "statsEngine");
+
+        volatile int inFlight;
+        volatile StatsEngine statsEngine;
+
+        void enter() {
+            IN_FLIGHT_UPDATER.incrementAndGet(this);
+        }
+
+        void exit() {
+            IN_FLIGHT_UPDATER.decrementAndGet(this);
+        }
+
+        StatsEngine takeStatsEngine() {
+            return STATS_ENGINE_UPDATER.getAndSet(this, null);
+        }
+
+        /**
+         * @return false if another thread has already parked an engine in the stripe
+         */
+        boolean parkStatsEngine(StatsEngine engine) {
+            return STATS_ENGINE_UPDATER.compareAndSet(this, null, engine);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Stripe extends StripeFields {
+        long p11, p12, p13, p14, p15, p16, p17;
+    }
+
+}
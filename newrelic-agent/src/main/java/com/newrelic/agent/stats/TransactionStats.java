@@ -13,7 +13,7 @@ package com.newrelic.agent.stats;
 public class TransactionStats {
 
     private final SimpleStatsEngine unscopedStats = new SimpleStatsEngine(16);
-    private final SimpleStatsEngine scopedStats = new SimpleStatsEngine();
+    private final SimpleStatsEngine scopedStats = new ScopedStatsEngine();
 
     public SimpleStatsEngine getUnscopedStats() {
         return unscopedStats;
@@ -30,7 +30,7 @@ public class TransactionStats {
     }
 
     public int getSize() {
-        return unscopedStats.getStatsMap().size() + scopedStats.getStatsMap().size();
+        return unscopedStats.getSize() + scopedStats.getSize();
     }
 
     @Override
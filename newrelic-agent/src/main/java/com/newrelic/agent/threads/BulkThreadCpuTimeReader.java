@@ -0,0 +1,35 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.threads;
+
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Reads thread times with the bulk methods of {@link com.sun.management.ThreadMXBean}. This class must only be loaded
+ * once {@link ThreadCpuTimeReader#create(ThreadMXBean)} has checked that the JVM provides that interface.
+ */
+final class BulkThreadCpuTimeReader extends ThreadCpuTimeReader {
+
+    private final com.sun.management.ThreadMXBean bulkThreadMXBean;
+
+    BulkThreadCpuTimeReader(ThreadMXBean threadMXBean) {
+        super(threadMXBean);
+        this.bulkThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+    }
+
+    @Override
+    long[] getCpuTimes(long[] threadIds) {
+        return bulkThreadMXBean.getThreadCpuTime(threadIds);
+    }
+
+    @Override
+    long[] getUserTimes(long[] threadIds) {
+        return bulkThreadMXBean.getThreadUserTime(threadIds);
+    }
+
+}
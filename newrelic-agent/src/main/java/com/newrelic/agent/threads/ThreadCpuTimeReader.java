@@ -0,0 +1,57 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.threads;
+
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Reads the cpu and user times of a set of threads. The times of a thread that is not alive are -1.
+ */
+class ThreadCpuTimeReader {
+
+    private static final String BULK_THREAD_MX_BEAN = "com.sun.management.ThreadMXBean";
+
+    protected final ThreadMXBean threadMXBean;
+
+    ThreadCpuTimeReader(ThreadMXBean threadMXBean) {
+        this.threadMXBean = threadMXBean;
+    }
+
+    /**
+     * Returns a reader that reads the times of all the threads in one call if the JVM supports it, and one thread at a
+     * time otherwise.
+     */
+    static ThreadCpuTimeReader create(ThreadMXBean threadMXBean) {
+        try {
+            Class<?> bulkThreadMXBean = Class.forName(BULK_THREAD_MX_BEAN, false, ThreadCpuTimeReader.class.getClassLoader());
+            if (bulkThreadMXBean.isInstance(threadMXBean)) {
+                return new BulkThreadCpuTimeReader(threadMXBean);
+            }
+        } catch (Throwable t) {
+            // not available on this JVM
+        }
+        return new ThreadCpuTimeReader(threadMXBean);
+    }
+
+    long[] getCpuTimes(long[] threadIds) {
+        long[] cpuTimes = new long[threadIds.length];
+        for (int i = 0; i < threadIds.length; i++) {
+            cpuTimes[i] = threadMXBean.getThreadCpuTime(threadIds[i]);
+        }
+        return cpuTimes;
+    }
+
+    long[] getUserTimes(long[] threadIds) {
+        long[] userTimes = new long[threadIds.length];
+        for (int i = 0; i < threadIds.length; i++) {
+            userTimes[i] = threadMXBean.getThreadUserTime(threadIds[i]);
+        }
+        return userTimes;
+    }
+
+}
@@ -9,16 +9,16 @@ package com.newrelic.agent.threads;
 
 import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
 import java.util.logging.Level;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.newrelic.agent.Agent;
 import com.newrelic.agent.IRPMService;
-import com.newrelic.agent.bridge.AgentBridge;
+import com.newrelic.agent.MetricNames;
 import com.newrelic.agent.config.AgentConfig;
 import com.newrelic.agent.service.ServiceFactory;
 import com.newrelic.agent.stats.AbstractMetricAggregator;
@@ -29,57 +29,78 @@ import com.newrelic.api.agent.MetricAggregator;
 
 /**
  * This runnable uses the {@link ThreadMXBean} to report metrics about thread cpu states and times.
+ * <p>
+ * Each run takes one bulk snapshot of all the threads' infos, and reads their cpu times in bulk when the JVM supports
+ * it. Getting thread infos is a VM operation that brings the JVM to a safepoint, so the sampler never asks for the
+ * info of a single thread. Threads that have terminated are found by diffing the snapshot against the threads tracked
+ * by the previous run.
  */
 public class ThreadStateSampler implements Runnable {
     /**
-     * A cache of thread ids to some tracked thread state.  The cpu times reported by the Java apis we use are monotonically
-     * increasing, so we have to track previous values and compute deltas.
+     * Thread ids to some tracked thread state, for the threads that were alive at the last run. The cpu times reported
+     * by the Java apis we use are monotonically increasing, so we have to track previous values and compute deltas.
      */
-    private final Function<Long, ThreadTracker> threadTrackerCreateFunction;
-    private final Map<Long, ThreadTracker> threadsMap;
+    private volatile Map<Long, ThreadTracker> threadTrackers = new HashMap<>();
     private final ThreadMXBean threadMXBean;
+    private final ThreadCpuTimeReader cpuTimeReader;
     private final ThreadNameNormalizer threadNameNormalizer;
     private final MetricAggregator metricAggregator;
+    private final StatsService statsService;
 
     public ThreadStateSampler(ThreadMXBean threadMXBean, ThreadNameNormalizer nameNormalizer) {
         this.threadMXBean = threadMXBean;
-        this.metricAggregator = new ThreadStatsMetricAggregator(ServiceFactory.getStatsService());
+        this.cpuTimeReader = ThreadCpuTimeReader.create(threadMXBean);
+        this.statsService = ServiceFactory.getStatsService();
+        this.metricAggregator = new ThreadStatsMetricAggregator(statsService);
         this.threadNameNormalizer = nameNormalizer;
-
-        this.threadsMap = AgentBridge.collectionFactory.createCacheWithInitialCapacity(16);
-        this.threadTrackerCreateFunction = threadId -> threadsMap.computeIfAbsent(threadId, k -> new ThreadTracker());
     }
 
     @Override
     public void run() {
+        long startTime = System.nanoTime();
         long[] allThreadIds = threadMXBean.getAllThreadIds();
         ThreadInfo[] threadInfos = threadMXBean.getThreadInfo(allThreadIds, 0);
-        for (ThreadInfo thread : threadInfos) {
+        long snapshotTime = System.nanoTime() - startTime;
+
+        long[] cpuTimes = null;
+        long[] userTimes = null;
+        if (threadMXBean.isThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled()) {
+            cpuTimes = cpuTimeReader.getCpuTimes(allThreadIds);
+            userTimes = cpuTimeReader.getUserTimes(allThreadIds);
+        }
+        boolean contentionMonitoringEnabled = threadMXBean.isThreadContentionMonitoringEnabled();
+
+        Map<Long, ThreadTracker> previousTrackers = threadTrackers;
+        Map<Long, ThreadTracker> currentTrackers = new HashMap<>(Math.max(16, (int) (threadInfos.length / .75f) + 1));
+        for (int i = 0; i < threadInfos.length; i++) {
+            ThreadInfo thread = threadInfos[i];
             // a thread may terminate after getting its tid but before getting its thread info
-            if (thread != null) {
-                threadTrackerCreateFunction.apply(thread.getThreadId()).update(thread);
-            } else {
+            if (thread == null) {
                 Agent.LOG.finer("ThreadStateSampler: Skipping null thread.");
+                continue;
+            }
+            Long threadId = thread.getThreadId();
+            ThreadTracker tracker = previousTrackers.remove(threadId);
+            if (tracker == null) {
+                tracker = new ThreadTracker();
             }
+            currentTrackers.put(threadId, tracker);
+            tracker.update(thread, cpuTimes == null ? -1 : cpuTimes[i], userTimes == null ? -1 : userTimes[i],
+                    contentionMonitoringEnabled);
         }
 
-        // Manually cleanup
-        cleanupDeadThreads();
-    }
-
-    /**
-     * Remove entries for threads that no longer exist.
-     * This prevents short-lived threads from accumulating in the cache.
-     */
-    private void cleanupDeadThreads() {
-        int initialSize = threadsMap.size();
+        // the trackers that are left belong to threads that were not in this snapshot
+        if (!previousTrackers.isEmpty()) {
+            Agent.LOG.log(Level.FINEST, "Cleaned up {0} dead thread(s) from ThreadStateSampler cache", previousTrackers.size());
+        }
+        threadTrackers = currentTrackers;
 
-        threadsMap.keySet().removeIf(threadId -> threadMXBean.getThreadInfo(threadId) == null);
-        int removedCount = initialSize - threadsMap.size();
+        recordSupportabilityMetric(MetricNames.SUPPORTABILITY_THREAD_STATE_SAMPLER_SNAPSHOT_TIME, snapshotTime);
+        recordSupportabilityMetric(MetricNames.SUPPORTABILITY_THREAD_STATE_SAMPLER_TIME, System.nanoTime() - startTime);
+    }
 
-        if (removedCount > 0) {
-            Agent.LOG.log(Level.FINEST, "Cleaned up {0} dead thread(s) from ThreadStateSampler cache", removedCount);
-        }
+    private void recordSupportabilityMetric(String name, long timeInNanos) {
+        statsService.doStatsWork(new RecordResponseTimeMetricWorker(null, timeInNanos, name, TimeUnit.NANOSECONDS), name);
     }
 
     /**
@@ -89,7 +110,7 @@ public class ThreadStateSampler implements Runnable {
      */
     @VisibleForTesting
     int getTrackedThreadCount() {
-        return threadsMap.size();
+        return threadTrackers.size();
     }
 
     private class ThreadTracker {
@@ -106,21 +127,19 @@ public class ThreadStateSampler implements Runnable {
         public ThreadTracker() {
         }
 
-        public void update(ThreadInfo thread) {
+        public void update(ThreadInfo thread, long totalCpuTime, long userCpuTime, boolean contentionMonitoringEnabled) {
             String name = threadNameNormalizer.getNormalizedThreadName(new BasicThreadInfo(thread));
 
             metricAggregator.recordMetric("Threads/State/" + name + "/" + thread.getThreadState().toString() + "/Count", 1);
             metricAggregator.recordMetric("Threads/SummaryState/" + thread.getThreadState().toString() + "/Count", 1);
 
-            if (threadMXBean.isThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled()) {
-                long totalCpuTime = threadMXBean.getThreadCpuTime(thread.getThreadId());
-                long userCpuTime = threadMXBean.getThreadUserTime(thread.getThreadId());
+            if (totalCpuTime != -1 && userCpuTime != -1) {
                 long systemCpuTime = totalCpuTime - userCpuTime;
                 lastThreadTotalCpuTime = recordAccumulatingValue("Threads/TotalTime/" + name + "/CpuTime", totalCpuTime, lastThreadTotalCpuTime, TimeUnit.NANOSECONDS);
                 lastThreadUserTime = recordAccumulatingValue("Threads/Time/CPU/" + name + "/UserTime", userCpuTime, lastThreadUserTime, TimeUnit.NANOSECONDS);
                 lastThreadSystemTime = recordAccumulatingValue("Threads/Time/CPU/" + name + "/SystemTime", systemCpuTime, lastThreadSystemTime, TimeUnit.NANOSECONDS);
             }
-            if (threadMXBean.isThreadContentionMonitoringEnabled()) {
+            if (contentionMonitoringEnabled) {
                 lastWaitedTime = recordAccumulatingValue("Threads/Time/State/" + name + "/WaitedTime", thread.getWaitedTime(), lastWaitedTime, TimeUnit.MILLISECONDS);
                 lastBlockedTime = recordAccumulatingValue("Threads/Time/State/" + name + "/BlockedTime", thread.getBlockedTime(), lastBlockedTime, TimeUnit.MILLISECONDS);
             }
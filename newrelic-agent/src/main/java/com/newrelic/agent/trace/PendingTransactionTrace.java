@@ -0,0 +1,144 @@
+/*
+ *
+ *  * Copyright 2020 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.trace;
+
+import com.newrelic.agent.Agent;
+import com.newrelic.agent.TransactionData;
+import com.newrelic.agent.util.DefaultThreadFactory;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+
+/**
+ * The trace of a transaction that a sampler has taken. The segments are built from the tracers on the thread that
+ * finished the transaction, so the transaction data doesn't have to be kept until the harvest, and they are compressed
+ * on an encoder thread. The harvest takes the trace as it is: a trace that hasn't been compressed yet is compressed when
+ * it is written.
+ *
+ * This class is thread-safe.
+ */
+class PendingTransactionTrace implements Runnable {
+
+    private static final String ENCODER_THREAD_NAME = "New Relic Transaction Trace Encoder";
+    private static final int MAX_ENCODER_THREADS = 4;
+    // the threads exit when they are idle
+    private static final ThreadPoolExecutor ENCODER = createEncoder();
+
+    private final String applicationName;
+    private final String blameMetricName;
+    private final long score;
+    // null once the trace is harvested or discarded, so that it is only encoded while it waits for the harvest
+    private final AtomicReference<TransactionTrace> unclaimedTrace;
+    private final TransactionTrace trace;
+
+    PendingTransactionTrace(TransactionData transactionData, long score) {
+        this(transactionData, score, null);
+    }
+
+    PendingTransactionTrace(TransactionData transactionData, long score, String syntheticsResourceId) {
+        this(transactionData.getApplicationName(), transactionData.getBlameMetricName(), score,
+                buildTrace(transactionData, syntheticsResourceId));
+    }
+
+    private PendingTransactionTrace(String applicationName, String blameMetricName, long score, TransactionTrace trace) {
+        this.applicationName = applicationName;
+        this.blameMetricName = blameMetricName;
+        this.score = score;
+        this.trace = trace;
+        this.unclaimedTrace = new AtomicReference<>(trace);
+    }
+
+    /**
+     * @return a pending trace without a transaction, for samplers that mark their queues
+     */
+    static PendingTransactionTrace createMarker() {
+        return new PendingTransactionTrace(null, null, 0, null);
+    }
+
+    private static ThreadPoolExecutor createEncoder() {
+        int threads = Math.max(1, Math.min(MAX_ENCODER_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+        ThreadPoolExecutor encoder = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new DefaultThreadFactory(ENCODER_THREAD_NAME, true));
+        encoder.allowCoreThreadTimeOut(true);
+        return encoder;
+    }
+
+    private static TransactionTrace buildTrace(TransactionData td, String syntheticsResourceId) {
+        try {
+            TransactionTrace trace = TransactionTrace.getTransactionTrace(td);
+            if (syntheticsResourceId != null) {
+                trace.setSyntheticsResourceId(syntheticsResourceId);
+            }
+            return trace;
+        } catch (RuntimeException e) {
+            Agent.LOG.log(Level.FINER, e, "Error building transaction trace for {0}", td);
+            return null;
+        }
+    }
+
+    String getApplicationName() {
+        return applicationName;
+    }
+
+    String getBlameMetricName() {
+        return blameMetricName;
+    }
+
+    long getScore() {
+        return score;
+    }
+
+    /**
+     * Starts compressing the trace on an encoder thread. Samplers call this once they have taken the transaction.
+     */
+    void encode() {
+        if (unclaimedTrace.get() == null) {
+            return;
+        }
+        try {
+            ENCODER.execute(this);
+        } catch (RejectedExecutionException e) {
+            // the trace is compressed when it is written
+        }
+    }
+
+    /**
+     * Stops the trace of a transaction that was replaced before it was harvested from being encoded.
+     */
+    void discard() {
+        unclaimedTrace.set(null);
+    }
+
+    @Override
+    public void run() {
+        TransactionTrace unclaimed = unclaimedTrace.get();
+        if (unclaimed == null) {
+            return;
+        }
+        try {
+            unclaimed.encodeData();
+        } catch (RuntimeException e) {
+            Agent.LOG.log(Level.FINER, e, "Error encoding transaction trace {0}", unclaimed);
+        }
+    }
+
+    /**
+     * Returns the trace without waiting for it to be encoded.
+     *
+     * @return the trace, or null if it could not be built
+     */
+    TransactionTrace getTrace() {
+        unclaimedTrace.set(null);
+        return trace;
+    }
+
+}
@@ -24,12 +24,10 @@ import java.util.logging.Level;
  */
 public class RandomTransactionSampler implements ITransactionSampler {
 
-    private static final TransactionData FINISHED = new TransactionData(null, 0);
-    // private static final TransactionData FINISHED = new TransactionData(null, null, 0, null, null, null, null, false,
-    // 0, null, 0, 0, null, null, 0L, null, null, null, false);
+    private static final PendingTransactionTrace FINISHED = PendingTransactionTrace.createMarker();
 
     private final int maxTraces;
-    private final AtomicReference<TransactionData> expensiveTransaction = new AtomicReference<>();
+    private final AtomicReference<PendingTransactionTrace> expensiveTransaction = new AtomicReference<>();
     private int tracesSent; // no synchronization needed - used only by the harvest thread
 
     protected RandomTransactionSampler(int maxTraces) {
@@ -38,7 +36,12 @@ public class RandomTransactionSampler implements ITransactionSampler {
 
     @Override
     public boolean noticeTransaction(TransactionData td) {
-        if (expensiveTransaction.compareAndSet(null, td)) {
+        if (expensiveTransaction.get() != null) {
+            return false;
+        }
+        PendingTransactionTrace trace = new PendingTransactionTrace(td, 0);
+        if (expensiveTransaction.compareAndSet(null, trace)) {
+            trace.encode();
             if (Agent.LOG.isLoggable(Level.FINER)) {
                 String msg = MessageFormat.format("Captured random transaction trace for {0} {1}",
                         td.getApplicationName(), td);
@@ -51,31 +54,34 @@ public class RandomTransactionSampler implements ITransactionSampler {
 
     @Override
     public List<TransactionTrace> harvest(String appName) {
-        TransactionData td = expensiveTransaction.get();
-        if (td == FINISHED) {
+        PendingTransactionTrace pending = expensiveTransaction.get();
+        if (pending == FINISHED) {
             return Collections.emptyList();
         }
-        if (td == null) {
+        if (pending == null) {
             return Collections.emptyList();
         }
-        if (!Objects.equals(td.getApplicationName(), appName)) {
+        if (!Objects.equals(pending.getApplicationName(), appName)) {
             return Collections.emptyList();
         }
         if (shouldFinish()) {
-            td = expensiveTransaction.getAndSet(FINISHED);
+            pending = expensiveTransaction.getAndSet(FINISHED);
             stop();
         } else {
-            td = expensiveTransaction.getAndSet(null);
+            pending = expensiveTransaction.getAndSet(null);
         }
         tracesSent++;
-        return getTransactionTrace(td);
+        return getTransactionTrace(pending);
     }
 
-    private List<TransactionTrace> getTransactionTrace(TransactionData td) {
-        TransactionTrace trace = TransactionTrace.getTransactionTrace(td);
+    private List<TransactionTrace> getTransactionTrace(PendingTransactionTrace pending) {
+        TransactionTrace trace = pending.getTrace();
+        if (trace == null) {
+            return Collections.emptyList();
+        }
         if (Agent.LOG.isLoggable(Level.FINER)) {
-            String msg = MessageFormat.format("Sending random transaction trace for {0}: {1}", td.getApplicationName(),
-                    td);
+            String msg = MessageFormat.format("Sending random transaction trace for {0}: {1}", pending.getApplicationName(),
+                    trace);
             Agent.LOG.finer(msg);
         }
         List<TransactionTrace> traces = new ArrayList<>(1);
@@ -33,7 +33,7 @@ public class SyntheticsTransactionSampler implements ITransactionSampler {
      * 
      * One issue with Java's lockless ConcurrentLinkedQueue is that size() is a linear-time operation.
      * 
-     * So we maintain a volatile counter of the number of pending transactions (really TransactionData objects).
+     * So we maintain a volatile counter of the number of pending transactions (really PendingTransactionTrace objects).
      * Incoming samples check the counter and return if it's greater than the limit. Otherwise, they increment the
      * counter and enqueue their item. The act of (increment, enqueue) is not synchronized, but is nonblocking so will
      * eventually complete. Multiple threads may read the counter just below the limit and choose to enqueue, leaving
@@ -55,10 +55,10 @@ public class SyntheticsTransactionSampler implements ITransactionSampler {
      * performed anywhere, such as in the harvester. The marker algorithm allows us to avoid using the counter in this
      * erroneous way.
      */
-    private final ConcurrentLinkedQueue<TransactionData> pending = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<PendingTransactionTrace> pending = new ConcurrentLinkedQueue<>();
     private final AtomicInteger pendingCount = new AtomicInteger(0);
     static final int MAX_SYNTHETIC_TRANSACTION_PER_HARVEST = 20;
-    private static final TransactionData queueMarker = new TransactionData(null, 0);
+    private static final PendingTransactionTrace queueMarker = PendingTransactionTrace.createMarker();
 
     @Override
     public boolean noticeTransaction(TransactionData td) {
@@ -66,7 +66,9 @@ public class SyntheticsTransactionSampler implements ITransactionSampler {
             if (pendingCount.get() < MAX_SYNTHETIC_TRANSACTION_PER_HARVEST) {
                 // Here is the window described in the first paragraph, above
                 pendingCount.incrementAndGet();
-                pending.add(td);
+                PendingTransactionTrace trace = new PendingTransactionTrace(td, 0, td.getSyntheticsResourceId());
+                pending.add(trace);
+                trace.encode();
                 String msg = MessageFormat.format("Sampled Synthetics Transaction: {0}", td);
                 Agent.LOG.finest(msg);
                 return true;
@@ -88,13 +90,14 @@ public class SyntheticsTransactionSampler implements ITransactionSampler {
         pending.add(queueMarker); // we neither increment nor decrement the counter for the marker item.
         int removedCount = 0;
 
-        TransactionData queued;
+        PendingTransactionTrace queued;
         while ((queued = pending.poll()) != queueMarker) {
             if (appName.equals(queued.getApplicationName())) {
-                TransactionTrace tt = TransactionTrace.getTransactionTrace(queued);
-                tt.setSyntheticsResourceId(queued.getSyntheticsResourceId());
+                TransactionTrace tt = queued.getTrace();
                 removedCount++;
-                result.add(tt);
+                if (tt != null) {
+                    result.add(tt);
+                }
             } else {
                 // Add it back to be reconsidered on the next call.
                 pending.add(queued);
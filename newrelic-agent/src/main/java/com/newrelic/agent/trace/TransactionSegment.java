@@ -53,7 +53,7 @@ public class TransactionSegment implements JSONStreamAware {
     private long exitTimestamp;
     private final Map<String, Object> tracerAttributes;
     private int callCount = 1;
-    private final String uri;
+    private String uri;
     private final SqlObfuscator sqlObfuscator;
     private final TransactionTracerConfig ttConfig;
     private final List<StackTraceElement> parentStackTrace;
@@ -142,6 +142,23 @@ public class TransactionSegment implements JSONStreamAware {
         return tracer.getTransactionSegmentUri();
     }
 
+    /**
+     * Replaces the metric name and uri of this segment with the equal strings in the string table, and adds them to it
+     * when they are not in it yet, so that the segments of a trace share one copy of each name.
+     */
+    void internStrings(Map<String, String> strings) {
+        metricName = intern(strings, metricName);
+        uri = intern(strings, uri);
+    }
+
+    private static String intern(Map<String, String> strings, String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = strings.putIfAbsent(value, value);
+        return existing == null ? value : existing;
+    }
+
     void setMetricName(String name) {
         if (name != null && name.trim().length() > 0)
             metricName = name;
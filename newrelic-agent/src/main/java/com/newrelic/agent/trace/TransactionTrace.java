@@ -47,7 +47,7 @@ public class TransactionTrace implements Comparable<TransactionTrace>, JSONStrea
 
     private static final String HAS_ASYNC_CHILD_ATT = "async_wait";
 
-    private final TransactionSegment rootSegment;
+    private volatile TransactionSegment rootSegment;
     private final List<TransactionSegment> sqlSegments;
     private final Map<ConnectionFactory, List<ExplainPlanExecutor>> sqlTracers;
     private final long duration;
@@ -68,11 +68,18 @@ public class TransactionTrace implements Comparable<TransactionTrace>, JSONStrea
     private Map<String, String> syntheticsAttributes;
     private final String applicationName;
     private final boolean isServerlessMode;
+    // explain plans run on the harvest thread when the trace is written, so these traces aren't encoded ahead
+    private final boolean hasExplainPlans;
+    // one instance of each metric name and uri in the segments. Only used while the segments are created
+    private Map<String, String> segmentStrings;
+    // the compressed and encoded trace data. The segments are released once the trace has been encoded
+    private volatile String encodedData;
 
     private TransactionTrace(TransactionData transactionData, SqlObfuscator sqlObfuscator) {
         this.applicationName = transactionData.getApplicationName();
 
         children = buildChildren(transactionData.getTracers());
+        segmentStrings = new HashMap<>();
         sqlTracers = new HashMap<>();
         Tracer tracer = transactionData.getRootTracer();
         userAttributes = new HashMap<>();
@@ -116,6 +123,8 @@ public class TransactionTrace implements Comparable<TransactionTrace>, JSONStrea
 
         children.clear();
         children = null;
+        segmentStrings = null;
+        hasExplainPlans = !sqlTracers.isEmpty();
         this.syntheticsResourceId = null;
     }
 
@@ -210,6 +219,9 @@ public class TransactionTrace implements Comparable<TransactionTrace>, JSONStrea
         return new TransactionTrace(transactionData, sqlObfuscator);
     }
 
+    /**
+     * @return the root segment, or null once the trace data has been encoded
+     */
     public TransactionSegment getRootSegment() {
         return rootSegment;
     }
@@ -217,6 +229,7 @@ public class TransactionTrace implements Comparable<TransactionTrace>, JSONStrea
     private TransactionSegment createTransactionSegment(TransactionTracerConfig ttConfig, SqlObfuscator sqlObfuscator,
             Tracer tracer, TransactionSegment lastSibling) {
         TransactionSegment segment = tracer.getTransactionSegment(ttConfig, sqlObfuscator, rootTracerStartTime, lastSibling);
+        segment.internStrings(segmentStrings);
         processSqlTracer(tracer);
         Collection<Tracer> children = this.children.get(tracer);
         if (children != null) {
@@ -336,6 +349,28 @@ public class TransactionTrace implements Comparable<TransactionTrace>, JSONStrea
         return new HashMap<>(userAttributes);
     }
 
+    /**
+     * Compresses the trace data and releases the segments, so that a trace waiting for the harvest only keeps its
+     * compressed data. Nothing is encoded if the trace data is sent uncompressed, or if the trace has explain plans to
+     * run, since those run on the harvest thread when the trace is written.
+     */
+    void encodeData() {
+        if (isServerlessMode || hasExplainPlans || ServiceFactory.getConfigService().getDefaultAgentConfig().isSimpleCompression()) {
+            return;
+        }
+        TransactionSegment root = rootSegment;
+        if (root == null) {
+            return;
+        }
+        encodedData = DataSenderWriter.getJsonifiedCompressedEncodedString(getTraceDetailsAsList(root), Deflater.BEST_SPEED);
+        rootSegment = null;
+    }
+
+    // getter here for testing
+    String getEncodedData() {
+        return encodedData;
+    }
+
     @Override
     public void writeJSONString(Writer writer) throws IOException {
         runExplainPlans();
@@ -345,24 +380,33 @@ public class TransactionTrace implements Comparable<TransactionTrace>, JSONStrea
         final boolean forcePersist = false;
         final Object xraySessionId = null;
 
-        List<Object> data = Arrays.asList(startTime, Collections.EMPTY_MAP, Collections.EMPTY_MAP, rootSegment, getAttributes());
-
         if (null == syntheticsResourceId && !isServerlessMode) {
             JSONArray.writeJSONString(Arrays.asList(startTime, duration, rootMetricName, requestUri,
-                    getData(writer, data), guid, null, forcePersist), writer);
+                    getData(writer), guid, null, forcePersist), writer);
         } else {
             JSONArray.writeJSONString(Arrays.asList(startTime, duration, rootMetricName, requestUri,
-                    getData(writer, data), guid, null, forcePersist, xraySessionId, syntheticsResourceId), writer);
+                    getData(writer), guid, null, forcePersist, xraySessionId, syntheticsResourceId), writer);
         }
     }
 
     // This is for serverless
     public List<Object> getTraceDetailsAsList() {
-        return Arrays.asList(startTime, Collections.EMPTY_MAP, Collections.EMPTY_MAP, rootSegment, getAttributes());
+        return getTraceDetailsAsList(rootSegment);
     }
 
-    private Object getData(Writer writer, List<Object> data) {
-        return DataSenderWriter.getJsonifiedOptionallyCompressedEncodedString(data, writer, Deflater.BEST_SPEED);
+    private List<Object> getTraceDetailsAsList(TransactionSegment root) {
+        return Arrays.asList(startTime, Collections.EMPTY_MAP, Collections.EMPTY_MAP, root, getAttributes());
+    }
+
+    private Object getData(Writer writer) {
+        // the trace can be encoded while it is written. The segments are released after the encoded data is set, so
+        // they are read first
+        TransactionSegment root = rootSegment;
+        String encoded = encodedData;
+        if (encoded != null) {
+            return DataSenderWriter.isCompressingWriter(writer) ? encoded : DataSenderWriter.getDecodedInflatedString(encoded);
+        }
+        return DataSenderWriter.getJsonifiedOptionallyCompressedEncodedString(getTraceDetailsAsList(root), writer, Deflater.BEST_SPEED);
     }
 
     protected List<TransactionSegment> getSQLSegments() {
@@ -31,7 +31,7 @@ public class TransactionTraceSampler implements ITransactionSampler {
     private static final int NO_TRACE_LIMIT = 5;
 
     private volatile Map<String, Long> tracedTransactions;
-    private final AtomicReference<TransactionData> expensiveTransaction = new AtomicReference<>();
+    private final AtomicReference<PendingTransactionTrace> expensiveTransaction = new AtomicReference<>();
     private final int topN;
     private int noTraceCount; // no synchronization needed - used only by the harvest thread.
     private final Lock readLock;
@@ -51,30 +51,39 @@ public class TransactionTraceSampler implements ITransactionSampler {
             return false;
         }
 
-        TransactionData maxTrace = expensiveTransaction.get();
-        if (maxTrace != null && getScore(maxTrace) >= getScore(td)) {
+        long score = getScore(td);
+        PendingTransactionTrace maxTrace = expensiveTransaction.get();
+        if (maxTrace != null && maxTrace.getScore() >= score) {
             return false;
         }
 
         readLock.lock();
         try {
-            return noticeTransactionUnderLock(td);
+            return noticeTransactionUnderLock(td, score);
         } finally {
             readLock.unlock();
         }
     }
 
-    private boolean noticeTransactionUnderLock(TransactionData td) {
+    private boolean noticeTransactionUnderLock(TransactionData td, long score) {
         Long lastScore = tracedTransactions.get(td.getBlameMetricName());
-        if (lastScore != null && getScore(td) <= lastScore) {
+        if (lastScore != null && score <= lastScore) {
             return false;
         }
+        PendingTransactionTrace trace = null;
         while (true) {
-            TransactionData current = expensiveTransaction.get();
-            if (current != null && getScore(current) >= getScore(td)) {
+            PendingTransactionTrace current = expensiveTransaction.get();
+            if (current != null && current.getScore() >= score) {
                 return false;
             }
-            if (expensiveTransaction.compareAndSet(current, td)) {
+            if (trace == null) {
+                trace = new PendingTransactionTrace(td, score);
+            }
+            if (expensiveTransaction.compareAndSet(current, trace)) {
+                if (current != null) {
+                    current.discard();
+                }
+                trace.encode();
                 if (Agent.LOG.isLoggable(Level.FINER)) {
                     String msg = MessageFormat.format("Captured expensive transaction trace for {0} {1}",
                             td.getApplicationName(), td);
@@ -109,39 +118,42 @@ public class TransactionTraceSampler implements ITransactionSampler {
 
     @Override
     public List<TransactionTrace> harvest(String appName) {
-        TransactionData td = null;
+        PendingTransactionTrace pending = null;
         writeLock.lock();
         try {
-            td = harvestUnderLock(appName);
+            pending = harvestUnderLock(appName);
         } finally {
             writeLock.unlock();
         }
-        if (td == null) {
+        if (pending == null) {
+            return Collections.emptyList();
+        }
+        TransactionTrace trace = pending.getTrace();
+        if (trace == null) {
             return Collections.emptyList();
         }
         if (Agent.LOG.isLoggable(Level.FINER)) {
-            String msg = MessageFormat.format("Sending transaction trace for {0} {1}", td.getApplicationName(), td);
+            String msg = MessageFormat.format("Sending transaction trace for {0} {1}", pending.getApplicationName(), trace);
             Agent.LOG.finer(msg);
         }
-        TransactionTrace trace = TransactionTrace.getTransactionTrace(td);
         List<TransactionTrace> traces = new ArrayList<>(1);
         traces.add(trace);
         return traces;
     }
 
-    private TransactionData harvestUnderLock(String appName) {
-        TransactionData td = expensiveTransaction.getAndSet(null);
+    private PendingTransactionTrace harvestUnderLock(String appName) {
+        PendingTransactionTrace pending = expensiveTransaction.getAndSet(null);
 
         if (topN == 0) {
-            return td;
+            return pending;
         }
 
-        if (td == null) {
+        if (pending == null) {
             checkAndClearTracedTransactions();
         } else {
-            noticeTracedTransaction(td);
+            noticeTracedTransaction(pending);
         }
-        return td;
+        return pending;
     }
 
     /*
@@ -155,20 +167,23 @@ public class TransactionTraceSampler implements ITransactionSampler {
         }
     }
 
-    private void noticeTracedTransaction(TransactionData td) {
+    private void noticeTracedTransaction(PendingTransactionTrace pending) {
         noTraceCount = 0;
 
         Map<String, Long> ttMap = new HashMap<>(topN);
         if (tracedTransactions.size() < topN) {
             ttMap.putAll(tracedTransactions);
         }
-        ttMap.put(td.getBlameMetricName(), getScore(td));
+        ttMap.put(pending.getBlameMetricName(), pending.getScore());
         tracedTransactions = Collections.unmodifiableMap(ttMap);
     }
 
     @Override
     public void stop() {
-        expensiveTransaction.set(null);
+        PendingTransactionTrace pending = expensiveTransaction.getAndSet(null);
+        if (pending != null) {
+            pending.discard();
+        }
         tracedTransactions = Collections.unmodifiableMap(new HashMap<String, Long>(topN));
     }
 
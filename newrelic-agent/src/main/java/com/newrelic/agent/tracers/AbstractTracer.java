@@ -29,11 +29,11 @@ import java.lang.reflect.Method;
 import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.logging.Level;
 
 /**
@@ -41,7 +41,12 @@ import java.util.logging.Level;
  */
 public abstract class AbstractTracer implements Tracer, AttributeHolder {
 
-    static final int INITIAL_PARAMETER_MAP_SIZE = 5;
+    // field updaters instead of atomic wrappers so that every tracer doesn't pay for two extra objects
+    private static final AtomicReferenceFieldUpdater<AbstractTracer, TracedException> TRACER_ERROR_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(AbstractTracer.class, TracedException.class, "tracerError");
+    private static final AtomicLongFieldUpdater<AbstractTracer> FINISH_TIME_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(AbstractTracer.class, "finishTime");
+
     static final int INITIAL_PARAMETER_SET_SIZE = 5;
     protected static final String ATTRIBUTE_TYPE = "custom";
 
@@ -56,10 +61,11 @@ public abstract class AbstractTracer implements Tracer, AttributeHolder {
     // doesn't need to be thread safe since this flag affects the decision to registerAsync
     private Boolean trackChildThreads = null;
     private Boolean trackCallBackRunnable = false;
-    private AtomicReference<TracedException> tracerError = new AtomicReference<>(TracedException.NO_EXCEPTION);
+    private volatile TracedException tracerError = TracedException.NO_EXCEPTION;
 
     private final long startTimeInMillis;
-    AtomicReference<Long> finishTime = new AtomicReference<>(null);
+    // zero until markFinishTime() is called
+    volatile long finishTime = 0;
     private final String ATTRIBUTE_API_METHOD_NAME = "TracedMethod.addCustomAttributes";
 
     // Tracers MUST NOT store references to the Transaction. Why: tracers are stored in the TransactionActivity,
@@ -285,7 +291,7 @@ public abstract class AbstractTracer implements Tracer, AttributeHolder {
 
     @Override
     public void markFinishTime() {
-        finishTime.compareAndSet(null, System.nanoTime());
+        FINISH_TIME_UPDATER.compareAndSet(this, 0, System.nanoTime());
     }
 
     @Override
@@ -300,22 +306,22 @@ public abstract class AbstractTracer implements Tracer, AttributeHolder {
 
     @Override
     public void setNoticedError(Throwable throwable) {
-        tracerError.compareAndSet(TracedException.NO_EXCEPTION, new TracedException(TransactionErrorPriority.API, throwable));
+        TRACER_ERROR_UPDATER.compareAndSet(this, TracedException.NO_EXCEPTION, new TracedException(TransactionErrorPriority.API, throwable));
     }
 
     @Override
     public void setThrownException(Throwable throwable) {
-        tracerError.compareAndSet(TracedException.NO_EXCEPTION, new TracedException(TransactionErrorPriority.TRACER, throwable));
+        TRACER_ERROR_UPDATER.compareAndSet(this, TracedException.NO_EXCEPTION, new TracedException(TransactionErrorPriority.TRACER, throwable));
     }
 
     @Override
     public boolean wasExceptionSetByAPI() {
-        return tracerError.get().getPriority() == TransactionErrorPriority.API;
+        return tracerError.getPriority() == TransactionErrorPriority.API;
     }
 
     @Override
     public Throwable getException() {
-        return tracerError.get().getException();
+        return tracerError.getException();
     }
 
     @Override
@@ -372,12 +378,12 @@ public abstract class AbstractTracer implements Tracer, AttributeHolder {
 
         if (isCustom) {
             if (customAttributes == null) {
-                customAttributes = new HashMap<>(1, INITIAL_PARAMETER_MAP_SIZE);
+                customAttributes = new CompactAttributeMap();
             }
             customAttributes.put(key, value);
         } else {
             if (agentAttributes == null) {
-                agentAttributes = new HashMap<>(1, INITIAL_PARAMETER_MAP_SIZE);
+                agentAttributes = new CompactAttributeMap();
             }
             agentAttributes.put(key, value);
             if(addAgentAttrToSpan) {
@@ -9,6 +9,9 @@ package com.newrelic.agent.tracers;
 
 import com.newrelic.agent.tracers.metricname.ClassMethodMetricNameFormat;
 import com.newrelic.agent.tracers.metricname.MetricNameFormat;
+import com.newrelic.agent.tracers.metricname.MetricNameFormats;
+
+import java.util.Arrays;
 
 /**
  * When an instrumented method is invoked, this object is created to track the original class/method signature that was
@@ -20,11 +23,18 @@ import com.newrelic.agent.tracers.metricname.MetricNameFormat;
  */
 public final class ClassMethodSignature {
 
+    private static final CachedMetricNameFormat[] NO_CACHED_FORMATS = new CachedMetricNameFormat[0];
+
+    // a method is usually invoked on a few classes with the metric name and flags of its instrumentation
+    private static final int MAX_CACHED_FORMATS = 8;
+
     private final String className;
     private final String methodName;
     private final String methodDesc;
     private ClassMethodMetricNameFormat customMetricName;
     private ClassMethodMetricNameFormat javaMetricName;
+    private String clampedSegmentName;
+    private volatile CachedMetricNameFormat[] cachedFormats = NO_CACHED_FORMATS;
 
     /**
      * Creates a class method signature. The class name must be the dot separated name, ie java.lang.List, NOT the
@@ -126,6 +136,20 @@ public final class ClassMethodSignature {
         return new ClassMethodSignature(className.intern(), methodName.intern(), methodDesc.intern());
     }
 
+    /**
+     * Returns the segment name {@link UltraLightTracer} uses for this method once a transaction is clamped. The name
+     * is built the first time it's needed and reused after that. Threads racing to build it will each produce an equal
+     * string, so no synchronization is needed.
+     */
+    String getClampedSegmentName() {
+        String name = clampedSegmentName;
+        if (name == null) {
+            name = UltraLightTracer.CLAMPED_METRIC_PREFIX + "/" + className + "/" + methodName;
+            clampedSegmentName = name;
+        }
+        return name;
+    }
+
     public MetricNameFormat getMetricNameFormat(String targetClassName, int flags) {
 
         if (targetClassName == null || className.equals(targetClassName)) {
@@ -136,4 +160,52 @@ public final class ClassMethodSignature {
         }
     }
 
+    /**
+     * Returns the same format as {@link MetricNameFormats#getFormatter(Object, ClassMethodSignature, String, int)}, but
+     * remembers the formats this signature has returned so that creating a tracer for it doesn't allocate anything once
+     * the classes it is invoked on have been seen. The formats are immutable and shared by every tracer of the method.
+     * The class name is remembered rather than the class so that the signature doesn't keep a class loader alive.
+     */
+    public MetricNameFormat getMetricNameFormat(Object invocationTarget, String metricName, int flags) {
+        // Class.getName() caches the name in the class
+        String targetClassName = invocationTarget == null ? null : invocationTarget.getClass().getName();
+        CachedMetricNameFormat[] formats = cachedFormats;
+        for (CachedMetricNameFormat cached : formats) {
+            if (cached.matches(targetClassName, metricName, flags)) {
+                return cached.format;
+            }
+        }
+
+        MetricNameFormat format = MetricNameFormats.getFormatter(invocationTarget, this, metricName, flags);
+        if (format != null && formats.length < MAX_CACHED_FORMATS) {
+            // a thread racing to add a format may drop this one, in which case it is added again the next time
+            CachedMetricNameFormat[] updated = Arrays.copyOf(formats, formats.length + 1);
+            updated[formats.length] = new CachedMetricNameFormat(targetClassName, metricName, flags, format);
+            cachedFormats = updated;
+        }
+        return format;
+    }
+
+    private static final class CachedMetricNameFormat {
+        final String targetClassName;
+        final String metricName;
+        final int flags;
+        final MetricNameFormat format;
+
+        CachedMetricNameFormat(String targetClassName, String metricName, int flags, MetricNameFormat format) {
+            this.targetClassName = targetClassName;
+            this.metricName = metricName;
+            this.flags = flags;
+            this.format = format;
+        }
+
+        boolean matches(String targetClassName, String metricName, int flags) {
+            return this.flags == flags && equals(this.targetClassName, targetClassName) && equals(this.metricName, metricName);
+        }
+
+        private static boolean equals(String a, String b) {
+            return a == null ? b == null : a.equals(b);
+        }
+    }
+
 }
@@ -0,0 +1,219 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.tracers;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Attribute storage for tracers. Most tracers carry only a handful of attributes, so up to {@link #MAX_INLINE_SIZE}
+ * entries are kept inline in a single array of alternating keys and values and looked up with a linear scan. This
+ * avoids the table and per entry node allocations of a {@link HashMap}. Once the map grows beyond that it switches to
+ * a {@link HashMap} for the rest of its life.
+ *
+ * Null keys and null values are not supported. This class is not thread-safe, like the maps it replaces.
+ */
+final class CompactAttributeMap extends AbstractMap<String, Object> {
+
+    static final int MAX_INLINE_SIZE = 8;
+    private static final int INITIAL_INLINE_SIZE = 2;
+
+    private Object[] inline = new Object[INITIAL_INLINE_SIZE * 2];
+    private int inlineSize = 0;
+    private Map<String, Object> overflow;
+    private Set<Entry<String, Object>> entrySet;
+
+    @Override
+    public int size() {
+        return overflow == null ? inlineSize : overflow.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (overflow != null) {
+            return overflow.containsKey(key);
+        }
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (overflow != null) {
+            return overflow.get(key);
+        }
+        int index = indexOf(key);
+        return index < 0 ? null : inline[index + 1];
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (overflow != null) {
+            return overflow.put(key, value);
+        }
+        int index = indexOf(key);
+        if (index >= 0) {
+            Object previous = inline[index + 1];
+            inline[index + 1] = value;
+            return previous;
+        }
+        if (inlineSize == MAX_INLINE_SIZE) {
+            overflow = new HashMap<>(MAX_INLINE_SIZE * 4);
+            for (int i = 0; i < inlineSize * 2; i += 2) {
+                overflow.put((String) inline[i], inline[i + 1]);
+            }
+            inline = null;
+            inlineSize = 0;
+            return overflow.put(key, value);
+        }
+        if (inlineSize * 2 == inline.length) {
+            inline = Arrays.copyOf(inline, Math.min(MAX_INLINE_SIZE, inlineSize * 2) * 2);
+        }
+        inline[inlineSize * 2] = key;
+        inline[inlineSize * 2 + 1] = value;
+        inlineSize++;
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (overflow != null) {
+            return overflow.remove(key);
+        }
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        Object previous = inline[index + 1];
+        removeAt(index);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        if (overflow != null) {
+            overflow.clear();
+        } else {
+            Arrays.fill(inline, 0, inlineSize * 2, null);
+            inlineSize = 0;
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (overflow != null) {
+            return overflow.entrySet();
+        }
+        if (entrySet == null) {
+            entrySet = new InlineEntrySet();
+        }
+        return entrySet;
+    }
+
+    boolean isInline() {
+        return overflow == null;
+    }
+
+    private int indexOf(Object key) {
+        for (int i = 0; i < inlineSize * 2; i += 2) {
+            if (inline[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        int last = (inlineSize - 1) * 2;
+        System.arraycopy(inline, index + 2, inline, index, last - index);
+        inline[last] = null;
+        inline[last + 1] = null;
+        inlineSize--;
+    }
+
+    private final class InlineEntrySet extends AbstractSet<Entry<String, Object>> {
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            if (overflow != null) {
+                return overflow.entrySet().iterator();
+            }
+            return new InlineIterator();
+        }
+
+        @Override
+        public int size() {
+            return CompactAttributeMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            CompactAttributeMap.this.clear();
+        }
+    }
+
+    private final class InlineIterator implements Iterator<Entry<String, Object>> {
+        private int next = 0;
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return next < inlineSize * 2;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next += 2;
+            return new InlineEntry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+        }
+    }
+
+    private final class InlineEntry extends SimpleEntry<String, Object> {
+        private final int index;
+
+        InlineEntry(int index) {
+            super((String) inline[index], inline[index + 1]);
+            this.index = index;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            if (overflow != null) {
+                overflow.put(getKey(), value);
+            } else {
+                inline[index + 1] = value;
+            }
+            return super.setValue(value);
+        }
+    }
+
+}
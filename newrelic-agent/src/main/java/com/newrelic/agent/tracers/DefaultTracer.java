@@ -50,6 +50,7 @@ import org.objectweb.asm.Opcodes;
 import java.net.URI;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -58,8 +59,9 @@ import java.util.logging.Level;
  * The default tracer implementation.
  */
 public class DefaultTracer extends AbstractTracer {
-    private final List<SpanLink> spanLinks = new ArrayList<>();
-    private final List<SpanEvent> spanEvents = new ArrayList<>();
+    // most tracers never get span links or events, so these are only allocated on first use
+    private List<SpanLink> spanLinks;
+    private List<SpanEvent> spanEvents;
 
     // Tracers MUST NOT store references to the Transaction. Why: tracers are stored in the TransactionActivity,
     // and Activities can be reparented from one Transaction to another by the public APIs that support async.
@@ -258,7 +260,7 @@ public class DefaultTracer extends AbstractTracer {
             return;
         }
 
-        performFinishWork(finishTime.get() == null ? System.nanoTime() : finishTime.get(), opcode, returnValue);
+        performFinishWork(finishTime == 0 ? System.nanoTime() : finishTime, opcode, returnValue);
     }
 
     // this is public for testing - do not call directly unless testing
@@ -619,22 +621,28 @@ public class DefaultTracer extends AbstractTracer {
 
     @Override
     public void addSpanLink(SpanLink link) {
+        if (spanLinks == null) {
+            spanLinks = new ArrayList<>(1);
+        }
         spanLinks.add(link);
     }
 
     @Override
     public List<SpanLink> getSpanLinks() {
-        return spanLinks;
+        return spanLinks == null ? Collections.<SpanLink>emptyList() : spanLinks;
     }
 
     @Override
     public void addSpanEvent(SpanEvent event) {
+        if (spanEvents == null) {
+            spanEvents = new ArrayList<>(1);
+        }
         spanEvents.add(event);
     }
 
     @Override
     public List<SpanEvent> getSpanEvents() {
-        return spanEvents;
+        return spanEvents == null ? Collections.<SpanEvent>emptyList() : spanEvents;
     }
 
     @Override
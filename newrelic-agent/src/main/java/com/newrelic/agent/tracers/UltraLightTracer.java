@@ -26,7 +26,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This tracer is the simplest tracer that money can buy. It currently only tracks duration of the method,
@@ -40,22 +39,29 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public class UltraLightTracer implements Tracer {
 
+    static final String CLAMPED_METRIC_PREFIX = "Clamped";
+
     private final TransactionActivity txa;
     private final ClassMethodSignature classMethodSignature;
     private final Tracer parentTracer;
     private final long startNanos = System.nanoTime();
-    private final AtomicLong endNanos = new AtomicLong();
+    private volatile long endNanos;
     private final String segmentName;
 
+    /**
+     * Creates a tracer for a method called after the transaction has hit its segment limit. Apart from the tracer itself
+     * this allocates nothing: the segment name is cached on the {@link ClassMethodSignature} and the scoped stats for it
+     * are reused once the name has been recorded in the transaction activity.
+     */
     public static UltraLightTracer createClampedSegment(TransactionActivity txa, ClassMethodSignature classMethodSignature) {
-        return new UltraLightTracer(txa, classMethodSignature, "Clamped");
+        return new UltraLightTracer(txa, classMethodSignature, classMethodSignature.getClampedSegmentName());
     }
 
-    private UltraLightTracer(TransactionActivity txa, ClassMethodSignature classMethodSignature, final String metricPrefix) {
+    private UltraLightTracer(TransactionActivity txa, ClassMethodSignature classMethodSignature, final String segmentName) {
         this.txa = txa;
         this.classMethodSignature = classMethodSignature;
         this.parentTracer = txa.getLastTracer();
-        this.segmentName = metricPrefix + "/" + classMethodSignature.getClassName() + "/" + classMethodSignature.getMethodName();
+        this.segmentName = segmentName;
         txa.tracerStarted(this);
     }
 
@@ -70,7 +76,7 @@ public class UltraLightTracer implements Tracer {
     }
 
     private void doFinish(int opcode) {
-        endNanos.set(System.nanoTime());
+        endNanos = System.nanoTime();
         //this call makes sure that this tracer is popped off the stack
         txa.tracerFinished(this, opcode);
         //record the stats
@@ -137,7 +143,7 @@ public class UltraLightTracer implements Tracer {
 
     @Override
     public long getEndTimeInMilliseconds() {
-        return TimeUnit.MILLISECONDS.convert(endNanos.get(), TimeUnit.NANOSECONDS);
+        return TimeUnit.MILLISECONDS.convert(endNanos, TimeUnit.NANOSECONDS);
     }
 
     @Override
@@ -147,7 +153,7 @@ public class UltraLightTracer implements Tracer {
 
     @Override
     public long getDuration() {
-        return endNanos.get() - startNanos;
+        return endNanos - startNanos;
     }
 
     @Override
@@ -7,24 +7,30 @@ import com.newrelic.agent.tracing.Granularity;
 import com.newrelic.api.agent.NewRelic;
 
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 
+/**
+ * Samples about {@code target} transactions per report period. The sampler is lock free: the state of a period is an
+ * immutable {@link Period} that is replaced with a compare and set when the period elapses, and the seen and sampled
+ * counts of a period are packed in one {@link AtomicLong}. A transaction that isn't sampled only adds to the seen count.
+ * A transaction that is sampled retries adding to the sampled count while the period's limit allows it, so the limits
+ * on the number of sampled transactions in a period are exact.
+ */
 public class AdaptiveSampler implements Sampler {
     // Sentinel value for startTimeMillis indicating the sampling period has not yet started.
     private static final long UNSTARTED_PERIOD_SENTINEL = 0L;
+    // The seen count is kept in the high 32 bits of the counts and the sampled count in the low 32 bits.
+    private static final long SEEN_INCREMENT = 1L << 32;
 
     //Configured values
     private final long reportPeriodMillis;
-    private int target;
+    private volatile int target;
     private final boolean isSharedInstance;
 
-    //Instance stats - thread safety managed by synchronized methods
-    private long startTimeMillis;
-    private int seen;
-    private int seenLast;
-    private int sampledCount;
-    private int sampledCountLast;
-    private boolean firstPeriod;
+    //Instance stats
+    private final AtomicReference<Period> period;
 
     protected AdaptiveSampler(int target, int reportPeriodSeconds) {
         this(target, reportPeriodSeconds, false);
@@ -40,12 +46,7 @@ public class AdaptiveSampler implements Sampler {
         this.isSharedInstance = isSharedInstance;
         // In a deferred-start mode, startTimeMillis is set to UNSTARTED_PERIOD_SENTINEL.
         // It will be set to the current time on the first calculatePriority() call.
-        this.startTimeMillis = lazyStart ? UNSTARTED_PERIOD_SENTINEL : System.currentTimeMillis();
-        this.seen = 0;
-        this.seenLast = 0;
-        this.sampledCount = 0;
-        this.sampledCountLast = 0;
-        this.firstPeriod = true;
+        this.period = new AtomicReference<>(new Period(lazyStart ? UNSTARTED_PERIOD_SENTINEL : System.currentTimeMillis(), 0, 0, true));
         NewRelic.getAgent().getLogger().log(Level.INFO, "Started Adaptive Sampler with sampling target " + this.target + " and report period " +
                 reportPeriodSeconds + " seconds" + (lazyStart ? " (lazy-start mode)" : "") + ".");
     }
@@ -56,7 +57,7 @@ public class AdaptiveSampler implements Sampler {
      * @return A float in [0.0f, 2.0f]
      */
     @Override
-    public synchronized float calculatePriority(Transaction tx, Granularity granularity) {
+    public float calculatePriority(Transaction tx, Granularity granularity) {
         resetPeriodIfElapsed();
         Float inboundPriority = tx.getPriorityFromInboundSamplingDecision(granularity);
         if (inboundPriority != null) {
@@ -87,54 +88,96 @@ public class AdaptiveSampler implements Sampler {
 
     private void resetPeriodIfElapsed() {
         long now = System.currentTimeMillis();
-        if (startTimeMillis == UNSTARTED_PERIOD_SENTINEL) {
-            NewRelic.getAgent().getLogger().log(Level.FINE, "Adaptive Sampler lazy-start: anchoring period to first transaction.");
-            startTimeMillis = now;
+        Period current = period.get();
+        if (current.startTimeMillis == UNSTARTED_PERIOD_SENTINEL) {
+            if (period.compareAndSet(current, new Period(now, 0, 0, true))) {
+                NewRelic.getAgent().getLogger().log(Level.FINE, "Adaptive Sampler lazy-start: anchoring period to first transaction.");
+            }
             return;
         }
-        if (now - startTimeMillis >= reportPeriodMillis) {
-            NewRelic.getAgent().getLogger().log(Level.FINE, "Resetting sampler period. Seen: " + seen + ", Sampled: " + sampledCount);
+        if (now - current.startTimeMillis >= reportPeriodMillis) {
             //Calculate elapsed periods so that the start time is consistently incremented
             //in multiples of the report period.
-            int elapsedPeriods = (int) ((now - startTimeMillis) / reportPeriodMillis);
-            startTimeMillis += elapsedPeriods * reportPeriodMillis;
-            seenLast = seen;
-            seen = 0;
-            sampledCountLast = sampledCount;
-            sampledCount = 0;
-            firstPeriod = false;
+            long elapsedPeriods = (now - current.startTimeMillis) / reportPeriodMillis;
+            long counts = current.counts.get();
+            Period next = new Period(current.startTimeMillis + elapsedPeriods * reportPeriodMillis, seen(counts), sampled(counts), false);
+            // only one thread replaces the period, the others use the one it created
+            if (period.compareAndSet(current, next)) {
+                NewRelic.getAgent().getLogger().log(Level.FINE, "Resetting sampler period. Seen: " + seen(counts) + ", Sampled: " + sampled(counts));
+            }
         }
     }
 
     @VisibleForTesting
     protected boolean computeSampled() {
-        boolean sampled;
-        if (firstPeriod) {
-            sampled = sampledCount < target;
+        Period current = period.get();
+        int target = this.target;
+        long counts = current.counts.get();
+        // the random value is drawn once, so losing a race to another transaction can't lower the odds of being sampled
+        if (!isSampled(current, target, seen(counts), sampled(counts), ThreadLocalRandom.current().nextDouble())) {
+            current.counts.addAndGet(SEEN_INCREMENT);
+            return false;
+        }
+        int limit = current.firstPeriod ? target : target * 2;
+        while (!current.counts.compareAndSet(counts, counts + SEEN_INCREMENT + 1)) {
+            counts = current.counts.get();
+            if (sampled(counts) >= limit) {
+                current.counts.addAndGet(SEEN_INCREMENT);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSampled(Period current, int target, int seen, int sampledCount, double random) {
+        if (current.firstPeriod) {
+            return sampledCount < target;
         } else if (sampledCount < target) {
-            sampled = (seenLast <= 0 ? 0 : ThreadLocalRandom.current().nextInt(seenLast)) < target;
+            return (current.seenLast <= 0 ? 0 : (int) (random * current.seenLast)) < target;
         } else if (sampledCount >= (target * 2)) {
-            sampled = false;
+            return false;
         } else {
             int expTarget = (int) (Math.pow((float) target, (float) target / sampledCount) - Math.pow((float) target, 0.5));
-            //seen should never be zero here. This is an added safety guard to prevent an exception from .nextInt.
-            sampled = (seen <= 0 ? 0 : ThreadLocalRandom.current().nextInt(seen)) < expTarget;
+            //seen should never be zero here. This is an added safety guard against scaling by zero.
+            return (seen <= 0 ? 0 : (int) (random * seen)) < expTarget;
         }
-        seen++;
-        if (sampled) {
-            sampledCount++;
-        }
-        return sampled;
     }
 
-    protected synchronized void setTarget(int newTarget) {
+    protected void setTarget(int newTarget) {
         this.target = newTarget;
     }
 
-    //These methods are for testing only. they are not thread-safe.
+    private static int seen(long counts) {
+        return (int) (counts >>> 32);
+    }
+
+    private static int sampled(long counts) {
+        return (int) counts;
+    }
+
+    /**
+     * The stats of a report period. The counts are of this period, and the other fields are fixed when the period
+     * starts.
+     */
+    private static final class Period {
+        final long startTimeMillis;
+        final int seenLast;
+        final int sampledCountLast;
+        final boolean firstPeriod;
+        final AtomicLong counts = new AtomicLong();
+
+        Period(long startTimeMillis, int seenLast, int sampledCountLast, boolean firstPeriod) {
+            this.startTimeMillis = startTimeMillis;
+            this.seenLast = seenLast;
+            this.sampledCountLast = sampledCountLast;
+            this.firstPeriod = firstPeriod;
+        }
+    }
+
+    //These methods are for testing only.
     @VisibleForTesting
     int getSampledCountLastPeriod() {
-        return sampledCountLast;
+        return period.get().sampledCountLast;
     }
 
     @VisibleForTesting
@@ -144,6 +187,6 @@ public class AdaptiveSampler implements Sampler {
 
     @VisibleForTesting
     long getStartTimeMillis() {
-        return startTimeMillis;
+        return period.get().startTimeMillis;
     }
 }
@@ -0,0 +1,77 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.transport;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Counts the bytes written through it and fails the write that would take the count past the limit with a
+ * {@link PayloadSizeExceededException}.
+ *
+ * Closing this stream flushes but does not close the stream it wraps, so a compressor layered on top of it can be
+ * closed to finish the compressed data without closing the connection underneath.
+ */
+final class CountingOutputStream extends FilterOutputStream {
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private final long limit;
+    private long count = 0;
+
+    /**
+     * Counts and discards everything written.
+     */
+    CountingOutputStream() {
+        this(DISCARD, Long.MAX_VALUE);
+    }
+
+    CountingOutputStream(OutputStream out, long limit) {
+        super(out);
+        this.limit = limit;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkLimit(1);
+        out.write(b);
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        checkLimit(len);
+        out.write(b, off, len);
+        count += len;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    private void checkLimit(int len) {
+        if (count + len > limit) {
+            throw new PayloadSizeExceededException(count + len);
+        }
+    }
+
+}
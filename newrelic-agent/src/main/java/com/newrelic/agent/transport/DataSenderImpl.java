@@ -39,19 +39,14 @@ import com.newrelic.agent.stats.StatsWorks;
 import com.newrelic.agent.trace.TransactionTrace;
 import org.json.simple.JSONObject;
 import org.json.simple.JSONStreamAware;
-import org.json.simple.JSONValue;
 import org.json.simple.parser.JSONParser;
 
 import javax.net.ssl.SSLHandshakeException;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.SocketException;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
@@ -63,9 +58,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
-import java.util.zip.Deflater;
-import java.util.zip.DeflaterOutputStream;
-import java.util.zip.GZIPOutputStream;
 
 import static com.newrelic.agent.util.LicenseKeyUtil.obfuscateLicenseKey;
 
@@ -90,7 +82,6 @@ public class DataSenderImpl implements DataSender, HealthDataProducer {
     private static final String EXCEPTION_MAP_RETURN_VALUE_KEY = "return_value";
     private static final Object NO_AGENT_RUN_ID = null;
     private static final String NULL_RESPONSE = "null";
-    private static final int COMPRESSION_LEVEL = Deflater.DEFAULT_COMPRESSION;
     private static final String REDIRECT_HOST = "redirect_host";
     private static final String SECURITY_POLICIES = "security_policies";
     private static final String MAX_PAYLOAD_SIZE_IN_BYTES = "max_payload_size_in_bytes";
@@ -126,6 +117,7 @@ public class DataSenderImpl implements DataSender, HealthDataProducer {
     private final DataSenderListener dataSenderListener;
     private final String compressedEncoding;
     private final boolean putForDataSend;
+    private volatile boolean streamPayloads;
     private Map<String, Boolean> policiesJson;
     private volatile int maxPayloadSizeInBytes = DEFAULT_MAX_PAYLOAD_SIZE_IN_BYTES;
     private volatile Map<String, String> requestMetadata;
@@ -154,6 +146,7 @@ public class DataSenderImpl implements DataSender, HealthDataProducer {
         this.dataSenderListener = dataSenderListener;
         this.compressedEncoding = config.getCompressedContentEncoding();
         this.putForDataSend = config.isPutForDataSend();
+        this.streamPayloads = config.isStreamPayloads();
 
         this.metadata = new HashMap<>();
         Map<String, String> env = System.getenv();
@@ -552,6 +545,10 @@ public class DataSenderImpl implements DataSender, HealthDataProducer {
         maxPayloadSizeInBytes = payloadSizeInBytes;
     }
 
+    void setStreamPayloads(boolean streamPayloads) {
+        this.streamPayloads = streamPayloads;
+    }
+
     private Object invokeRunId(String method, String encoding, Object runId, JSONStreamAware params) throws Exception {
         String uri = MessageFormat.format(agentRunIdUriPattern, method, runId.toString());
         return invoke(redirectHost, method, encoding, uri, params);
@@ -603,34 +600,42 @@ public class DataSenderImpl implements DataSender, HealthDataProducer {
      * matched/parsed has been deprecated.
      */
     private ReadResult connectAndSend(String host, String method, String encoding, String uri, JSONStreamAware params) throws Exception {
-        byte[] data = writeData(encoding, params);
-
         /*
          * We don't enforce max_payload_size_in_bytes for error_data (aka error traces). Instead, we halve the
          * payload and try again. See RPMService sendErrorData
          */
-        if (data.length > maxPayloadSizeInBytes && !method.equals(CollectorMethods.ERROR_DATA)) {
-            ServiceFactory.getStatsService().doStatsWork(StatsWorks.getIncrementCounterWork(
-                    MessageFormat.format(MetricNames.SUPPORTABILITY_PAYLOAD_SIZE_EXCEEDS_MAX, method), 1), MetricNames.SUPPORTABILITY_PAYLOAD_SIZE_EXCEEDS_MAX);
-            String msg = MessageFormat.format("Payload of size {0} exceeded maximum size {1} for {2} method ",
-                    data.length, maxPayloadSizeInBytes, method);
-            logger.log(Level.WARNING, msg);
-            throw new MaxPayloadException(msg);
-        }
-
+        boolean enforceMaxPayloadSize = !method.equals(CollectorMethods.ERROR_DATA);
         final URL url = new URL(PROTOCOL, host, port, uri);
-        HttpClientWrapper.Request request = createRequest(method, encoding, url, data);
+        HttpClientWrapper.Request request = createRequest(method, encoding, url);
+
+        byte[] data = null;
+        JsonPayload payload = null;
+        if (streamPayloads) {
+            // the size is checked by the payload as it is written to the connection
+            payload = new JsonPayload(params, encoding, enforceMaxPayloadSize ? maxPayloadSizeInBytes : JsonPayload.NO_LIMIT);
+            request.setBody(payload);
+        } else {
+            data = writeData(encoding, params);
+            if (data.length > maxPayloadSizeInBytes && enforceMaxPayloadSize) {
+                throw payloadSizeExceeded(method, data.length);
+            }
+            request.setData(data);
+        }
 
         httpClientWrapper.captureSupportabilityMetrics(ServiceFactory.getStatsService(), host);
 
-        ReadResult result = httpClientWrapper.execute(request, new TimingEventHandler(method, ServiceFactory.getStatsService()));
-
-        String payloadJsonSent = DataSenderWriter.toJSONString(params);
+        ReadResult result;
+        try {
+            result = httpClientWrapper.execute(request, new TimingEventHandler(method, ServiceFactory.getStatsService()));
+        } catch (PayloadSizeExceededException e) {
+            throw payloadSizeExceeded(method, e.getPayloadSizeInBytes());
+        }
+        int payloadSize = data != null ? data.length : (int) payload.getPayloadSizeInBytes();
 
         if (auditMode && methodShouldBeAudited(method)) {
 
             String msg = MessageFormat.format("Sent JSON({0}) to: {1}, with payload: {2}", method, obfuscateLicenseKey(url.toString()),
-                    obfuscateLicenseKey(payloadJsonSent));
+                    obfuscateLicenseKey(DataSenderWriter.toJSONString(params)));
             logger.info(msg);
         }
 
@@ -639,7 +644,7 @@ public class DataSenderImpl implements DataSender, HealthDataProducer {
                 MessageFormat.format(MetricNames.SUPPORTABILITY_HTTP_CODE, result.getStatusCode()), 1), MetricNames.SUPPORTABILITY_HTTP_CODE);
 
         if (result.getStatusCode() != HttpResponseCode.OK && result.getStatusCode() != HttpResponseCode.ACCEPTED) {
-            throwExceptionFromStatusCode(method, result, data, request);
+            throwExceptionFromStatusCode(method, result, payloadSize, request);
         }
 
         String payloadJsonReceived = result.getResponseBody();
@@ -649,7 +654,7 @@ public class DataSenderImpl implements DataSender, HealthDataProducer {
             logger.info(MessageFormat.format("Received JSON({0}): {1}", method, payloadJsonReceived));
         }
 
-        recordDataUsageMetrics(method, payloadJsonSent, payloadJsonReceived);
+        recordDataUsageMetrics(method, DataSenderWriter.getJSONSize(params), payloadJsonReceived);
 
         AgentControlIntegrationUtils.reportHealthyStatus(healthDataChangeListeners, AgentHealth.Category.HARVEST, AgentHealth.Category.CONFIG);
         if (method.equals(CollectorMethods.CONNECT)) {
@@ -657,21 +662,29 @@ public class DataSenderImpl implements DataSender, HealthDataProducer {
         }
 
         if (dataSenderListener != null) {
-            dataSenderListener.dataSent(method, encoding, uri, data);
+            dataSenderListener.dataSent(method, encoding, uri, data != null ? data : request.getData());
         }
 
         return result;
     }
 
+    private MaxPayloadException payloadSizeExceeded(String method, long payloadSize) {
+        ServiceFactory.getStatsService().doStatsWork(StatsWorks.getIncrementCounterWork(
+                MessageFormat.format(MetricNames.SUPPORTABILITY_PAYLOAD_SIZE_EXCEEDS_MAX, method), 1), MetricNames.SUPPORTABILITY_PAYLOAD_SIZE_EXCEEDS_MAX);
+        String msg = MessageFormat.format("Payload of size {0} exceeded maximum size {1} for {2} method ",
+                payloadSize, maxPayloadSizeInBytes, method);
+        logger.log(Level.WARNING, msg);
+        return new MaxPayloadException(msg);
+    }
+
     /**
      * Record metrics tracking amount of bytes sent and received for each agent endpoint payload
      *
      * @param method              method for the agent endpoint
-     * @param payloadJsonSent     JSON String of the payload that was sent
+     * @param payloadBytesSent    size of the JSON String of the payload that was sent
      * @param payloadJsonReceived JSON String of the payload that was received
      */
-    private void recordDataUsageMetrics(String method, String payloadJsonSent, String payloadJsonReceived) {
-        int payloadBytesSent = payloadJsonSent.getBytes().length;
+    private void recordDataUsageMetrics(String method, long payloadBytesSent, String payloadJsonReceived) {
         int payloadBytesReceived = payloadJsonReceived.getBytes().length;
 
         // COLLECTOR is always the destination for data reported via DataSenderImpl.
@@ -689,7 +702,7 @@ public class DataSenderImpl implements DataSender, HealthDataProducer {
                 MetricNames.SUPPORTABILITY_DATA_USAGE_DESTINATION_ENDPOINT_OUTPUT_BYTES + " " + COLLECTOR);
     }
 
-    private void throwExceptionFromStatusCode(String method, ReadResult result, byte[] data, HttpClientWrapper.Request request)
+    private void throwExceptionFromStatusCode(String method, ReadResult result, int payloadSize, HttpClientWrapper.Request request)
             throws HttpError, LicenseException, ForceRestartException, ForceDisconnectException {
         // Comply with spec and send supportability metric only for error responses
         ServiceFactory.getStatsService().doStatsWork(StatsWorks.getIncrementCounterWork(
@@ -706,9 +719,9 @@ public class DataSenderImpl implements DataSender, HealthDataProducer {
                         Integer.toString(result.getStatusCode()), method);
                 final String authField = result.getProxyAuthenticateHeader();
                 if (authField != null) {
-                    throw new HttpError("Proxy Authentication Mechanism Failed: " + authField, result.getStatusCode(), data.length);
+                    throw new HttpError("Proxy Authentication Mechanism Failed: " + authField, result.getStatusCode(), payloadSize);
                 } else {
-                    throw new HttpError("Proxy Authentication Mechanism Failed: " + "null Proxy-Authenticate header", result.getStatusCode(), data.length);
+                    throw new HttpError("Proxy Authentication Mechanism Failed: " + "null Proxy-Authenticate header", result.getStatusCode(), payloadSize);
                 }
             case HttpResponseCode.UNAUTHORIZED:
                 // received 401 Unauthorized, throw exception instead of parsing LicenseException from 200 response body
@@ -726,7 +739,7 @@ public class DataSenderImpl implements DataSender, HealthDataProducer {
                 AgentControlIntegrationUtils.reportUnhealthyStatus(healthDataChangeListeners, AgentHealth.Status.HTTP_ERROR,
                         Integer.toString(result.getStatusCode()), method);
                 logger.log(Level.FINER, "Connection http status code: {0}", result.getStatusCode());
-                throw HttpError.create(result.getStatusCode(), request.getURL().getHost(), data.length);
+                throw HttpError.create(result.getStatusCode(), request.getURL().getHost(), payloadSize);
         }
     }
 
@@ -786,7 +799,7 @@ public class DataSenderImpl implements DataSender, HealthDataProducer {
         }
     }
 
-    private HttpClientWrapper.Request createRequest(String method, String encoding, URL url, byte[] data) {
+    private HttpClientWrapper.Request createRequest(String method, String encoding, URL url) {
         final boolean isConnectOrPreconnect = method.equals(CollectorMethods.CONNECT) || method.equals(CollectorMethods.PRECONNECT);
         final Map<String, String> requestMetadata = (this.requestMetadata != null && !isConnectOrPreconnect)
                 ? this.requestMetadata
@@ -796,32 +809,15 @@ public class DataSenderImpl implements DataSender, HealthDataProducer {
                 .setURL(url)
                 .setVerb(putForDataSend ? HttpClientWrapper.Verb.PUT : HttpClientWrapper.Verb.POST)
                 .setEncoding(encoding)
-                .setData(data)
                 .setRequestMetadata(requestMetadata);
     }
 
     private byte[] writeData(String encoding, JSONStreamAware params) throws IOException {
         ByteArrayOutputStream outStream = new ByteArrayOutputStream();
-        try (
-                OutputStream os = getOutputStream(outStream, encoding);
-                Writer out = new OutputStreamWriter(os, StandardCharsets.UTF_8);
-        ) {
-            JSONValue.writeJSONString(params, out);
-            out.flush();
-        }
+        new JsonPayload(params, encoding, JsonPayload.NO_LIMIT).writeTo(outStream);
         return outStream.toByteArray();
     }
 
-    private OutputStream getOutputStream(OutputStream out, String encoding) throws IOException {
-        if (DEFLATE_ENCODING.equals(encoding)) {
-            return new DeflaterOutputStream(out, new Deflater(COMPRESSION_LEVEL));
-        } else if (GZIP_ENCODING.equals(encoding)) {
-            return new GZIPOutputStream(out);
-        } else {
-            return out;
-        }
-    }
-
     private Map<?, ?> getResponseMap(String responseBody) throws Exception {
         JSONParser parser = new JSONParser();
         Object response = parser.parse(responseBody);
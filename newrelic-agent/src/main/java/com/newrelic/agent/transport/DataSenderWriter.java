@@ -7,8 +7,10 @@
 
 package com.newrelic.agent.transport;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
@@ -17,6 +19,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 import com.newrelic.agent.service.ServiceFactory;
 import org.json.simple.JSONValue;
@@ -125,6 +128,21 @@ public class DataSenderWriter extends OutputStreamWriter {
         }
     }
 
+    /**
+     * Get the size in bytes of the JSON string for the object, without building the string.
+     */
+    public static long getJSONSize(Object obj) {
+        CountingOutputStream oStream = new CountingOutputStream();
+        try {
+            Writer writer = new DataSenderWriter(oStream);
+            JSONValue.writeJSONString(obj, writer);
+            writer.close();
+        } catch (IOException e) {
+            return JSONValue.toJSONString(obj).getBytes(StandardCharsets.UTF_8).length;
+        }
+        return oStream.getCount();
+    }
+
     /**
      * Converts data into a json string, compresses it and returns a base 64 encoded string.
      */
@@ -143,4 +161,22 @@ public class DataSenderWriter extends OutputStreamWriter {
         return Base64.getEncoder().encodeToString(outStream.toByteArray());
     }
 
+    /**
+     * Returns the json string of data that was compressed and encoded by
+     * {@link #getJsonifiedCompressedEncodedString(Object, int)}.
+     */
+    public static String getDecodedInflatedString(String encoded) {
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        try (InputStream inStream = new InflaterInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(encoded)))) {
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = inStream.read(buffer)) != -1) {
+                outStream.write(buffer, 0, count);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return new String(outStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
 }
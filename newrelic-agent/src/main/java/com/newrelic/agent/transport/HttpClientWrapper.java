@@ -9,6 +9,10 @@ package com.newrelic.agent.transport;
 
 import com.newrelic.agent.stats.StatsService;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URL;
 import java.util.Map;
 
@@ -36,6 +40,16 @@ public interface HttpClientWrapper {
         void requestEnded();
     }
 
+    /**
+     * A request body that is written to the connection as it is produced instead of being buffered up front.
+     */
+    interface RequestBody {
+        /**
+         * Writes the body. This may be called more than once if the request is retried.
+         */
+        void writeTo(OutputStream out) throws IOException;
+    }
+
     enum Verb {
         PUT,
         POST
@@ -69,7 +83,20 @@ public interface HttpClientWrapper {
             return this;
         }
 
+        /**
+         * Returns the request data. If the request has a streaming {@link #getBody() body} the body is written to a
+         * buffer, clients that can stream should write the body instead.
+         */
         public byte[] getData() {
+            if (data == null && body != null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                try {
+                    body.writeTo(out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return out.toByteArray();
+            }
             return data;
         }
 
@@ -78,6 +105,15 @@ public interface HttpClientWrapper {
             return this;
         }
 
+        public RequestBody getBody() {
+            return body;
+        }
+
+        public Request setBody(RequestBody body) {
+            this.body = body;
+            return this;
+        }
+
         public Map<String, String> getRequestMetadata() {
             return requestMetadata;
         }
@@ -91,6 +127,7 @@ public interface HttpClientWrapper {
         private Verb verb;
         private String encoding;
         private byte[] data;
+        private RequestBody body;
         private Map<String, String> requestMetadata;
     }
 }
@@ -0,0 +1,81 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.transport;
+
+import org.json.simple.JSONStreamAware;
+import org.json.simple.JSONValue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A collector request body. The JSON is serialized straight into the compressor for the content encoding and from
+ * there into the stream the body is written to, so the uncompressed document is never held in memory.
+ *
+ * The body can be written more than once, it is serialized again each time.
+ */
+final class JsonPayload implements HttpClientWrapper.RequestBody {
+
+    static final long NO_LIMIT = Long.MAX_VALUE;
+    private static final int COMPRESSION_LEVEL = Deflater.DEFAULT_COMPRESSION;
+
+    private final JSONStreamAware params;
+    private final String encoding;
+    private final long maxPayloadSizeInBytes;
+    private volatile long payloadSizeInBytes = -1;
+
+    /**
+     * @param maxPayloadSizeInBytes the largest encoded payload that may be written, or {@link #NO_LIMIT}. Writing a
+     * larger payload fails with a {@link PayloadSizeExceededException}.
+     */
+    JsonPayload(JSONStreamAware params, String encoding, long maxPayloadSizeInBytes) {
+        this.params = params;
+        this.encoding = encoding;
+        this.maxPayloadSizeInBytes = maxPayloadSizeInBytes;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        CountingOutputStream payloadStream = new CountingOutputStream(out, maxPayloadSizeInBytes);
+        Deflater deflater = null;
+        OutputStream encodedStream;
+        if (DataSenderImpl.DEFLATE_ENCODING.equals(encoding)) {
+            deflater = new Deflater(COMPRESSION_LEVEL);
+            encodedStream = new DeflaterOutputStream(payloadStream, deflater);
+        } else if (DataSenderImpl.GZIP_ENCODING.equals(encoding)) {
+            encodedStream = new GZIPOutputStream(payloadStream);
+        } else {
+            encodedStream = payloadStream;
+        }
+
+        // closing the writer finishes the compressed data, the counting stream keeps the target open
+        try (Writer writer = new OutputStreamWriter(encodedStream, StandardCharsets.UTF_8)) {
+            JSONValue.writeJSONString(params, writer);
+        } finally {
+            if (deflater != null) {
+                // a deflater passed in to DeflaterOutputStream isn't released when the stream is closed
+                deflater.end();
+            }
+        }
+        payloadSizeInBytes = payloadStream.getCount();
+    }
+
+    /**
+     * Returns the encoded size of the payload the last time it was written, or -1 if it hasn't been written.
+     */
+    long getPayloadSizeInBytes() {
+        return payloadSizeInBytes;
+    }
+
+}
@@ -0,0 +1,30 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.transport;
+
+/**
+ * Thrown while a streamed payload is being written once it grows past the max payload size. This is unchecked so that
+ * it passes through the http client without being treated as an I/O error that is worth retrying.
+ */
+final class PayloadSizeExceededException extends RuntimeException {
+
+    private final long payloadSizeInBytes;
+
+    PayloadSizeExceededException(long payloadSizeInBytes) {
+        super("Payload exceeded maximum size at " + payloadSizeInBytes + " bytes");
+        this.payloadSizeInBytes = payloadSizeInBytes;
+    }
+
+    /**
+     * Returns the number of bytes the payload had reached when it was stopped, the full payload is at least this big.
+     */
+    long getPayloadSizeInBytes() {
+        return payloadSizeInBytes;
+    }
+
+}
@@ -32,6 +32,7 @@ import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.DefaultHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.AbstractHttpEntity;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
@@ -44,9 +45,11 @@ import org.crac.Resource;
 
 import javax.net.ssl.SSLContext;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
@@ -202,7 +205,7 @@ public class ApacheHttpClientWrapper implements HttpClientWrapper, Resource {
         requestBuilder
                 .setUri(request.getURL().toURI())
                 .setHeader(new BasicHeader("CONTENT-ENCODING", request.getEncoding()))
-                .setEntity(new ByteArrayEntity(request.getData()));
+                .setEntity(createEntity(request));
 
         for (Map.Entry<String, String> entry : request.getRequestMetadata().entrySet()) {
             requestBuilder.addHeader(entry.getKey(), entry.getValue());
@@ -211,6 +214,13 @@ public class ApacheHttpClientWrapper implements HttpClientWrapper, Resource {
         return requestBuilder.build();
     }
 
+    private static HttpEntity createEntity(Request request) {
+        if (request.getBody() != null) {
+            return new RequestBodyEntity(request.getBody());
+        }
+        return new ByteArrayEntity(request.getData());
+    }
+
     private ReadResult mapResponseToResult(HttpResponse response) throws Exception {
         StatusLine statusLine = response.getStatusLine();
 
@@ -285,4 +295,42 @@ public class ApacheHttpClientWrapper implements HttpClientWrapper, Resource {
         httpClient = createHttpClient(defaultTimeoutInMillis);
     }
 
+    /**
+     * Writes a streaming request body straight to the connection. The length isn't known up front so the body is sent
+     * with chunked transfer encoding.
+     */
+    private static class RequestBodyEntity extends AbstractHttpEntity {
+        private final RequestBody body;
+
+        RequestBodyEntity(RequestBody body) {
+            this.body = body;
+            setChunked(true);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public long getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public InputStream getContent() {
+            return new ByteArrayInputStream(new Request().setBody(body).getData());
+        }
+
+        @Override
+        public void writeTo(OutputStream outStream) throws IOException {
+            body.writeTo(outStream);
+            outStream.flush();
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+    }
 }
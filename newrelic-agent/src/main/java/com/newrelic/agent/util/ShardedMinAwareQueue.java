@@ -0,0 +1,302 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.util;
+
+import com.google.common.collect.MinMaxPriorityQueue;
+import com.newrelic.agent.model.PriorityAware;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A bounded priority reservoir that spreads offers over several independently locked shards selected by thread id,
+ * so threads recording events at the same time rarely contend on the same monitor.
+ *
+ * A shared counter caps the number of elements retained across all shards at {@code maximumSize}. An offer that takes
+ * the count past the cap evicts the lowest element of all shards, so the reservoir is exactly the top
+ * {@code maximumSize} elements and memory stays near the reservoir size however the offers are spread over threads.
+ * Every evicted element is a lower bound for the reservoir as a whole, the highest of these bounds is published as the
+ * floor and anything that sorts below the floor is rejected without taking a lock.
+ *
+ * Iterating, {@link #toArray()} and {@link #size()} reflect the merged top {@code maximumSize} elements. {@link
+ * #peekLast()} returns an element that is no higher than the lowest element of the merged reservoir, so callers that
+ * use it to skip work will only ever skip work that could not have been kept.
+ *
+ * This class is thread-safe.
+ */
+public final class ShardedMinAwareQueue<E extends PriorityAware> extends AbstractQueue<E> implements MinAwareQueue<E> {
+
+    private static final int MAX_SHARDS = 64;
+
+    private final int maximumSize;
+    private final Comparator<E> comparator;
+    private final Shard<E>[] shards;
+    private final int shardMask;
+    private final AtomicReference<E> floor = new AtomicReference<>();
+    private final AtomicInteger retained = new AtomicInteger();
+
+    @SuppressWarnings("unchecked")
+    public ShardedMinAwareQueue(int reservoirSize, Comparator<E> comparator, int minShards) {
+        this.maximumSize = reservoirSize;
+        this.comparator = comparator;
+        int shardCount = 1;
+        while (shardCount < minShards && shardCount < MAX_SHARDS) {
+            shardCount <<= 1;
+        }
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard<>(reservoirSize, comparator);
+        }
+        shardMask = shardCount - 1;
+    }
+
+    int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Returns the number of elements held by all shards, which can briefly exceed the reservoir size while offers
+     * are evicting.
+     */
+    int getRetainedSize() {
+        return shardedSize();
+    }
+
+    @Override
+    public boolean add(E e) {
+        return offer(e);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        E currentFloor = floor.get();
+        if (currentFloor != null && comparator.compare(e, currentFloor) > 0) {
+            return false;
+        }
+
+        Shard<E> shard = shards[shardIndex(Thread.currentThread().getId())];
+        int added;
+        synchronized (shard) {
+            int before = shard.queue.size();
+            if (!shard.queue.offer(e)) {
+                return false;
+            }
+            shard.size = shard.queue.size();
+            // nothing is added when a full shard drops its own lowest element to make room
+            added = shard.size - before;
+        }
+        if (added > 0) {
+            retained.addAndGet(added);
+        }
+        while (retained.get() > maximumSize) {
+            E evicted = evictLowest();
+            if (evicted == null) {
+                break;
+            }
+            if (evicted == e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the lowest element of all shards and raises the floor to it.
+     *
+     * @return the evicted element, or null if the shards are empty
+     */
+    private E evictLowest() {
+        while (true) {
+            Shard<E> lowestShard = null;
+            E lowest = null;
+            for (Shard<E> shard : shards) {
+                E last;
+                synchronized (shard) {
+                    last = shard.queue.peekLast();
+                }
+                if (last != null && (lowest == null || comparator.compare(last, lowest) > 0)) {
+                    lowestShard = shard;
+                    lowest = last;
+                }
+            }
+            if (lowestShard == null) {
+                return null;
+            }
+            synchronized (lowestShard) {
+                if (lowestShard.queue.peekLast() != lowest) {
+                    continue;
+                }
+                lowestShard.queue.pollLast();
+                lowestShard.size = lowestShard.queue.size();
+            }
+            retained.decrementAndGet();
+            raiseFloor(lowest);
+            return lowest;
+        }
+    }
+
+    private void raiseFloor(E candidate) {
+        E current;
+        do {
+            current = floor.get();
+            if (current != null && comparator.compare(candidate, current) >= 0) {
+                return;
+            }
+        } while (!floor.compareAndSet(current, candidate));
+    }
+
+    @Override
+    public E poll() {
+        while (true) {
+            Shard<E> best = null;
+            E bestElement = null;
+            for (Shard<E> shard : shards) {
+                E head;
+                synchronized (shard) {
+                    head = shard.queue.peek();
+                }
+                if (head != null && (bestElement == null || comparator.compare(head, bestElement) < 0)) {
+                    best = shard;
+                    bestElement = head;
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            synchronized (best) {
+                if (best.queue.peek() == bestElement) {
+                    best.queue.poll();
+                    best.size = best.queue.size();
+                    retained.decrementAndGet();
+                    // the reservoir is no longer full, so nothing can be rejected until it overflows again
+                    floor.set(null);
+                    return bestElement;
+                }
+            }
+        }
+    }
+
+    @Override
+    public E peek() {
+        E bestElement = null;
+        for (Shard<E> shard : shards) {
+            E head;
+            synchronized (shard) {
+                head = shard.queue.peek();
+            }
+            if (head != null && (bestElement == null || comparator.compare(head, bestElement) < 0)) {
+                bestElement = head;
+            }
+        }
+        return bestElement;
+    }
+
+    @Override
+    public E peekLast() {
+        E currentFloor = floor.get();
+        if (currentFloor != null && retained.get() >= maximumSize) {
+            return currentFloor;
+        }
+        E lowest = null;
+        for (Shard<E> shard : shards) {
+            E last;
+            synchronized (shard) {
+                last = shard.queue.peekLast();
+            }
+            if (last != null && (lowest == null || comparator.compare(last, lowest) > 0)) {
+                lowest = last;
+            }
+        }
+        return lowest;
+    }
+
+    @Override
+    public int size() {
+        return Math.min(shardedSize(), maximumSize);
+    }
+
+    private int shardedSize() {
+        int size = 0;
+        for (Shard<E> shard : shards) {
+            size += shard.size;
+        }
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (Shard<E> shard : shards) {
+            synchronized (shard) {
+                retained.addAndGet(-shard.queue.size());
+                shard.queue.clear();
+                shard.size = 0;
+            }
+        }
+        floor.set(null);
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the merged reservoir. The iterator does not support removal.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return Collections.unmodifiableList(merge()).iterator();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return merge().toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return merge().toArray(a);
+    }
+
+    /**
+     * Merges the shards into the top {@code maximumSize} elements, highest first.
+     */
+    private List<E> merge() {
+        List<E> elements = new ArrayList<>(shardedSize());
+        for (Shard<E> shard : shards) {
+            synchronized (shard) {
+                elements.addAll(shard.queue);
+            }
+        }
+        elements.sort(comparator);
+        if (elements.size() > maximumSize) {
+            return new ArrayList<>(elements.subList(0, maximumSize));
+        }
+        return elements;
+    }
+
+    private int shardIndex(long threadId) {
+        // thread ids are usually sequential, spread them so neighbouring threads don't share a shard
+        int hash = (int) (threadId ^ (threadId >>> 32));
+        hash ^= (hash >>> 16);
+        hash *= 0x85ebca6b;
+        hash ^= (hash >>> 13);
+        return hash & shardMask;
+    }
+
+    private static final class Shard<E> {
+        final MinMaxPriorityQueue<E> queue;
+        volatile int size = 0;
+
+        Shard(int reservoirSize, Comparator<E> comparator) {
+            this.queue = MinMaxPriorityQueue.orderedBy(comparator).maximumSize(reservoirSize).create();
+        }
+    }
+
+}
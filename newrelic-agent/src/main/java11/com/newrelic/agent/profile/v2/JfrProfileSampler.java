@@ -0,0 +1,266 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.profile.v2;
+
+import com.newrelic.agent.Agent;
+import com.newrelic.agent.profile.ProfilerParameters;
+import com.newrelic.agent.service.ServiceFactory;
+import com.newrelic.agent.threads.BasicThreadInfo;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Samples stack traces from the JFR {@code jdk.ExecutionSample} and {@code jdk.NativeMethodSample} events. JFR
+ * samples threads asynchronously, without bringing them to a safepoint, so the samples are not biased towards
+ * safepoint polls and sampling doesn't pause the application.
+ * <p>
+ * The events are read from the recording every {@link #DRAIN_PERIOD_MILLIS}, and once more when the session stops, by
+ * starting a new recording, and then stopping and reading the previous one. Only events from before the new recording
+ * was started are read from the previous recording, so each event is added once. This works on Java 11, which doesn't
+ * have event streaming.
+ * <p>
+ * JFR samples a few running threads each sample period rather than every thread, so each sample period is counted as
+ * a sample of the profile. JFR samples at the shortest period that any recording asks for, so another recording can
+ * make it sample more often than the profiler asked. The period is therefore taken from the times of the execution
+ * samples, see {@link #observedSamplePeriodNanos(long[])}. Stack traces are limited to the JFR stack depth, which is 64
+ * frames unless it is configured with {@code -XX:FlightRecorderOptions:stackdepth}.
+ * <p>
+ * This class is loaded by {@link ProfileSampler#create(ProfilerParameters)} and is only called from the profiler
+ * thread.
+ */
+public class JfrProfileSampler extends ProfileSampler {
+
+    static final long DRAIN_PERIOD_MILLIS = 10_000L;
+
+    // the shortest period JFR samples at
+    private static final long MIN_SAMPLE_PERIOD_MILLIS = 10L;
+
+    // the threads JFR samples in one period are sampled one after the other, within this time of each other
+    private static final long SAMPLE_ROUND_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    private static final String NATIVE_METHOD_SAMPLE = "jdk.NativeMethodSample";
+    private static final String RECORDING_NAME = "New Relic Thread Profiler";
+
+    // line number used by StackTraceElement for native methods
+    private static final int NATIVE_METHOD_LINE_NUMBER = -2;
+
+    private Duration samplePeriod;
+    private Recording recording;
+    private Instant windowStart;
+    private long observedSamplePeriodNanos;
+    private long uncountedSampleNanos;
+
+    public JfrProfileSampler() {
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("JFR is not available");
+        }
+    }
+
+    @Override
+    protected void start(ProfilerParameters parameters) {
+        samplePeriod = Duration.ofMillis(Math.max(MIN_SAMPLE_PERIOD_MILLIS, parameters.getSamplePeriodInMillis()));
+        observedSamplePeriodNanos = samplePeriod.toNanos();
+        windowStart = Instant.now();
+        recording = startRecording();
+    }
+
+    @Override
+    public long getSampleTaskPeriodInMillis(long samplePeriodInMillis) {
+        return Math.max(samplePeriodInMillis, DRAIN_PERIOD_MILLIS);
+    }
+
+    @Override
+    public void sampleStackTraces(List<IProfile> profiles) {
+        Recording previous = recording;
+        if (previous == null || Duration.between(windowStart, Instant.now()).compareTo(samplePeriod) < 0) {
+            return;
+        }
+        recording = startRecording();
+        readEvents(previous, profiles, Instant.now());
+    }
+
+    @Override
+    public void stop(List<IProfile> profiles) {
+        Recording previous = recording;
+        if (previous == null) {
+            return;
+        }
+        recording = null;
+        readEvents(previous, profiles, Instant.now());
+    }
+
+    private Recording startRecording() {
+        Recording newRecording = new Recording();
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setToDisk(true);
+        newRecording.enable(EXECUTION_SAMPLE).withPeriod(samplePeriod).withStackTrace();
+        newRecording.enable(NATIVE_METHOD_SAMPLE).withPeriod(samplePeriod).withStackTrace();
+        newRecording.start();
+        return newRecording;
+    }
+
+    /**
+     * Stops the recording and adds the samples taken from the start of the current window up to windowEnd.
+     */
+    private void readEvents(Recording finished, List<IProfile> profiles, Instant windowEnd) {
+        Path file = null;
+        try {
+            finished.stop();
+            file = Files.createTempFile("nr-profiler-", ".jfr");
+            finished.dump(file);
+            Set<Long> agentThreadIds = ServiceFactory.getThreadService().getAgentThreadIds();
+            long[] executionSampleTimes = addEvents(file, profiles, windowStart, windowEnd, agentThreadIds);
+            countSamples(profiles, Duration.between(windowStart, windowEnd), executionSampleTimes);
+        } catch (IOException | RuntimeException e) {
+            Agent.LOG.log(Level.FINER, e, "An error occurred reading the JFR thread samples");
+        } finally {
+            windowStart = windowEnd;
+            finished.close();
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    Agent.LOG.log(Level.FINEST, e, "Unable to delete {0}", file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the samples in the recording file that were taken from windowStart up to, but not including, windowEnd. The
+     * next window starts where this one ends, so a sample that is in two recordings is only added once.
+     *
+     * @return the times of the execution samples that were added, in nanoseconds since the epoch
+     */
+    long[] addEvents(Path file, List<IProfile> profiles, Instant windowStart, Instant windowEnd,
+            Set<Long> agentThreadIds) throws IOException {
+        long[] executionSampleTimes = new long[64];
+        int executionSamples = 0;
+        try (RecordingFile recordingFile = new RecordingFile(file)) {
+            while (recordingFile.hasMoreEvents()) {
+                RecordedEvent event = recordingFile.readEvent();
+                Instant startTime = event.getStartTime();
+                if (!isInWindow(startTime, windowStart, windowEnd) || !addEvent(event, profiles, agentThreadIds)) {
+                    continue;
+                }
+                if (EXECUTION_SAMPLE.equals(event.getEventType().getName())) {
+                    if (executionSamples == executionSampleTimes.length) {
+                        executionSampleTimes = Arrays.copyOf(executionSampleTimes, executionSamples * 2);
+                    }
+                    executionSampleTimes[executionSamples++] = toEpochNanos(startTime);
+                }
+            }
+        }
+        return Arrays.copyOf(executionSampleTimes, executionSamples);
+    }
+
+    static boolean isInWindow(Instant time, Instant windowStart, Instant windowEnd) {
+        return !time.isBefore(windowStart) && time.isBefore(windowEnd);
+    }
+
+    private static long toEpochNanos(Instant time) {
+        return TimeUnit.SECONDS.toNanos(time.getEpochSecond()) + time.getNano();
+    }
+
+    /**
+     * Counts a sample of the profiles for every sample period in the window, using the period JFR sampled at. If the
+     * window doesn't show the period the last one that was seen is used.
+     *
+     * @return the number of samples counted
+     */
+    long countSamples(List<IProfile> profiles, Duration window, long[] executionSampleTimes) {
+        long periodNanos = observedSamplePeriodNanos(executionSampleTimes);
+        if (periodNanos > 0) {
+            observedSamplePeriodNanos = Math.min(periodNanos, samplePeriod.toNanos());
+        }
+        long sampleNanos = uncountedSampleNanos + Math.max(0L, window.toNanos());
+        long samples = sampleNanos / observedSamplePeriodNanos;
+        uncountedSampleNanos = sampleNanos % observedSamplePeriodNanos;
+        for (IProfile profile : profiles) {
+            for (long i = 0; i < samples; i++) {
+                profile.beforeSampling();
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * Returns the period of the execution samples. JFR samples the threads of a period one after the other, and the
+     * next period's threads a period later, so the period is the shortest time between the starts of two sampling
+     * rounds. Periods in which no thread was running only make the time between rounds longer.
+     *
+     * @param sampleTimes the times of the execution samples in nanoseconds, in any order
+     * @return the period in nanoseconds, or 0 if the samples are from fewer than two rounds
+     */
+    static long observedSamplePeriodNanos(long[] sampleTimes) {
+        long[] times = sampleTimes.clone();
+        Arrays.sort(times);
+        long periodNanos = Long.MAX_VALUE;
+        for (int i = 1, roundStart = 0; i < times.length; i++) {
+            if (times[i] - times[i - 1] >= SAMPLE_ROUND_NANOS) {
+                periodNanos = Math.min(periodNanos, times[i] - times[roundStart]);
+                roundStart = i;
+            }
+        }
+        return periodNanos == Long.MAX_VALUE ? 0 : periodNanos;
+    }
+
+    /**
+     * @return true if the event had a stack trace for a Java thread
+     */
+    private boolean addEvent(RecordedEvent event, List<IProfile> profiles, Set<Long> agentThreadIds) {
+        RecordedThread thread = event.getThread("sampledThread");
+        RecordedStackTrace recordedStackTrace = event.getStackTrace();
+        if (thread == null || thread.getJavaThreadId() < 0 || recordedStackTrace == null) {
+            return false;
+        }
+        boolean nativeSample = NATIVE_METHOD_SAMPLE.equals(event.getEventType().getName());
+        StackTraceElement[] stackTrace = toStackTrace(recordedStackTrace.getFrames(), nativeSample);
+        BasicThreadInfo threadInfo = new BasicThreadInfo(thread.getJavaThreadId(), thread.getJavaName());
+        for (IProfile profile : profiles) {
+            addRunningStackTrace(profile, threadInfo, stackTrace, agentThreadIds);
+        }
+        return true;
+    }
+
+    /**
+     * Converts the frames, which start with the leaf frame like a thread dump, to stack trace elements. The leaf frame
+     * of a native method sample is the native method.
+     */
+    static StackTraceElement[] toStackTrace(List<RecordedFrame> frames, boolean nativeSample) {
+        int depth = Math.min(frames.size(), MAX_STACK_DEPTH);
+        StackTraceElement[] stackTrace = new StackTraceElement[depth];
+        for (int i = 0; i < depth; i++) {
+            RecordedFrame frame = frames.get(i);
+            RecordedMethod method = frame.getMethod();
+            boolean nativeFrame = (nativeSample && i == 0) || "Native".equals(frame.getType());
+            stackTrace[i] = new StackTraceElement(method.getType().getName(), method.getName(), null,
+                    nativeFrame ? NATIVE_METHOD_LINE_NUMBER : frame.getLineNumber());
+        }
+        return stackTrace;
+    }
+
+}
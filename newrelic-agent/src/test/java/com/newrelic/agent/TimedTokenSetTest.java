@@ -8,12 +8,14 @@
 package com.newrelic.agent;
 
 import com.newrelic.agent.bridge.AgentBridge;
+import com.newrelic.agent.model.TimeoutCause;
 import com.newrelic.agent.util.Caffeine2CollectionFactory;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -169,6 +171,49 @@ public class TimedTokenSetTest {
         assertTrue("Token should be removable after re-adding", timedTokenSet.remove(token));
     }
 
+    @Test
+    public void testTimeOut() {
+        AtomicLong clock = new AtomicLong(10_000L);
+        TokenTimeoutWheel wheel = new TokenTimeoutWheel(clock::get, 1);
+        timedTokenSet = new TimedTokenSet(1, TimeUnit.SECONDS, mockExpirationService, wheel);
+
+        TokenImpl token = createMockToken();
+        TokenImpl refreshedToken = createMockToken();
+        timedTokenSet.put(token);
+        timedTokenSet.put(refreshedToken);
+
+        clock.addAndGet(600L);
+        timedTokenSet.refresh(refreshedToken);
+        clock.addAndGet(400L);
+        timedTokenSet.cleanUp();
+
+        assertEquals("Token should time out after the time out period", 1, timedTokenSet.timedOutCount());
+        verify(token).setTruncated();
+        verify(token.getTransaction().getTransactionIfExists()).setTimeoutCause(TimeoutCause.TOKEN);
+        assertFalse("Timed out token should be removed", timedTokenSet.getTokens().contains(token));
+        assertTrue("Refreshed token should not time out", timedTokenSet.getTokens().contains(refreshedToken));
+
+        clock.addAndGet(600L);
+        timedTokenSet.cleanUp();
+        assertEquals("Refreshed token should time out after the time out period", 2, timedTokenSet.timedOutCount());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testTransferToken() {
+        timedTokenSet = new TimedTokenSet(60, TimeUnit.SECONDS, mockExpirationService);
+        TimedTokenSet target = new TimedTokenSet(60, TimeUnit.SECONDS, mockExpirationService);
+
+        // a real token, because the transfer flag isn't set on a mock
+        TokenImpl token = new TokenImpl(null);
+        timedTokenSet.put(token);
+        timedTokenSet.transferToken(token, target);
+
+        assertFalse("Transferred token should be removed from the source", timedTokenSet.remove(token));
+        assertTrue("Transferred token should be in the target", target.getTokens().contains(token));
+        assertTrue("Transferred token should be removable from the target", target.remove(token));
+    }
+
     /**
      * Helper method to create a mock token with basic setup
      */
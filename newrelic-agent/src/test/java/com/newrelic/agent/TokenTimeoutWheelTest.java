@@ -0,0 +1,142 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TokenTimeoutWheelTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private final List<TestTimeout> fired = new ArrayList<>();
+    private final TokenTimeoutWheel wheel = new TokenTimeoutWheel(clock::get, 4);
+
+    @Test
+    public void firesOnceTheDeadlineHasPassed() {
+        TestTimeout timeout = schedule(250L);
+
+        advance(249L);
+        Assert.assertTrue(fired.isEmpty());
+        Assert.assertEquals(1, wheel.size());
+
+        advance(1L);
+        Assert.assertEquals(1, fired.size());
+        Assert.assertSame(timeout, fired.get(0));
+        Assert.assertEquals(0, wheel.size());
+
+        advance(10_000L);
+        Assert.assertEquals(1, fired.size());
+    }
+
+    @Test
+    public void cancelledTimeoutDoesNotFire() {
+        TestTimeout timeout = schedule(500L);
+        Assert.assertTrue(wheel.cancel(timeout));
+        Assert.assertFalse(wheel.cancel(timeout));
+
+        advance(1_000L);
+        Assert.assertTrue(fired.isEmpty());
+        Assert.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void refreshMovesTheDeadline() {
+        TestTimeout timeout = schedule(1_000L);
+        advance(900L);
+        timeout.refresh(clock.get() + 1_000L);
+
+        advance(999L);
+        Assert.assertTrue(fired.isEmpty());
+
+        advance(1L);
+        Assert.assertEquals(1, fired.size());
+    }
+
+    @Test
+    public void longDeadlinesCascadeThroughTheLevels() {
+        // 180 seconds is the default token time out, and a day is beyond the lower levels
+        TestTimeout threeMinutes = schedule(180_000L);
+        TestTimeout oneDay = schedule(86_400_000L);
+
+        advance(179_999L);
+        Assert.assertTrue(fired.isEmpty());
+        advance(1L);
+        Assert.assertEquals(1, fired.size());
+        Assert.assertSame(threeMinutes, fired.get(0));
+
+        advance(86_400_000L - 180_001L);
+        Assert.assertEquals(1, fired.size());
+        advance(1L);
+        Assert.assertEquals(2, fired.size());
+        Assert.assertSame(oneDay, fired.get(1));
+    }
+
+    @Test
+    public void randomDeadlinesFireInOrder() {
+        Random random = new Random(7);
+        List<TestTimeout> timeouts = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            long delay = random.nextInt(4) == 0 ? random.nextInt(50_000_000) : random.nextInt(400_000);
+            timeouts.add(schedule(delay));
+        }
+        for (int i = 0; i < 200; i++) {
+            wheel.cancel(timeouts.get(random.nextInt(timeouts.size())));
+        }
+
+        long end = clock.get() + 50_000_000L;
+        while (clock.get() < end) {
+            advance(1 + random.nextInt(60_000));
+            for (TestTimeout timeout : fired) {
+                Assert.assertTrue(timeout.deadline <= timeout.firedAt);
+                // fired by the first call after the deadline
+                Assert.assertTrue(timeout.firedAt - timeout.deadline <= 60_000L);
+            }
+        }
+        Assert.assertEquals(0, wheel.size());
+        for (TestTimeout timeout : timeouts) {
+            Assert.assertTrue(timeout.firedAt == 0 || fired.contains(timeout));
+        }
+        Assert.assertEquals(timeouts.size() - fired.size(), countCancelled(timeouts));
+    }
+
+    private long countCancelled(List<TestTimeout> timeouts) {
+        return timeouts.stream().filter(timeout -> timeout.firedAt == 0).count();
+    }
+
+    private TestTimeout schedule(long delay) {
+        TestTimeout timeout = new TestTimeout(clock.get() + delay);
+        wheel.schedule(timeout, timeout.deadline);
+        return timeout;
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(millis);
+        wheel.expireTimeouts();
+    }
+
+    private final class TestTimeout extends TokenTimeoutWheel.Timeout {
+        final long deadline;
+        long firedAt;
+
+        TestTimeout(long deadline) {
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected void expired() {
+            firedAt = clock.get();
+            fired.add(this);
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent;
+
+import com.newrelic.agent.service.ServiceFactory;
+import com.newrelic.agent.stats.TransactionStats;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TransactionFinishPipelineTest {
+
+    @Before
+    public void before() {
+        // the worker threads register with the thread service
+        ServiceFactory.setServiceManager(new MockServiceManager());
+    }
+
+    @After
+    public void after() {
+        ServiceFactory.setServiceManager(null);
+    }
+
+    @Test
+    public void processesOnWorkerThreads() throws Exception {
+        final List<TransactionData> processed = new CopyOnWriteArrayList<>();
+        final List<Thread> threads = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(100);
+        TransactionFinishPipeline pipeline = new TransactionFinishPipeline(2, 1000, 16, (transactionData, transactionStats) -> {
+            processed.add(transactionData);
+            threads.add(Thread.currentThread());
+            done.countDown();
+        });
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(pipeline.offer(Mockito.mock(TransactionData.class), new TransactionStats()));
+        }
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        pipeline.shutdown(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(100, processed.size());
+        Assert.assertFalse(threads.contains(Thread.currentThread()));
+        Assert.assertEquals(0, pipeline.getAndResetDroppedCount());
+    }
+
+    @Test
+    public void dropsWhenFull() throws Exception {
+        final CountDownLatch processing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        TransactionFinishPipeline pipeline = new TransactionFinishPipeline(1, 2, 1, (transactionData, transactionStats) -> {
+            processing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // the worker takes the first transaction and blocks, two more fill the queue
+        Assert.assertTrue(pipeline.offer(Mockito.mock(TransactionData.class), new TransactionStats()));
+        Assert.assertTrue(processing.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(pipeline.offer(Mockito.mock(TransactionData.class), new TransactionStats()));
+        Assert.assertTrue(pipeline.offer(Mockito.mock(TransactionData.class), new TransactionStats()));
+
+        Assert.assertFalse(pipeline.offer(Mockito.mock(TransactionData.class), new TransactionStats()));
+        Assert.assertFalse(pipeline.offer(Mockito.mock(TransactionData.class), new TransactionStats()));
+        Assert.assertEquals(2, pipeline.getQueueSize());
+        Assert.assertEquals(2, pipeline.getAndResetDroppedCount());
+        Assert.assertEquals(0, pipeline.getAndResetDroppedCount());
+
+        release.countDown();
+        pipeline.shutdown(10, TimeUnit.SECONDS);
+        Assert.assertEquals(0, pipeline.getQueueSize());
+    }
+
+    @Test
+    public void shutdownProcessesQueuedTransactions() {
+        final List<TransactionData> processed = new CopyOnWriteArrayList<>();
+        TransactionFinishPipeline pipeline = new TransactionFinishPipeline(1, 1000, 8,
+                (transactionData, transactionStats) -> processed.add(transactionData));
+        for (int i = 0; i < 500; i++) {
+            pipeline.offer(Mockito.mock(TransactionData.class), new TransactionStats());
+        }
+        pipeline.shutdown(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(500, processed.size());
+        Assert.assertFalse(pipeline.offer(Mockito.mock(TransactionData.class), new TransactionStats()));
+    }
+
+}
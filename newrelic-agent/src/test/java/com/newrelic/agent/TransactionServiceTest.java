@@ -40,6 +40,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
@@ -191,6 +195,112 @@ public class TransactionServiceTest {
         assertEquals(tracer.getTransactionActivity().getTransaction(), finishedTransactionExtended.get());
     }
 
+    @Test
+    public void testAsyncDispatcherTransactionFinished() throws Exception {
+        ServiceFactory.getServiceManager().stop();
+        Map<String, Object> asyncMap = createMap();
+        asyncMap.put("enabled", true);
+        Map<String, Object> transactionFinishMap = createMap();
+        transactionFinishMap.put("async", asyncMap);
+        Map<String, Object> configMap = createConfigMap();
+        configMap.put("transaction_finish", transactionFinishMap);
+        createServiceManager(configMap);
+
+        final CountDownLatch finished = new CountDownLatch(1);
+        final AtomicReference<Transaction> finishedTransaction = new AtomicReference<>(null);
+        final AtomicReference<Thread> listenerThread = new AtomicReference<>(null);
+        ServiceFactory.getTransactionService().addTransactionListener(new TransactionListener() {
+            @Override
+            public void dispatcherTransactionFinished(TransactionData transactionData, TransactionStats transactionStats) {
+                finishedTransaction.set(transactionData.getTransaction());
+                listenerThread.set(Thread.currentThread());
+                finished.countDown();
+            }
+        });
+
+        Transaction.clearTransaction();
+        Tracer rootTracer = makeTransaction();
+        Transaction tx = rootTracer.getTransactionActivity().getTransaction();
+        rootTracer.finish(Opcodes.RETURN, 0);
+
+        Assert.assertTrue(tx.isFinished());
+        Assert.assertTrue(finished.await(10, TimeUnit.SECONDS));
+        assertEquals(tx, finishedTransaction.get());
+        Assert.assertNotSame(Thread.currentThread(), listenerThread.get());
+        assertEquals(0, ServiceFactory.getTransactionService().getTransactionsInProgress());
+    }
+
+    @Test
+    public void testAsyncDroppedTransactionReleasesListenerState() throws Exception {
+        ServiceFactory.getServiceManager().stop();
+        Map<String, Object> asyncMap = createMap();
+        asyncMap.put("enabled", true);
+        asyncMap.put("worker_threads", 1);
+        asyncMap.put("queue_size", 1);
+        asyncMap.put("batch_size", 1);
+        Map<String, Object> transactionFinishMap = createMap();
+        transactionFinishMap.put("async", asyncMap);
+        Map<String, Object> configMap = createConfigMap();
+        configMap.put("transaction_finish", transactionFinishMap);
+        createServiceManager(configMap);
+
+        final CountDownLatch workerBlocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Map<Transaction, Thread> openTransactions = new ConcurrentHashMap<>();
+        final List<Transaction> cancelledTransactions = new CopyOnWriteArrayList<>();
+        final List<Transaction> finishedTransactions = new CopyOnWriteArrayList<>();
+        ServiceFactory.getTransactionService().addTransactionListener(new ExtendedTransactionListener() {
+            @Override
+            public void dispatcherTransactionStarted(Transaction transaction) {
+                openTransactions.put(transaction, Thread.currentThread());
+            }
+
+            @Override
+            public void dispatcherTransactionFinishing(TransactionData transactionData) {
+                // state that belongs to the finishing thread is released before the transaction is queued
+                openTransactions.remove(transactionData.getTransaction(), Thread.currentThread());
+            }
+
+            @Override
+            public void dispatcherTransactionCancelled(Transaction transaction) {
+                cancelledTransactions.add(transaction);
+            }
+
+            @Override
+            public void dispatcherTransactionFinished(TransactionData transactionData, TransactionStats transactionStats) {
+                workerBlocked.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                finishedTransactions.add(transactionData.getTransaction());
+            }
+        });
+
+        // the first transaction blocks the worker, the second fills the queue and the third is dropped
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Transaction.clearTransaction();
+            Tracer rootTracer = makeTransaction();
+            transactions.add(rootTracer.getTransactionActivity().getTransaction());
+            rootTracer.finish(Opcodes.RETURN, 0);
+            if (i == 0) {
+                Assert.assertTrue(workerBlocked.await(10, TimeUnit.SECONDS));
+            }
+        }
+        Transaction.clearTransaction();
+
+        Assert.assertTrue(openTransactions.isEmpty());
+        assertEquals(1, cancelledTransactions.size());
+        assertEquals(transactions.get(2), cancelledTransactions.get(0));
+
+        release.countDown();
+        ServiceFactory.getTransactionService().stop();
+        assertEquals(transactions.subList(0, 2), finishedTransactions);
+        assertEquals(0, ServiceFactory.getTransactionService().getTransactionsInProgress());
+    }
+
     @Test
     public void testRandomnessPriority() throws InterruptedException {
         final List<TransactionEvent> events = new ArrayList<>();
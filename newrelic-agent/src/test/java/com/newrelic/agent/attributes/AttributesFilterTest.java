@@ -724,4 +724,30 @@ public class AttributesFilterTest {
         Assert.assertEquals(filteredSpanAttributes.get("http.method"), "GET");
     }
 
+    @Test
+    public void testFilterReturnsIncludedValues() {
+        AgentConfig config = getConfig(true, Collections.<String>emptySet(), Sets.newHashSet("secret"));
+        AttributesFilter filter = new AttributesFilter(config);
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("one", "two");
+        values.put("three", "four");
+
+        // every key is included, and the decisions are cached for the second call
+        for (int i = 0; i < 2; i++) {
+            Map<String, ?> actual = filter.filterTransactionEventAttributes(values);
+            Assert.assertEquals(values, actual);
+        }
+
+        values.put("secret", "five");
+        Map<String, ?> actual = filter.filterTransactionEventAttributes(values);
+        Assert.assertEquals(2, actual.size());
+        Assert.assertEquals("two", actual.get("one"));
+        Assert.assertEquals("four", actual.get("three"));
+        Assert.assertFalse(actual.containsKey("secret"));
+
+        values.remove("one");
+        values.remove("three");
+        Assert.assertTrue(filter.filterTransactionEventAttributes(values).isEmpty());
+    }
 }
@@ -19,6 +19,8 @@ import java.util.Map;
 import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class InfiniteTracingSpanEventsConfigTest {
     private Map<String, Object> localProps;
@@ -46,6 +48,25 @@ public class InfiniteTracingSpanEventsConfigTest {
         assertEquals(InfiniteTracingSpanEventsConfig.DEFAULT_SPAN_EVENTS_QUEUE_SIZE, config.getQueueSize());
     }
 
+    @Test
+    public void testRingBufferShouldBeDefault() {
+        InfiniteTracingSpanEventsConfig config = new InfiniteTracingSpanEventsConfig(localProps, "parent_root.");
+        assertFalse(config.isRingBuffer());
+    }
+
+    @Test
+    public void testRingBufferFromProps() {
+        Properties properties = new Properties();
+        properties.put("parent_root.span_events.ring_buffer", "true");
+        SystemPropertyFactory.setSystemPropertyProvider(new SystemPropertyProvider(
+                new SaveSystemPropertyProviderRule.TestSystemProps(properties),
+                new SaveSystemPropertyProviderRule.TestEnvironmentFacade()
+        ));
+
+        InfiniteTracingSpanEventsConfig config = new InfiniteTracingSpanEventsConfig(Collections.<String, Object>emptyMap(), "parent_root.");
+        assertTrue(config.isRingBuffer());
+    }
+
     @Test
     public void usesParentRootForNestedConfig() {
         SystemPropertyFactory.setSystemPropertyProvider(new SystemPropertyProvider(
@@ -57,6 +57,43 @@ public class CachingDatabaseStatementParserTest {
         verify(mockParser, times(1)).getParsedDatabaseStatement(any(), eq("sql"), any());
     }
 
+    @Test
+    public void getParsedDatabaseStatement_differentVendorsCacheSeparately() {
+        DatabaseStatementParser mockParser = mock(DatabaseStatementParser.class);
+        CachingDatabaseStatementParser cache = new CachingDatabaseStatementParser(mockParser);
+        DatabaseVendor mysql = mock(DatabaseVendor.class);
+        when(mysql.getName()).thenReturn("MySQL");
+        DatabaseVendor postgres = mock(DatabaseVendor.class);
+        when(postgres.getName()).thenReturn("PostgreSQL");
+        ParsedDatabaseStatement mysqlStatement = new ParsedDatabaseStatement(mysql, "vendors", "select", true);
+        ParsedDatabaseStatement postgresStatement = new ParsedDatabaseStatement(postgres, "vendors", "select", true);
+        when(mockParser.getParsedDatabaseStatement(eq(mysql), any(), any())).thenReturn(mysqlStatement);
+        when(mockParser.getParsedDatabaseStatement(eq(postgres), any(), any())).thenReturn(postgresStatement);
+
+        assertSame(mysqlStatement, cache.getParsedDatabaseStatement(mysql, "SELECT * FROM vendors WHERE id = 1", null));
+        assertSame(postgresStatement, cache.getParsedDatabaseStatement(postgres, "SELECT * FROM vendors WHERE id = 1", null));
+        assertSame(mysqlStatement, cache.getParsedDatabaseStatement(mysql, "SELECT * FROM vendors WHERE id = 2", null));
+    }
+
+    @Test
+    public void getParsedDatabaseStatement_differentResultSetTablesCacheSeparately() throws Exception {
+        DatabaseStatementParser mockParser = mock(DatabaseStatementParser.class);
+        CachingDatabaseStatementParser cache = new CachingDatabaseStatementParser(mockParser);
+        ResultSetMetaData usersMetaData = mock(ResultSetMetaData.class);
+        when(usersMetaData.getColumnCount()).thenReturn(1);
+        when(usersMetaData.getTableName(1)).thenReturn("users_by_metadata");
+        ResultSetMetaData ordersMetaData = mock(ResultSetMetaData.class);
+        when(ordersMetaData.getColumnCount()).thenReturn(1);
+        when(ordersMetaData.getTableName(1)).thenReturn("orders_by_metadata");
+        ParsedDatabaseStatement users = new ParsedDatabaseStatement("users_by_metadata", "select", true);
+        ParsedDatabaseStatement orders = new ParsedDatabaseStatement("orders_by_metadata", "select", true);
+        when(mockParser.getParsedDatabaseStatement(any(), any(), eq(usersMetaData))).thenReturn(users);
+        when(mockParser.getParsedDatabaseStatement(any(), any(), eq(ordersMetaData))).thenReturn(orders);
+
+        assertSame(users, cache.getParsedDatabaseStatement(null, "CALL find_by_metadata(1)", usersMetaData));
+        assertSame(orders, cache.getParsedDatabaseStatement(null, "CALL find_by_metadata(1)", ordersMetaData));
+    }
+
     @Test
     public void getParsedDatabaseStatement_withNullStatement_returnsUnparseableStatementInstance() {
         DatabaseStatementParser mockParser = mock(DatabaseStatementParser.class);
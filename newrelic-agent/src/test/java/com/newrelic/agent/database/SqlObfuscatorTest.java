@@ -15,6 +15,7 @@ import org.junit.Test;
 import java.io.File;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
@@ -258,6 +259,17 @@ public class SqlObfuscatorTest {
         assertSame(cachingSqlObfuscator.obfuscateSql(sql), (cachingSqlObfuscator.obfuscateSql(sql)));
     }
 
+    @Test
+    public void testCachingSqlObfuscatorIgnoresLiterals() {
+        SqlObfuscator cachingSqlObfuscator = SqlObfuscator.getCachingSqlObfuscator(SqlObfuscator.getDefaultSqlObfuscator());
+
+        String obfuscatedSql = cachingSqlObfuscator.obfuscateSql("select * from employees where id = 1 and name = 'dude'");
+        assertEquals("select * from employees where id = ? and name = ?", obfuscatedSql);
+        assertSame(obfuscatedSql, cachingSqlObfuscator.obfuscateSql("select * from employees where id = 2 and name = 'bro'"));
+        assertEquals("select * from employees where id = ? and name = ?",
+                cachingSqlObfuscator.obfuscateSql("select * from employees where id = 3 and name = 'bro'", "mysql"));
+    }
+
     @Test
     public void noSql() {
         Assert.assertNull(SqlObfuscator.getNoSqlObfuscator().obfuscateSql("select test from dude where id = 3"));
@@ -275,4 +287,39 @@ public class SqlObfuscatorTest {
         String actualSql = sqlObfuscator.obfuscateSql(rawSql);
         Assert.assertNotNull(actualSql);
     }
+
+    @Test
+    public void lexingSqlObfuscator() {
+        SqlObfuscator obfuscator = SqlObfuscator.getDefaultSqlObfuscator(SqlObfuscator.LEXER_ENGINE);
+        Assert.assertTrue(obfuscator.isObfuscating());
+        assertEquals(null, obfuscator.obfuscateSql(null));
+        assertEquals("select * from employees where id = ? and name = ?",
+                obfuscator.obfuscateSql("select * from employees where id = -12.5e3 and name = 'o''dude'"));
+        assertEquals("select ? from dual where x = ?", obfuscator.obfuscateSql("select q'[it's]' from dual where x = 42", "oracle"));
+        assertEquals("select ? from t where id = $?", obfuscator.obfuscateSql("select $tag$ dude $tag$ from t where id = $1", "postgres"));
+        assertEquals("?", obfuscator.obfuscateSql("select * from t where name = 'unterminated", "mysql"));
+    }
+
+    @Test
+    public void lexingSqlObfuscatorMatchesRegex() {
+        SqlObfuscator regex = SqlObfuscator.getDefaultSqlObfuscator(SqlObfuscator.REGEX_ENGINE);
+        SqlObfuscator lexer = SqlObfuscator.getDefaultSqlObfuscator(SqlObfuscator.LEXER_ENGINE);
+        String[] fragments = { "select * from t where x = ", "'", "''", "\\'", "\"", "$", "$tag$", "$TAG$", "q'[", "]'",
+                "q'<", ">'", "#", "--", "/*", "*/", "\n", " ", "0x1F", "-1.5e-3", "12_34", "true", "NULL", "False",
+                "deadbeefdeadbeefdeadbeefdeadbeef", "{", "}", "-", "a", "_", "e", "." };
+        String[] dialects = { "mysql", "postgresql", "oracle", "mssql" };
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder sql = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                sql.append(fragments[random.nextInt(fragments.length)]);
+            }
+            String raw = sql.toString();
+            assertEquals(raw, regex.obfuscateSql(raw), lexer.obfuscateSql(raw));
+            for (String dialect : dialects) {
+                assertEquals(dialect + ": " + raw, regex.obfuscateSql(raw, dialect), lexer.obfuscateSql(raw, dialect));
+            }
+        }
+    }
 }
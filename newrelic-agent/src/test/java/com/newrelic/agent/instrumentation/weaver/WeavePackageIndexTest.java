@@ -0,0 +1,103 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.instrumentation.weaver;
+
+import com.newrelic.weave.weavepackage.CachedWeavePackage;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+
+public class WeavePackageIndexTest {
+
+    private static final String JAR_NAME = "instrumentation/servlet-2.4-1.0.jar";
+
+    private File directory;
+    private File indexFile;
+
+    @Before
+    public void before() throws Exception {
+        directory = Files.createTempDirectory("weave-package-index").toFile();
+        indexFile = new File(directory, "weave-package-index-internal.bin");
+    }
+
+    @After
+    public void after() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void roundTrip() {
+        WeavePackageIndex index = WeavePackageIndex.open(indexFile, "key");
+        Assert.assertEquals(0, index.size());
+        Assert.assertNull(index.getManifest(JAR_NAME));
+
+        index.putManifest(JAR_NAME, createManifest());
+        Assert.assertTrue(index.isModified());
+        index.save();
+        Assert.assertFalse(index.isModified());
+        Assert.assertTrue(indexFile.isFile());
+
+        WeavePackageIndex reopened = WeavePackageIndex.open(indexFile, "key");
+        Assert.assertEquals(1, reopened.size());
+        Assert.assertFalse(reopened.isModified());
+        Attributes attributes = reopened.getManifest(JAR_NAME).getMainAttributes();
+        Assert.assertEquals("com.newrelic.instrumentation.servlet-2.4", attributes.getValue("Implementation-Title"));
+        Assert.assertEquals(createManifest().getMainAttributes().getValue(CachedWeavePackage.REFERENCE_CLASSES_MANIFEST_ATTRIBUTE_NAME),
+                attributes.getValue(CachedWeavePackage.REFERENCE_CLASSES_MANIFEST_ATTRIBUTE_NAME));
+    }
+
+    @Test
+    public void differentKeyIsIgnored() {
+        WeavePackageIndex index = WeavePackageIndex.open(indexFile, "agent-1");
+        index.putManifest(JAR_NAME, createManifest());
+        index.save();
+
+        WeavePackageIndex reopened = WeavePackageIndex.open(indexFile, "agent-2");
+        Assert.assertEquals(0, reopened.size());
+        Assert.assertNull(reopened.getManifest(JAR_NAME));
+    }
+
+    @Test
+    public void corruptIndexIsIgnored() throws Exception {
+        Files.write(indexFile.toPath(), new byte[] { 0x4E, 0x52, 0x57, 0x50, 0, 0, 0, 1, 0, 3, 'k', 'e', 'y', 0x7F });
+        WeavePackageIndex index = WeavePackageIndex.open(indexFile, "key");
+        Assert.assertEquals(0, index.size());
+
+        index.putManifest(JAR_NAME, createManifest());
+        index.save();
+        Assert.assertEquals(1, WeavePackageIndex.open(indexFile, "key").size());
+    }
+
+    private static Manifest createManifest() {
+        Manifest manifest = new Manifest();
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attributes.putValue("Implementation-Title", "com.newrelic.instrumentation.servlet-2.4");
+        attributes.putValue("Implementation-Version", "1.0");
+        // longer than a modified UTF-8 string can be
+        StringBuilder referenceClasses = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            referenceClasses.append("javax/servlet/http/HttpServletRequest").append(i).append(',');
+        }
+        attributes.putValue(CachedWeavePackage.REFERENCE_CLASSES_MANIFEST_ATTRIBUTE_NAME, referenceClasses.toString());
+        return manifest;
+    }
+
+}
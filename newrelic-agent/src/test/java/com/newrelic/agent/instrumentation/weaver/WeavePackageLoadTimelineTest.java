@@ -0,0 +1,60 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.instrumentation.weaver;
+
+import com.newrelic.agent.stats.StatsService;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+public class WeavePackageLoadTimelineTest {
+
+    @Test
+    public void phasesAreSummed() {
+        WeavePackageLoadTimeline timeline = new WeavePackageLoadTimeline("Internal", 2);
+        long now = System.nanoTime();
+        timeline.record(WeavePackageLoadTimeline.Phase.READ, now - TimeUnit.MILLISECONDS.toNanos(5));
+        timeline.record(WeavePackageLoadTimeline.Phase.READ, now - TimeUnit.MILLISECONDS.toNanos(7));
+        timeline.record(WeavePackageLoadTimeline.Phase.BUILD, now - TimeUnit.MILLISECONDS.toNanos(20));
+        timeline.packageLoaded();
+        timeline.finish();
+
+        Assert.assertTrue(timeline.getPhaseMillis(WeavePackageLoadTimeline.Phase.READ) >= 12);
+        Assert.assertTrue(timeline.getPhaseMillis(WeavePackageLoadTimeline.Phase.BUILD) >= 20);
+        Assert.assertEquals(0, timeline.getPhaseMillis(WeavePackageLoadTimeline.Phase.CONFIGURE));
+        Assert.assertEquals(0, timeline.getPhaseMillis(WeavePackageLoadTimeline.Phase.REGISTER));
+        Assert.assertEquals(1, timeline.getLoadedCount());
+        Assert.assertTrue(timeline.getTotalMillis() >= 0);
+    }
+
+    @Test
+    public void recordChainsPhases() {
+        WeavePackageLoadTimeline timeline = new WeavePackageLoadTimeline("Internal", 1);
+        long start = System.nanoTime();
+        long next = timeline.record(WeavePackageLoadTimeline.Phase.CONFIGURE, start);
+        Assert.assertTrue(next >= start);
+    }
+
+    @Test
+    public void reportRecordsSupportabilityMetrics() {
+        WeavePackageLoadTimeline timeline = new WeavePackageLoadTimeline("Security", 4);
+        timeline.finish();
+        StatsService statsService = Mockito.mock(StatsService.class);
+        timeline.report(statsService, Level.FINE);
+
+        Mockito.verify(statsService).doStatsWork(Mockito.any(), Mockito.eq("Supportability/Timing/WeavePackages/Security/Total"));
+        Mockito.verify(statsService).doStatsWork(Mockito.any(), Mockito.eq("Supportability/Timing/WeavePackages/Security/Read"));
+        Mockito.verify(statsService).doStatsWork(Mockito.any(), Mockito.eq("Supportability/Timing/WeavePackages/Security/Configure"));
+        Mockito.verify(statsService).doStatsWork(Mockito.any(), Mockito.eq("Supportability/Timing/WeavePackages/Security/Build"));
+        Mockito.verify(statsService).doStatsWork(Mockito.any(), Mockito.eq("Supportability/Timing/WeavePackages/Security/Register"));
+    }
+
+}
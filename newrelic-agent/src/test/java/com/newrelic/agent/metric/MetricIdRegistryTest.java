@@ -77,4 +77,91 @@ public class MetricIdRegistryTest {
         Assert.assertEquals(1, registry.getSize());
     }
 
+    @Test
+    public void nameIdsAreStableAndDense() {
+        MetricIdRegistry.NameIds nameIds = new MetricIdRegistry.NameIds(10);
+        Assert.assertEquals(0, nameIds.getId("Test1"));
+        Assert.assertEquals(1, nameIds.getId("Test2"));
+        Assert.assertEquals(0, nameIds.getId(new String("Test1")));
+        Assert.assertEquals("Test1", nameIds.getName(0));
+        Assert.assertEquals("Test2", nameIds.getName(1));
+        Assert.assertEquals(2, nameIds.getSize());
+    }
+
+    @Test
+    public void findIdDoesNotRegister() {
+        MetricIdRegistry.NameIds nameIds = new MetricIdRegistry.NameIds(10);
+        Assert.assertEquals(MetricIdRegistry.NO_ID, nameIds.findId("Test1"));
+        Assert.assertEquals(0, nameIds.getSize());
+        Assert.assertEquals(0, nameIds.getId("Test1"));
+        Assert.assertEquals(0, nameIds.findId(new String("Test1")));
+    }
+
+    @Test
+    public void nameIdsGrowPastInitialCapacity() {
+        MetricIdRegistry.NameIds nameIds = new MetricIdRegistry.NameIds(5000);
+        for (int i = 0; i < 5000; i++) {
+            Assert.assertEquals(i, nameIds.getId("Test" + i));
+        }
+        for (int i = 0; i < 5000; i++) {
+            Assert.assertEquals("Test" + i, nameIds.getName(i));
+        }
+    }
+
+    @Test
+    public void nameIdsLimit() {
+        MetricIdRegistry.NameIds nameIds = new MetricIdRegistry.NameIds(2);
+        Assert.assertEquals(0, nameIds.getId("Test1"));
+        Assert.assertFalse(nameIds.isFull());
+        Assert.assertEquals(1, nameIds.getId("Test2"));
+        Assert.assertTrue(nameIds.isFull());
+        Assert.assertEquals(MetricIdRegistry.NO_ID, nameIds.getId("Test3"));
+        Assert.assertEquals(1, nameIds.getId("Test2"));
+        Assert.assertEquals(2, nameIds.getSize());
+    }
+
+    @Test
+    public void getNameIdsStartsNewGenerationWhenFull() {
+        MetricIdRegistry.NameIds nameIds = MetricIdRegistry.getNameIds();
+        Assert.assertSame(nameIds, MetricIdRegistry.getNameIds());
+        for (int i = nameIds.getSize(); !nameIds.isFull(); i++) {
+            nameIds.getId("Generation" + i);
+        }
+
+        MetricIdRegistry.NameIds next = MetricIdRegistry.getNameIds();
+        Assert.assertNotSame(nameIds, next);
+        Assert.assertFalse(next.isFull());
+        Assert.assertSame(next, MetricIdRegistry.getNameIds());
+        Assert.assertEquals(0, next.getId("Test"));
+    }
+
+    @Test
+    public void nameIdsConcurrentRegistration() throws Exception {
+        final MetricIdRegistry.NameIds nameIds = new MetricIdRegistry.NameIds(MetricIdRegistry.METRIC_LIMIT);
+        final int[][] ids = new int[4][500];
+        Thread[] threads = new Thread[ids.length];
+        for (int t = 0; t < threads.length; t++) {
+            final int[] threadIds = ids[t];
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < threadIds.length; i++) {
+                        threadIds[i] = nameIds.getId("Test" + i);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(500, nameIds.getSize());
+        for (int i = 0; i < 500; i++) {
+            Assert.assertEquals("Test" + i, nameIds.getName(ids[0][i]));
+            for (int[] threadIds : ids) {
+                Assert.assertEquals(ids[0][i], threadIds[i]);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,116 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.normalization;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+public class RuleLiteralIndexTest {
+
+    @Test
+    public void requiredLiteral() {
+        Assert.assertEquals("/betting/", RuleLiteralIndex.requiredLiteral("^(Apdex|WebTransaction)/(.*)/betting/.*$"));
+        Assert.assertEquals("WebTransaction/Uri/", RuleLiteralIndex.requiredLiteral("^WebTransaction/Uri/[0-9]+$"));
+        Assert.assertEquals(".jsp", RuleLiteralIndex.requiredLiteral("\\.jsp$"));
+        Assert.assertEquals("ab", RuleLiteralIndex.requiredLiteral("x?ab+cd?"));
+        Assert.assertEquals("session", RuleLiteralIndex.requiredLiteral("\\d{1,3}session\\w*"));
+        Assert.assertEquals("abc", RuleLiteralIndex.requiredLiteral("x{0,2}abc"));
+        Assert.assertEquals("/users", RuleLiteralIndex.requiredLiteral("(?:/api)?/users(?=/)"));
+
+        // not read
+        Assert.assertNull(RuleLiteralIndex.requiredLiteral("(?i)abc"));
+        Assert.assertNull(RuleLiteralIndex.requiredLiteral("abc|def"));
+        Assert.assertNull(RuleLiteralIndex.requiredLiteral("\\Qa.b\\E"));
+        Assert.assertNull(RuleLiteralIndex.requiredLiteral("(a)\\1bc"));
+        Assert.assertNull(RuleLiteralIndex.requiredLiteral("\\x41bc"));
+        Assert.assertNull(RuleLiteralIndex.requiredLiteral("[]a]bc"));
+        Assert.assertNull(RuleLiteralIndex.requiredLiteral(".*"));
+    }
+
+    @Test
+    public void findLiterals() {
+        List<NormalizationRule> rules = Arrays.asList(
+                rule("/betting/", null),
+                rule("^[0-9]+$", null),
+                rule("Servlet", null),
+                rule("let/", null));
+        RuleLiteralIndex index = new RuleLiteralIndex(rules);
+
+        BitSet literals = index.findLiterals("WebTransaction/SERVLET/Betting/x");
+        Assert.assertTrue(index.mayMatch(0, literals));
+        Assert.assertTrue(index.mayMatch(1, literals));
+        Assert.assertTrue(index.mayMatch(2, literals));
+        Assert.assertTrue(index.mayMatch(3, literals));
+
+        literals = index.findLiterals("WebTransaction/Uri/home");
+        Assert.assertFalse(index.mayMatch(0, literals));
+        Assert.assertTrue(index.mayMatch(1, literals));
+        Assert.assertFalse(index.mayMatch(2, literals));
+        Assert.assertFalse(index.mayMatch(3, literals));
+    }
+
+    @Test
+    public void normalizerMatchesOrderedEvaluation() {
+        List<NormalizationRule> rules = new ArrayList<>();
+        rules.add(rule("^/admin/.*", "/admin/*"));
+        rules.add(new NormalizationRule("[0-9]+", "*", false, 1, false, true, false));
+        rules.add(new NormalizationRule("\\.jsp$", ".page", false, 2, false, false, true));
+        rules.add(new NormalizationRule("health", null, true, 3, false, false, false));
+        rules.add(new NormalizationRule("^/api/v(\\d)/users", "/users/v\\1", false, 4, true, false, false));
+        rules.add(new NormalizationRule("bb", "b", false, 5, false, false, true));
+        rules.add(new NormalizationRule("/users/", "/people/", false, 6, false, false, false));
+        rules.add(new NormalizationRule("temp", "tmp", false, 7, false, true, false));
+        NormalizerImpl normalizer = new NormalizerImpl("Unit Test", rules);
+
+        String[] parts = { "admin", "api", "v2", "users", "health", "HEALTH", "index.jsp", "a.JSP", "12", "bbb", "temp",
+                "TEMPLATES", "x", "" };
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder name = new StringBuilder();
+            int segments = random.nextInt(5);
+            for (int j = 0; j < segments; j++) {
+                name.append('/').append(parts[random.nextInt(parts.length)]);
+            }
+            String expected = applyInOrder(rules, name.toString());
+            Assert.assertEquals(name.toString(), expected, normalizer.normalize(name.toString()));
+            // cached
+            Assert.assertEquals(name.toString(), expected, normalizer.normalize(name.toString()));
+        }
+    }
+
+    private static String applyInOrder(List<NormalizationRule> rules, String name) {
+        String normalizedName = name;
+        for (NormalizationRule rule : rules) {
+            RuleResult result = rule.normalize(normalizedName);
+            if (!result.isMatch()) {
+                continue;
+            }
+            if (rule.isIgnore()) {
+                return null;
+            }
+            if (result.getReplacement() != null) {
+                normalizedName = result.getReplacement();
+            }
+            if (rule.isTerminateChain()) {
+                break;
+            }
+        }
+        return normalizedName;
+    }
+
+    private static NormalizationRule rule(String matchExpression, String replacement) {
+        return new NormalizationRule(matchExpression, replacement, false, 0, false, false, false);
+    }
+
+}
@@ -15,6 +15,7 @@ import com.newrelic.agent.MockDispatcher;
 import com.newrelic.agent.MockDispatcherTracer;
 import com.newrelic.agent.MockServiceManager;
 import com.newrelic.agent.ThreadService;
+import com.newrelic.agent.Transaction;
 import com.newrelic.agent.TransactionData;
 import com.newrelic.agent.TransactionDataTestBuilder;
 import com.newrelic.agent.config.AgentConfig;
@@ -34,6 +35,7 @@ import java.util.HashSet;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.eq;
@@ -189,6 +191,25 @@ public class KeyTransactionProfileTest {
         assertEquals(0, (long) keyTransactionProfile.getPendingThreadQueueSizes().get(2L));
     }
 
+    @Test
+    public void testThreadIdReleasedWhenTransactionFinishing() {
+        Transaction first = mock(Transaction.class);
+        when(first.getInitiatingThreadId()).thenReturn(1L);
+        TransactionData firstData = mock(TransactionData.class);
+        when(firstData.getTransaction()).thenReturn(first);
+        Transaction second = mock(Transaction.class);
+        when(second.getInitiatingThreadId()).thenReturn(1L);
+
+        keyTransactionProfile.dispatcherTransactionStarted(first);
+        keyTransactionProfile.dispatcherTransactionFinishing(firstData);
+        assertFalse(keyTransactionProfile.getActiveThreadIds().contains(1L));
+
+        // The thread starts another transaction before the listeners process the first one
+        keyTransactionProfile.dispatcherTransactionStarted(second);
+        keyTransactionProfile.dispatcherTransactionFinished(firstData, new TransactionStats());
+        assertTrue(keyTransactionProfile.getActiveThreadIds().contains(1L));
+    }
+
     public StackTraceElement[] generateStackTraceElements(int depth, String fileName) {
         StackTraceElement[] stackTraceElements = new StackTraceElement[depth];
         for (int i = 0; i < depth; i++) {
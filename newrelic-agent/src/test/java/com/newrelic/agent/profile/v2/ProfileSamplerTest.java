@@ -0,0 +1,83 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.profile.v2;
+
+import com.newrelic.agent.MockServiceManager;
+import com.newrelic.agent.ThreadService;
+import com.newrelic.agent.config.AgentConfig;
+import com.newrelic.agent.config.AgentConfigImpl;
+import com.newrelic.agent.config.ConfigService;
+import com.newrelic.agent.config.ConfigServiceFactory;
+import com.newrelic.agent.profile.ProfilerParameters;
+import com.newrelic.agent.profile.ThreadType;
+import com.newrelic.agent.service.ServiceFactory;
+import com.newrelic.agent.threads.BasicThreadInfo;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyBoolean;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ProfileSamplerTest {
+
+    private static final StackTraceElement CALLER = new StackTraceElement("com.wileecoyote.cartoon", "show", "cartoon.java", 123);
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        MockServiceManager serviceManager = new MockServiceManager();
+        ServiceFactory.setServiceManager(serviceManager);
+        serviceManager.start();
+
+        serviceManager.setThreadService(new ThreadService());
+
+        Map<String, Object> map = new HashMap<>();
+        AgentConfig agentConfig = AgentConfigImpl.createAgentConfig(map);
+        ConfigService configService = ConfigServiceFactory.createConfigService(agentConfig, map);
+        serviceManager.setConfigService(configService);
+    }
+
+    @Test
+    public void addRunningStackTrace() {
+        ProfilerParameters parameters = new ProfilerParameters(0L, 100L, 1000L, true, false, false, null, null);
+        IProfile profile = mock(IProfile.class);
+        when(profile.getProfilerParameters()).thenReturn(parameters);
+        ProfileSampler sampler = new ProfileSampler();
+
+        BasicThreadInfo thread = new BasicThreadInfo(1L, "worker");
+        StackTraceElement[] running = { new StackTraceElement("com.acme.rocket", "launch", "rocket.java", 12), CALLER };
+        sampler.addRunningStackTrace(profile, thread, running, Collections.<Long>emptySet());
+        verify(profile).addStackTrace(thread, running, true, ThreadType.BasicThreadType.OTHER);
+
+        BasicThreadInfo agentThread = new BasicThreadInfo(2L, "New Relic Harvest Service");
+        sampler.addRunningStackTrace(profile, agentThread, running, Collections.singleton(2L));
+        verify(profile).addStackTrace(agentThread, running, true, ThreadType.BasicThreadType.AGENT);
+
+        // a native sample reading from a socket is not runnable
+        StackTraceElement[] reading = { new StackTraceElement("java.net.SocketInputStream", "socketRead0", null, -2), CALLER };
+        sampler.addRunningStackTrace(profile, thread, reading, Collections.<Long>emptySet());
+        verify(profile, never()).addStackTrace(eq(thread), eq(reading), anyBoolean(), any(ThreadType.class));
+    }
+
+    @Test
+    public void createUsesThreadDumpsByDefault() {
+        ProfilerParameters parameters = new ProfilerParameters(0L, 100L, 1000L, false, false, false, null, null);
+        Assert.assertEquals(ProfileSampler.class, ProfileSampler.create(parameters).getClass());
+        Assert.assertEquals(100L, ProfileSampler.create(parameters).getSampleTaskPeriodInMillis(100L));
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.service.logging;
+
+import com.newrelic.agent.bridge.logging.LogEventSampler;
+import com.newrelic.agent.model.LogEvent;
+import com.newrelic.agent.service.analytics.DistributedSamplingPriorityQueue;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+
+public class LogEventPreSamplerTest {
+
+    private static final String APP_NAME = "app";
+
+    @Test
+    public void doesNotSampleUntilEventsAreDropped() {
+        LogEventPreSampler preSampler = new LogEventPreSampler();
+        DistributedSamplingPriorityQueue<LogEvent> reservoir = createFullReservoir(1.0f);
+
+        Assert.assertTrue(Float.isNaN(preSampler.sample(APP_NAME, reservoir)));
+
+        // the previous harvest sent everything it saw
+        preSampler.harvested(APP_NAME, 2, 2);
+        Assert.assertTrue(Float.isNaN(preSampler.sample(APP_NAME, reservoir)));
+        Assert.assertEquals(2, reservoir.getNumberOfTries());
+    }
+
+    @Test
+    public void rejectsEventsBelowTheReservoirFloor() {
+        LogEventPreSampler preSampler = new LogEventPreSampler();
+        preSampler.harvested(APP_NAME, 10, 2);
+        // no event can have a priority above 1.0 so every event is rejected
+        DistributedSamplingPriorityQueue<LogEvent> reservoir = createFullReservoir(1.0f);
+
+        Assert.assertEquals(LogEventSampler.REJECTED, preSampler.sample(APP_NAME, reservoir), 0.0f);
+        Assert.assertEquals(LogEventSampler.REJECTED, preSampler.sample(APP_NAME, reservoir), 0.0f);
+        Assert.assertEquals(4, reservoir.getNumberOfTries());
+        Assert.assertEquals(2, reservoir.size());
+
+        Assert.assertEquals(2, preSampler.harvested(APP_NAME, reservoir.getNumberOfTries(), reservoir.size()));
+        Assert.assertEquals(0, preSampler.harvested(APP_NAME, 0, 0));
+    }
+
+    @Test
+    public void assignsPriorityWhileReservoirHasRoom() {
+        LogEventPreSampler preSampler = new LogEventPreSampler();
+        preSampler.harvested(APP_NAME, 10, 2);
+        DistributedSamplingPriorityQueue<LogEvent> reservoir = new DistributedSamplingPriorityQueue<>(2);
+
+        float priority = preSampler.sample(APP_NAME, reservoir);
+        Assert.assertTrue(priority >= 0.0f && priority < 1.0f);
+        Assert.assertEquals(0, reservoir.getNumberOfTries());
+    }
+
+    private static DistributedSamplingPriorityQueue<LogEvent> createFullReservoir(float priority) {
+        DistributedSamplingPriorityQueue<LogEvent> reservoir = new DistributedSamplingPriorityQueue<>(2);
+        reservoir.add(new LogEvent(new HashMap<>(), priority));
+        reservoir.add(new LogEvent(new HashMap<>(), priority));
+        Assert.assertTrue(reservoir.isFull());
+        return reservoir;
+    }
+
+}
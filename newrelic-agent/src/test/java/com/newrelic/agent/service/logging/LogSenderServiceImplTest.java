@@ -13,6 +13,8 @@ import com.newrelic.agent.attributes.ExcludeIncludeFilterImpl;
 import com.newrelic.agent.bridge.logging.AppLoggingUtils;
 import com.newrelic.agent.bridge.logging.LogAttributeKey;
 import com.newrelic.agent.bridge.logging.LogAttributeType;
+import com.newrelic.agent.bridge.logging.LogErrorStack;
+import com.newrelic.agent.bridge.logging.LogEventCapture;
 import com.newrelic.agent.config.AgentConfig;
 import com.newrelic.agent.config.AgentConfigImpl;
 import com.newrelic.agent.config.ApplicationLoggingConfigImpl;
@@ -28,6 +30,7 @@ import com.newrelic.agent.stats.StatsService;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.io.StringWriter;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -38,6 +41,7 @@ import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -176,6 +180,45 @@ public class LogSenderServiceImplTest {
         assertEquals(3, logs.getEventsForTesting().size());
     }
 
+    @Test
+    public void testErrorStackIsFormattedWhenSerialized() throws Exception {
+        LogSenderServiceImpl logSenderService = createService(createConfig(null, 180));
+        Transaction transaction = Mockito.mock(Transaction.class);
+        when(ServiceFactory.getTransactionService().getTransaction(false)).thenReturn(transaction);
+
+        LogSenderServiceImpl.TransactionLogs logs = new LogSenderServiceImpl.TransactionLogs(
+                AgentConfigImpl.createAgentConfig(Collections.emptyMap()), allowAllFilter());
+        when(transaction.getLogEventData()).thenReturn(logs);
+        when(transaction.getApplicationName()).thenReturn(appName);
+        when(transaction.isInProgress()).thenReturn(true);
+
+        RuntimeException exception = new RuntimeException("boom");
+        LogEventCapture capture = LogEventCapture.acquire();
+        try {
+            capture.put(AppLoggingUtils.MESSAGE, "failed");
+            capture.putContext("user", "alice");
+            capture.putThrowable(exception);
+            logSenderService.recordLogEvent(capture);
+        } finally {
+            capture.release();
+        }
+
+        assertEquals(1, logs.getEventsForTesting().size());
+        Map<String, Object> attributes = logs.getEventsForTesting().get(0).getUserAttributesCopy();
+        assertEquals("failed", attributes.get("message"));
+        assertEquals("alice", attributes.get("context.user"));
+        assertEquals("boom", attributes.get("error.message"));
+        assertEquals(RuntimeException.class.getName(), attributes.get("error.class"));
+
+        Object errorStack = attributes.get("error.stack");
+        assertTrue(errorStack instanceof DeferredErrorStack);
+        assertEquals(LogErrorStack.format(exception), errorStack.toString());
+
+        StringWriter writer = new StringWriter();
+        logs.getEventsForTesting().get(0).writeJSONString(writer);
+        assertTrue(writer.toString().contains("\"error.stack\":\"    at " + LogSenderServiceImplTest.class.getName()));
+    }
+
     @Test
     public void testTransactionLogsMaxSamplesStoredIs0() throws Exception{
         LogSenderServiceImpl logSenderService = createService(createConfig(null, 180));
@@ -32,6 +32,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -224,6 +225,7 @@ public class SlowTransactionServiceTest {
 
         TransactionData mockTxnData = mock(TransactionData.class);
         when(mockTxnData.getGuid()).thenReturn(t1Guid);
+        when(mockTxnData.getTransactionDuration()).thenReturn(TimeUnit.MILLISECONDS.toNanos(2000));
 
         service.dispatcherTransactionFinished(mockTxnData, mock(TransactionStats.class));
 
@@ -236,6 +238,34 @@ public class SlowTransactionServiceTest {
         assertTrue(event.getPriority() >= 0);
     }
 
+    @Test
+    public void dispatcherTransactionFinishing_removesFromOpenUntilFinished() {
+        String t1Guid = UUID.randomUUID().toString();
+        Transaction t1 = mockTransaction(t1Guid, 2000);
+        service.dispatcherTransactionStarted(t1);
+
+        TransactionData mockTxnData = mock(TransactionData.class);
+        when(mockTxnData.getGuid()).thenReturn(t1Guid);
+        when(mockTxnData.getTransactionDuration()).thenReturn(TimeUnit.MILLISECONDS.toNanos(1500));
+
+        // The transaction finished before the harvest but the listeners process it after, so the harvest must not
+        // report it as an open transaction.
+        service.dispatcherTransactionFinishing(mockTxnData);
+        assertEquals(Collections.emptyMap(), service.getOpenTransactions());
+        service.run();
+        verify(insightsService, never()).storeEvent(anyString(), any());
+
+        Map<String, Object> expectedAttributes = new HashMap<>();
+        expectedAttributes.put("guid", t1Guid);
+        doReturn(expectedAttributes).when(service).extractMetadata(same(t1), eq(1500L));
+
+        service.dispatcherTransactionFinished(mockTxnData, mock(TransactionStats.class));
+
+        ArgumentCaptor<CustomInsightsEvent> eventCaptor = ArgumentCaptor.forClass(CustomInsightsEvent.class);
+        verify(insightsService).storeEvent(eq("App name"), eventCaptor.capture());
+        assertEquals(expectedAttributes, eventCaptor.getValue().getUserAttributesCopy());
+    }
+
     @Test
     public void dispatcherTransactionFinished_withTxnThatExceedsThresholdAndPreviouslyReported_doesNotReportAgain() {
         String t1Guid = UUID.randomUUID().toString();
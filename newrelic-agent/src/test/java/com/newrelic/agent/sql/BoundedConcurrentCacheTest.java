@@ -47,14 +47,18 @@ import org.mockito.Mockito;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -401,4 +405,129 @@ public class BoundedConcurrentCacheTest {
         value = cache.get(sqlString);
         Assert.assertEquals(tracer1, value.getTracer());
     }
+
+    @Test
+    public void testPutReplaceReordersModifiedValue() {
+        BoundedConcurrentCache<String, ScoredValue> scoredCache = new BoundedConcurrentCache<>(3);
+        ScoredValue a = new ScoredValue("a", 1);
+        ScoredValue b = new ScoredValue("b", 2);
+        ScoredValue c = new ScoredValue("c", 3);
+        scoredCache.putIfAbsent("a", a);
+        scoredCache.putIfAbsent("b", b);
+        scoredCache.putIfAbsent("c", c);
+
+        // "a" is no longer the smallest value once it is modified in place
+        a.score = 10;
+        scoredCache.putReplace("a", a);
+        scoredCache.putIfAbsent("d", new ScoredValue("d", 4));
+        Assert.assertNull(scoredCache.get("b"));
+        Assert.assertSame(a, scoredCache.get("a"));
+
+        // a value that became the smallest is evicted next
+        a.score = 0;
+        scoredCache.putReplace("a", a);
+        scoredCache.putIfAbsent("e", new ScoredValue("e", 5));
+        Assert.assertNull(scoredCache.get("a"));
+        Assert.assertEquals(3, scoredCache.size());
+
+        // a value smaller than everything in a full cache is not kept
+        Assert.assertNull(scoredCache.putIfAbsent("f", new ScoredValue("f", 1)));
+        Assert.assertNull(scoredCache.get("f"));
+        Assert.assertEquals(keys("c", "d", "e"), keysOf(scoredCache.asList()));
+    }
+
+    @Test
+    public void testConcurrentStressKeepsLargestValues() throws Exception {
+        final int capacity = 100;
+        final int distinctKeys = 5000;
+        final int threads = 8;
+        final BoundedConcurrentCache<String, ScoredValue> scoredCache = new BoundedConcurrentCache<>(capacity);
+
+        // every key is added once with its index as its score, then replaced once with a larger score. The order the
+        // threads interleave in does not change which values are largest, so the result is deterministic.
+        final List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < distinctKeys; i++) {
+            order.add(i);
+        }
+        for (final boolean replace : new boolean[] { false, true }) {
+            Collections.shuffle(order);
+            List<Callable<Void>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                workers.add(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        for (int i = thread; i < distinctKeys; i += threads) {
+                            int keyIndex = order.get(i);
+                            String key = "key" + keyIndex;
+                            if (replace) {
+                                // reverse the ranking so the values kept by the first pass must all be evicted
+                                scoredCache.putReplace(key, new ScoredValue(key, 2L * distinctKeys - keyIndex));
+                            } else {
+                                scoredCache.putIfAbsent(key, new ScoredValue(key, keyIndex));
+                            }
+                            // reads are not blocked by writers
+                            scoredCache.get("key" + ThreadLocalRandom.current().nextInt(distinctKeys));
+                            Assert.assertTrue(scoredCache.size() <= capacity);
+                        }
+                        return null;
+                    }
+                });
+            }
+            ExecutorService executorService = Executors.newFixedThreadPool(threads);
+            try {
+                for (Future<Void> future : executorService.invokeAll(workers)) {
+                    future.get(60, TimeUnit.SECONDS);
+                }
+            } finally {
+                executorService.shutdownNow();
+            }
+        }
+
+        Assert.assertEquals(capacity, scoredCache.size());
+        Set<String> expected = new TreeSet<>();
+        for (int i = 0; i < capacity; i++) {
+            expected.add("key" + i);
+        }
+        Set<String> actual = keysOf(scoredCache.asList());
+        Assert.assertEquals(expected, actual);
+        for (String key : expected) {
+            Assert.assertNotNull(scoredCache.get(key));
+        }
+        Assert.assertNull(scoredCache.get("key" + capacity));
+    }
+
+    private static Set<String> keys(String... keys) {
+        Set<String> result = new TreeSet<>();
+        Collections.addAll(result, keys);
+        return result;
+    }
+
+    private static Set<String> keysOf(List<ScoredValue> values) {
+        Set<String> result = new TreeSet<>();
+        for (ScoredValue value : values) {
+            result.add(value.getKey());
+        }
+        return result;
+    }
+
+    private static class ScoredValue implements Comparable<ScoredValue>, CacheValue<String> {
+        private final String key;
+        long score;
+
+        ScoredValue(String key, long score) {
+            this.key = key;
+            this.score = score;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public int compareTo(ScoredValue other) {
+            return Long.compare(score, other.score);
+        }
+    }
 }
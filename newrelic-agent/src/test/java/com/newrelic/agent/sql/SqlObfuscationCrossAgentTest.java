@@ -64,4 +64,12 @@ public class SqlObfuscationCrossAgentTest {
         );
     }
 
+    @Test
+    public void lexerMatchesRegex() {
+        String rawSql = input.getRawSql();
+        String expected = SqlObfuscator.getDefaultSqlObfuscator(SqlObfuscator.REGEX_ENGINE).obfuscateSql(rawSql, input.getDialect());
+        String actual = SqlObfuscator.getDefaultSqlObfuscator(SqlObfuscator.LEXER_ENGINE).obfuscateSql(rawSql, input.getDialect());
+        Assert.assertEquals(expected, actual);
+    }
+
 }
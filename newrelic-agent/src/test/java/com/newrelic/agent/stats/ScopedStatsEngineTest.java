@@ -0,0 +1,190 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.stats;
+
+import com.newrelic.agent.metric.MetricIdRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class ScopedStatsEngineTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void recordMatchesResponseTimeStatsImpl() {
+        ScopedStatsEngine engine = new ScopedStatsEngine(2);
+        ResponseTimeStatsImpl expected = new ResponseTimeStatsImpl();
+        for (int i = 1; i <= 20; i++) {
+            engine.getOrCreateResponseTimeStats("Java/Foo/bar").recordResponseTimeInNanos(i * MILLIS, i * MILLIS / 2);
+            expected.recordResponseTimeInNanos(i * MILLIS, i * MILLIS / 2);
+        }
+        for (int i = 0; i < 20; i++) {
+            engine.getOrCreateResponseTimeStats("Java/Foo/other" + i).recordResponseTimeInNanos(MILLIS);
+        }
+
+        Assert.assertEquals(21, engine.getSize());
+        assertSameStats(expected, engine.getOrCreateResponseTimeStats("Java/Foo/bar"));
+        assertSameStats(expected, (ResponseTimeStats) engine.getStatsMap().get("Java/Foo/bar"));
+        Assert.assertSame(engine.getOrCreateResponseTimeStats("Java/Foo/bar"),
+                engine.getOrCreateResponseTimeStats("Java/Foo/bar"));
+    }
+
+    @Test
+    public void statsMapIsSnapshot() {
+        ScopedStatsEngine engine = new ScopedStatsEngine();
+        engine.getOrCreateResponseTimeStats("Java/Foo/bar").recordResponseTimeInNanos(MILLIS);
+        Map<String, StatsBase> stats = engine.getStatsMap();
+        Assert.assertTrue(stats.get("Java/Foo/bar") instanceof ResponseTimeStatsImpl);
+
+        engine.getOrCreateResponseTimeStats("Java/Foo/bar").recordResponseTimeInNanos(MILLIS);
+        Assert.assertEquals(1, ((ResponseTimeStats) stats.get("Java/Foo/bar")).getCallCount());
+        Assert.assertEquals(2, ((ResponseTimeStats) engine.getStatsMap().get("Java/Foo/bar")).getCallCount());
+    }
+
+    @Test
+    public void mergeScopedEngines() {
+        ScopedStatsEngine engine = new ScopedStatsEngine();
+        engine.getOrCreateResponseTimeStats("Java/Foo/bar").recordResponseTimeInNanos(3 * MILLIS, MILLIS);
+        ScopedStatsEngine other = new ScopedStatsEngine();
+        other.getOrCreateResponseTimeStats("Java/Foo/bar").recordResponseTimeInNanos(5 * MILLIS, 2 * MILLIS);
+        other.getOrCreateResponseTimeStats("Java/Foo/baz").recordResponseTimeInNanos(7 * MILLIS);
+
+        engine.mergeStats(other);
+
+        ResponseTimeStatsImpl expected = new ResponseTimeStatsImpl();
+        expected.recordResponseTimeInNanos(3 * MILLIS, MILLIS);
+        expected.recordResponseTimeInNanos(5 * MILLIS, 2 * MILLIS);
+        assertSameStats(expected, engine.getOrCreateResponseTimeStats("Java/Foo/bar"));
+        Assert.assertEquals(1, engine.getOrCreateResponseTimeStats("Java/Foo/baz").getCallCount());
+        Assert.assertEquals(2, engine.getSize());
+        Assert.assertEquals(1, other.getOrCreateResponseTimeStats("Java/Foo/bar").getCallCount());
+    }
+
+    @Test
+    public void mergeWithSimpleStatsEngine() {
+        SimpleStatsEngine simple = new SimpleStatsEngine();
+        simple.getOrCreateResponseTimeStats("Java/Foo/bar").recordResponseTimeInNanos(2 * MILLIS);
+        ScopedStatsEngine scoped = new ScopedStatsEngine();
+        scoped.getOrCreateResponseTimeStats("Java/Foo/bar").recordResponseTimeInNanos(4 * MILLIS);
+
+        scoped.mergeStats(simple);
+        Assert.assertEquals(2, scoped.getOrCreateResponseTimeStats("Java/Foo/bar").getCallCount());
+        Assert.assertEquals(0.006f, scoped.getOrCreateResponseTimeStats("Java/Foo/bar").getTotal(), 0.0001f);
+
+        simple.mergeStats(scoped);
+        Assert.assertEquals(3, simple.getOrCreateResponseTimeStats("Java/Foo/bar").getCallCount());
+    }
+
+    @Test
+    public void fallsBackToMapWhenRegistryIsFull() {
+        ScopedStatsEngine engine = new ScopedStatsEngine(8, new MetricIdRegistry.NameIds(1));
+        engine.getOrCreateResponseTimeStats("Java/Foo/bar").recordResponseTimeInNanos(MILLIS);
+        engine.getOrCreateResponseTimeStats("Java/Foo/baz").recordResponseTimeInNanos(MILLIS);
+        engine.getOrCreateResponseTimeStats("Java/Foo/baz").recordResponseTimeInNanos(MILLIS);
+
+        Map<String, StatsBase> stats = engine.getStatsMap();
+        Assert.assertEquals(2, stats.size());
+        Assert.assertEquals(1, ((ResponseTimeStats) stats.get("Java/Foo/bar")).getCallCount());
+        Assert.assertEquals(2, ((ResponseTimeStats) stats.get("Java/Foo/baz")).getCallCount());
+        Assert.assertEquals(2, engine.getSize());
+    }
+
+    @Test
+    public void mergeEnginesWithDifferentNameIds() {
+        ScopedStatsEngine engine = new ScopedStatsEngine(8, new MetricIdRegistry.NameIds(10));
+        engine.getOrCreateResponseTimeStats("Java/Foo/bar").recordResponseTimeInNanos(3 * MILLIS);
+        MetricIdRegistry.NameIds otherNameIds = new MetricIdRegistry.NameIds(10);
+        otherNameIds.getId("Java/Foo/baz");
+        ScopedStatsEngine other = new ScopedStatsEngine(8, otherNameIds);
+        other.getOrCreateResponseTimeStats("Java/Foo/bar").recordResponseTimeInNanos(5 * MILLIS);
+        other.getOrCreateResponseTimeStats("Java/Foo/baz").recordResponseTimeInNanos(7 * MILLIS);
+
+        engine.mergeStats(other);
+
+        Assert.assertEquals(2, engine.getSize());
+        Assert.assertEquals(2, engine.getOrCreateResponseTimeStats("Java/Foo/bar").getCallCount());
+        Assert.assertEquals(0.008f, engine.getOrCreateResponseTimeStats("Java/Foo/bar").getTotal(), 0.0001f);
+        Assert.assertEquals(1, engine.getOrCreateResponseTimeStats("Java/Foo/baz").getCallCount());
+    }
+
+    @Test
+    public void lookupsDoNotRegisterNames() {
+        MetricIdRegistry.NameIds nameIds = new MetricIdRegistry.NameIds(10);
+        ScopedStatsEngine engine = new ScopedStatsEngine(8, nameIds);
+        engine.getOrCreateResponseTimeStats("Java/Foo/bar").recordResponseTimeInNanos(MILLIS);
+
+        engine.getStats("Custom/count").incrementCallCount();
+        engine.getApdexStats("Apdex/Foo").recordApdexFrustrated();
+        engine.getDataUsageStats("Supportability/Foo/bytes").recordDataUsage(10, 20);
+        engine.recordEmptyStats("Java/Foo/empty");
+
+        Assert.assertEquals(1, nameIds.getSize());
+        Assert.assertEquals(5, engine.getSize());
+    }
+
+    @Test
+    public void cachedStatsFollowMergedFallbackStats() {
+        ScopedStatsEngine engine = new ScopedStatsEngine();
+        engine.getOrCreateResponseTimeStats("Java/Foo/bar").recordResponseTimeInNanos(MILLIS);
+        SimpleStatsEngine simple = new SimpleStatsEngine();
+        simple.recordEmptyStats("Java/Foo/bar");
+
+        engine.mergeStats(simple);
+
+        Assert.assertSame(AbstractStats.EMPTY_STATS, engine.getStatsMap().get("Java/Foo/bar"));
+        try {
+            engine.getOrCreateResponseTimeStats(new String("Java/Foo/bar"));
+            Assert.fail("Empty stats are not response time stats");
+        } catch (RuntimeException expected) {
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void getStats_responseTimeMetric_shouldThrow() {
+        ScopedStatsEngine engine = new ScopedStatsEngine();
+        engine.getOrCreateResponseTimeStats("Java/Foo/bar").recordResponseTimeInNanos(MILLIS);
+        engine.getStats("Java/Foo/bar");
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void getOrCreateResponseTimeStats_emptyMetric_shouldThrow() {
+        ScopedStatsEngine engine = new ScopedStatsEngine();
+        engine.getOrCreateResponseTimeStats("Java/Foo/bar").recordResponseTimeInNanos(MILLIS);
+        engine.recordEmptyStats("Java/Foo/bar");
+        Assert.assertEquals(1, engine.getSize());
+        Assert.assertSame(AbstractStats.EMPTY_STATS, engine.getStatsMap().get("Java/Foo/bar"));
+        engine.getOrCreateResponseTimeStats("Java/Foo/bar");
+    }
+
+    @Test
+    public void clear() {
+        ScopedStatsEngine engine = new ScopedStatsEngine();
+        ResponseTimeStats stats = engine.getOrCreateResponseTimeStats("Java/Foo/bar");
+        stats.recordResponseTimeInNanos(MILLIS);
+        engine.clear();
+        Assert.assertEquals(0, engine.getSize());
+
+        engine.getOrCreateResponseTimeStats("Java/Foo/baz").recordResponseTimeInNanos(MILLIS);
+        stats.recordResponseTimeInNanos(MILLIS);
+        Assert.assertEquals(1, engine.getOrCreateResponseTimeStats("Java/Foo/bar").getCallCount());
+        Assert.assertEquals(1, engine.getOrCreateResponseTimeStats("Java/Foo/baz").getCallCount());
+    }
+
+    private static void assertSameStats(ResponseTimeStats expected, ResponseTimeStats actual) {
+        Assert.assertEquals(expected.getCallCount(), actual.getCallCount());
+        Assert.assertEquals(expected.getTotal(), actual.getTotal(), 0);
+        Assert.assertEquals(expected.getTotalExclusiveTime(), actual.getTotalExclusiveTime(), 0);
+        Assert.assertEquals(expected.getMinCallTime(), actual.getMinCallTime(), 0);
+        Assert.assertEquals(expected.getMaxCallTime(), actual.getMaxCallTime(), 0);
+        Assert.assertEquals(expected.getSumOfSquares(), actual.getSumOfSquares(), 0);
+    }
+
+}
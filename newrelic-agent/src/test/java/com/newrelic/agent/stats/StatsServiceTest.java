@@ -215,6 +215,40 @@ public class StatsServiceTest {
         Assert.assertEquals(300f, harvestStatsEngine.getStats("Test1").getTotal(), 0);
     }
 
+    @Test
+    public void doStatsWorkStripedAggregation() throws Exception {
+        serviceManager.stop();
+        Map<String, Object> configMap = createStagingMap();
+        configMap.put(StatsServiceImpl.STRIPED_AGGREGATION_ENABLED, true);
+        serviceManager = createServiceManager(configMap);
+
+        StatsService statsService = serviceManager.getStatsService();
+        String appName = serviceManager.getConfigService().getDefaultAgentConfig().getApplicationName();
+        String appName2 = appName + "2";
+        StatsEngineImpl statsEngine = new StatsEngineImpl();
+        Stats stats1 = statsEngine.getStats("Test1");
+        stats1.recordDataPoint(100f);
+        statsService.doStatsWork(new MergeStatsWork(appName, statsEngine), "statsWorkTest");
+        statsService.doStatsWork(new RecordMetric("Test1", 200f), "statsWorkTest");
+        statsEngine = new StatsEngineImpl();
+        stats1 = statsEngine.getStats("Test1");
+        stats1.recordDataPoint(50f);
+        statsService.doStatsWork(new MergeStatsWork(appName2, statsEngine), "statsWorkTest");
+
+        StatsEngine harvestStatsEngine = statsService.getStatsEngineForHarvest(appName);
+        Assert.assertEquals(1, harvestStatsEngine.getSize());
+        Assert.assertEquals(2, harvestStatsEngine.getStats("Test1").getCallCount());
+        Assert.assertEquals(300f, harvestStatsEngine.getStats("Test1").getTotal(), 0);
+        harvestStatsEngine = statsService.getStatsEngineForHarvest(appName2);
+        Assert.assertEquals(50f, harvestStatsEngine.getStats("Test1").getTotal(), 0);
+
+        // work after a harvest lands in the next harvest
+        statsService.doStatsWork(new RecordMetric("Test1", 400f), "statsWorkTest");
+        harvestStatsEngine = statsService.getStatsEngineForHarvest(appName);
+        Assert.assertEquals(1, harvestStatsEngine.getStats("Test1").getCallCount());
+        Assert.assertEquals(400f, harvestStatsEngine.getStats("Test1").getTotal(), 0);
+    }
+
     private static class MergeStatsWork implements StatsWork {
 
         private final String appName;
@@ -0,0 +1,140 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.stats;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StripedStatsEngineQueueTest {
+
+    @Test
+    public void stripeCountIsPowerOfTwo() {
+        Assert.assertEquals(1, new StripedStatsEngineQueue(0).getStripeCount());
+        Assert.assertEquals(8, new StripedStatsEngineQueue(5).getStripeCount());
+        Assert.assertEquals(16, new StripedStatsEngineQueue(16).getStripeCount());
+        Assert.assertEquals(256, new StripedStatsEngineQueue(100000).getStripeCount());
+    }
+
+    @Test
+    public void doStatsWork() {
+        StatsEngineQueue queue = new StripedStatsEngineQueue(4);
+        Assert.assertTrue(queue.doStatsWork(new RecordMetric("Test1", 100f)));
+        Assert.assertTrue(queue.doStatsWork(new RecordMetric("Test1", 200f)));
+        Assert.assertTrue(queue.doStatsWork(new RecordDataUsageMetric("Test2", 100, 5)));
+
+        StatsEngine harvestStatsEngine = queue.getStatsEngineForHarvest();
+        Assert.assertEquals(2, harvestStatsEngine.getSize());
+        Assert.assertEquals(2, harvestStatsEngine.getStats("Test1").getCallCount());
+        Assert.assertEquals(300f, harvestStatsEngine.getStats("Test1").getTotal(), 0);
+    }
+
+    @Test
+    public void doStatsWorkAfterHarvest() {
+        StatsEngineQueue queue = new StripedStatsEngineQueue(4);
+        Assert.assertTrue(queue.doStatsWork(new RecordMetric("Test1", 100f)));
+        queue.getStatsEngineForHarvest();
+        Assert.assertFalse(queue.doStatsWork(new RecordMetric("Test1", 100f)));
+    }
+
+    @Test
+    public void harvestWaitsForInFlightWork() throws Exception {
+        final StatsEngineQueue queue = new StripedStatsEngineQueue(1);
+        final CountDownLatch workStarted = new CountDownLatch(1);
+        final CountDownLatch finishWork = new CountDownLatch(1);
+        final AtomicBoolean harvestDone = new AtomicBoolean(false);
+
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                queue.doStatsWork(new StatsWork() {
+                    @Override
+                    public void doWork(StatsEngine statsEngine) {
+                        workStarted.countDown();
+                        try {
+                            finishWork.await();
+                        } catch (InterruptedException e) {
+                        }
+                        statsEngine.getStats("Test1").recordDataPoint(100f);
+                    }
+
+                    @Override
+                    public String getAppName() {
+                        return null;
+                    }
+                });
+            }
+        });
+        worker.setDaemon(true);
+        worker.start();
+        workStarted.await();
+
+        final StatsEngine[] harvested = new StatsEngine[1];
+        Thread harvester = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                harvested[0] = queue.getStatsEngineForHarvest();
+                harvestDone.set(true);
+            }
+        });
+        harvester.setDaemon(true);
+        harvester.start();
+
+        Thread.sleep(100);
+        Assert.assertFalse(harvestDone.get());
+        // new work is turned away while the harvest is waiting
+        Assert.assertFalse(queue.doStatsWork(new RecordMetric("Test1", 100f)));
+
+        finishWork.countDown();
+        harvester.join(10000);
+        Assert.assertTrue(harvestDone.get());
+        Assert.assertEquals(1, harvested[0].getStats("Test1").getCallCount());
+    }
+
+    @Test
+    public void doStatsWorkMultiThreads() throws Exception {
+        final StatsEngineQueue queue = new StripedStatsEngineQueue(2);
+        final int threadCount = 16;
+        final int iterations = 10000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger rejected = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                    }
+                    for (int j = 0; j < iterations; j++) {
+                        if (!queue.doStatsWork(new RecordMetric("Test1", 1f))) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        StatsEngine harvestStatsEngine = queue.getStatsEngineForHarvest();
+        Assert.assertEquals(0, rejected.get());
+        Assert.assertEquals(threadCount * iterations, harvestStatsEngine.getStats("Test1").getCallCount());
+    }
+
+}
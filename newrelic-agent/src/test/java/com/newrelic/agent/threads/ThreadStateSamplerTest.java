@@ -7,6 +7,7 @@
 
 package com.newrelic.agent.threads;
 
+import com.newrelic.agent.MetricNames;
 import com.newrelic.agent.MockServiceManager;
 import com.newrelic.agent.bridge.AgentBridge;
 import com.newrelic.agent.util.AgentCollectionFactory;
@@ -21,6 +22,9 @@ import org.junit.Test;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -80,6 +84,40 @@ public class ThreadStateSamplerTest {
         ));
     }
 
+    @Test
+    public void testTerminatedThreadsAreNoLongerTracked() throws Exception {
+        StatsService statsService = ServiceFactory.getStatsService();
+        ThreadStateSampler threadStateSampler = new ThreadStateSampler(ManagementFactory.getThreadMXBean(),
+                ThreadNameNormalizerTest.getThreadNameNormalizer());
+
+        final CountDownLatch finish = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    finish.await();
+                } catch (InterruptedException ignored) {
+                }
+            }, "SHORT_LIVED");
+            thread.start();
+            threads.add(thread);
+        }
+
+        threadStateSampler.run();
+        int trackedWithShortLivedThreads = threadStateSampler.getTrackedThreadCount();
+
+        finish.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        threadStateSampler.run();
+        assertTrue(threadStateSampler.getTrackedThreadCount() <= trackedWithShortLivedThreads - threads.size());
+
+        StatsEngine engine = statsService.getStatsEngineForHarvest(null);
+        assertEquals(2, engine.getResponseTimeStats(MetricNames.SUPPORTABILITY_THREAD_STATE_SAMPLER_TIME).getCallCount());
+        assertEquals(2, engine.getResponseTimeStats(MetricNames.SUPPORTABILITY_THREAD_STATE_SAMPLER_SNAPSHOT_TIME).getCallCount());
+    }
+
     @Test
     public void testCpuTimeMetrics() {
         StatsService statsService = ServiceFactory.getStatsService();
@@ -7,6 +7,7 @@
 
 package com.newrelic.agent.trace;
 
+import com.newrelic.agent.AgentHelper;
 import com.newrelic.agent.HarvestService;
 import com.newrelic.agent.MockDispatcher;
 import com.newrelic.agent.MockDispatcherTracer;
@@ -26,6 +27,8 @@ import com.newrelic.agent.config.ConfigServiceFactory;
 import com.newrelic.agent.config.TransactionTracerConfigImpl;
 import com.newrelic.agent.database.DatabaseService;
 import com.newrelic.agent.service.ServiceFactory;
+import com.newrelic.agent.transport.DataSenderWriter;
+import org.json.simple.JSONArray;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
@@ -193,6 +196,73 @@ public class TransactionTraceServiceTest {
         Assert.assertTrue(ttService.isThreadCpuTimeEnabled());
     }
 
+    @Test
+    public void pendingTraceIsEncodedAndReleasesSegments() throws Exception {
+        createServiceManager(createConfigMap());
+        PendingTransactionTrace pending = new PendingTransactionTrace(createTransactionData("/encode", APP_NAME, 100L), 100L);
+
+        // what the encoder thread runs
+        pending.run();
+        TransactionTrace trace = pending.getTrace();
+
+        Assert.assertNotNull(trace.getEncodedData());
+        Assert.assertNull(trace.getRootSegment());
+        JSONArray serializedTrace = (JSONArray) AgentHelper.serializeJSON(trace);
+        Assert.assertEquals("/encode", serializedTrace.get(3));
+        Assert.assertEquals(trace.getEncodedData(), serializedTrace.get(4));
+    }
+
+    @Test
+    public void harvestedPendingTraceIsNotEncodedAhead() throws Exception {
+        createServiceManager(createConfigMap());
+        PendingTransactionTrace pending = new PendingTransactionTrace(createTransactionData("/encode", APP_NAME, 100L), 100L);
+
+        TransactionTrace trace = pending.getTrace();
+        pending.run();
+
+        Assert.assertNull(trace.getEncodedData());
+        Assert.assertNotNull(trace.getRootSegment());
+        // the trace is compressed when it is written
+        JSONArray serializedTrace = (JSONArray) AgentHelper.serializeJSON(trace);
+        Assert.assertEquals("/encode", serializedTrace.get(3));
+        Assert.assertTrue(serializedTrace.get(4) instanceof String);
+    }
+
+    @Test
+    public void discardedPendingTraceIsNotEncoded() throws Exception {
+        createServiceManager(createConfigMap());
+        PendingTransactionTrace pending = new PendingTransactionTrace(createTransactionData("/encode", APP_NAME, 100L), 100L);
+
+        pending.discard();
+        pending.run();
+
+        Assert.assertNull(pending.getTrace().getEncodedData());
+    }
+
+    @Test
+    public void pendingTracesAreWrittenWhileTheyAreEncoded() throws Exception {
+        createServiceManager(createConfigMap());
+        List<PendingTransactionTrace> pendingTraces = new ArrayList<>();
+        List<String> expectedData = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            TransactionData td = createTransactionData("/encode/" + i, APP_NAME, 100L + i);
+            TransactionTrace unencoded = TransactionTrace.getTransactionTrace(td);
+            expectedData.add(DataSenderWriter.toJSONString(unencoded.getTraceDetailsAsList()));
+
+            PendingTransactionTrace pending = new PendingTransactionTrace(td, 100L + i);
+            pending.encode();
+            pendingTraces.add(pending);
+        }
+
+        for (int i = 0; i < pendingTraces.size(); i++) {
+            TransactionTrace trace = pendingTraces.get(i).getTrace();
+            Assert.assertEquals("/encode/" + i, trace.getRequestUri());
+            // the uncompressed trace data is the same whether or not the trace was encoded before it was written
+            JSONArray serializedTrace = (JSONArray) AgentHelper.serializeJSONusingDataSenderWriter(trace);
+            Assert.assertEquals(expectedData.get(i), serializedTrace.get(4));
+        }
+    }
+
     @Test
     public void appName() throws Exception {
         Map<String, Object> configMap = createConfigMap();
@@ -45,6 +45,7 @@ import com.newrelic.agent.tracers.metricname.SimpleMetricNameFormat;
 import com.newrelic.agent.tracing.DistributedTraceServiceImpl;
 import com.newrelic.agent.transaction.PriorityTransactionName;
 import com.newrelic.agent.transaction.TransactionTimer;
+import com.newrelic.agent.transport.DataSenderWriter;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.JSONValue;
@@ -1080,6 +1081,77 @@ public class TransactionTraceTest {
         Assert.assertEquals("token", intrinsics.get(AttributeNames.TIMEOUT_CAUSE));
     }
 
+    @Test
+    public void testEncodedDataIsWritten() throws Exception {
+        MockServiceManager serviceManager = new MockServiceManager();
+        ServiceFactory.setServiceManager(serviceManager);
+        serviceManager.start();
+
+        ConfigService configService = ConfigServiceFactory.createConfigService(
+                AgentConfigImpl.createAgentConfig(null), new HashMap<String, Object>());
+        serviceManager.setConfigService(configService);
+        serviceManager.setAttributesService(new AttributesService());
+        serviceManager.setTransactionTraceService(new TransactionTraceService());
+
+        TransactionData td = createTransactionData(TimeoutCause.TOKEN);
+        TransactionTrace trace = TransactionTrace.getTransactionTrace(td, SqlObfuscator.getDefaultSqlObfuscator());
+
+        Writer writer = new StringWriter();
+        trace.writeJSONString(writer);
+        String uncompressedJson = DataSenderWriter.toJSONString(trace);
+
+        trace.encodeData();
+        // the segments are released once the trace is encoded
+        Assert.assertNull(trace.getRootSegment());
+        Writer encodedWriter = new StringWriter();
+        trace.writeJSONString(encodedWriter);
+        Assert.assertEquals(writer.toString(), encodedWriter.toString());
+        // uncompressed writers get the decoded trace data
+        Assert.assertEquals(uncompressedJson, DataSenderWriter.toJSONString(trace));
+
+        // the encoded data holds the trace details
+        JSONArray serializedTrace = (JSONArray) AgentHelper.serializeJSON(trace);
+        JSONArray traceDetails = (JSONArray) decodeTransactionTraceData(serializedTrace.get(4));
+        Assert.assertEquals("ROOT", ((JSONArray) traceDetails.get(3)).get(2));
+    }
+
+    @Test
+    public void testSegmentsShareMetricNameAndUriInstances() throws Exception {
+        setUp(false, true, false);
+        Transaction tx = Transaction.getTransaction();
+        Tracer rootTracer = new OtherRootTracer(tx, new ClassMethodSignature("Test", "root", "()V"), this,
+                new OtherTransSimpleMetricNameFormat("myMetricName"));
+        // equal but distinct strings, as each tracer builds its own names
+        DefaultTracer tracer1 = new DefaultTracer(tx, new ClassMethodSignature("Test", "dude", "()V"), this,
+                new SimpleMetricNameFormat(new String("External/shared"), new String("External/shared"), new String("/shared")));
+        DefaultTracer tracer2 = new DefaultTracer(tx, new ClassMethodSignature("Test", "dude", "()V"), this,
+                new SimpleMetricNameFormat(new String("External/shared"), new String("External/shared"), new String("/shared")));
+
+        tx.getTransactionActivity().tracerStarted(rootTracer);
+        tx.getTransactionActivity().tracerStarted(tracer1);
+        tx.getTransactionActivity().tracerStarted(tracer2);
+        tracer2.finish(0, null);
+        tracer1.finish(0, null);
+        rootTracer.finish(0, null);
+
+        TransactionData transactionData = new TransactionDataTestBuilder("dude", iAgentConfig, rootTracer)
+                .setStartTime(System.currentTimeMillis())
+                .setRequestUri("/dude")
+                .setFrontendMetricName("Frontend/dude")
+                .setTracers(Arrays.asList(rootTracer, tracer1, tracer2))
+                .build();
+
+        TransactionTrace trace = TransactionTrace.getTransactionTrace(transactionData,
+                SqlObfuscator.getDefaultSqlObfuscator());
+
+        TransactionSegment segment1 = trace.getRootSegment().getChildren().iterator().next().getChildren().iterator().next();
+        TransactionSegment segment2 = segment1.getChildren().iterator().next();
+        Assert.assertEquals("External/shared", segment1.getMetricName());
+        Assert.assertSame(segment1.getMetricName(), segment2.getMetricName());
+        Assert.assertEquals("/shared", segment1.getUri());
+        Assert.assertSame(segment1.getUri(), segment2.getUri());
+    }
+
     @Test
     public void testDistributedTracingAtts() throws Exception {
         MockServiceManager serviceManager = new MockServiceManager();
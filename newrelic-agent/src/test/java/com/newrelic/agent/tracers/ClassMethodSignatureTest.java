@@ -0,0 +1,57 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.tracers;
+
+import com.newrelic.agent.tracers.metricname.MetricNameFormat;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+
+public class ClassMethodSignatureTest {
+
+    private final ClassMethodSignature sig = new ClassMethodSignature("java.util.AbstractList", "size", "()I");
+
+    @Test
+    public void metricNameFormatIsReused() {
+        MetricNameFormat format = sig.getMetricNameFormat(new ArrayList<>(), "Custom/${className}/size", TracerFlags.CUSTOM);
+        Assert.assertEquals("Custom/java.util.ArrayList/size", format.getMetricName());
+        Assert.assertSame(format, sig.getMetricNameFormat(new ArrayList<>(), "Custom/${className}/size", TracerFlags.CUSTOM));
+
+        MetricNameFormat other = sig.getMetricNameFormat(new LinkedList<>(), "Custom/${className}/size", TracerFlags.CUSTOM);
+        Assert.assertEquals("Custom/java.util.LinkedList/size", other.getMetricName());
+        Assert.assertSame(other, sig.getMetricNameFormat(new LinkedList<>(), "Custom/${className}/size", TracerFlags.CUSTOM));
+        Assert.assertSame(format, sig.getMetricNameFormat(new ArrayList<>(), "Custom/${className}/size", TracerFlags.CUSTOM));
+    }
+
+    @Test
+    public void metricNameFormatWithoutMetricName() {
+        Assert.assertEquals("Java/java.util.AbstractList/size", sig.getMetricNameFormat(null, null, 0).getMetricName());
+        Assert.assertEquals("Custom/java.util.AbstractList/size",
+                sig.getMetricNameFormat(null, null, TracerFlags.CUSTOM).getMetricName());
+
+        MetricNameFormat format = sig.getMetricNameFormat(new ArrayList<>(), null, 0);
+        Assert.assertEquals("Java/java.util.ArrayList/size", format.getMetricName());
+        Assert.assertSame(format, sig.getMetricNameFormat(new ArrayList<>(), null, 0));
+    }
+
+    @Test
+    public void metricNameFormatForManyClasses() {
+        Object[] targets = { new ArrayList<>(), new LinkedList<>(), new HashMap<>(), new Object(), "", 1, 1L, 1.0, 'c',
+                (short) 1, new StringBuilder() };
+        for (int i = 0; i < 3; i++) {
+            for (Object target : targets) {
+                Assert.assertEquals("Java/" + target.getClass().getName() + "/size",
+                        sig.getMetricNameFormat(target, null, 0).getMetricName());
+            }
+        }
+    }
+
+}
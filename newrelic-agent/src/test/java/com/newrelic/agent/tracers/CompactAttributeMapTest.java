@@ -0,0 +1,94 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.tracers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+public class CompactAttributeMapTest {
+
+    @Test
+    public void putGetRemoveInline() {
+        CompactAttributeMap map = new CompactAttributeMap();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.put("a", 1));
+        Assert.assertNull(map.put("b", 2));
+        Assert.assertNull(map.put("c", 3));
+        Assert.assertEquals(1, map.put("a", 4));
+
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals(4, map.get("a"));
+        Assert.assertTrue(map.containsKey("c"));
+        Assert.assertNull(map.get("d"));
+
+        Assert.assertEquals(2, map.remove("b"));
+        Assert.assertNull(map.remove("b"));
+        Assert.assertEquals(2, map.size());
+        Assert.assertEquals(3, map.get("c"));
+        Assert.assertTrue(map.isInline());
+    }
+
+    @Test
+    public void switchesToHashMapWhenFull() {
+        CompactAttributeMap map = new CompactAttributeMap();
+        Map<String, Object> expected = new HashMap<>();
+        for (int i = 0; i < CompactAttributeMap.MAX_INLINE_SIZE; i++) {
+            map.put("key" + i, i);
+            expected.put("key" + i, i);
+        }
+        Assert.assertTrue(map.isInline());
+        Assert.assertEquals(expected, map);
+
+        map.put("one more", "value");
+        expected.put("one more", "value");
+        Assert.assertFalse(map.isInline());
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+        Assert.assertEquals(0, map.remove("key0"));
+        Assert.assertEquals(CompactAttributeMap.MAX_INLINE_SIZE, map.size());
+    }
+
+    @Test
+    public void iteratorRemove() {
+        CompactAttributeMap map = new CompactAttributeMap();
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+
+        Iterator<Map.Entry<String, Object>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Object> entry = iterator.next();
+            if (entry.getKey().equals("b")) {
+                iterator.remove();
+            } else {
+                entry.setValue(10);
+            }
+        }
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("a", 10);
+        expected.put("c", 10);
+        Assert.assertEquals(expected, map);
+    }
+
+    @Test
+    public void clear() {
+        CompactAttributeMap map = new CompactAttributeMap();
+        map.put("a", 1);
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get("a"));
+        map.put("a", 2);
+        Assert.assertEquals(2, map.get("a"));
+    }
+
+}
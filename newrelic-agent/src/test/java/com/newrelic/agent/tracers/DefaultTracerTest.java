@@ -1155,6 +1155,15 @@ public class DefaultTracerTest {
         assertEquals(Collections.singletonMap("foo", "bar"), spanEvent.getUserAttributes());
     }
 
+    @Test
+    public void testSpanLinksAndEventsEmptyByDefault() {
+        DefaultTracer tracer = prepareTracer();
+        tracer.finish(0, null);
+
+        Assert.assertTrue(tracer.getSpanLinks().isEmpty());
+        Assert.assertTrue(tracer.getSpanEvents().isEmpty());
+    }
+
     private SpanEvent getSpanByName(SamplingPriorityQueue<SpanEvent> eventPool, String spanName) {
         for (SpanEvent spanEvent : eventPool.asList()) {
             if (spanEvent.getName().equals(spanName)) {
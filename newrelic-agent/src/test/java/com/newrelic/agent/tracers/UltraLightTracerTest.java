@@ -0,0 +1,145 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.tracers;
+
+import com.newrelic.agent.HarvestService;
+import com.newrelic.agent.MockCoreService;
+import com.newrelic.agent.MockHarvestService;
+import com.newrelic.agent.MockRPMService;
+import com.newrelic.agent.MockRPMServiceManager;
+import com.newrelic.agent.MockServiceManager;
+import com.newrelic.agent.ThreadService;
+import com.newrelic.agent.Transaction;
+import com.newrelic.agent.TransactionActivity;
+import com.newrelic.agent.TransactionService;
+import com.newrelic.agent.config.AgentConfig;
+import com.newrelic.agent.config.AgentConfigImpl;
+import com.newrelic.agent.config.ConfigService;
+import com.newrelic.agent.config.ConfigServiceFactory;
+import com.newrelic.agent.errors.ErrorServiceImpl;
+import com.newrelic.agent.normalization.NormalizationServiceImpl;
+import com.newrelic.agent.service.ServiceFactory;
+import com.newrelic.agent.sql.SqlTraceServiceImpl;
+import com.newrelic.agent.stats.ResponseTimeStats;
+import com.newrelic.agent.stats.StatsServiceImpl;
+import com.newrelic.agent.trace.TransactionTraceService;
+import com.newrelic.agent.tracers.metricname.SimpleMetricNameFormat;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.objectweb.asm.Opcodes;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+
+public class UltraLightTracerTest {
+
+    private static final String APP_NAME = "Unit Test";
+
+    /**
+     * Generous upper bound on the shallow size of an UltraLightTracer (a header, four references and two longs).
+     */
+    private static final long TRACER_SIZE_UPPER_BOUND = 64;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        Map<String, Object> map = new HashMap<>();
+        map.put(AgentConfigImpl.APP_NAME, APP_NAME);
+
+        MockServiceManager serviceManager = new MockServiceManager();
+        ServiceFactory.setServiceManager(serviceManager);
+        serviceManager.start();
+        serviceManager.setThreadService(new ThreadService());
+
+        AgentConfig agentConfig = AgentConfigImpl.createAgentConfig(map);
+        ConfigService configService = ConfigServiceFactory.createConfigService(agentConfig, map);
+        serviceManager.setConfigService(configService);
+        serviceManager.setCoreService(new MockCoreService());
+
+        HarvestService harvestService = new MockHarvestService();
+        serviceManager.setHarvestService(harvestService);
+        serviceManager.setTransactionService(new TransactionService());
+        serviceManager.setTransactionTraceService(new TransactionTraceService());
+        serviceManager.setSqlTraceService(new SqlTraceServiceImpl());
+
+        MockRPMServiceManager rpmServiceManager = new MockRPMServiceManager();
+        serviceManager.setRPMServiceManager(rpmServiceManager);
+        MockRPMService rpmService = new MockRPMService();
+        rpmService.setApplicationName(APP_NAME);
+        rpmService.setErrorService(new ErrorServiceImpl(APP_NAME));
+        rpmServiceManager.setRPMService(rpmService);
+
+        configService.start();
+        serviceManager.setNormalizationService(new NormalizationServiceImpl());
+        StatsServiceImpl statsService = new StatsServiceImpl();
+        serviceManager.setStatsService(statsService);
+        statsService.start();
+    }
+
+    @Before
+    public void before() {
+        Transaction.clearTransaction();
+    }
+
+    private TransactionActivity startTransaction() {
+        Transaction tx = Transaction.getTransaction();
+        ClassMethodSignature sig = new ClassMethodSignature(getClass().getName(), "root", "()V");
+        Tracer rootTracer = new OtherRootTracer(tx, sig, this, new SimpleMetricNameFormat("test"));
+        tx.getTransactionActivity().tracerStarted(rootTracer);
+        return tx.getTransactionActivity();
+    }
+
+    @Test
+    public void clampedSegment() {
+        TransactionActivity txa = startTransaction();
+        ClassMethodSignature sig = new ClassMethodSignature("com.test.Dude", "dude1", "()V");
+
+        UltraLightTracer tracer = UltraLightTracer.createClampedSegment(txa, sig);
+        Assert.assertSame(tracer, txa.getLastTracer());
+        tracer.finish(Opcodes.RETURN, null);
+        UltraLightTracer.createClampedSegment(txa, sig).finish(Opcodes.RETURN, null);
+
+        Assert.assertEquals("Clamped/com.test.Dude/dude1", tracer.getMetricName());
+        Assert.assertSame(tracer.getMetricName(), UltraLightTracer.createClampedSegment(txa, sig).getMetricName());
+        ResponseTimeStats stats = txa.getTransactionStats().getScopedStats().getOrCreateResponseTimeStats("Clamped/com.test.Dude/dude1");
+        Assert.assertEquals(2, stats.getCallCount());
+    }
+
+    @Test
+    public void clampedSegmentOnlyAllocatesTheTracer() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assume.assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        TransactionActivity txa = startTransaction();
+        ClassMethodSignature sig = new ClassMethodSignature("com.test.Dude", "dude1", "()V");
+
+        // the first call records the segment name in the transaction activity's scoped stats
+        for (int i = 0; i < 10_000; i++) {
+            UltraLightTracer.createClampedSegment(txa, sig).finish(Opcodes.RETURN, null);
+        }
+
+        final int iterations = 100_000;
+        long threadId = Thread.currentThread().getId();
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            UltraLightTracer.createClampedSegment(txa, sig).finish(Opcodes.RETURN, null);
+        }
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+        long bytesPerSegment = allocated / iterations;
+        Assert.assertTrue("Clamped segment allocated " + bytesPerSegment + " bytes", bytesPerSegment <= TRACER_SIZE_UPPER_BOUND);
+    }
+
+}
@@ -234,6 +234,75 @@ public class AdaptiveSamplerTest {
 
     }
 
+    @Test
+    public void testFirstPeriodSamplesTargetExactlyWhenContended() throws Exception {
+        int target = 100;
+        AdaptiveSampler sampler = new AdaptiveSampler(target, 60);
+        AtomicInteger sampled = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        if (sampler.computeSampled()) {
+                            sampled.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(target, sampled.get());
+    }
+
+    @Test
+    public void testLaterPeriodKeepsSamplingProbabilityWhenContended() throws Exception {
+        int target = 1000;
+        int seenFirstPeriod = 100_000;
+        AdaptiveSampler sampler = new AdaptiveSampler(target, 1);
+        for (int i = 0; i < seenFirstPeriod; i++) {
+            sampler.computeSampled();
+        }
+        Thread.sleep(1100);
+        Transaction tx = Mockito.mock(Transaction.class);
+        when(tx.getPriorityFromInboundSamplingDecision(any())).thenReturn(null);
+        sampler.calculatePriority(tx, Granularity.FULL);
+        assertEquals(target, sampler.getSampledCountLastPeriod());
+
+        // each transaction of the second period is sampled with a probability of target / seenFirstPeriod, and half
+        // as many transactions are seen, so about half the target is expected to be sampled
+        int nThreads = 8;
+        int perThread = 6_250;
+        AtomicInteger sampled = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < nThreads; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        if (sampler.computeSampled()) {
+                            sampled.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int expectedSampled = target / 2;
+        int errorDelta = (int) (expectedSampled * DEFAULT_ERROR_MARGIN);
+        assertTrue(String.format(errorMessage, expectedSampled, sampled.get()), Math.abs(sampled.get() - expectedSampled) <= errorDelta);
+    }
+
     @Test
     public void samplerShouldReturnInboundPriorityWhenAvailable(){
         AdaptiveSampler sampler = new AdaptiveSampler(100, 5);
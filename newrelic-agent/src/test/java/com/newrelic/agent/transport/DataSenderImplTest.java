@@ -49,6 +49,7 @@ import org.mockito.internal.stubbing.answers.ReturnsArgumentAt;
 import org.mockito.invocation.Invocation;
 
 import javax.net.ssl.SSLHandshakeException;
+import java.io.ByteArrayOutputStream;
 import java.net.SocketException;
 import java.net.URL;
 import java.security.NoSuchAlgorithmException;
@@ -549,6 +550,48 @@ public class DataSenderImplTest {
         assertMetricWasRecorded(SUPPORTABILITY_METRIC_SPAN_DATA);
     }
 
+    @Test
+    public void testMaxPayloadSizeStreaming() {
+        AgentConfig config = AgentConfigImpl.createAgentConfig(configMap());
+        DataSenderImpl dataSender = new DataSenderImpl(config, getStreamingHttpClientWrapper(), null, logger, ServiceFactory.getConfigService());
+
+        dataSender.setAgentRunId("AgentRunId");
+        dataSender.setMaxPayloadSizeInBytes(200);
+        dataSender.setStreamPayloads(true);
+
+        sendAnalyticEventsPayloadTooBig(dataSender);
+        sendMetricDataPayloadTooBig(dataSender);
+        sendSpanEventsPayloadTooBig(dataSender);
+        sendLogEventsPayloadTooBig(dataSender);
+
+        sendMetricDataSmallPayload(dataSender);
+
+        assertMetricWasRecorded(SUPPORTABILITY_METRIC_METRIC_DATA);
+        assertMetricWasRecorded(SUPPORTABILITY_METRIC_ANALYTIC_DATA);
+        assertMetricWasRecorded(SUPPORTABILITY_METRIC_SPAN_DATA);
+    }
+
+    /**
+     * Writes the request body the way a client that streams it to the connection would.
+     */
+    private HttpClientWrapper getStreamingHttpClientWrapper() {
+        return new HttpClientWrapper() {
+            @Override
+            public ReadResult execute(Request request, ExecuteEventHandler eventHandler) throws Exception {
+                request.getBody().writeTo(new ByteArrayOutputStream());
+                return ReadResult.create(HttpResponseCode.OK, "{}", null);
+            }
+
+            @Override
+            public void captureSupportabilityMetrics(StatsService statsService, String requestHost) {
+            }
+
+            @Override
+            public void shutdown() {
+            }
+        };
+    }
+
     private HttpClientWrapper getProxyAuthenticateFailingWrapper(String proxyAuthenticateHeader) {
         return getHttpClientWrapper(ReadResult.create(
                 HttpResponseCode.PROXY_AUTHENTICATION_REQUIRED,
@@ -0,0 +1,92 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.transport;
+
+import com.google.common.io.ByteStreams;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONValue;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+public class JsonPayloadTest {
+
+    @Test
+    public void identity() throws Exception {
+        JSONArray params = createParams(10);
+        byte[] written = write(new JsonPayload(params, "identity", JsonPayload.NO_LIMIT));
+        Assert.assertEquals(JSONValue.toJSONString(params), new String(written, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void deflate() throws Exception {
+        JSONArray params = createParams(1000);
+        JsonPayload payload = new JsonPayload(params, DataSenderImpl.DEFLATE_ENCODING, JsonPayload.NO_LIMIT);
+        byte[] written = write(payload);
+
+        Assert.assertEquals(written.length, payload.getPayloadSizeInBytes());
+        Assert.assertEquals(JSONValue.toJSONString(params), decode(new InflaterInputStream(new ByteArrayInputStream(written))));
+    }
+
+    @Test
+    public void gzip() throws Exception {
+        JSONArray params = createParams(1000);
+        JsonPayload payload = new JsonPayload(params, DataSenderImpl.GZIP_ENCODING, JsonPayload.NO_LIMIT);
+        byte[] written = write(payload);
+
+        Assert.assertEquals(JSONValue.toJSONString(params), decode(new GZIPInputStream(new ByteArrayInputStream(written))));
+        // the payload is serialized again every time it is written
+        Assert.assertArrayEquals(written, write(payload));
+    }
+
+    @Test(expected = PayloadSizeExceededException.class)
+    public void maxPayloadSize() throws Exception {
+        write(new JsonPayload(createParams(1000), "identity", 100));
+    }
+
+    @Test
+    public void requestGetDataBuffersBody() {
+        JSONArray params = createParams(10);
+        HttpClientWrapper.Request request = new HttpClientWrapper.Request()
+                .setBody(new JsonPayload(params, "identity", JsonPayload.NO_LIMIT));
+        Assert.assertEquals(JSONValue.toJSONString(params), new String(request.getData(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void jsonSize() {
+        JSONArray params = createParams(10);
+        Assert.assertEquals(DataSenderWriter.toJSONString(params).getBytes(StandardCharsets.UTF_8).length,
+                DataSenderWriter.getJSONSize(params));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONArray createParams(int size) {
+        JSONArray params = new JSONArray();
+        for (int i = 0; i < size; i++) {
+            params.add("value" + i);
+        }
+        return params;
+    }
+
+    private static byte[] write(JsonPayload payload) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        payload.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static String decode(InputStream in) throws Exception {
+        return new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+    }
+
+}
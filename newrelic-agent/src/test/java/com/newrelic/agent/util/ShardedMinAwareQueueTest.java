@@ -0,0 +1,178 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.util;
+
+import com.newrelic.agent.model.PriorityAware;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+public class ShardedMinAwareQueueTest {
+
+    private static final Comparator<Event> COMPARATOR = (left, right) -> Float.compare(right.getPriority(), left.getPriority());
+
+    @Test
+    public void shardCountIsPowerOfTwo() {
+        Assert.assertEquals(1, new ShardedMinAwareQueue<>(10, COMPARATOR, 0).getShardCount());
+        Assert.assertEquals(8, new ShardedMinAwareQueue<>(10, COMPARATOR, 5).getShardCount());
+        Assert.assertEquals(64, new ShardedMinAwareQueue<>(10, COMPARATOR, 1000).getShardCount());
+    }
+
+    @Test
+    public void keepsHighestPriorities() {
+        ShardedMinAwareQueue<Event> queue = new ShardedMinAwareQueue<>(5, COMPARATOR, 4);
+        for (float priority : new float[] { 1.2f, 0.1f, 1.3f, 1.4f, 1.5f, 1.6f, 0.7f, 2.3f }) {
+            queue.offer(new Event(priority));
+        }
+
+        Assert.assertEquals(5, queue.size());
+        Assert.assertEquals(2.3f, queue.peek().getPriority(), 0);
+        Assert.assertTrue(queue.peekLast().getPriority() <= 1.3f);
+        assertPriorities(queue.toArray(), 2.3f, 1.6f, 1.5f, 1.4f, 1.3f);
+
+        Assert.assertFalse(queue.offer(new Event(0.2f)));
+        Assert.assertEquals(2.3f, queue.poll().getPriority(), 0);
+        Assert.assertEquals(1.6f, queue.poll().getPriority(), 0);
+        Assert.assertEquals(3, queue.size());
+    }
+
+    @Test
+    public void clear() {
+        ShardedMinAwareQueue<Event> queue = new ShardedMinAwareQueue<>(2, COMPARATOR, 2);
+        queue.offer(new Event(1.0f));
+        queue.offer(new Event(1.1f));
+        queue.offer(new Event(1.2f));
+        queue.clear();
+
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertNull(queue.peek());
+        Assert.assertNull(queue.peekLast());
+        Assert.assertTrue(queue.offer(new Event(0.1f)));
+        Assert.assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void concurrentOffersKeepTopN() throws Exception {
+        final int reservoirSize = 100;
+        final int threads = 8;
+        final int eventsPerThread = 5000;
+        final ShardedMinAwareQueue<Event> queue = new ShardedMinAwareQueue<>(reservoirSize, COMPARATOR, 4);
+        List<Event> all = new ArrayList<>();
+        for (int i = 0; i < threads * eventsPerThread; i++) {
+            all.add(new Event(2.0f * i / (threads * eventsPerThread)));
+        }
+        Collections.shuffle(all, new Random(42));
+        final List<List<Event>> offered = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            offered.add(all.subList(t * eventsPerThread, (t + 1) * eventsPerThread));
+        }
+
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (final List<Event> events : offered) {
+            Thread worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (Event event : events) {
+                        queue.offer(event);
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        List<Event> expected = new ArrayList<>(all);
+        Collections.sort(expected, COMPARATOR);
+        expected = expected.subList(0, reservoirSize);
+
+        Assert.assertEquals(reservoirSize, queue.size());
+        Assert.assertArrayEquals(expected.toArray(), queue.toArray());
+        Assert.assertTrue(queue.peekLast().getPriority() <= expected.get(reservoirSize - 1).getPriority());
+    }
+
+    @Test
+    public void skewedConcurrentOffersRetainOnlyReservoirSize() throws Exception {
+        final int reservoirSize = 100;
+        final int threads = 8;
+        final int eventsPerThread = 5000;
+        final ShardedMinAwareQueue<Event> queue = new ShardedMinAwareQueue<>(reservoirSize, COMPARATOR, 64);
+        final CountDownLatch start = new CountDownLatch(1);
+        final int[] maxRetained = new int[threads];
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            Thread worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    // every thread offers rising priorities, so no offer can be rejected by the floor of another shard
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        queue.offer(new Event(2.0f * i / eventsPerThread + thread * 0.00001f));
+                        maxRetained[thread] = Math.max(maxRetained[thread], queue.getRetainedSize());
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Assert.assertEquals(reservoirSize, queue.getRetainedSize());
+        Assert.assertEquals(reservoirSize, queue.size());
+        for (int retained : maxRetained) {
+            // offers in flight can add before they evict, but nowhere near a full reservoir per shard
+            Assert.assertTrue("retained " + retained, retained <= 2 * reservoirSize);
+        }
+        Object[] events = queue.toArray();
+        Assert.assertTrue(((Event) events[reservoirSize - 1]).getPriority() >= 2.0f * (eventsPerThread - reservoirSize / threads - 1) / eventsPerThread);
+    }
+
+    private static void assertPriorities(Object[] events, float... priorities) {
+        Assert.assertEquals(priorities.length, events.length);
+        for (int i = 0; i < priorities.length; i++) {
+            Assert.assertEquals(priorities[i], ((Event) events[i]).getPriority(), 0);
+        }
+    }
+
+    private static final class Event implements PriorityAware {
+        private final float priority;
+
+        Event(float priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public float getPriority() {
+            return priority;
+        }
+    }
+
+}
@@ -0,0 +1,244 @@
+/*
+ *
+ *  * Copyright 2026 New Relic Corporation. All rights reserved.
+ *  * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package com.newrelic.agent.profile.v2;
+
+import com.newrelic.agent.MockServiceManager;
+import com.newrelic.agent.ThreadService;
+import com.newrelic.agent.profile.ProfilerParameters;
+import com.newrelic.agent.profile.ThreadType;
+import com.newrelic.agent.service.ServiceFactory;
+import com.newrelic.agent.threads.BasicThreadInfo;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JfrProfileSamplerTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MICROS = TimeUnit.MICROSECONDS.toNanos(1);
+
+    private final ProfilerParameters parameters = new ProfilerParameters(0L, 100L, 60_000L, false, false, false, null, null);
+    private JfrProfileSampler sampler;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        MockServiceManager serviceManager = new MockServiceManager();
+        ServiceFactory.setServiceManager(serviceManager);
+        serviceManager.setThreadService(new ThreadService());
+    }
+
+    @Before
+    public void before() {
+        Assume.assumeTrue(FlightRecorder.isAvailable());
+        sampler = new JfrProfileSampler();
+    }
+
+    @After
+    public void after() {
+        if (sampler != null) {
+            sampler.stop(Collections.<IProfile>emptyList());
+        }
+    }
+
+    @Test
+    public void observedSamplePeriod() {
+        // three threads sampled every 20ms, with an idle period in which no thread was running
+        long[] times = {
+                0, 100 * MICROS, 200 * MICROS,
+                20 * MILLIS, 20 * MILLIS + 150 * MICROS,
+                80 * MILLIS, 80 * MILLIS + 100 * MICROS, 80 * MILLIS + 300 * MICROS,
+                100 * MILLIS };
+        Assert.assertEquals(20 * MILLIS, JfrProfileSampler.observedSamplePeriodNanos(times));
+
+        long[] unsorted = { 100 * MILLIS, 0, 80 * MILLIS, 20 * MILLIS };
+        Assert.assertEquals(20 * MILLIS, JfrProfileSampler.observedSamplePeriodNanos(unsorted));
+
+        // the threads of one round, sampled one after the other
+        long[] oneRound = { 0, 400 * MICROS, 800 * MICROS, 1200 * MICROS };
+        Assert.assertEquals(0, JfrProfileSampler.observedSamplePeriodNanos(oneRound));
+        Assert.assertEquals(0, JfrProfileSampler.observedSamplePeriodNanos(new long[0]));
+    }
+
+    @Test
+    public void countSamplesAtObservedPeriod() {
+        sampler.start(parameters);
+        IProfile profile = mockProfile();
+        List<IProfile> profiles = Collections.singletonList(profile);
+
+        // another recording made JFR sample every 20ms instead of every 100ms
+        Assert.assertEquals(50, sampler.countSamples(profiles, Duration.ofSeconds(1), roundsEvery(20 * MILLIS, 50)));
+        verify(profile, times(50)).beforeSampling();
+
+        // a window without samples uses the last period that was seen
+        Assert.assertEquals(5, sampler.countSamples(profiles, Duration.ofMillis(110), new long[0]));
+        // the 10ms left over from the last window are counted
+        Assert.assertEquals(1, sampler.countSamples(profiles, Duration.ofMillis(10), new long[0]));
+
+        // rounds that are further apart than the profiler's period are idle periods
+        Assert.assertEquals(10, sampler.countSamples(profiles, Duration.ofSeconds(1), roundsEvery(200 * MILLIS, 5)));
+    }
+
+    @Test
+    public void isInWindow() {
+        Instant start = Instant.ofEpochSecond(100);
+        Instant end = start.plusSeconds(10);
+        Assert.assertTrue(JfrProfileSampler.isInWindow(start, start, end));
+        Assert.assertTrue(JfrProfileSampler.isInWindow(end.minusNanos(1), start, end));
+        Assert.assertFalse(JfrProfileSampler.isInWindow(start.minusNanos(1), start, end));
+        Assert.assertFalse(JfrProfileSampler.isInWindow(end, start, end));
+    }
+
+    @Test
+    public void addEventsOnceAcrossWindows() throws Exception {
+        Path file = recordExecutionSamples();
+        try {
+            List<Instant> sampleTimes = new ArrayList<>();
+            try (RecordingFile recordingFile = new RecordingFile(file)) {
+                while (recordingFile.hasMoreEvents()) {
+                    RecordedEvent event = recordingFile.readEvent();
+                    if ("jdk.ExecutionSample".equals(event.getEventType().getName()) && event.getStackTrace() != null) {
+                        sampleTimes.add(event.getStartTime());
+                    }
+                }
+            }
+            Assume.assumeTrue(sampleTimes.size() > 1);
+            Collections.sort(sampleTimes);
+            Instant first = sampleTimes.get(0);
+            Instant split = sampleTimes.get(sampleTimes.size() / 2);
+            Instant end = sampleTimes.get(sampleTimes.size() - 1).plusNanos(1);
+
+            IProfile allProfile = mockProfile();
+            long[] all = sampler.addEvents(file, Collections.singletonList(allProfile), first, end,
+                    Collections.<Long>emptySet());
+            Assert.assertEquals(sampleTimes.size(), all.length);
+
+            // the drains read the windows before and after the split, each sample is added by one of them
+            IProfile profile = mockProfile();
+            long[] before = sampler.addEvents(file, Collections.singletonList(profile), first, split,
+                    Collections.<Long>emptySet());
+            long[] after = sampler.addEvents(file, Collections.singletonList(profile), split, end,
+                    Collections.<Long>emptySet());
+            int samplesBeforeSplit = 0;
+            for (Instant time : sampleTimes) {
+                samplesBeforeSplit += time.isBefore(split) ? 1 : 0;
+            }
+            Assert.assertEquals(samplesBeforeSplit, before.length);
+            Assert.assertEquals(sampleTimes.size(), before.length + after.length);
+            long splitNanos = TimeUnit.SECONDS.toNanos(split.getEpochSecond()) + split.getNano();
+            for (long time : before) {
+                Assert.assertTrue(time < splitNanos);
+            }
+            for (long time : after) {
+                Assert.assertTrue(time >= splitNanos);
+            }
+            verify(profile, times(sampleTimes.size())).addStackTrace(any(BasicThreadInfo.class),
+                    any(StackTraceElement[].class), anyBoolean(), any(ThreadType.class));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void toStackTrace() {
+        RecordedFrame nativeFrame = mockFrame("java.net.SocketInputStream", "socketRead0", "Native", -1);
+        RecordedFrame jitFrame = mockFrame("com.acme.Rocket", "launch", "JIT compiled", 12);
+        RecordedFrame interpretedFrame = mockFrame("com.acme.Main", "main", "Interpreted", 5);
+
+        StackTraceElement[] stackTrace = JfrProfileSampler.toStackTrace(List.of(jitFrame, interpretedFrame), false);
+        Assert.assertEquals(2, stackTrace.length);
+        Assert.assertEquals(new StackTraceElement("com.acme.Rocket", "launch", null, 12), stackTrace[0]);
+        Assert.assertEquals(new StackTraceElement("com.acme.Main", "main", null, 5), stackTrace[1]);
+
+        // the leaf frame of a native method sample is the native method
+        stackTrace = JfrProfileSampler.toStackTrace(List.of(jitFrame, interpretedFrame), true);
+        Assert.assertEquals(-2, stackTrace[0].getLineNumber());
+        Assert.assertTrue(stackTrace[0].isNativeMethod());
+        Assert.assertEquals(5, stackTrace[1].getLineNumber());
+
+        stackTrace = JfrProfileSampler.toStackTrace(List.of(nativeFrame, interpretedFrame), false);
+        Assert.assertTrue(stackTrace[0].isNativeMethod());
+
+        List<RecordedFrame> deepFrames = Collections.nCopies(ProfileSampler.MAX_STACK_DEPTH + 10, interpretedFrame);
+        Assert.assertEquals(ProfileSampler.MAX_STACK_DEPTH, JfrProfileSampler.toStackTrace(deepFrames, false).length);
+    }
+
+    private IProfile mockProfile() {
+        IProfile profile = mock(IProfile.class);
+        when(profile.getProfilerParameters()).thenReturn(parameters);
+        return profile;
+    }
+
+    private static long[] roundsEvery(long periodNanos, int rounds) {
+        long[] times = new long[rounds * 2];
+        for (int i = 0; i < rounds; i++) {
+            times[2 * i] = i * periodNanos;
+            times[2 * i + 1] = i * periodNanos + 100 * MICROS;
+        }
+        return times;
+    }
+
+    private static RecordedFrame mockFrame(String className, String methodName, String type, int lineNumber) {
+        RecordedClass recordedClass = mock(RecordedClass.class);
+        when(recordedClass.getName()).thenReturn(className);
+        RecordedMethod method = mock(RecordedMethod.class);
+        when(method.getType()).thenReturn(recordedClass);
+        when(method.getName()).thenReturn(methodName);
+        RecordedFrame frame = mock(RecordedFrame.class);
+        when(frame.getMethod()).thenReturn(method);
+        when(frame.getType()).thenReturn(type);
+        when(frame.getLineNumber()).thenReturn(lineNumber);
+        return frame;
+    }
+
+    /**
+     * Records execution samples of a busy thread into a small recording file.
+     */
+    private static Path recordExecutionSamples() throws Exception {
+        Path file = Files.createTempFile("nr-profiler-test-", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(10)).withStackTrace();
+            recording.start();
+            long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+            long value = 0;
+            while (System.nanoTime() < until) {
+                value += Long.numberOfTrailingZeros(value + System.nanoTime());
+            }
+            Assert.assertTrue(value >= 0);
+            recording.stop();
+            recording.dump(file);
+        }
+        return file;
+    }
+
+}
@@ -22,6 +22,7 @@ import java.util.Set;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarInputStream;
+import java.util.jar.Manifest;
 
 /**
  * Rather than process the entire weave jar, this weave package stores a list of reference and illegal class names. When
@@ -54,31 +55,44 @@ public class CachedWeavePackage extends WeavePackage {
 
     public static WeavePackage createWeavePackage(URL jarLocation, JarInputStream jarStream, WeavePackageConfig config)
             throws Exception {
-        Attributes attributes = jarStream.getManifest().getMainAttributes();
+        WeavePackage weavePackage = createWeavePackage(jarLocation, jarStream.getManifest(), config);
+        if (weavePackage == null) {
+            return WeavePackage.createWeavePackage(jarStream, config);
+        }
+        return weavePackage;
+    }
+
+    /**
+     * Create a weave package from the manifest of the jar at {@code jarLocation} without reading the jar. The jar is
+     * only read if the package has to be fully loaded later on.
+     *
+     * @return the weave package, or null if the manifest does not list the weave classes and methods of the package
+     */
+    public static CachedWeavePackage createWeavePackage(URL jarLocation, Manifest manifest, WeavePackageConfig config) {
+        Attributes attributes = manifest.getMainAttributes();
         String weaveMethods = attributes.getValue(WEAVE_METHODS_MANIFEST_ATTRIBUTE_NAME);
         String weaveClasses = attributes.getValue(WEAVE_CLASSES_MANIFEST_ATTRIBUTE_NAME);
         String classRequiredAnnotations = attributes.getValue(CLASS_REQUIRED_ANNOTATIONS_MANIFEST_ATTRIBUTE_NAME);
         String methodRequiredAnnotations = attributes.getValue(METHOD_REQUIRED_ANNOTATIONS_MANIFEST_ATTRIBUTE_NAME);
         if (weaveMethods == null || weaveClasses == null || classRequiredAnnotations == null || methodRequiredAnnotations == null) {
-            return WeavePackage.createWeavePackage(jarStream, config);
-        } else {
-            String referenceClasses = attributes.getValue(REFERENCE_CLASSES_MANIFEST_ATTRIBUTE_NAME);
-            String illegalClasses = attributes.getValue(ILLEGAL_CLASSES_MANIFEST_ATTRIBUTE_NAME);
+            return null;
+        }
+        String referenceClasses = attributes.getValue(REFERENCE_CLASSES_MANIFEST_ATTRIBUTE_NAME);
+        String illegalClasses = attributes.getValue(ILLEGAL_CLASSES_MANIFEST_ATTRIBUTE_NAME);
 
-            Set<String> weaveMethodsList = new HashSet<>();
-            for (String weaveMethod : splitter.split(weaveMethods)) {
-                weaveMethodsList.add(weaveMethod.replaceAll("\"", ""));
-            }
+        Set<String> weaveMethodsList = new HashSet<>();
+        for (String weaveMethod : splitter.split(weaveMethods)) {
+            weaveMethodsList.add(weaveMethod.replaceAll("\"", ""));
+        }
 
-            Set<String> weaveClassesList = Sets.newHashSet(splitter.split(weaveClasses));
-            Set<String> referenceList = Sets.newHashSet(splitter.split(referenceClasses));
-            Set<String> classAnnotationsList = Sets.newHashSet(splitter.split(classRequiredAnnotations));
-            Set<String> methodAnnotationsList = Sets.newHashSet(splitter.split(methodRequiredAnnotations));
-            Set<String> illegalList = illegalClasses == null ? null : Sets.newHashSet(splitter.split(illegalClasses));
+        Set<String> weaveClassesList = Sets.newHashSet(splitter.split(weaveClasses));
+        Set<String> referenceList = Sets.newHashSet(splitter.split(referenceClasses));
+        Set<String> classAnnotationsList = Sets.newHashSet(splitter.split(classRequiredAnnotations));
+        Set<String> methodAnnotationsList = Sets.newHashSet(splitter.split(methodRequiredAnnotations));
+        Set<String> illegalList = illegalClasses == null ? null : Sets.newHashSet(splitter.split(illegalClasses));
 
-            return new CachedWeavePackage(jarLocation, config, weaveMethodsList, weaveClassesList, referenceList,
-                    illegalList, classAnnotationsList, methodAnnotationsList);
-        }
+        return new CachedWeavePackage(jarLocation, config, weaveMethodsList, weaveClassesList, referenceList,
+                illegalList, classAnnotationsList, methodAnnotationsList);
     }
 
     CachedWeavePackage(URL jarLocation, WeavePackageConfig config, Set<String> weaveMethods, Set<String> weaveClasses,
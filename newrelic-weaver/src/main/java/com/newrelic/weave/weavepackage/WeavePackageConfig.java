@@ -17,6 +17,7 @@ import java.net.URL;
 import java.util.EnumSet;
 import java.util.jar.Attributes;
 import java.util.jar.JarInputStream;
+import java.util.jar.Manifest;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -278,10 +279,21 @@ public class WeavePackageConfig implements Comparable<WeavePackageConfig>{
          * @throws Exception If the jar's manifest is incorrect or absent, or if the jar cannot be read.
          */
         public Builder jarInputStream(JarInputStream jarStream) throws Exception {
-            if (jarStream.getManifest() == null) {
+            return this.manifest(jarStream.getManifest());
+        }
+
+        /**
+         * Use an instrumentation jar's manifest to set builder parameters.
+         *
+         * @param manifest the manifest to build from.
+         * @return Builder with updated state.
+         * @throws Exception If the manifest is incorrect or absent.
+         */
+        public Builder manifest(Manifest manifest) throws Exception {
+            if (manifest == null) {
                 throw new IOException("The instrumentation jar did not contain a manifest");
             }
-            Attributes mainAttributes = jarStream.getManifest().getMainAttributes();
+            Attributes mainAttributes = manifest.getMainAttributes();
             String name = mainAttributes.getValue("Implementation-Title");
             if (name == null) {
                 throw new Exception("The Implementation-Title of an instrumentation package is undefined");
@@ -7,7 +7,10 @@
 
 package com.newrelic.weave.weavepackage;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -15,6 +18,8 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Collections;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
 
 import com.newrelic.weave.utils.ClassCache;
 import com.newrelic.weave.utils.ClassLoaderFinder;
@@ -73,6 +78,26 @@ public class CachedWeavePackageTest {
         assertFalse(weavePackage.hasMatcher("one", new String[] { "two" }, new String[] { "someclassname" }, Collections.<String>emptySet(), Collections.<String>emptySet(), null ));
     }
 
+    @Test
+    public void testCreateFromManifest() throws Exception {
+        WeavePackageConfig config = WeavePackageConfig.builder().name("name").source("source").build();
+        Manifest manifest = new Manifest();
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.putValue("Implementation-Title", "name");
+        assertNull(CachedWeavePackage.createWeavePackage(new URL("http://does.not.exist"), manifest, config));
+
+        attributes.putValue(CachedWeavePackage.WEAVE_METHODS_MANIFEST_ATTRIBUTE_NAME, "\"somemethod()V\"");
+        attributes.putValue(CachedWeavePackage.WEAVE_CLASSES_MANIFEST_ATTRIBUTE_NAME, "someclassname");
+        attributes.putValue(CachedWeavePackage.REFERENCE_CLASSES_MANIFEST_ATTRIBUTE_NAME, "someclassname,otherclassname");
+        attributes.putValue(CachedWeavePackage.CLASS_REQUIRED_ANNOTATIONS_MANIFEST_ATTRIBUTE_NAME, "");
+        attributes.putValue(CachedWeavePackage.METHOD_REQUIRED_ANNOTATIONS_MANIFEST_ATTRIBUTE_NAME, "");
+        CachedWeavePackage weavePackage = CachedWeavePackage.createWeavePackage(new URL("http://does.not.exist"), manifest, config);
+        assertNotNull(weavePackage);
+        assertEquals(ImmutableSet.of("somemethod()V"), weavePackage.getMethodSignatures());
+        assertEquals(ImmutableSet.of("someclassname", "otherclassname"), weavePackage.getRequiredClasses());
+        assertFalse(weavePackage.hasMatcher("one", new String[] { "two" }, new String[] { "three" }, Collections.<String>emptySet(), Collections.<String>emptySet(), null));
+    }
+
     @Test
     public void testWeavesBootstrap() throws MalformedURLException {
         CachedWeavePackage weavePackage = new CachedWeavePackage(new URL("http://www.newrelic.com"),